@@ -12,8 +12,8 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.jfoenix.controls.JFXDrawer;
 import javafx.application.Platform;
@@ -34,11 +34,8 @@ import javafx.stage.FileChooser;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.StyleClassedTextArea;
-import proj10LoverudeTymkiwCorrell.bantam.ast.Program;
-import proj10LoverudeTymkiwCorrell.bantam.parser.Parser;
-import proj10LoverudeTymkiwCorrell.bantam.semant.SemanticAnalyzer;
+import proj10LoverudeTymkiwCorrell.bantam.driver.IncrementalChecker;
 import proj10LoverudeTymkiwCorrell.bantam.util.CompilationException;
-import proj10LoverudeTymkiwCorrell.bantam.util.Error;
 import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
 import proj10LoverudeTymkiwCorrell.bantam.transpiler.Transpiler;
 
@@ -66,6 +63,8 @@ public class Controller {
     private final HashMap<Tab,String> tabToFilePathMap = new HashMap<>();
     //list of filepath and the corresponding tab
     private final HashMap<String,Tab> filePathToTabMap = new HashMap<>();
+    // list of checked tabs and the checker that keeps the AST of their last check
+    private final HashMap<Tab,IncrementalChecker> tabToCheckerMap = new HashMap<>();
 
     // Class DialogHelper handling all dialog instantiation
     private final DialogHelper dialogHelper = new DialogHelper();
@@ -417,6 +416,7 @@ public class Controller {
         }
         // remove tab from tabPane if text is saved or user chooses NO
         this.tabToContentsMap.remove(getSelectedTab());
+        this.tabToCheckerMap.remove(getSelectedTab());
         this.filePathToTabMap.remove(this.tabToFilePathMap.get(getSelectedTab()));
         this.tabToFilePathMap.remove(getSelectedTab());
         tabPane.getTabs().remove(getSelectedTab());
@@ -908,14 +908,17 @@ public class Controller {
         //get file name
         String filepath = this.tabToFilePathMap.get(getSelectedTab());
 
-        //create error handler
-        ErrorHandler errorHandler = new ErrorHandler();
-        Parser parser = new Parser(errorHandler);
-        SemanticAnalyzer analyzer = new SemanticAnalyzer(errorHandler);
+        // get the checker of the tab, which reparses and reanalyzes only what was
+        // edited since the last check, or a new one if the file was renamed
+        IncrementalChecker checker = this.tabToCheckerMap.get(getSelectedTab());
+        if (checker == null || !checker.getFilename().equals(filepath)) {
+            checker = new IncrementalChecker(filepath, new ErrorHandler());
+            this.tabToCheckerMap.put(getSelectedTab(), checker);
+        }
+        ErrorHandler.Listener listener = streamErrorsToConsole(checker.getErrorHandler());
 
         try {
-            Program program = parser.parse(filepath);
-            analyzer.analyze(program);
+            checker.check(getSelectedTextBox().getText());
             try{
                 //send message to Console
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -929,30 +932,37 @@ public class Controller {
                 dialogHelper.getAlert("Compile Error", ioEx.getMessage()).show();
             }
         } catch (CompilationException ex) {
-            //Print errors to console
+            // the errors were already sent to the console as they were found
             isLegalBantam = false;
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            try{
-                baos.write("\nThere were errors:".getBytes());
-            }
-            catch(Exception eX){
-                dialogHelper.getAlert("Compile Error", eX.getMessage()).show();
-            }
+        } finally {
+            checker.getErrorHandler().removeListener(listener);
+        }
+    }
 
-            List<Error> errors = errorHandler.getErrorList();
-            try{
-                for (Error error : errors) {
-                    baos.write(error.toString().getBytes());
-                    byte[] bytes = baos.toByteArray();
-                    InputStream ioStream = new ByteArrayInputStream(bytes);
-                    sendInputFromStreamToConsole(this.ideConsole, ioStream);
-                }
-            }
-            catch(Exception ioEx){
-                dialogHelper.getAlert("Compile Error", ioEx.getMessage()).show();
+    /**
+     * Sends each error registered with an ErrorHandler to the console as soon as
+     * it is found, after a line saying that there were errors.
+     *
+     * @param errorHandler the ErrorHandler whose errors are shown
+     * @return the listener added to the ErrorHandler, to be removed once the
+     *         check is over
+     */
+    private ErrorHandler.Listener streamErrorsToConsole(ErrorHandler errorHandler) {
+        AtomicBoolean headerShown = new AtomicBoolean(false);
+        ErrorHandler.Listener listener = error -> {
+            String text = "\n" + error.toString();
+            if (!headerShown.getAndSet(true)) {
+                text = "\nThere were errors:" + text;
             }
-
-        }
+            String result = text;
+            Platform.runLater(() -> {
+                this.ideConsole.appendText(result);
+                this.ideConsole.moveTo(this.ideConsole.getLength());
+                this.ideConsole.requestFollowCaret();
+            });
+        };
+        errorHandler.addListener(listener);
+        return listener;
     }
 
     /**
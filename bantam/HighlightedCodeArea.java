@@ -8,92 +8,45 @@
 
 package proj10LoverudeTymkiwCorrell;
 
-import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-import javafx.concurrent.Task;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.LineNumberFactory;
+import org.fxmisc.richtext.model.PlainTextChange;
 import org.fxmisc.richtext.model.StyleSpans;
 import org.fxmisc.richtext.model.StyleSpansBuilder;
 import org.reactfx.Subscription;
+import proj10LoverudeTymkiwCorrell.bantam.lexer.IncrementalLexer;
+import proj10LoverudeTymkiwCorrell.bantam.lexer.Keywords;
+import proj10LoverudeTymkiwCorrell.bantam.lexer.TokenBuffer;
 
 
 /**
  * Customize the CodeArea.
  * Code is from JavaKeywordsAsyncDemo.java in RichTextFX package,
  * and is modified.
+ *
+ * The text is kept tokenized by an IncrementalLexer, so the styles follow the
+ * tokens of Bantam Java exactly as the Scanner sees them.  Every edit rescans only
+ * the lines it damaged, and only the style spans of that range are replaced.
  */
 public class HighlightedCodeArea {
 
-    // added new keyword "var"
-    private static final String[] KEYWORDS = new String[] {
-            "abstract", "assert", "boolean", "break", "byte",
-            "case", "catch", "char", "class", "const",
-            "continue", "default", "do", "double", "else",
-            "enum", "extends", "final", "finally", "float",
-            "for", "goto", "if", "implements", "import",
-            "instanceof", "int", "interface", "long", "native",
-            "new", "package", "private", "protected", "public",
-            "return", "short", "static", "strictfp", "super",
-            "switch", "synchronized", "this", "throw", "throws",
-            "transient", "try", "void", "volatile", "while", "var"
-    };
-
-    private static final String KEYWORD_PATTERN = "\\b("
-            + String.join("|", KEYWORDS) + ")\\b";
-    private static final String PAREN_PATTERN = "[()]";
-    private static final String BRACE_PATTERN = "[{}]";
-    private static final String BRACKET_PATTERN = "\\[|\\]";
-    private static final String SEMICOLON_PATTERN = ";";
-    private static final String STRING_PATTERN = "\"([^\"\\\\]|\\\\.)*\"";
-    private static final String COMMENT_PATTERN = "//[^\n]*"
-            + "|" + "/\\*(.|\\R)*?\\*/";
-    // added: pattern for integer constant
-    private static final String INTEGER_PATTERN = "(?<![\\w\\.])[+-]?\\d+(?![\\w\\.])";
-
-    private static final Pattern PATTERN = Pattern.compile(
-            "(?<KEYWORD>" + KEYWORD_PATTERN + ")"
-                    + "|(?<PAREN>" + PAREN_PATTERN + ")"
-                    + "|(?<BRACE>" + BRACE_PATTERN + ")"
-                    + "|(?<BRACKET>" + BRACKET_PATTERN + ")"
-                    + "|(?<SEMICOLON>" + SEMICOLON_PATTERN + ")"
-                    + "|(?<STRING>" + STRING_PATTERN + ")"
-                    + "|(?<COMMENT>" + COMMENT_PATTERN + ")"
-                    + "|(?<INTEGER>" + INTEGER_PATTERN + ")"
-    );
-
     private final CodeArea codeArea;
-    private final ExecutorService executor;
+    private final IncrementalLexer lexer;
 
     /**
-     * Constructor that initialized the codeArea field and executor
+     * Constructor that initialized the codeArea field and the lexer
      * and does the customization by calling helper functions.
      */
     public HighlightedCodeArea() {
-        executor = Executors.newSingleThreadExecutor();
+        lexer = new IncrementalLexer();
         codeArea = new CodeArea();
         codeArea.setParagraphGraphicFactory(LineNumberFactory.get(codeArea));
-        Subscription cleanupWhenDone = codeArea.multiPlainChanges()
-                .successionEnds(Duration.ofMillis(500))
-                .retainLatestUntilLater(executor)
-                .supplyTask(this::computeHighlightingAsync)
-                .awaitLatest(codeArea.multiPlainChanges())
-                .filterMap(t -> {
-                    if(t.isSuccess()) {
-                        return Optional.of(t.get());
-                    } else {
-                        t.getFailure().printStackTrace();
-                        return Optional.empty();
-                    }
-                })
-                .subscribe(this::applyHighlighting);
+        Subscription cleanupWhenDone = codeArea.plainTextChanges()
+                .filter(change -> !change.isIdentity())
+                .subscribe(this::applyChange);
 
         // call when no longer need it: `cleanupWhenFinished.unsubscribe();`
     }
@@ -108,59 +61,102 @@ public class HighlightedCodeArea {
     }
 
     /**
-     * Computes highlighting asynchrounously and calls {@code computeHighlighting}.
+     * Passes an edit of the text to the lexer and restyles the range it damaged.
+     * If the lexer has somehow lost track of the text, the whole text is rescanned.
      *
-     * @return  A fully observable implementation of a FutureTask.
+     * @param change the edit
      */
-    private Task<StyleSpans<Collection<String>>> computeHighlightingAsync() {
-        String text = codeArea.getText();
-        Task<StyleSpans<Collection<String>>> task =
-                new Task<StyleSpans<Collection<String>>>() {
-                    @Override
-                    protected StyleSpans<Collection<String>> call() throws Exception {
-                        return computeHighlighting(text);
-                    }
-                };
-        executor.execute(task);
-        return task;
+    private void applyChange(PlainTextChange change) {
+        IncrementalLexer.Damage damage;
+        if (change.getRemovalEnd() <= lexer.getLength()) {
+            damage = lexer.edit(change.getPosition(), change.getRemoved().length(),
+                    change.getInserted());
+        }
+        else {
+            damage = lexer.setText(codeArea.getText());
+        }
+        if (lexer.getLength() != codeArea.getLength()) {
+            damage = lexer.setText(codeArea.getText());
+        }
+        applyHighlighting(damage);
     }
 
     /**
-     * Gets called in the constructor to apply highlighting.
-     * @param highlighting Is a styleSpan of colections from strings
+     * Replaces the style spans of the damaged range.
+     * @param damage the range that was rescanned and its tokens
      */
-    private void applyHighlighting(StyleSpans<Collection<String>> highlighting) {
-        codeArea.setStyleSpans(0, highlighting);
+    private void applyHighlighting(IncrementalLexer.Damage damage) {
+        if (damage.getEnd() > damage.getStart()) {
+            codeArea.setStyleSpans(damage.getStart(), computeHighlighting(damage));
+        }
     }
 
     /**
-     * Matches given text with defined patterns stored in the fields and computes
-     * highlighting.
+     * Computes the style spans of a rescanned range from its tokens.
      *
-     * @return  StyleSpans<Collection<String>>
+     * @param damage the range that was rescanned and its tokens
+     * @return  StyleSpans<Collection<String>> covering the range
      */
-    private static StyleSpans<Collection<String>> computeHighlighting(String text) {
-        Matcher matcher = PATTERN.matcher(text);
-        int lastKwEnd = 0;
+    private static StyleSpans<Collection<String>> computeHighlighting(
+            IncrementalLexer.Damage damage) {
+        TokenBuffer tokens = damage.getTokens();
+        int lastKwEnd = damage.getStart();
         StyleSpansBuilder<Collection<String>> spansBuilder
                 = new StyleSpansBuilder<>();
-        while(matcher.find()) {
-            String styleClass =
-                    matcher.group("KEYWORD") != null ? "keyword" :
-                    matcher.group("PAREN") != null ? "paren" :
-                    matcher.group("BRACE") != null ? "brace" :
-                    matcher.group("BRACKET") != null ? "bracket" :
-                    matcher.group("SEMICOLON") != null ? "semicolon" :
-                    matcher.group("STRING") != null ? "string" :
-                    matcher.group("COMMENT") != null ? "comment" :
-                    matcher.group("INTEGER") != null ? "integer" :
-                    null; /* never happens */ assert styleClass != null;
-            spansBuilder.add(Collections.emptyList(), matcher.start() - lastKwEnd);
-            spansBuilder.add(Collections.singleton(styleClass),
-                    matcher.end() - matcher.start());
-            lastKwEnd = matcher.end();
+        for (int i = 0; i < tokens.size(); i++) {
+            String styleClass = getStyleClass(damage, i);
+            if (styleClass == null) {
+                continue;
+            }
+            spansBuilder.add(Collections.emptyList(), tokens.getStart(i) - lastKwEnd);
+            spansBuilder.add(Collections.singleton(styleClass), tokens.getLength(i));
+            lastKwEnd = tokens.getEnd(i);
         }
-        spansBuilder.add(Collections.emptyList(), text.length() - lastKwEnd);
+        spansBuilder.add(Collections.emptyList(), damage.getEnd() - lastKwEnd);
         return spansBuilder.create();
     }
+
+    /**
+     * @param damage the range that was rescanned and its tokens
+     * @param index the index of a token of the range
+     * @return the style class of the token, or null if it is not styled
+     */
+    private static String getStyleClass(IncrementalLexer.Damage damage, int index) {
+        TokenBuffer tokens = damage.getTokens();
+        switch (tokens.getKind(index)) {
+            case LPAREN:
+            case RPAREN:
+                return "paren";
+            case LCURLY:
+            case RCURLY:
+                return "brace";
+            case SEMICOLON:
+                return "semicolon";
+            case STRCONST:
+                return "string";
+            case COMMENT:
+                return "comment";
+            case INTCONST:
+                return "integer";
+            case ERROR:
+                // a string constant that is not legal, or the rest of one
+                // that started on an earlier line
+                if ((index == 0 && damage.getStartState()
+                        == IncrementalLexer.LineState.IN_STRING)
+                        || tokens.getSource()[tokens.getStart(index)] == '"') {
+                    return "string";
+                }
+                return null;
+            case BREAK: case CAST: case CLASS: case VAR: case ELSE: case EXTENDS:
+            case FOR: case IF: case INSTANCEOF: case NEW: case RETURN: case WHILE:
+            case BOOLEAN:
+                return "keyword";
+            case IDENTIFIER:
+                // the primitive types, this, super and null
+                return Keywords.isReservedIdentifier(tokens.getSource(),
+                        tokens.getStart(index), tokens.getLength(index)) ? "keyword" : null;
+            default:
+                return null;
+        }
+    }
 }
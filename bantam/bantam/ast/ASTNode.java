@@ -26,6 +26,7 @@
 
 package proj10LoverudeTymkiwCorrell.bantam.ast;
 
+import proj10LoverudeTymkiwCorrell.bantam.util.SourceRange;
 import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
 
 
@@ -257,6 +258,12 @@ public abstract class ASTNode {
      */
     protected int lineNum;
 
+    /**
+     * The characters of the source file that this AST node covers, packed
+     * by SourceRange (SourceRange.NONE if the node was not parsed from a file)
+     */
+    protected long range = SourceRange.NONE;
+
     /**
      * ASTNode constructor
      *
@@ -275,6 +282,62 @@ public abstract class ASTNode {
         return lineNum;
     }
 
+    /**
+     * Set the line number corresponding to this AST node, such as when lines
+     * are inserted or removed before it
+     *
+     * @param lineNum line number
+     */
+    public void setLineNum(int lineNum) {
+        this.lineNum = lineNum;
+    }
+
+    /**
+     * Get the characters of the source file that this AST node covers
+     *
+     * @return the range packed by SourceRange, or SourceRange.NONE
+     */
+    public long getRange() {
+        return range;
+    }
+
+    /**
+     * Set the characters of the source file that this AST node covers
+     *
+     * @param range the range packed by SourceRange
+     */
+    public void setRange(long range) {
+        this.range = range;
+    }
+
+    /**
+     * Get the offset of the first character of this AST node in its source file
+     *
+     * @return the offset, or -1 if the node was not parsed from a file
+     */
+    public int getStartOffset() {
+        return SourceRange.getStart(range);
+    }
+
+    /**
+     * Get the offset just past the last character of this AST node
+     *
+     * @return the offset, or -1 if the node was not parsed from a file
+     */
+    public int getEndOffset() {
+        return SourceRange.getEnd(range);
+    }
+
+    /**
+     * Get the kind of this node: a small number, one of the constants of
+     * NodeKind, that is the same for all the nodes of a class and different
+     * for nodes of different classes
+     *
+     * @return the kind of this node
+     * @see NodeKind
+     */
+    abstract public int kind();
+
     /**
      * Visitor method
      *
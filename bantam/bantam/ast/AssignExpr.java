@@ -97,6 +97,15 @@ public class AssignExpr extends Expr {
         return expr;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.ASSIGN_EXPR
+     */
+    public int kind() {
+        return NodeKind.ASSIGN_EXPR;
+    }
+
     /**
      * Visitor method
      *
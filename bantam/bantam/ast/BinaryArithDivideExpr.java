@@ -78,6 +78,15 @@ public class BinaryArithDivideExpr extends BinaryArithExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BINARY_ARITH_DIVIDE_EXPR
+     */
+    public int kind() {
+        return NodeKind.BINARY_ARITH_DIVIDE_EXPR;
+    }
+
     /**
      * Visitor method
      *
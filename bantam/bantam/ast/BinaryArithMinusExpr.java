@@ -78,6 +78,15 @@ public class BinaryArithMinusExpr extends BinaryArithExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BINARY_ARITH_MINUS_EXPR
+     */
+    public int kind() {
+        return NodeKind.BINARY_ARITH_MINUS_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -78,6 +78,15 @@ public class BinaryArithPlusExpr extends BinaryArithExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BINARY_ARITH_PLUS_EXPR
+     */
+    public int kind() {
+        return NodeKind.BINARY_ARITH_PLUS_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -78,6 +78,15 @@ public class BinaryArithTimesExpr extends BinaryArithExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BINARY_ARITH_TIMES_EXPR
+     */
+    public int kind() {
+        return NodeKind.BINARY_ARITH_TIMES_EXPR;
+    }
+
     /**
      * Visitor method
      *
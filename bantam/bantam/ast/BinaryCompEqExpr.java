@@ -77,6 +77,15 @@ public class BinaryCompEqExpr extends BinaryCompExpr {
         return null;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BINARY_COMP_EQ_EXPR
+     */
+    public int kind() {
+        return NodeKind.BINARY_COMP_EQ_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -77,6 +77,15 @@ public class BinaryCompLtExpr extends BinaryCompExpr {
         return "int";
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BINARY_COMP_LT_EXPR
+     */
+    public int kind() {
+        return NodeKind.BINARY_COMP_LT_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -78,6 +78,15 @@ public class BinaryLogicAndExpr extends BinaryLogicExpr {
         return "boolean";
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BINARY_LOGIC_AND_EXPR
+     */
+    public int kind() {
+        return NodeKind.BINARY_LOGIC_AND_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -78,6 +78,15 @@ public class BinaryLogicOrExpr extends BinaryLogicExpr {
         return "boolean";
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BINARY_LOGIC_OR_EXPR
+     */
+    public int kind() {
+        return NodeKind.BINARY_LOGIC_OR_EXPR;
+    }
+
     /**
      * Visitor method
      *
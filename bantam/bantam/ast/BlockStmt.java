@@ -62,6 +62,15 @@ public class BlockStmt extends Stmt {
         return stmtList;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BLOCK_STMT
+     */
+    public int kind() {
+        return NodeKind.BLOCK_STMT;
+    }
+
     /**
      * Visitor method
      *
@@ -47,6 +47,15 @@ public class BreakStmt extends Stmt {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.BREAK_STMT
+     */
+    public int kind() {
+        return NodeKind.BREAK_STMT;
+    }
+
     /**
      * Visitor method
      *
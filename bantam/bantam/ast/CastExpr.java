@@ -102,6 +102,15 @@ public class CastExpr extends Expr {
         this.upcast = upcast;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.CAST_EXPR
+     */
+    public int kind() {
+        return NodeKind.CAST_EXPR;
+    }
+
     /**
      * Visitor method
      *
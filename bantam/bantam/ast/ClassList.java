@@ -45,6 +45,15 @@ public class ClassList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.CLASS_LIST
+     */
+    public int kind() {
+        return NodeKind.CLASS_LIST;
+    }
+
     /**
      * Visitor method
      *
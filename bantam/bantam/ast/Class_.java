@@ -111,6 +111,15 @@ public class Class_ extends ASTNode {
         return memberList;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.CLASS
+     */
+    public int kind() {
+        return NodeKind.CLASS;
+    }
+
     /**
      * Visitor method
      *
@@ -49,6 +49,15 @@ public class ConstBooleanExpr extends ConstExpr {
         super(lineNum, constant);
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.CONST_BOOLEAN_EXPR
+     */
+    public int kind() {
+        return NodeKind.CONST_BOOLEAN_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -65,6 +65,15 @@ public class ConstIntExpr extends ConstExpr {
         return intConstant;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.CONST_INT_EXPR
+     */
+    public int kind() {
+        return NodeKind.CONST_INT_EXPR;
+    }
+
     /**
      * Visitor method
      *
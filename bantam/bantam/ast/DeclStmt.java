@@ -96,6 +96,15 @@ public class DeclStmt extends Stmt {
         return init;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.DECL_STMT
+     */
+    public int kind() {
+        return NodeKind.DECL_STMT;
+    }
+
     /**
      * Visitor method
      *
@@ -96,6 +96,15 @@ public class DispatchExpr extends Expr {
         return actualList;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.DISPATCH_EXPR
+     */
+    public int kind() {
+        return NodeKind.DISPATCH_EXPR;
+    }
+
     /**
      * Visitor method
      *
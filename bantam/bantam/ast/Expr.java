@@ -26,6 +26,7 @@
 
 package proj10LoverudeTymkiwCorrell.bantam.ast;
 
+import proj10LoverudeTymkiwCorrell.bantam.util.Type;
 import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
 
 
@@ -38,7 +39,8 @@ import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
  * complement), a variable expression, or a constant expression (int
  * constant, boolean constant, String constant).  An expression contains
  * an expression type (<tt>exprType</tt>), which is set during semantic
- * analysis.
+ * analysis.  The type is kept as a Type, which the TypeCheckerVisitor
+ * compares by reference, and is also available by its name.
  *
  * @see ASTNode
  * @see DispatchExpr
@@ -55,7 +57,7 @@ public abstract class Expr extends ASTNode {
     /**
      * The expression type
      */
-    private String exprType = null;
+    private Type exprType = null;
 
     /**
      * Expr constructor
@@ -69,18 +71,38 @@ public abstract class Expr extends ASTNode {
     /**
      * Get the type of the expression
      *
-     * @return the expression type
+     * @return the name of the expression type
      */
     public String getExprType() {
-        return exprType;
+        return exprType == null ? null : exprType.getName();
     }
 
     /**
      * Set the type of the expression
      *
-     * @param exprType the type of the expression
+     * @param exprType the name of the type of the expression.  A class type
+     *                 set by name is not resolved to its ClassTreeNode (see
+     *                 Type.named).
      */
     public void setExprType(String exprType) {
+        this.exprType = exprType == null ? null : Type.named(exprType);
+    }
+
+    /**
+     * Get the static type of the expression, the type found by semantic analysis
+     *
+     * @return the expression type (null if it is not known)
+     */
+    public Type getStaticType() {
+        return exprType;
+    }
+
+    /**
+     * Set the static type of the expression
+     *
+     * @param exprType the expression type
+     */
+    public void setStaticType(Type exprType) {
         this.exprType = exprType;
     }
 
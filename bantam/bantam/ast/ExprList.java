@@ -44,6 +44,15 @@ public class ExprList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.EXPR_LIST
+     */
+    public int kind() {
+        return NodeKind.EXPR_LIST;
+    }
+
     /**
      * Visitor method
      *
@@ -63,6 +63,15 @@ public class ExprStmt extends Stmt {
         return expr;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.EXPR_STMT
+     */
+    public int kind() {
+        return NodeKind.EXPR_STMT;
+    }
+
     /**
      * Visitor method
      *
@@ -94,6 +94,15 @@ public class Field extends Member {
         return init;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.FIELD
+     */
+    public int kind() {
+        return NodeKind.FIELD;
+    }
+
     /**
      * Visitor method
      *
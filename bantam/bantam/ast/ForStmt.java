@@ -117,6 +117,15 @@ public class ForStmt extends Stmt {
         return bodyStmt;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.FOR_STMT
+     */
+    public int kind() {
+        return NodeKind.FOR_STMT;
+    }
+
     /**
      * Visitor method
      *
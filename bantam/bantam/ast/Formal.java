@@ -77,6 +77,15 @@ public class Formal extends ASTNode {
         return name;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.FORMAL
+     */
+    public int kind() {
+        return NodeKind.FORMAL;
+    }
+
     /**
      * Visitor method
      *
@@ -44,6 +44,15 @@ public class FormalList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.FORMAL_LIST
+     */
+    public int kind() {
+        return NodeKind.FORMAL_LIST;
+    }
+
     /**
      * Visitor method
      *
@@ -105,6 +105,15 @@ public class IfStmt extends Stmt {
         return elseStmt;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.IF_STMT
+     */
+    public int kind() {
+        return NodeKind.IF_STMT;
+    }
+
     /**
      * Visitor method
      *
@@ -107,6 +107,15 @@ public class InstanceofExpr extends Expr {
         this.upcheck = upcheck;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.INSTANCEOF_EXPR
+     */
+    public int kind() {
+        return NodeKind.INSTANCEOF_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -34,22 +34,38 @@ package proj10LoverudeTymkiwCorrell.bantam.ast;
 
 import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
 
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Vector;
+import java.util.NoSuchElementException;
 
 /**
  * The abstract <tt>ListNode</tt> class represents a generic list of AST
  * nodes.  It contains a line number (<tt>lineNum</tt>) and a list
  * (<tt>listElements</tt>).
  *
+ * The elements are kept in a plain array that grows as elements are added
+ * and is trimmed to the number of elements by trimToSize() once the list is
+ * complete.  Lists are not synchronized; an AST must not be changed while
+ * another thread is reading it.
+ *
  * @see ASTNode
  */
 public abstract class ListNode extends ASTNode
     implements Iterable<ASTNode> {
     /**
-     * List of ASTNode elements
+     * The array of every list that has never had an element
+     */
+    private static final ASTNode[] NO_ELEMENTS = new ASTNode[0];
+
+    /**
+     * List of ASTNode elements, followed by unused slots
+     */
+    private ASTNode[] listElements;
+
+    /**
+     * The number of elements in the list
      */
-    private Vector<ASTNode> listElements;
+    private int size;
 
     /**
      * ListNode constructor
@@ -58,7 +74,7 @@ public abstract class ListNode extends ASTNode
      */
     protected ListNode(int lineNum) {
         super(lineNum);
-        listElements = new Vector<ASTNode>();
+        listElements = NO_ELEMENTS;
     }
 
     /**
@@ -68,17 +84,72 @@ public abstract class ListNode extends ASTNode
      * @return the updated list
      */
     public ListNode addElement(ASTNode node) {
-        listElements.add(node);
+        if (size == listElements.length) {
+            listElements = Arrays.copyOf(listElements, Math.max(4, size * 2));
+        }
+        listElements[size++] = node;
         return this;
     }
 
     /**
-     * Returns an iterator for this list
+     * Replace the index-th element, such as a class or member that was parsed
+     * again after an edit
+     *
+     * @param index the index of the element to replace
+     * @param node the new element
+     * @throws java.lang.ArrayIndexOutOfBoundsException if the index is
+     *         too large or too small
+     */
+    public void set(int index, ASTNode node) {
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index + " >= " + size);
+        }
+        listElements[index] = node;
+    }
+
+    /**
+     * Make room for a number of elements, so that a list whose final size is
+     * known need not grow or be trimmed
+     *
+     * @param capacity the number of elements the list will hold
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > listElements.length) {
+            listElements = Arrays.copyOf(listElements, capacity);
+        }
+    }
+
+    /**
+     * Remove the unused slots at the end of the list, which should be done
+     * when no more elements will be added
+     */
+    public void trimToSize() {
+        if (size < listElements.length) {
+            listElements = size == 0 ? NO_ELEMENTS : Arrays.copyOf(listElements, size);
+        }
+    }
+
+    /**
+     * Returns an iterator for this list.  Visitors should use getSize() and
+     * get(int) instead, which do not create an iterator.
      *
      * @return iterator for this list
      */
     public Iterator<ASTNode> iterator() {
-        return listElements.iterator();
+        return new Iterator<ASTNode>() {
+            private int next = 0;
+
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            public ASTNode next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return listElements[next++];
+            }
+        };
     }
 
     /**
@@ -87,7 +158,7 @@ public abstract class ListNode extends ASTNode
      * @return list size
      */
     public int getSize() {
-        return listElements.size();
+        return size;
     }
 
     /**
@@ -98,7 +169,10 @@ public abstract class ListNode extends ASTNode
      *         too large or too small
      */
     public ASTNode get(int index) {
-        return listElements.get(index);
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index + " >= " + size);
+        }
+        return listElements[index];
     }
 
     /**
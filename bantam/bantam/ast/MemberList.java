@@ -45,6 +45,15 @@ public class MemberList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.MEMBER_LIST
+     */
+    public int kind() {
+        return NodeKind.MEMBER_LIST;
+    }
+
     /**
      * Visitor method
      *
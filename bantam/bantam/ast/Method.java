@@ -112,6 +112,15 @@ public class Method extends Member {
         return stmtList;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.METHOD
+     */
+    public int kind() {
+        return NodeKind.METHOD;
+    }
+
     /**
      * Visitor method
      *
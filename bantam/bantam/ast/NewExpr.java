@@ -63,6 +63,15 @@ public class NewExpr extends Expr {
         return type;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.NEW_EXPR
+     */
+    public int kind() {
+        return NodeKind.NEW_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -0,0 +1,116 @@
+/*
+ * File: NodeKind.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.ast;
+
+/**
+ * The kinds of AST nodes returned by ASTNode.kind(), one for each class of node
+ * that can be in an AST.  The kinds are numbered densely from 0 so that a switch
+ * on them compiles to a jump table, as in SwitchVisitor.  The numbers may be
+ * relied on to stay the same, so a new class of node must be given the next
+ * unused number rather than being inserted among the others.
+ *
+ * @see ASTNode#kind()
+ */
+public final class NodeKind
+{
+    /** the kind of Program nodes */
+    public static final int PROGRAM = 0;
+    /** the kind of ClassList nodes */
+    public static final int CLASS_LIST = 1;
+    /** the kind of Class_ nodes */
+    public static final int CLASS = 2;
+    /** the kind of MemberList nodes */
+    public static final int MEMBER_LIST = 3;
+    /** the kind of Field nodes */
+    public static final int FIELD = 4;
+    /** the kind of Method nodes */
+    public static final int METHOD = 5;
+    /** the kind of FormalList nodes */
+    public static final int FORMAL_LIST = 6;
+    /** the kind of Formal nodes */
+    public static final int FORMAL = 7;
+    /** the kind of StmtList nodes */
+    public static final int STMT_LIST = 8;
+    /** the kind of DeclStmt nodes */
+    public static final int DECL_STMT = 9;
+    /** the kind of ExprStmt nodes */
+    public static final int EXPR_STMT = 10;
+    /** the kind of IfStmt nodes */
+    public static final int IF_STMT = 11;
+    /** the kind of WhileStmt nodes */
+    public static final int WHILE_STMT = 12;
+    /** the kind of ForStmt nodes */
+    public static final int FOR_STMT = 13;
+    /** the kind of BreakStmt nodes */
+    public static final int BREAK_STMT = 14;
+    /** the kind of BlockStmt nodes */
+    public static final int BLOCK_STMT = 15;
+    /** the kind of ReturnStmt nodes */
+    public static final int RETURN_STMT = 16;
+    /** the kind of ExprList nodes */
+    public static final int EXPR_LIST = 17;
+    /** the kind of DispatchExpr nodes */
+    public static final int DISPATCH_EXPR = 18;
+    /** the kind of NewExpr nodes */
+    public static final int NEW_EXPR = 19;
+    /** the kind of InstanceofExpr nodes */
+    public static final int INSTANCEOF_EXPR = 20;
+    /** the kind of CastExpr nodes */
+    public static final int CAST_EXPR = 21;
+    /** the kind of AssignExpr nodes */
+    public static final int ASSIGN_EXPR = 22;
+    /** the kind of BinaryCompEqExpr nodes */
+    public static final int BINARY_COMP_EQ_EXPR = 23;
+    /** the kind of BinaryCompNeExpr nodes */
+    public static final int BINARY_COMP_NE_EXPR = 24;
+    /** the kind of BinaryCompLtExpr nodes */
+    public static final int BINARY_COMP_LT_EXPR = 25;
+    /** the kind of BinaryCompLeqExpr nodes */
+    public static final int BINARY_COMP_LEQ_EXPR = 26;
+    /** the kind of BinaryCompGtExpr nodes */
+    public static final int BINARY_COMP_GT_EXPR = 27;
+    /** the kind of BinaryCompGeqExpr nodes */
+    public static final int BINARY_COMP_GEQ_EXPR = 28;
+    /** the kind of BinaryArithPlusExpr nodes */
+    public static final int BINARY_ARITH_PLUS_EXPR = 29;
+    /** the kind of BinaryArithMinusExpr nodes */
+    public static final int BINARY_ARITH_MINUS_EXPR = 30;
+    /** the kind of BinaryArithTimesExpr nodes */
+    public static final int BINARY_ARITH_TIMES_EXPR = 31;
+    /** the kind of BinaryArithDivideExpr nodes */
+    public static final int BINARY_ARITH_DIVIDE_EXPR = 32;
+    /** the kind of BinaryArithModulusExpr nodes */
+    public static final int BINARY_ARITH_MODULUS_EXPR = 33;
+    /** the kind of BinaryLogicAndExpr nodes */
+    public static final int BINARY_LOGIC_AND_EXPR = 34;
+    /** the kind of BinaryLogicOrExpr nodes */
+    public static final int BINARY_LOGIC_OR_EXPR = 35;
+    /** the kind of UnaryNegExpr nodes */
+    public static final int UNARY_NEG_EXPR = 36;
+    /** the kind of UnaryNotExpr nodes */
+    public static final int UNARY_NOT_EXPR = 37;
+    /** the kind of UnaryIncrExpr nodes */
+    public static final int UNARY_INCR_EXPR = 38;
+    /** the kind of UnaryDecrExpr nodes */
+    public static final int UNARY_DECR_EXPR = 39;
+    /** the kind of VarExpr nodes */
+    public static final int VAR_EXPR = 40;
+    /** the kind of ConstIntExpr nodes */
+    public static final int CONST_INT_EXPR = 41;
+    /** the kind of ConstBooleanExpr nodes */
+    public static final int CONST_BOOLEAN_EXPR = 42;
+    /** the kind of ConstStringExpr nodes */
+    public static final int CONST_STRING_EXPR = 43;
+
+    /** the number of kinds, one more than the largest kind */
+    public static final int NUM_KINDS = 44;
+
+    /**
+     * there are no NodeKind objects
+     */
+    private NodeKind() {
+    }
+}
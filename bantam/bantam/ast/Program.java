@@ -62,6 +62,15 @@ public class Program extends ASTNode {
         return classList;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.PROGRAM
+     */
+    public int kind() {
+        return NodeKind.PROGRAM;
+    }
+
     /**
      * Visitor method
      *
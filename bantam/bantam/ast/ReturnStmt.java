@@ -63,6 +63,15 @@ public class ReturnStmt extends Stmt {
         return expr;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.RETURN_STMT
+     */
+    public int kind() {
+        return NodeKind.RETURN_STMT;
+    }
+
     /**
      * Visitor method
      *
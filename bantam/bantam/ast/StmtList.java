@@ -45,6 +45,15 @@ public class StmtList extends ListNode {
         super(lineNum);
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.STMT_LIST
+     */
+    public int kind() {
+        return NodeKind.STMT_LIST;
+    }
+
     /**
      * Visitor method
      *
@@ -92,6 +92,15 @@ public class UnaryDecrExpr extends UnaryExpr {
         return isPostfix;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.UNARY_DECR_EXPR
+     */
+    public int kind() {
+        return NodeKind.UNARY_DECR_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -92,6 +92,15 @@ public class UnaryIncrExpr extends UnaryExpr {
         return isPostfix;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.UNARY_INCR_EXPR
+     */
+    public int kind() {
+        return NodeKind.UNARY_INCR_EXPR;
+    }
+
     /**
      * Visitor method
      *
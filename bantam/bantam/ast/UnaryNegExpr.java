@@ -85,6 +85,15 @@ public class UnaryNegExpr extends UnaryExpr {
         return false;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.UNARY_NEG_EXPR
+     */
+    public int kind() {
+        return NodeKind.UNARY_NEG_EXPR;
+    }
+
     /**
      * Visitor method
      *
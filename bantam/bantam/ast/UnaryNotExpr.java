@@ -85,6 +85,15 @@ public class UnaryNotExpr extends UnaryExpr {
         return false;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.UNARY_NOT_EXPR
+     */
+    public int kind() {
+        return NodeKind.UNARY_NOT_EXPR;
+    }
+
     /**
      * Visitor method
      *
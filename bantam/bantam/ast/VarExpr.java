@@ -86,6 +86,15 @@ public class VarExpr extends Expr {
         return name;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.VAR_EXPR
+     */
+    public int kind() {
+        return NodeKind.VAR_EXPR;
+    }
+
     /**
      * Visitor method
      *
@@ -79,6 +79,15 @@ public class WhileStmt extends Stmt {
         return bodyStmt;
     }
 
+    /**
+     * Get the kind of this node, for dispatching on it with a switch
+     *
+     * @return NodeKind.WHILE_STMT
+     */
+    public int kind() {
+        return NodeKind.WHILE_STMT;
+    }
+
     /**
      * Visitor method
      *
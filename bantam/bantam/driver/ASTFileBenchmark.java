@@ -0,0 +1,72 @@
+/*
+ * File: ASTFileBenchmark.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.driver;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.Program;
+import proj10LoverudeTymkiwCorrell.bantam.parser.Parser;
+import proj10LoverudeTymkiwCorrell.bantam.semant.SemanticAnalyzer;
+import proj10LoverudeTymkiwCorrell.bantam.util.CompilationException;
+import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
+import proj10LoverudeTymkiwCorrell.bantam.util.Interner;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.ASTDeserializer;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.ASTSerializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compares parsing Bantam Java files with reading their ASTs back from the files
+ * written by ASTSerializer.  BatchCompiler -cache compares whole cold and warm
+ * compilations through a CompilationCache.
+ */
+public class ASTFileBenchmark
+{
+    /**
+     * parses and checks each file given, writes its AST to a file named after
+     * it with ".ast" added, and reads the AST back from the mapped file, printing
+     * the time taken by parsing the file and by reading its AST
+     *
+     * @param args the names of Bantam Java files
+     */
+    public static void main(String[] args) {
+        for (String inFile : args) {
+            System.out.println("\n========== Results for " + inFile + " =============");
+            ErrorHandler errorHandler = new ErrorHandler();
+            try {
+                long start = System.nanoTime();
+                Program program = new Parser(errorHandler).parse(inFile);
+                long parseNanos = System.nanoTime() - start;
+                try {
+                    new SemanticAnalyzer(errorHandler).analyze(program);
+                } catch (CompilationException ex) {
+                    // the AST is written with the types that were found
+                }
+
+                Path astFile = Paths.get(inFile + ".ast");
+                try (FileChannel channel = FileChannel.open(astFile,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    new ASTSerializer(channel).write(program);
+                }
+                start = System.nanoTime();
+                ByteBuffer mapped = ASTDeserializer.map(astFile);
+                new ASTDeserializer(mapped, inFile, new Interner()).readProgram();
+                long readNanos = System.nanoTime() - start;
+                System.out.printf("  Parsed in %.1f ms; read %d bytes of AST from %s " +
+                                "in %.1f ms%n", parseNanos / 1e6, mapped.capacity(),
+                        astFile, readNanos / 1e6);
+            } catch (CompilationException ex) {
+                System.out.println(ex.getMessage());
+            } catch (IOException ex) {
+                System.out.println("  The AST could not be saved: " + ex.getMessage());
+            }
+        }
+    }
+}
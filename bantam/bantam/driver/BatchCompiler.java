@@ -0,0 +1,493 @@
+/*
+ * File: BatchCompiler.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.driver;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.ASTNode;
+import proj10LoverudeTymkiwCorrell.bantam.ast.ClassList;
+import proj10LoverudeTymkiwCorrell.bantam.ast.Class_;
+import proj10LoverudeTymkiwCorrell.bantam.ast.Program;
+import proj10LoverudeTymkiwCorrell.bantam.lexer.Scanner;
+import proj10LoverudeTymkiwCorrell.bantam.parser.Parser;
+import proj10LoverudeTymkiwCorrell.bantam.semant.ClassSummary;
+import proj10LoverudeTymkiwCorrell.bantam.semant.SemanticAnalyzer;
+import proj10LoverudeTymkiwCorrell.bantam.util.ClassTreeNode;
+import proj10LoverudeTymkiwCorrell.bantam.util.CompilationException;
+import proj10LoverudeTymkiwCorrell.bantam.util.Error;
+import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles a whole project of Bantam Java files at once.
+ *
+ * The files are scanned and parsed in parallel on a ForkJoinPool, each by its own
+ * Parser with its own ErrorHandler.  The classes of all the files are then merged,
+ * in the order the files were given, into a single Program, which is checked by
+ * one SemanticAnalyzer that type checks the classes in parallel too.  The errors
+ * of every file are copied into the ErrorHandler of the BatchCompiler in file
+ * order, so the reported errors do not depend on which thread finished first.
+ *
+ * A BatchCompiler may be given a CompilationCache.  Then each file is read and
+ * hashed first, and a file whose contents are in the cache is loaded from it
+ * instead of being scanned and parsed, and its classes are not type checked
+ * again unless a class they depend on has changed.  After semantic analysis,
+ * the files that were not in the cache, or had classes checked again, are
+ * stored in it, and then the cache is pruned, so it keeps the entries of the
+ * files compiled most recently.  Failing to write the cache does not make
+ * compiling fail.
+ *
+ * The time spent in each phase of the last compilation is kept and can be
+ * printed with getTimingReport().
+ */
+public class BatchCompiler
+{
+    /** the extension of Bantam Java files */
+    public static final String EXTENSION = ".btm";
+
+    /** collects the errors of all the files */
+    private final ErrorHandler errorHandler;
+    /** the number of files parsed at the same time */
+    private final int parallelism;
+    /** the cache of compiled files (null if there is none) */
+    private final CompilationCache cache;
+
+    /** the number of files compiled last */
+    private int numFiles;
+    /** the wall-clock time spent parsing all the files */
+    private long parseNanos;
+    /** the time spent parsing, summed over the files */
+    private long parseWorkNanos;
+    /** the time spent merging the parsed files into one Program */
+    private long mergeNanos;
+    /** the time spent in semantic analysis */
+    private long semanticNanos;
+    /** the number of files loaded from the cache */
+    private int numCachedFiles;
+    /** the number of files stored in the cache */
+    private int numStoredFiles;
+    /** the number of entries deleted when pruning the cache */
+    private int numPrunedEntries;
+    /** the time spent storing files in the cache and pruning it */
+    private long storeNanos;
+
+    /**
+     * creates a BatchCompiler that parses as many files at a time as there
+     * are processors
+     *
+     * @param errorHandler the ErrorHandler that collects all the errors found
+     */
+    public BatchCompiler(ErrorHandler errorHandler) {
+        this(errorHandler, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * creates a BatchCompiler
+     *
+     * @param errorHandler the ErrorHandler that collects all the errors found
+     * @param parallelism the number of files parsed at the same time
+     */
+    public BatchCompiler(ErrorHandler errorHandler, int parallelism) {
+        this(errorHandler, parallelism, null);
+    }
+
+    /**
+     * creates a BatchCompiler that uses a cache of compiled files
+     *
+     * @param errorHandler the ErrorHandler that collects all the errors found
+     * @param parallelism the number of files parsed at the same time
+     * @param cache the cache of compiled files (null for none)
+     */
+    public BatchCompiler(ErrorHandler errorHandler, int parallelism,
+                         CompilationCache cache) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.errorHandler = errorHandler;
+        this.parallelism = parallelism;
+        this.cache = cache;
+    }
+
+    /**
+     * @return the ErrorHandler that collects all the errors found
+     */
+    public ErrorHandler getErrorHandler() { return errorHandler; }
+
+    /**
+     * replaces every directory in a list of paths with the Bantam Java files
+     * it contains, searching its subdirectories too.  The files found in a
+     * directory are sorted by path, so the result does not depend on the
+     * order in which the file system lists them.
+     *
+     * @param paths the names of files and directories
+     * @return the names of the files
+     * @throws CompilationException if a directory cannot be read
+     */
+    public static List<String> collectSourceFiles(List<String> paths) {
+        List<String> filenames = new ArrayList<>();
+        for (String path : paths) {
+            Path start = Paths.get(path);
+            if (!Files.isDirectory(start)) {
+                filenames.add(path);
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(start)) {
+                filenames.addAll(files
+                        .filter(file -> Files.isRegularFile(file) &&
+                                file.toString().endsWith(EXTENSION))
+                        .map(Path::toString)
+                        .sorted()
+                        .collect(Collectors.toList()));
+            } catch (IOException | UncheckedIOException e) {
+                throw new CompilationException("Directory " + path +
+                        " could not be read.", e);
+            }
+        }
+        return filenames;
+    }
+
+    /**
+     * parses and checks all the files in the given files and directories
+     *
+     * @param paths the names of Bantam Java files and of directories containing them
+     * @return root of the class hierarchy tree of all the classes
+     * @throws CompilationException if any errors were found
+     */
+    public ClassTreeNode compile(List<String> paths) {
+        List<ParseResult> results = parseFiles(collectSourceFiles(paths));
+        Program program = merge(results);
+
+        long start = System.nanoTime();
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(errorHandler, parallelism);
+        if (cache == null) {
+            try {
+                return analyzer.analyze(program);
+            } finally {
+                semanticNanos = System.nanoTime() - start;
+            }
+        }
+
+        Map<Class_, ClassSummary> summaries = new IdentityHashMap<>();
+        for (ParseResult result : results) {
+            if (result.cached != null) {
+                summaries.putAll(result.cached.getSummaries());
+            }
+        }
+        try {
+            ClassTreeNode root = analyzer.analyze(program, summaries);
+            semanticNanos = System.nanoTime() - start;
+            storeInCache(results, analyzer.getClassSummaries());
+            return root;
+        } catch (CompilationException e) {
+            // the errors found are stored too, so they are found again at once
+            semanticNanos = System.nanoTime() - start;
+            storeInCache(results, analyzer.getClassSummaries());
+            throw e;
+        }
+    }
+
+    /**
+     * stores in the cache the files that were not loaded from it, and those that
+     * had a class type checked again, ignoring any files that cannot be written,
+     * and then prunes the cache if anything was stored
+     *
+     * @param results the results of parsing the files
+     * @param summaries the summaries of all the classes
+     */
+    private void storeInCache(List<ParseResult> results,
+                              Map<Class_, ClassSummary> summaries) {
+        long start = System.nanoTime();
+        numStoredFiles = 0;
+        for (ParseResult result : results) {
+            if (result.program == null || result.key == null) {
+                continue;
+            }
+            Map<Class_, ClassSummary> fileSummaries = new IdentityHashMap<>();
+            boolean changed = result.cached == null;
+            for (ASTNode aClass : result.program.getClassList()) {
+                ClassSummary summary = summaries.get(aClass);
+                if (summary != null) {
+                    fileSummaries.put((Class_) aClass, summary);
+                }
+                if (!changed && summary != result.cached.getSummaries().get(aClass)) {
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                continue;
+            }
+            try {
+                cache.store(result.key, result.program, fileSummaries);
+                numStoredFiles++;
+            } catch (IOException e) {
+                // the file is simply compiled again next time
+            }
+        }
+        numPrunedEntries = 0;
+        if (numStoredFiles > 0) {
+            try {
+                numPrunedEntries = cache.prune();
+            } catch (IOException e) {
+                // the cache is pruned after the next compilation that stores a file
+            }
+        }
+        storeNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * parses the given files in parallel and merges their classes into one Program
+     *
+     * @param filenames the names of the Bantam Java files
+     * @return a Program containing the classes of all the files, in file order
+     * @throws CompilationException if any lexical or syntactic errors were found
+     */
+    public Program parseAll(List<String> filenames) {
+        return merge(parseFiles(filenames));
+    }
+
+    /**
+     * parses the given files in parallel, or loads them from the cache
+     *
+     * @param filenames the names of the Bantam Java files
+     * @return the results of the files, in the same order as the names
+     */
+    private List<ParseResult> parseFiles(List<String> filenames) {
+        numFiles = filenames.size();
+        parseWorkNanos = 0;
+        semanticNanos = 0;
+        numCachedFiles = 0;
+        numStoredFiles = 0;
+        numPrunedEntries = 0;
+        storeNanos = 0;
+
+        long start = System.nanoTime();
+        List<ParseResult> results = parseInParallel(filenames);
+        parseNanos = System.nanoTime() - start;
+        return results;
+    }
+
+    /**
+     * merges the classes of the files into one Program
+     *
+     * @param results the results of parsing the files, in file order
+     * @return a Program containing the classes of all the files, in file order
+     * @throws CompilationException if any lexical or syntactic errors were found
+     */
+    private Program merge(List<ParseResult> results) {
+        long start = System.nanoTime();
+        ClassList classes = new ClassList(1);
+        int lineNum = 1;
+        boolean first = true;
+        for (ParseResult result : results) {
+            parseWorkNanos += result.nanos;
+            if (result.cached != null) {
+                numCachedFiles++;
+            }
+            errorHandler.registerAll(result.errorHandler);
+            if (result.program == null) {
+                continue;
+            }
+            if (first) {
+                lineNum = result.program.getLineNum();
+                first = false;
+            }
+            for (ASTNode aClass : result.program.getClassList()) {
+                classes.addElement(aClass);
+            }
+        }
+        classes.trimToSize();
+        Program program = new Program(lineNum, classes);
+        mergeNanos = System.nanoTime() - start;
+
+        if (errorHandler.errorsFound()) {
+            throw new CompilationException(errorHandler);
+        }
+        return program;
+    }
+
+    /**
+     * parses every file in a task of its own
+     *
+     * @param filenames the names of the files
+     * @return the results of the files, in the same order as the names
+     */
+    private List<ParseResult> parseInParallel(List<String> filenames) {
+        List<Callable<ParseResult>> tasks = new ArrayList<>();
+        for (String filename : filenames) {
+            tasks.add(() -> parseFile(filename));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ParseResult> results = new ArrayList<>();
+            for (Future<ParseResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompilationException("Parsing was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new CompilationException("Parsing failed.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * scans and parses one file with a Parser and ErrorHandler of its own, or
+     * loads it from the cache if its contents are there
+     *
+     * @param filename the name of the file
+     * @return the Program of the file (null if it could not be parsed) and its errors
+     */
+    private ParseResult parseFile(String filename) {
+        long start = System.nanoTime();
+        ErrorHandler fileErrors = new ErrorHandler();
+        Program program = null;
+        String key = null;
+        CompilationCache.Entry cached = null;
+        try {
+            byte[] contents = null;
+            if (cache != null) {
+                try {
+                    contents = Files.readAllBytes(Paths.get(filename));
+                } catch (IOException e) {
+                    // the Parser reports that the file cannot be read
+                }
+            }
+            if (contents == null) {
+                program = new Parser(fileErrors).parse(filename);
+            }
+            else {
+                key = CompilationCache.key(contents);
+                cached = cache.load(key, filename);
+                program = cached != null ? cached.getProgram() : new Parser(fileErrors)
+                        .parse(filename, Scanner.decode(ByteBuffer.wrap(contents)));
+            }
+        } catch (CompilationException e) {
+            if (e.getErrorHandler() == null) {
+                // the file could not be read
+                fileErrors.register(Error.Kind.LEX_ERROR, e.getMessage());
+            }
+            program = null;
+        }
+        return new ParseResult(program, fileErrors, System.nanoTime() - start,
+                key, cached);
+    }
+
+    /**
+     * @return a description of the time spent in each phase of the last compilation
+     */
+    public String getTimingReport() {
+        String report = String.format("Parsed %d files in %.1f ms using %d threads " +
+                        "(%.1f ms of parsing in total)%n" +
+                        "Merged the classes in %.1f ms%n" +
+                        "Semantic analysis took %.1f ms%n",
+                numFiles, parseNanos / 1e6, parallelism, parseWorkNanos / 1e6,
+                mergeNanos / 1e6, semanticNanos / 1e6);
+        if (cache != null) {
+            report += String.format("Loaded %d of the files from the cache%n" +
+                            "Stored %d files in the cache and pruned %d entries " +
+                            "in %.1f ms%n",
+                    numCachedFiles, numStoredFiles, numPrunedEntries, storeNanos / 1e6);
+        }
+        return report;
+    }
+
+    /**
+     * The outcome of parsing one file
+     */
+    private static class ParseResult
+    {
+        private final Program program;
+        private final ErrorHandler errorHandler;
+        private final long nanos;
+        /** the cache key of the contents of the file (null if not read) */
+        private final String key;
+        /** the entry loaded from the cache (null if the file was parsed) */
+        private final CompilationCache.Entry cached;
+
+        private ParseResult(Program program, ErrorHandler errorHandler, long nanos,
+                            String key, CompilationCache.Entry cached) {
+            this.program = program;
+            this.errorHandler = errorHandler;
+            this.nanos = nanos;
+            this.key = key;
+            this.cached = cached;
+        }
+    }
+
+    /**
+     * compiles all the Bantam Java files given on the command line, or found
+     * in the directories given, as one program and prints the errors and the
+     * time taken by each phase.  The option -j N sets the number of files
+     * parsed at the same time, -cache DIR keeps compiled files in the directory
+     * DIR, and -runs N compiles the files N times, so that the time taken with
+     * an empty cache can be compared with the time taken with a full one.
+     *
+     * @param args [-j N] [-cache DIR] [-runs N] followed by the names of files
+     *             and directories
+     */
+    public static void main(String[] args) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        CompilationCache cache = null;
+        int runs = 1;
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-j") && i + 1 < args.length) {
+                parallelism = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("-cache") && i + 1 < args.length) {
+                cache = new CompilationCache(Paths.get(args[++i]));
+            }
+            else if (args[i].equals("-runs") && i + 1 < args.length) {
+                runs = Integer.parseInt(args[++i]);
+            }
+            else {
+                paths.add(args[i]);
+            }
+        }
+
+        for (int run = 1; run <= runs; run++) {
+            if (runs > 1) {
+                System.out.println("Run " + run + ":");
+            }
+            ErrorHandler errorHandler = new ErrorHandler();
+            BatchCompiler compiler = new BatchCompiler(errorHandler, parallelism, cache);
+            long start = System.nanoTime();
+            try {
+                compiler.compile(paths);
+                System.out.println("  Checking was successful.");
+            } catch (CompilationException ex) {
+                System.out.println(ex.getMessage());
+                System.out.println("  There were errors:");
+                for (Error error : errorHandler.getErrorList()) {
+                    System.out.println("\t" + error.toString());
+                }
+            }
+            System.out.print(compiler.getTimingReport());
+            if (runs > 1) {
+                System.out.printf("Compiling took %.1f ms in all%n",
+                        (System.nanoTime() - start) / 1e6);
+            }
+        }
+    }
+}
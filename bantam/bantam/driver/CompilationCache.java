@@ -0,0 +1,456 @@
+/*
+ * File: CompilationCache.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.driver;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.ASTNode;
+import proj10LoverudeTymkiwCorrell.bantam.ast.Class_;
+import proj10LoverudeTymkiwCorrell.bantam.ast.ClassList;
+import proj10LoverudeTymkiwCorrell.bantam.ast.Program;
+import proj10LoverudeTymkiwCorrell.bantam.semant.ClassSummary;
+import proj10LoverudeTymkiwCorrell.bantam.util.Error;
+import proj10LoverudeTymkiwCorrell.bantam.util.Interner;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.ASTDeserializer;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.ASTSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A directory of compiled Bantam Java files, so that a file that has not changed
+ * since it was last compiled is neither scanned, parsed nor type checked again.
+ *
+ * Each entry is named after the SHA-256 hash of the contents of a source file,
+ * so an edited file simply misses the cache.  An entry holds the AST of the file,
+ * written by ASTSerializer with the types of its expressions, and the
+ * ClassSummary of each of its classes.  A summary records the signatures of the
+ * classes the class depended on, so the SemanticAnalyzer checks the class again
+ * if one of them has changed, even in another file.  The errors in a summary are
+ * stored without a filename, and the classes and errors of an entry get the name
+ * of the file being compiled when the entry is loaded, so a file that is moved
+ * or copied still hits the cache.
+ *
+ * Entries are mapped into memory to be loaded.  They are written to a temporary
+ * file that is then renamed, so an entry never changes while it is mapped and
+ * several compilers may share a directory.  An entry that cannot be read, or was written
+ * in another format, is treated as missing.
+ *
+ * Since an edited file gets a new entry, the entries of the old contents of the
+ * files would pile up.  So prune deletes the entries that have not been stored
+ * or loaded for MAX_AGE_MILLIS, and then the least recently used entries beyond
+ * the maximum number of entries.  Loading an entry updates its time of last
+ * modification, which is the time of its last use.
+ */
+public class CompilationCache
+{
+    /** the first bytes of every entry */
+    private static final int MAGIC = 0x42544d43; // "BTMC"
+    /**
+     * the version of the format of the entries, changed whenever it changes or
+     * the summaries stored in them change meaning (3: they depend on the ancestors
+     * of the classes looked up too)
+     */
+    private static final int FORMAT_VERSION = 3;
+    /** the extension of the entry files */
+    private static final String EXTENSION = ".ast";
+    /** the extension of the temporary files entries are written to */
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    /** the default maximum number of entries kept by prune */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    /** the time after its last use that an entry is deleted by prune (30 days) */
+    public static final long MAX_AGE_MILLIS = 30L * 24 * 60 * 60 * 1000;
+    /**
+     * the time after which prune deletes a temporary file, which was left by a
+     * compiler that did not finish writing it (one hour)
+     */
+    private static final long MAX_TEMPORARY_AGE_MILLIS = 60L * 60 * 1000;
+
+    /** the directory holding the entries */
+    private final Path directory;
+    /** the maximum number of entries kept by prune */
+    private final int maxEntries;
+
+    /**
+     * creates a cache that keeps at most DEFAULT_MAX_ENTRIES entries
+     *
+     * @param directory the directory holding the entries, which is created when
+     *                  the first entry is stored if it does not exist
+     */
+    public CompilationCache(Path directory) {
+        this(directory, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param directory the directory holding the entries, which is created when
+     *                  the first entry is stored if it does not exist
+     * @param maxEntries the maximum number of entries kept by prune, which should
+     *                   be at least the number of files compiled together
+     */
+    public CompilationCache(Path directory, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return the directory holding the entries
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * computes the key of the entry for the contents of a source file
+     *
+     * @param contents the bytes of the file
+     * @return the SHA-256 hash of the bytes, in hexadecimal
+     */
+    public static String key(byte[] contents) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(contents);
+            StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xf, 16))
+                        .append(Character.forDigit(b & 0xf, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * loads the entry with the given key
+     *
+     * @param key the key of the contents of the file
+     * @param filename the name of the file being compiled, given to its classes
+     *                 and errors
+     * @return the entry, or null if there is no readable entry with that key
+     */
+    public Entry load(String key, String filename) {
+        Path path = directory.resolve(key + EXTENSION);
+        ByteBuffer in;
+        try {
+            in = ASTDeserializer.map(path);
+        } catch (IOException e) {
+            return null; // such as a NoSuchFileException
+        }
+        try {
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            Program program = new ASTDeserializer(in, filename, new Interner())
+                    .readProgram();
+            Map<Class_, ClassSummary> summaries = new IdentityHashMap<>();
+            ClassList classList = program.getClassList();
+            if (in.getInt() != classList.getSize()) {
+                return null;
+            }
+            for (ASTNode aClass : classList) {
+                if (in.get() != 0) {
+                    summaries.put((Class_) aClass, readSummary(in, filename));
+                }
+            }
+            touch(path);
+            return new Entry(program, summaries);
+        } catch (IOException | RuntimeException e) {
+            // a truncated or corrupted entry, such as a BufferUnderflowException
+            return null;
+        }
+    }
+
+    /**
+     * stores an entry, replacing any entry with the same key
+     *
+     * @param key the key of the contents of the file
+     * @param program the AST of the file, whose expressions have their types
+     * @param summaries the summaries of the classes of the file.  Classes without
+     *                  one, or with errors in other files, are stored without one
+     *                  and so are type checked again when the entry is loaded.
+     * @throws IOException if the entry cannot be written
+     */
+    public void store(String key, Program program, Map<Class_, ClassSummary> summaries)
+            throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, key, TEMPORARY_EXTENSION);
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(8);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+                writeFully(channel, header);
+                new ASTSerializer(channel).write(program);
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                ClassList classList = program.getClassList();
+                out.writeInt(classList.getSize());
+                for (ASTNode aClass : classList) {
+                    ClassSummary summary = summaries.get(aClass);
+                    boolean storable = summary != null &&
+                            hasOnlyErrorsIn(summary, ((Class_) aClass).getFilename());
+                    out.writeBoolean(storable);
+                    if (storable) {
+                        writeSummary(out, summary);
+                    }
+                }
+                writeFully(channel, ByteBuffer.wrap(bytes.toByteArray()));
+            }
+            Path entry = directory.resolve(key + EXTENSION);
+            try {
+                Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * deletes the entries that have not been used for MAX_AGE_MILLIS, then the
+     * least recently used entries beyond the maximum number of entries, and the
+     * temporary files left by compilers that did not finish writing an entry.
+     * Files that another compiler deletes or cannot be deleted are skipped.
+     *
+     * @return the number of files deleted
+     * @throws IOException if the directory cannot be read
+     */
+    public int prune() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        List<Map.Entry<Path, FileTime>> entries = new ArrayList<>();
+        List<Path> stale = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                FileTime lastUse;
+                try {
+                    lastUse = Files.getLastModifiedTime(file);
+                } catch (IOException e) {
+                    continue; // deleted by another compiler
+                }
+                long age = now - lastUse.toMillis();
+                if (name.endsWith(EXTENSION)) {
+                    if (age > MAX_AGE_MILLIS) {
+                        stale.add(file);
+                    }
+                    else {
+                        entries.add(new AbstractMap.SimpleImmutableEntry<>(file, lastUse));
+                    }
+                }
+                else if (name.endsWith(TEMPORARY_EXTENSION) &&
+                        age > MAX_TEMPORARY_AGE_MILLIS) {
+                    stale.add(file);
+                }
+            }
+        }
+        if (entries.size() > maxEntries) {
+            entries.sort(Map.Entry.comparingByValue());
+            for (Map.Entry<Path, FileTime> entry :
+                    entries.subList(0, entries.size() - maxEntries)) {
+                stale.add(entry.getKey());
+            }
+        }
+        int numDeleted = 0;
+        for (Path file : stale) {
+            try {
+                if (Files.deleteIfExists(file)) {
+                    numDeleted++;
+                }
+            } catch (IOException e) {
+                // such as an entry still mapped by a compiler on Windows
+            }
+        }
+        return numDeleted;
+    }
+
+    /**
+     * sets the time of last modification of an entry to now, so prune keeps it
+     *
+     * @param path the path of the entry
+     */
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // the entry is only pruned sooner
+        }
+    }
+
+    /**
+     * writes all the bytes of a buffer to a channel
+     *
+     * @param channel the channel
+     * @param buffer the buffer
+     * @throws IOException if the output fails
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * @param summary the summary of a class
+     * @param filename the name of the file of the class
+     * @return true if all the errors of the summary are in that file
+     */
+    private static boolean hasOnlyErrorsIn(ClassSummary summary, String filename) {
+        for (Error error : summary.getErrors()) {
+            if (error.getFilename() == null || !error.getFilename().equals(filename)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * writes a summary, leaving out the filenames of its errors
+     *
+     * @param out where the summary is written
+     * @param summary the summary
+     * @throws IOException if the output fails
+     */
+    private static void writeSummary(DataOutput out, ClassSummary summary)
+            throws IOException {
+        out.writeInt(summary.getDependencies().size());
+        for (Map.Entry<String, String> dependency :
+                summary.getDependencies().entrySet()) {
+            writeString(out, dependency.getKey());
+            writeString(out, dependency.getValue());
+        }
+        out.writeInt(summary.getErrors().size());
+        for (Error error : summary.getErrors()) {
+            out.writeByte(error.getKind().ordinal());
+            out.writeInt(error.getLineNum());
+            writeString(out, error.getMessage());
+        }
+    }
+
+    /**
+     * reads a summary written by writeSummary
+     *
+     * @param in where the summary is read from
+     * @param filename the filename given to its errors
+     * @return the summary
+     * @throws IOException if the input does not hold a summary
+     */
+    private static ClassSummary readSummary(ByteBuffer in, String filename)
+            throws IOException {
+        int numDependencies = in.getInt();
+        Map<String, String> dependencies = new LinkedHashMap<>();
+        for (int i = 0; i < numDependencies; i++) {
+            dependencies.put(readString(in), readString(in));
+        }
+        int numErrors = in.getInt();
+        List<Error> errors = new ArrayList<>();
+        for (int i = 0; i < numErrors; i++) {
+            int kind = in.get() & 0xff;
+            if (kind >= Error.Kind.values().length) {
+                throw new IOException("Unknown kind of error " + kind);
+            }
+            errors.add(new Error(Error.Kind.values()[kind], filename, in.getInt(),
+                    readString(in)));
+        }
+        return new ClassSummary(dependencies, errors);
+    }
+
+    /**
+     * writes a string as its number of UTF-8 bytes (-1 for null) and the bytes
+     *
+     * @param out where the string is written
+     * @param string the string (may be null)
+     * @throws IOException if the output fails
+     */
+    private static void writeString(DataOutput out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * reads a string written by writeString
+     *
+     * @param in where the string is read from
+     * @return the string (may be null)
+     * @throws IOException if the input does not hold a string
+     */
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new IOException("Truncated string");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A file loaded from the cache: its AST and the summaries of its classes
+     */
+    public static class Entry
+    {
+        private final Program program;
+        private final Map<Class_, ClassSummary> summaries;
+
+        /**
+         * @param program the AST of the file
+         * @param summaries the summaries of the classes that have one
+         */
+        private Entry(Program program, Map<Class_, ClassSummary> summaries) {
+            this.program = program;
+            this.summaries = summaries;
+        }
+
+        /**
+         * @return the AST of the file
+         */
+        public Program getProgram() {
+            return program;
+        }
+
+        /**
+         * @return the summaries of the classes of the file that have one
+         */
+        public Map<Class_, ClassSummary> getSummaries() {
+            return summaries;
+        }
+    }
+}
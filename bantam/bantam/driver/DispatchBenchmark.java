@@ -0,0 +1,95 @@
+/*
+ * File: DispatchBenchmark.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.driver;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.Program;
+import proj10LoverudeTymkiwCorrell.bantam.parser.Parser;
+import proj10LoverudeTymkiwCorrell.bantam.semant.SemanticAnalyzer;
+import proj10LoverudeTymkiwCorrell.bantam.transpiler.TranspilerVisitor;
+import proj10LoverudeTymkiwCorrell.bantam.util.CompilationException;
+import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.SwitchVisitor;
+
+/**
+ * Compares the two ways a SwitchVisitor can dispatch, calling accept or
+ * switching on the kind of the node, on the ASTs of Bantam Java files.
+ */
+public class DispatchBenchmark
+{
+    /**
+     * A visitor that only traverses, for timing the dispatch on its own
+     */
+    private static class Traverser extends SwitchVisitor
+    {
+        /**
+         * @param switchDispatch whether to dispatch with the switch
+         */
+        private Traverser(boolean switchDispatch) {
+            super(switchDispatch);
+        }
+    }
+
+    /**
+     * compares the two ways of dispatching on the ASTs of Bantam Java files.
+     * For each file, a visitor that only traverses the AST, the type checking of
+     * a SemanticAnalyzer and a TranspilerVisitor are each run with accept and
+     * with switch dispatch, alternately, and the average times after a warm-up
+     * of as many runs are printed.
+     *
+     * @param args the number of runs to time, followed by the pathnames of the
+     *             files
+     */
+    public static void main(String[] args) {
+        int numRuns = Integer.parseInt(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            System.out.println("\n========== Results for " + args[i] + " =============");
+            ErrorHandler errorHandler = new ErrorHandler();
+            Program program;
+            try {
+                program = new Parser(errorHandler).parse(args[i]);
+            } catch (CompilationException ex) {
+                System.out.println(ex.getMessage());
+                continue;
+            }
+            String[] names = {"traversal", "type checking", "transpiling"};
+            long[][] times = new long[names.length][2];
+            for (int run = 0; run < 2 * numRuns; run++) {
+                for (int mode = 0; mode < 2; mode++) {
+                    boolean switchDispatch = mode == 1;
+                    long[] runTimes = new long[names.length];
+
+                    long start = System.nanoTime();
+                    new Traverser(switchDispatch).dispatch(program);
+                    runTimes[0] = System.nanoTime() - start;
+
+                    SemanticAnalyzer analyzer = new SemanticAnalyzer(errorHandler);
+                    analyzer.setSwitchDispatch(switchDispatch);
+                    errorHandler.clear();
+                    try {
+                        analyzer.analyze(program);
+                    } catch (CompilationException ex) {
+                        // the type checking is timed all the same
+                    }
+                    runTimes[1] = analyzer.getPassTimes().get("type checking");
+
+                    start = System.nanoTime();
+                    new TranspilerVisitor(switchDispatch).visit(program);
+                    runTimes[2] = System.nanoTime() - start;
+
+                    if (run >= numRuns) {
+                        for (int n = 0; n < names.length; n++) {
+                            times[n][mode] += runTimes[n];
+                        }
+                    }
+                }
+            }
+            for (int n = 0; n < names.length; n++) {
+                System.out.printf("  %-14s accept %8.3f ms   switch %8.3f ms%n", names[n],
+                        times[n][0] / 1e6 / numRuns, times[n][1] / 1e6 / numRuns);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * File: FusionBenchmark.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.driver;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.*;
+import proj10LoverudeTymkiwCorrell.bantam.parser.Parser;
+import proj10LoverudeTymkiwCorrell.bantam.semant.SemanticAnalyzer;
+import proj10LoverudeTymkiwCorrell.bantam.util.CompilationException;
+import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.FusedVisitor;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares running passes each in a traversal of its own with running them
+ * together in one traversal of a FusedVisitor, on the ASTs of Bantam Java files,
+ * and times the steps of their semantic analysis.
+ */
+public class FusionBenchmark
+{
+    /**
+     * A pass that counts the classes, members and local variable declarations it
+     * is visited with, without visiting their children
+     */
+    private static class CountingPass extends Visitor
+    {
+        /** the number of nodes the pass was visited with */
+        private long count;
+
+        /**
+         * counts a class node
+         *
+         * @param node the class node
+         * @return null
+         */
+        public Object visit(Class_ node) {
+            count++;
+            return null;
+        }
+
+        /**
+         * counts a field node
+         *
+         * @param node the field node
+         * @return null
+         */
+        public Object visit(Field node) {
+            count++;
+            return null;
+        }
+
+        /**
+         * counts a method node
+         *
+         * @param node the method node
+         * @return null
+         */
+        public Object visit(Method node) {
+            count++;
+            return null;
+        }
+
+        /**
+         * counts a declaration statement node
+         *
+         * @param node the declaration statement node
+         * @return null
+         */
+        public Object visit(DeclStmt node) {
+            count++;
+            return null;
+        }
+    }
+
+    /**
+     * compares fused and separate traversals of the ASTs of Bantam Java files.
+     * Three passes, for classes, members and local variable declarations, are
+     * run first each in a traversal of its own and then together in one
+     * traversal, and the number of nodes entered and the times taken are
+     * printed, followed by the time taken by each step of a semantic analysis of
+     * the file.
+     *
+     * @param args the number of times to repeat the traversals and the analysis,
+     *             followed by the pathnames of the files
+     */
+    public static void main(String[] args) {
+        int repetitions = Integer.parseInt(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            System.out.println("\n========== Results for " + args[i] + " =============");
+            ErrorHandler errorHandler = new ErrorHandler();
+            Program program;
+            try {
+                program = new Parser(errorHandler).parse(args[i]);
+            } catch (CompilationException ex) {
+                System.out.println(ex.getMessage());
+                continue;
+            }
+
+            List<Class<? extends ASTNode>> kinds =
+                    List.of(Class_.class, Member.class, DeclStmt.class);
+            FusedVisitor fused = new FusedVisitor();
+            List<FusedVisitor> separate = new ArrayList<>();
+            for (Class<? extends ASTNode> kind : kinds) {
+                fused.register(new CountingPass(), kind);
+                FusedVisitor single = new FusedVisitor();
+                single.register(new CountingPass(), kind);
+                separate.add(single);
+            }
+            long separateNodes = 0;
+            long separateTime = 0;
+            for (int r = 0; r < repetitions; r++) {
+                for (FusedVisitor single : separate) {
+                    single.run(program);
+                }
+                fused.run(program);
+            }
+            for (FusedVisitor single : separate) {
+                separateNodes += single.getNumNodesVisited();
+                separateTime += single.getTotalTime();
+            }
+            System.out.printf("  Separate: %d traversals entered %d nodes in %.2f ms%n",
+                    kinds.size() * repetitions, separateNodes, separateTime / 1e6);
+            System.out.printf("  Fused:    %d traversals entered %d nodes in %.2f ms%n",
+                    fused.getNumTraversals(), fused.getNumNodesVisited(),
+                    fused.getTotalTime() / 1e6);
+            int k = 0;
+            for (Map.Entry<Visitor, Long> time : fused.getTimes().entrySet()) {
+                System.out.printf("    %-10s %d nodes, %.2f ms%n",
+                        kinds.get(k++).getSimpleName(),
+                        ((CountingPass) time.getKey()).count / repetitions,
+                        time.getValue() / 1e6);
+            }
+
+            SemanticAnalyzer analyzer = new SemanticAnalyzer(errorHandler);
+            Map<String, Long> totals = new LinkedHashMap<>();
+            for (int r = 0; r < repetitions; r++) {
+                errorHandler.clear();
+                try {
+                    analyzer.analyze(program);
+                } catch (CompilationException ex) {
+                    // the steps are timed all the same
+                }
+                for (Map.Entry<String, Long> time : analyzer.getPassTimes().entrySet()) {
+                    totals.merge(time.getKey(), time.getValue(), Long::sum);
+                }
+            }
+            System.out.println("  Semantic analysis, average per analysis:");
+            for (Map.Entry<String, Long> total : totals.entrySet()) {
+                System.out.printf("    %-16s %.2f ms%n", total.getKey(),
+                        total.getValue() / 1e6 / repetitions);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * File: IncrementalChecker.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.driver;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.Program;
+import proj10LoverudeTymkiwCorrell.bantam.parser.Parser;
+import proj10LoverudeTymkiwCorrell.bantam.semant.SemanticAnalyzer;
+import proj10LoverudeTymkiwCorrell.bantam.util.ClassTreeNode;
+import proj10LoverudeTymkiwCorrell.bantam.util.CompilationException;
+import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
+
+/**
+ * Checks one file again and again as it is edited, such as the file of a tab of
+ * the editor.  The AST of the last text checked is kept, and each new text is
+ * compared with it to find the edit, which Parser.reparse applies to the AST by
+ * parsing again only the member or class it lies in.  The same SemanticAnalyzer
+ * then reanalyzes the AST, type checking again only the classes the edit
+ * affects.  So checking a large file after a small edit costs little more than
+ * checking the part of it that was edited.
+ *
+ * If the text does not parse, the AST is dropped, and the next text is parsed
+ * from scratch.
+ */
+public class IncrementalChecker
+{
+    /** the name of the file, used in the errors */
+    private final String filename;
+    /** the ErrorHandler with which all the errors are registered */
+    private final ErrorHandler errorHandler;
+    /** the Parser that parses and reparses the file */
+    private final Parser parser;
+    /** the SemanticAnalyzer that keeps the results of the last check */
+    private final SemanticAnalyzer analyzer;
+    /** the AST of the last text checked, or null if it did not parse */
+    private Program program;
+    /** the last text checked, or null if it did not parse */
+    private String text;
+
+    /**
+     * creates an IncrementalChecker that has not checked the file yet
+     *
+     * @param filename the name of the file, used in the errors
+     * @param errorHandler the ErrorHandler with which the errors are registered.
+     *                     It is cleared at the start of every check.
+     */
+    public IncrementalChecker(String filename, ErrorHandler errorHandler) {
+        this.filename = filename;
+        this.errorHandler = errorHandler;
+        this.parser = new Parser(errorHandler);
+        this.analyzer = new SemanticAnalyzer(errorHandler);
+    }
+
+    /**
+     * @return the name of the file
+     */
+    public String getFilename() { return filename; }
+
+    /**
+     * @return the ErrorHandler with which the errors are registered
+     */
+    public ErrorHandler getErrorHandler() { return errorHandler; }
+
+    /**
+     * checks the current text of the file, reusing the AST and the results of
+     * the last check for the parts of the text that did not change
+     *
+     * @param newText the current text of the file
+     * @return root of the class hierarchy tree
+     * @throws CompilationException if any errors were found
+     */
+    public ClassTreeNode check(String newText) {
+        errorHandler.clear();
+        Program previous = program;
+        String oldText = text;
+        program = null; // until the new text is known to parse
+        text = null;
+        if (previous == null || previous.getClassList().getSize() == 0) {
+            previous = parser.parse(filename, newText.toCharArray());
+        }
+        else {
+            // the edit is the part between the longest common prefix and the
+            // longest common suffix of the two texts
+            int maxLength = Math.min(oldText.length(), newText.length());
+            int start = 0;
+            while (start < maxLength && oldText.charAt(start) == newText.charAt(start)) {
+                start++;
+            }
+            int end = 0;
+            while (end < maxLength - start && oldText.charAt(oldText.length() - 1 - end)
+                    == newText.charAt(newText.length() - 1 - end)) {
+                end++;
+            }
+            previous = parser.reparse(previous, oldText, start,
+                    oldText.length() - end - start,
+                    newText.substring(start, newText.length() - end));
+        }
+        program = previous;
+        text = newText;
+        return analyzer.reanalyze(program);
+    }
+}
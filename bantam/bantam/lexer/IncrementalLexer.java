@@ -0,0 +1,305 @@
+/*
+ * File: IncrementalLexer.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.lexer;
+
+import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the tokens of a document that is being edited up to date without
+ * rescanning the whole document after every edit.
+ *
+ * For each line the lexer remembers the state the Scanner is in at the start of
+ * the line: outside of any token, inside a block comment, or inside a string
+ * constant.  After an edit, scanning restarts at the beginning of the first edited
+ * line in the state remembered for it, and stops at the first line after the edit
+ * whose start state comes out the same as before, since from there on the tokens
+ * cannot have changed.  The tokens of the rescanned range are returned as a
+ * Damage, so that only that range needs to be restyled.
+ *
+ * Lines are separated by '\n' only, as in the documents of a CodeArea.
+ * Comments are returned as COMMENT tokens.
+ */
+public class IncrementalLexer
+{
+    /** the state of the Scanner at the start of a line */
+    public enum LineState { DEFAULT, IN_COMMENT, IN_STRING }
+
+    /** the characters of the document */
+    private char[] text;
+    /** the number of characters in the document */
+    private int length;
+    /** the offset of the first character of each line */
+    private int[] lineStarts;
+    /** the state at the start of each line */
+    private LineState[] lineStates;
+    /** the number of lines (at least 1) */
+    private int lineCount;
+
+    /**
+     * creates a lexer for an empty document
+     */
+    public IncrementalLexer() {
+        text = new char[1024];
+        lineStarts = new int[64];
+        lineStates = new LineState[64];
+        lineStarts[0] = 0;
+        lineStates[0] = LineState.DEFAULT;
+        lineCount = 1;
+    }
+
+    /**
+     * @return the number of characters in the document
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return the number of lines in the document
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @param line the index of a line, starting at 0
+     * @return the state of the Scanner at the start of the line
+     */
+    public LineState getLineState(int line) {
+        return lineStates[line];
+    }
+
+    /**
+     * replaces the whole document
+     *
+     * @param newText the new contents of the document
+     * @return the rescanned range, which is the whole document
+     */
+    public Damage setText(String newText) {
+        return edit(0, length, newText);
+    }
+
+    /**
+     * applies an edit to the document and rescans the lines it damaged
+     *
+     * @param position the offset where the edit starts
+     * @param removedLength the number of characters removed at position
+     * @param inserted the characters inserted at position
+     * @return the range whose tokens may have changed, with its new tokens
+     * @throws IndexOutOfBoundsException if the removed range is not in the document
+     */
+    public Damage edit(int position, int removedLength, String inserted) {
+        if (position < 0 || removedLength < 0 || position + removedLength > length) {
+            throw new IndexOutOfBoundsException("Edit at " + position + " removing "
+                    + removedLength + " out of bounds for length " + length);
+        }
+        int firstLine = lineOf(position);
+        int lastRemovedLine = lineOf(position + removedLength);
+        int lastEditedLine = replaceText(position, removedLength, inserted,
+                firstLine, lastRemovedLine);
+        return rescan(firstLine, lastEditedLine);
+    }
+
+    /**
+     * changes the characters and the line tables for an edit.  The states of the
+     * lines after the edit are kept; those of the new lines are set by rescan.
+     *
+     * @return the index of the line containing the end of the inserted text
+     */
+    private int replaceText(int position, int removedLength, String inserted,
+                            int firstLine, int lastRemovedLine) {
+        int delta = inserted.length() - removedLength;
+        if (length + delta > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, length + delta));
+        }
+        System.arraycopy(text, position + removedLength, text,
+                position + inserted.length(), length - position - removedLength);
+        inserted.getChars(0, inserted.length(), text, position);
+        length += delta;
+
+        int insertedLines = 0;
+        for (int i = 0; i < inserted.length(); i++) {
+            if (inserted.charAt(i) == '\n') {
+                insertedLines++;
+            }
+        }
+        int removedLines = lastRemovedLine - firstLine;
+        int newLineCount = lineCount + insertedLines - removedLines;
+        if (newLineCount > lineStarts.length) {
+            int capacity = Math.max(lineStarts.length * 2, newLineCount);
+            lineStarts = Arrays.copyOf(lineStarts, capacity);
+            lineStates = Arrays.copyOf(lineStates, capacity);
+        }
+
+        // move the lines after the edit, shifting their starts
+        int tail = lineCount - lastRemovedLine - 1;
+        System.arraycopy(lineStarts, lastRemovedLine + 1, lineStarts,
+                firstLine + insertedLines + 1, tail);
+        System.arraycopy(lineStates, lastRemovedLine + 1, lineStates,
+                firstLine + insertedLines + 1, tail);
+        for (int line = firstLine + insertedLines + 1; line < newLineCount; line++) {
+            lineStarts[line] += delta;
+        }
+
+        // the lines that begin inside the inserted text
+        int line = firstLine;
+        for (int i = 0; i < inserted.length(); i++) {
+            if (inserted.charAt(i) == '\n') {
+                line++;
+                lineStarts[line] = position + i + 1;
+                lineStates[line] = null;
+            }
+        }
+        if (newLineCount < lineCount) {
+            Arrays.fill(lineStates, newLineCount, lineCount, null);
+        }
+        lineCount = newLineCount;
+        return firstLine + insertedLines;
+    }
+
+    /**
+     * scans from the start of firstLine until the state at the start of a line
+     * after lastEditedLine is the same as before the edit, or to the end
+     *
+     * @param firstLine the first line whose tokens may have changed
+     * @param lastEditedLine the last line containing edited characters
+     * @return the rescanned range and its tokens
+     */
+    private Damage rescan(int firstLine, int lastEditedLine) {
+        int start = lineStarts[firstLine];
+        LineState startState = lineStates[firstLine];
+        Scanner scanner = new Scanner(text, start, length, firstLine + 1,
+                new ErrorHandler());
+        scanner.setEmitComments(true);
+        if (startState == LineState.IN_COMMENT) {
+            scanner.setResumeState(Scanner.RESUME_COMMENT);
+        }
+        else if (startState == LineState.IN_STRING) {
+            scanner.setResumeState(Scanner.RESUME_STRING);
+        }
+
+        TokenBuffer tokens = new TokenBuffer();
+        int nextLine = firstLine + 1;
+        boolean resumedString = startState == LineState.IN_STRING;
+        while (true) {
+            Token.Kind kind = scanner.scan(tokens);
+            int last = tokens.size() - 1;
+            int tokenStart = tokens.getStart(last);
+            int tokenEnd = tokens.getEnd(last);
+
+            // lines that start before the token start outside of any token
+            while (nextLine < lineCount && lineStarts[nextLine] <= tokenStart) {
+                if (nextLine > lastEditedLine
+                        && lineStates[nextLine] == LineState.DEFAULT) {
+                    tokens.truncate(last);
+                    return new Damage(start, lineStarts[nextLine], startState, tokens);
+                }
+                lineStates[nextLine++] = LineState.DEFAULT;
+            }
+            if (kind == Token.Kind.EOF) {
+                tokens.truncate(last);
+                return new Damage(start, length, startState, tokens);
+            }
+
+            // lines that start inside the token, or after a token left open at the end
+            LineState inside;
+            if (kind == Token.Kind.COMMENT) {
+                inside = LineState.IN_COMMENT;
+            }
+            else if ((resumedString && last == 0) || text[tokenStart] == '\"') {
+                inside = LineState.IN_STRING;
+            }
+            else {
+                inside = LineState.DEFAULT;
+            }
+            boolean open = scanner.isTokenUnterminated();
+            while (nextLine < lineCount && (lineStarts[nextLine] < tokenEnd
+                    || (open && lineStarts[nextLine] == tokenEnd))) {
+                if (nextLine > lastEditedLine && lineStates[nextLine] == inside) {
+                    return new Damage(start, tokenEnd, startState, tokens);
+                }
+                lineStates[nextLine++] = inside;
+            }
+        }
+    }
+
+    /**
+     * @param offset an offset in the document, from 0 to its length
+     * @return the index of the line containing the offset
+     */
+    private int lineOf(int offset) {
+        int low = 0;
+        int high = lineCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (lineStarts[middle] <= offset) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A range of the document that was rescanned after an edit, together with
+     * its tokens.  The tokens are in order and lie inside the range; the parts
+     * of the range not covered by a token are white space.
+     */
+    public static class Damage
+    {
+        private final int start;
+        private final int end;
+        private final LineState startState;
+        private final TokenBuffer tokens;
+
+        /**
+         * @param start the offset of the first rescanned character
+         * @param end the offset just past the last rescanned character
+         * @param startState the state at start
+         * @param tokens the tokens of the range
+         */
+        Damage(int start, int end, LineState startState, TokenBuffer tokens) {
+            this.start = start;
+            this.end = end;
+            this.startState = startState;
+            this.tokens = tokens;
+        }
+
+        /**
+         * @return the offset of the first rescanned character
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * @return the offset just past the last rescanned character
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        /**
+         * @return the state at the start of the range.  If it is IN_STRING,
+         *         the first token is the rest of a string constant.
+         */
+        public LineState getStartState() {
+            return startState;
+        }
+
+        /**
+         * @return the tokens of the range, whose offsets are document offsets.
+         *         Their spellings are only valid until the next edit.
+         */
+        public TokenBuffer getTokens() {
+            return tokens;
+        }
+    }
+}
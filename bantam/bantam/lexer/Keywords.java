@@ -0,0 +1,174 @@
+/*
+ * File: Keywords.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.lexer;
+
+import java.util.Arrays;
+
+/**
+ * The words of Bantam Java that the Scanner does not turn into IDENTIFIER tokens,
+ * together with the kind of token each one becomes.  This is the only place the
+ * keywords are listed; the Scanner, Token and Parser all use it.
+ *
+ * Words are looked up with a perfect hash over the first character, the last
+ * character and the length of the word, so a range of characters can be checked
+ * directly in the source buffer without creating a String.  The hash multiplier
+ * is searched for when the class is loaded, so the table stays collision free if
+ * the keyword list is edited.
+ */
+public final class Keywords
+{
+    /** the keywords and the kinds of token they become */
+    private static final String[] WORDS = {
+            "break", "cast", "class", "var", "else", "extends", "for", "if",
+            "instanceof", "new", "return", "while", "true", "false", "Class"};
+    private static final Token.Kind[] KINDS = {
+            Token.Kind.BREAK, Token.Kind.CAST, Token.Kind.CLASS, Token.Kind.VAR,
+            Token.Kind.ELSE, Token.Kind.EXTENDS, Token.Kind.FOR, Token.Kind.IF,
+            Token.Kind.INSTANCEOF, Token.Kind.NEW, Token.Kind.RETURN,
+            Token.Kind.WHILE, Token.Kind.BOOLEAN, Token.Kind.BOOLEAN, Token.Kind.CLASS};
+    /** the number of leading entries of WORDS that are reserved words */
+    private static final int NUM_RESERVED_WORDS = 12;
+
+    /** identifiers with a fixed meaning: the primitive types and the special variables */
+    private static final char[][] RESERVED_IDENTIFIERS = {
+            "int".toCharArray(), "boolean".toCharArray(), "void".toCharArray(),
+            "this".toCharArray(), "super".toCharArray(), "null".toCharArray()};
+
+    /** the number of bits in a hash value; the table has 2^HASH_BITS slots */
+    private static final int HASH_BITS = 5;
+
+    /** the multiplier that makes the hash collision free over WORDS */
+    private static final int multiplier;
+    /** the keyword characters in each slot, or null if the slot is empty */
+    private static final char[][] slotWords = new char[1 << HASH_BITS][];
+    /** the kind of the keyword in each slot */
+    private static final Token.Kind[] slotKinds = new Token.Kind[1 << HASH_BITS];
+    /** whether the keyword in each slot is a reserved word */
+    private static final boolean[] slotReserved = new boolean[1 << HASH_BITS];
+
+    static {
+        multiplier = findMultiplier();
+        for (int i = 0; i < WORDS.length; i++) {
+            char[] word = WORDS[i].toCharArray();
+            int slot = hash(multiplier, word, 0, word.length);
+            slotWords[slot] = word;
+            slotKinds[slot] = KINDS[i];
+            slotReserved[slot] = i < NUM_RESERVED_WORDS;
+        }
+    }
+
+    /**
+     * no instances
+     */
+    private Keywords() {
+    }
+
+    /**
+     * looks up a word given as a range of characters
+     *
+     * @param chars the characters holding the word
+     * @param start the offset of the first character of the word
+     * @param length the number of characters in the word (at least 1)
+     * @return the kind of the keyword, or IDENTIFIER if the word is not a keyword
+     */
+    public static Token.Kind lookup(char[] chars, int start, int length) {
+        int slot = hash(multiplier, chars, start, length);
+        char[] word = slotWords[slot];
+        if (word == null || word.length != length) {
+            return Token.Kind.IDENTIFIER;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word[i] != chars[start + i]) {
+                return Token.Kind.IDENTIFIER;
+            }
+        }
+        return slotKinds[slot];
+    }
+
+    /**
+     * looks up a word
+     *
+     * @param word the word to look up
+     * @return the kind of the keyword, or IDENTIFIER if the word is not a keyword
+     */
+    public static Token.Kind lookup(String word) {
+        if (word.isEmpty()) {
+            return Token.Kind.IDENTIFIER;
+        }
+        return lookup(word.toCharArray(), 0, word.length());
+    }
+
+    /**
+     * @param word the word to check
+     * @return true if the word is one of the reserved words of Bantam Java,
+     *         which cannot be used as names of types
+     */
+    public static boolean isReservedWord(String word) {
+        if (lookup(word) == Token.Kind.IDENTIFIER) {
+            return false;
+        }
+        return slotReserved[hash(multiplier, word.toCharArray(), 0, word.length())];
+    }
+
+    /**
+     * checks whether an identifier is one of the names with a fixed meaning in
+     * Bantam Java (int, boolean, void, this, super and null), which are scanned as
+     * IDENTIFIER tokens but are shown like keywords
+     *
+     * @param chars the characters holding the identifier
+     * @param start the offset of the first character of the identifier
+     * @param length the number of characters in the identifier
+     * @return true if the identifier has a fixed meaning
+     */
+    public static boolean isReservedIdentifier(char[] chars, int start, int length) {
+        for (char[] name : RESERVED_IDENTIFIERS) {
+            if (Arrays.equals(name, 0, name.length, chars, start, start + length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * computes the slot of a word from its first and last characters and its length
+     *
+     * @param multiplier the odd multiplier that spreads the key over the slots
+     * @param chars the characters holding the word
+     * @param start the offset of the first character of the word
+     * @param length the number of characters in the word (at least 1)
+     * @return the slot of the word in the table
+     */
+    private static int hash(int multiplier, char[] chars, int start, int length) {
+        int key = (chars[start] << 16) ^ (chars[start + length - 1] << 5) ^ length;
+        return (key * multiplier) >>> (Integer.SIZE - HASH_BITS);
+    }
+
+    /**
+     * finds a multiplier for which no two keywords hash to the same slot
+     *
+     * @return the multiplier
+     * @throws IllegalStateException if there is no such multiplier
+     */
+    private static int findMultiplier() {
+        for (int candidate = 0x9E3779B1; candidate != 0x9E3779B1 + 2 * 1_000_000;
+             candidate += 2) {
+            boolean[] used = new boolean[1 << HASH_BITS];
+            boolean collisionFree = true;
+            for (String word : WORDS) {
+                int slot = hash(candidate, word.toCharArray(), 0, word.length());
+                if (used[slot]) {
+                    collisionFree = false;
+                    break;
+                }
+                used[slot] = true;
+            }
+            if (collisionFree) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No perfect hash found for the keywords");
+    }
+}
@@ -2,14 +2,23 @@ package proj10LoverudeTymkiwCorrell.bantam.lexer;
 
 import proj10LoverudeTymkiwCorrell.bantam.util.Error;
 import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
+import proj10LoverudeTymkiwCorrell.bantam.util.Interner;
+import proj10LoverudeTymkiwCorrell.bantam.util.SourceRange;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.*;
 
 /**
  * This class reads characters from a file or a Reader
  * and breaks it into Tokens.
+ *
+ * Tokens can be obtained one at a time as Token objects with scan(), or be
+ * written into a reusable TokenBuffer with scan(TokenBuffer) and scanAll(TokenBuffer).
+ * The second way does not create any objects per token, since the spellings are
+ * kept as offsets into the characters of the source.
  */
 public class Scanner
 {
@@ -17,41 +26,64 @@ public class Scanner
     private SourceFile sourceFile;
     /** collector of all errors that occur */
     private ErrorHandler errorHandler;
+    /** the pool that makes the spellings of identifiers canonical */
+    private Interner interner;
 
     private char currentChar;
 
     private boolean isChecked;
 
-//    private final List<Integer> specialSymbolsASCII = Arrays.asList(
-//            33,38,40,41,42,43,44,45,46,47,58,59,60,61,62,92,123,124,125);
-
-    private final Set<Character> specialSymbolsSet = Set.of(
-            '!', '&', '(', ')', '*', '+', ',', '-', '.', '/', ':', ';',
-            '<', '=', '>', '\\', '{', '|', '}', '%');
-
-    private final Set<String> legalEscapeCharSet = Set.of(
-            "f", "n", "t", "\\", "\"");
-
-    private final Set<Character> whiteSpaceSet = Set.of(
-            ' ', '\t', SourceFile.CR, SourceFile.EOL);
-
-    private final Map<String, Token.Kind> stringTokenKindMap = Map.ofEntries(
-            new AbstractMap.SimpleEntry<>("NEW", Token.Kind.NEW),
-            new AbstractMap.SimpleEntry<>("cast", Token.Kind.CAST),
-            new AbstractMap.SimpleEntry<>("instaceof", Token.Kind.INSTANCEOF),
-            new AbstractMap.SimpleEntry<>("true", Token.Kind.BOOLEAN),
-            new AbstractMap.SimpleEntry<>("false", Token.Kind.BOOLEAN),
-            new AbstractMap.SimpleEntry<>("break", Token.Kind.BREAK),
-            new AbstractMap.SimpleEntry<>("Class", Token.Kind.CLASS),
-            new AbstractMap.SimpleEntry<>("var", Token.Kind.VAR),
-            new AbstractMap.SimpleEntry<>("else", Token.Kind.ELSE),
-            new AbstractMap.SimpleEntry<>("extends", Token.Kind.EXTENDS),
-            new AbstractMap.SimpleEntry<>("for", Token.Kind.FOR),
-            new AbstractMap.SimpleEntry<>("if", Token.Kind.IF),
-            new AbstractMap.SimpleEntry<>("return", Token.Kind.RETURN),
-            new AbstractMap.SimpleEntry<>("while", Token.Kind.WHILE)
-    );
-
+    /** the offset in the source of the first character of the last token scanned */
+    private int tokenStart;
+    /** the offset in the source just past the last character of the last token */
+    private int tokenEnd;
+    /** the line where the last token scanned starts */
+    private int tokenLine;
+    /** the line number that scan() reports as the position of the last token */
+    private int tokenPosition;
+    /** true if the last token is a comment or string still open at the end */
+    private boolean tokenUnterminated;
+
+    /** true if comments are returned as COMMENT tokens instead of being skipped */
+    private boolean emitComments;
+    /** what the first token continues: RESUME_NONE, RESUME_COMMENT or RESUME_STRING */
+    private int resumeState;
+
+    /** the values of resumeState */
+    static final int RESUME_NONE = 0;
+    static final int RESUME_COMMENT = 1;
+    static final int RESUME_STRING = 2;
+
+    /** the character classes used to decide what kind of token comes next */
+    private static final byte OTHER = 0;
+    private static final byte WHITESPACE = 1;
+    private static final byte LETTER = 2;
+    private static final byte DIGIT = 3;
+    private static final byte SYMBOL = 4;
+    private static final byte QUOTE = 5;
+    private static final byte END = 6;
+
+    /** the character class of each ASCII character */
+    private static final byte[] ASCII_CLASSES = new byte[128];
+
+    static {
+        for (char c = 0; c < ASCII_CLASSES.length; c++) {
+            if (Character.isLetter(c)) {
+                ASCII_CLASSES[c] = LETTER;
+            }
+            else if (Character.isDigit(c)) {
+                ASCII_CLASSES[c] = DIGIT;
+            }
+        }
+        for (char c : new char[]{' ', '\t', SourceFile.CR, SourceFile.EOL}) {
+            ASCII_CLASSES[c] = WHITESPACE;
+        }
+        for (char c : "!&()*+,-./:;<=>\\{|}%".toCharArray()) {
+            ASCII_CLASSES[c] = SYMBOL;
+        }
+        ASCII_CLASSES['\"'] = QUOTE;
+        ASCII_CLASSES[SourceFile.EOF] = END;
+    }
 
     /**
      * creates a new scanner for the given file
@@ -59,7 +91,18 @@ public class Scanner
      * @param handler the ErrorHandler that collects all the errors found
      */
     public Scanner(String filename, ErrorHandler handler) {
+        this(filename, handler, new Interner());
+    }
+
+    /**
+     * creates a new scanner for the given file
+     * @param filename the name of the file to be scanned
+     * @param handler the ErrorHandler that collects all the errors found
+     * @param interner the pool that the spellings of identifiers are taken from
+     */
+    public Scanner(String filename, ErrorHandler handler, Interner interner) {
         errorHandler = handler;
+        this.interner = interner;
         currentChar = ' ';
         sourceFile = new SourceFile(filename);
         isChecked = true;
@@ -71,12 +114,106 @@ public class Scanner
      * @param handler the ErrorHandler that collects all the errors found
      */
     public Scanner(Reader reader, ErrorHandler handler) {
+        this(reader, handler, new Interner());
+    }
+
+    /**
+     * creates a new scanner for the characters of the given Reader
+     * @param reader the Reader that provides the characters
+     * @param handler the ErrorHandler that collects all the errors found
+     * @param interner the pool that the spellings of identifiers are taken from
+     */
+    public Scanner(Reader reader, ErrorHandler handler, Interner interner) {
         errorHandler = handler;
+        this.interner = interner;
         sourceFile = new SourceFile(reader);
         isChecked = true;
 
     }
 
+    /**
+     * creates a new scanner for a range of characters, such as part of a document
+     * being edited.  The offsets of the tokens are offsets in chars.
+     * @param chars the characters holding the range
+     * @param start the offset of the first character to be scanned
+     * @param end the offset just past the last character to be scanned
+     * @param firstLine the line number of the first character
+     * @param handler the ErrorHandler that collects all the errors found
+     */
+    Scanner(char[] chars, int start, int end, int firstLine, ErrorHandler handler) {
+        this(chars, start, end, firstLine, handler, new Interner());
+    }
+
+    /**
+     * creates a new scanner for a range of characters, such as a class or method
+     * of a document being edited.  The offsets of the tokens are offsets in chars.
+     * @param chars the characters holding the range
+     * @param start the offset of the first character to be scanned
+     * @param end the offset just past the last character to be scanned
+     * @param firstLine the line number of the first character
+     * @param handler the ErrorHandler that collects all the errors found
+     * @param interner the pool that the spellings of identifiers are taken from
+     */
+    public Scanner(char[] chars, int start, int end, int firstLine, ErrorHandler handler,
+                   Interner interner) {
+        errorHandler = handler;
+        this.interner = interner;
+        sourceFile = new SourceFile(chars, start, end, firstLine);
+        isChecked = true;
+    }
+
+    /**
+     * creates a new scanner for the characters of a file that were read already,
+     * such as from a ByteBuffer decoded with decode
+     * @param filename the name of the file, used in errors
+     * @param chars the characters of the file
+     * @param handler the ErrorHandler that collects all the errors found
+     * @param interner the pool that the spellings of identifiers are taken from
+     */
+    public Scanner(String filename, char[] chars, ErrorHandler handler,
+                   Interner interner) {
+        errorHandler = handler;
+        this.interner = interner;
+        sourceFile = new SourceFile(filename, chars);
+        isChecked = true;
+    }
+
+    /**
+     * decodes the bytes of a file into characters the same way the scanner does
+     * when it reads the file itself
+     * @param bytes the bytes of the file
+     * @return the characters of the file
+     */
+    public static char[] decode(ByteBuffer bytes) {
+        CharBuffer chars = SourceFile.decode(bytes);
+        return Arrays.copyOf(chars.array(), chars.limit());
+    }
+
+    /**
+     * @param emitComments true if comments should be returned as COMMENT tokens
+     *                     instead of being skipped
+     */
+    void setEmitComments(boolean emitComments) {
+        this.emitComments = emitComments;
+    }
+
+    /**
+     * makes the first token continue a block comment or a string constant that
+     * was opened before the start of the scanned characters
+     * @param resumeState RESUME_NONE, RESUME_COMMENT or RESUME_STRING
+     */
+    void setResumeState(int resumeState) {
+        this.resumeState = resumeState;
+    }
+
+    /**
+     * @return true if the last token scanned is a comment or a string constant
+     *         that is still open at the end of the characters
+     */
+    boolean isTokenUnterminated() {
+        return tokenUnterminated;
+    }
+
     public String getSourceFile(){
         return sourceFile.getFilename();
     }
@@ -85,343 +222,377 @@ public class Scanner
     /**
      * read characters and collect them into a Token.
      * It ignores white space unless it is inside a string or a comment.
+     * The spelling of an identifier is the canonical String from the Interner.
      * It returns an EOF Token if all characters from the sourceFile have
      * already been read.
      * @return the Token containing the characters read
      */
     public Token scan() {
+        Token.Kind kind = scanToken();
 
-
-        if(isChecked){
-            currentChar = scannerGetNextChar();
+        long range = SourceRange.of(tokenStart, tokenEnd);
+        if (kind == Token.Kind.EOF) {
+            return new Token(kind, "" + SourceFile.EOF, tokenPosition, range);
         }
-        else{
-            isChecked = true;
-        }
-        // Ignores whitespace, CR, and EOl
-        while (whiteSpaceSet.contains(currentChar))
-        {
-            currentChar = scannerGetNextChar();
+        else if (kind == Token.Kind.IDENTIFIER) {
+            return new Token(kind, interner.intern(sourceFile.getBuffer(), tokenStart,
+                    tokenEnd - tokenStart), tokenPosition, range);
         }
-        // If next token is KeyWord
-        if (Character.isLetter(currentChar)){
+        return new Token(kind, new String(sourceFile.getBuffer(), tokenStart,
+                tokenEnd - tokenStart), tokenPosition, range);
+    }
 
-            return scanCharacters(currentChar);
+    /**
+     * reads the next token and appends it to the given buffer, without
+     * creating a Token or a String for it.  The line stored with the token
+     * is the line where it starts.
+     *
+     * @param tokens the buffer that receives the token
+     * @return the kind of the token that was appended
+     */
+    public Token.Kind scan(TokenBuffer tokens) {
+        Token.Kind kind = scanToken();
+        tokens.setSource(sourceFile.getBuffer());
+        tokens.add(kind, tokenStart, tokenEnd - tokenStart, tokenLine);
+        return kind;
+    }
 
+    /**
+     * reads all the remaining tokens, including the final EOF token,
+     * and appends them to the given buffer
+     *
+     * @param tokens the buffer that receives the tokens
+     * @return the buffer
+     */
+    public TokenBuffer scanAll(TokenBuffer tokens) {
+        while (scan(tokens) != Token.Kind.EOF) {
+            // keep scanning
         }
-        // If next token is an integer
-        else if (Character.isDigit(currentChar)) {
+        return tokens;
+    }
 
-            return scanIntegers(currentChar);
+    /**
+     * reads the characters of the next token, skipping white space and comments,
+     * and records where the token is in tokenStart, tokenEnd, tokenLine and
+     * tokenPosition.
+     *
+     * @return the kind of the token read
+     */
+    private Token.Kind scanToken() {
+        while (true) {
+            if(isChecked){
+                currentChar = scannerGetNextChar();
+            }
+            else{
+                isChecked = true;
+            }
+            tokenUnterminated = false;
+            if (resumeState != RESUME_NONE) {
+                Token.Kind kind = resumeToken();
+                if (kind == Token.Kind.COMMENT && !emitComments) {
+                    continue;
+                }
+                tokenPosition = sourceFile.getCurrentLineNumber();
+                return kind;
+            }
+            // Ignores whitespace, CR, and EOl
+            while (classify(currentChar) == WHITESPACE)
+            {
+                currentChar = scannerGetNextChar();
+            }
 
-        }
-        // If next token is a special symbol
-        else if (specialSymbolsSet.contains(currentChar)) {
+            tokenStart = sourceFile.getCharOffset();
+            tokenLine = sourceFile.getCurrentLineNumber();
+            Token.Kind kind;
 
-            return scanSpecialSymbols(currentChar);
+            switch (classify(currentChar)) {
+                // If next token is KeyWord
+                case LETTER:
+                    kind = scanCharacters();
+                    break;
+                // If next token is an integer
+                case DIGIT:
+                    kind = scanIntegers();
+                    break;
+                // If next token is a special symbol
+                case SYMBOL:
+                    kind = scanSpecialSymbols(currentChar);
+                    if (kind == Token.Kind.COMMENT && !emitComments) {
+                        continue;
+                    }
+                    break;
+                // If next token is a string
+                case QUOTE:
+                    kind = scanStrings();
+                    break;
+                // If next token is EOF token
+                case END:
+                    isChecked = false;
+                    tokenEnd = tokenStart;
+                    kind = Token.Kind.EOF;
+                    break;
+                default:
+                    tokenEnd = tokenStart + 1;
+                    kind = Token.Kind.ERROR;
+            }
 
+            if (kind != Token.Kind.INTCONST) {
+                tokenPosition = sourceFile.getCurrentLineNumber();
+            }
+            return kind;
         }
-        // If next token is a string
-        else if (currentChar == '\"') {
-
-            return scanStrings(currentChar);
+    }
 
+    /**
+     * scans the rest of the block comment or string constant that the
+     * scanned characters start in, as set by setResumeState
+     *
+     * @return COMMENT, or the kind of the string constant
+     */
+    private Token.Kind resumeToken() {
+        int state = resumeState;
+        resumeState = RESUME_NONE;
+        tokenStart = sourceFile.getCharOffset();
+        tokenLine = sourceFile.getCurrentLineNumber();
+        if (state == RESUME_COMMENT) {
+            skipBlockComment();
+            if (currentChar == SourceFile.EOF) {
+                isChecked = false;
+            }
+            return Token.Kind.COMMENT;
         }
-        // If next token is EOF token
-        else if (currentChar == SourceFile.EOF ){
+        return scanStringBody();
+    }
 
-            return new Token(Token.Kind.EOF, ""+ currentChar,
-                    sourceFile.getCurrentLineNumber());
+    /**
+     * @param c the character to classify
+     * @return the character class of c: WHITESPACE, LETTER, DIGIT, SYMBOL, QUOTE,
+     *         END or OTHER.  ASCII characters are looked up in a table and all
+     *         the others are classified with the Character methods.
+     */
+    private static byte classify(char c) {
+        if (c < ASCII_CLASSES.length) {
+            return ASCII_CLASSES[c];
+        }
+        if (Character.isLetter(c)) {
+            return LETTER;
+        }
+        return Character.isDigit(c) ? DIGIT : OTHER;
+    }
 
+    /**
+     * @param c the character to classify
+     * @return true if c can appear after the first character of an identifier
+     */
+    private static boolean isIdentifierPart(char c) {
+        if (c < ASCII_CLASSES.length) {
+            byte charClass = ASCII_CLASSES[c];
+            return charClass == LETTER || charClass == DIGIT || c == '_';
         }
+        return Character.isLetterOrDigit(c);
+    }
 
-        return new Token(Token.Kind.ERROR, "" + currentChar,
-                sourceFile.getCurrentLineNumber());
+    /**
+     * finds the line where a keyword or identifier starts from the line that
+     * scan() reported as its position.  That is the line of the character read
+     * after the token, which is the next line if the token ends a line.
+     *
+     * @param text the characters the token was scanned from
+     * @param start the offset of the first character of the token
+     * @param position the line scan() reported for the token
+     * @return the line of the first character of the token
+     */
+    public static int getStartLine(CharSequence text, int start, int position) {
+        int end = start + 1;
+        while (end < text.length() && isIdentifierPart(text.charAt(end))) {
+            end++;
+        }
+        if (end < text.length() &&
+                (text.charAt(end) == SourceFile.CR || text.charAt(end) == SourceFile.EOL)) {
+            return position - 1;
+        }
+        return position;
+    }
 
+    /**
+     * @param c the character following a backslash in a string constant
+     * @return true if the backslash and c form a legal escape sequence
+     */
+    private static boolean isLegalEscapeChar(char c) {
+        return c == 'f' || c == 'n' || c == 't' || c == '\\' || c == '\"';
     }
 
     /**
-     * Scans special symbols and returns the appropriate token
+     * Scans special symbols and returns the kind of the token
      * @param (character) character given from scanner
+     * @return the kind of the token, or COMMENT if a comment was skipped
      * @author Dylan Tymkiw
      * */
-    private Token scanSpecialSymbols(char character){
+    private Token.Kind scanSpecialSymbols(char character){
         //Check what kind of especial symbol
         //If +|-|!|=|>|<|/| check if the next line, if not just return the token
         currentChar = character;
-        String charArray = "" + character;
-
-        //Left curly bracket
-        if (character == '{'){
-            return new Token(Token.Kind.LCURLY, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-        //Right curly bracket
-        else if (character == '}'){
-            return new Token(Token.Kind.RCURLY, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-        //Left parenthesis
-        else if (character == '('){
-            return new Token(Token.Kind.LPAREN, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-        //Right parenthesis
-        else if (character == ')'){
-            return new Token(Token.Kind.RPAREN, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-
-        //Semicolon
-        else if(character == ';'){
-            return new Token(Token.Kind.SEMICOLON, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-        //Comma
-        else if(character == ','){
-            return new Token(Token.Kind.COMMA, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-        // Dot
-        else if(character == '.'){
-            return new Token(Token.Kind.DOT, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-        //Colon
-        else if(character == ':'){
-            return new Token(Token.Kind.COLON, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-        // Unary Not
-        else if (character == '!'){
-            currentChar = scannerGetNextChar();
-            //When followed by white space
-            if (currentChar != '=') {
-                isChecked = false;
-                return new Token(Token.Kind.UNARYNOT, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-            //When followed by equal sign
-            else{
-                charArray += currentChar;
-                return new Token(Token.Kind.COMPARE, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-        }
-        // Multiplication sign
-        else if (character == '*'){
-            return new Token(Token.Kind.MULDIV, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-        // Modulus Division sign
-        else if (character == '%'){
-            return new Token(Token.Kind.MULDIV, charArray,
-                    sourceFile.getCurrentLineNumber());
-        }
-        // Plus sign
-        else if (character == '+'){
-            currentChar = scannerGetNextChar();
-            //If followed by white Space
-            if (currentChar != '+'){
-                isChecked = false;
-                return new Token(Token.Kind.PLUSMINUS, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-            //If followed by another plus sign
-            else{
-                charArray += currentChar;
-                return new Token(Token.Kind.UNARYINCR, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-        }
-        //Minus sign
-        else if(character == '-'){
-            currentChar = scannerGetNextChar();
-            //If followed by whitespace
-            if(currentChar != '-'){
-                isChecked = false;
-                return new Token(Token.Kind.PLUSMINUS, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-            //If followed by another minus sign
-            else{
-                charArray += currentChar;
-                return new Token(Token.Kind.UNARYDECR, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-        }
-        // Less than sign or greater than sign
-        else if(character == '<' || character == '>'){
-            currentChar = scannerGetNextChar();
-            //If followed by whitespace
-            if(currentChar != '='){
-                isChecked = false;
-                return new Token(Token.Kind.COMPARE, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-            //If followed by equal sign
-            else{
-                charArray += currentChar;
-                return new Token(Token.Kind.COMPARE, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-        }
-        //Equal sign
-        else if(character == '='){
-            currentChar = scannerGetNextChar();
-            //If followed by whitespace
-            if(currentChar != '='){
-                isChecked = false;
-                return new Token(Token.Kind.ASSIGN, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-            //If followed by another equal sign
-            else{
-                charArray += currentChar;
-                return new Token(Token.Kind.COMPARE, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-        }
-        //AND operator
-        else if(character == '&'){
-            currentChar = scannerGetNextChar();
-            //If followed by white space, throw an error
-            if(currentChar != '&'){
-                errorHandler.register(Error.Kind.SEMANT_ERROR, sourceFile.getFilename(),
-                        sourceFile.getCurrentLineNumber(), "Invalid Symbol");
+        tokenEnd = tokenStart + 1;
+
+        switch (character) {
+            //Brackets
+            case '{':
+                return Token.Kind.LCURLY;
+            case '}':
+                return Token.Kind.RCURLY;
+            case '(':
+                return Token.Kind.LPAREN;
+            case ')':
+                return Token.Kind.RPAREN;
+            //Punctuation
+            case ';':
+                return Token.Kind.SEMICOLON;
+            case ',':
+                return Token.Kind.COMMA;
+            case '.':
+                return Token.Kind.DOT;
+            case ':':
+                return Token.Kind.COLON;
+            // Multiplication and modulus division signs
+            case '*':
+            case '%':
+                return Token.Kind.MULDIV;
+            // Unary Not or not equal
+            case '!':
+                return scanPair('=', Token.Kind.UNARYNOT, Token.Kind.COMPARE);
+            // Plus sign or increment
+            case '+':
+                return scanPair('+', Token.Kind.PLUSMINUS, Token.Kind.UNARYINCR);
+            //Minus sign or decrement
+            case '-':
+                return scanPair('-', Token.Kind.PLUSMINUS, Token.Kind.UNARYDECR);
+            // Less than sign or greater than sign
+            case '<':
+            case '>':
+                return scanPair('=', Token.Kind.COMPARE, Token.Kind.COMPARE);
+            //Assignment or equal sign
+            case '=':
+                return scanPair('=', Token.Kind.ASSIGN, Token.Kind.COMPARE);
+            //AND and OR operators
+            case '&':
+            case '|':
+                return scanLogicalOperator(character);
+            // Divide token or Comment
+            case '/':
+                currentChar = scannerGetNextChar();
+                //If followed by / or * skip the comment
+                if (currentChar == '/' || currentChar == '*') {
+                    skipComment();
+                    return Token.Kind.COMMENT;
+                }
+                //Otherwise it is a divide operator
                 isChecked = false;
-                return new Token(Token.Kind.ERROR, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-            //If followed by another &, create the token
-            else{
-                charArray += currentChar;
-                return new Token(Token.Kind.BINARYLOGIC, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-        }
-        //OR operator
-        else if(character == '|'){
-            currentChar = scannerGetNextChar();
-            //If followed by white space, throw an error
-            if(currentChar != '|'){
+                return Token.Kind.MULDIV;
+            default:
                 errorHandler.register(Error.Kind.SEMANT_ERROR, sourceFile.getFilename(),
                         sourceFile.getCurrentLineNumber(), "Invalid Symbol");
-                isChecked = false;
-                return new Token(Token.Kind.ERROR, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-            //If followed by another &, create the token
-            else{
-                charArray += currentChar;
-                return new Token(Token.Kind.BINARYLOGIC, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
+                return Token.Kind.ERROR;
         }
-        // Divide token or Comment
-        else if(character == '/'){
-            currentChar = scannerGetNextChar();
-            //If followed by whitespace it is a divide operator
-            if(currentChar != '/' && currentChar != '*'){
-                return new Token(Token.Kind.MULDIV, charArray,
-                        sourceFile.getCurrentLineNumber());
-            }
-            //If followed by / or * call comment method
-            else{
-               return scanComments();
-            }
+    }
+
+    /**
+     * Scans an operator that is either one character long or two characters
+     * long with the given second character
+     *
+     * @param second the second character of the two-character operator
+     * @param single the kind of the one-character operator
+     * @param pair the kind of the two-character operator
+     * @return the kind of the operator read
+     */
+    private Token.Kind scanPair(char second, Token.Kind single, Token.Kind pair) {
+        currentChar = scannerGetNextChar();
+        //When not followed by the second character
+        if (currentChar != second) {
+            isChecked = false;
+            return single;
         }
+        tokenEnd = tokenStart + 2;
+        return pair;
+    }
 
-        errorHandler.register(Error.Kind.SEMANT_ERROR, sourceFile.getFilename(),
-                sourceFile.getCurrentLineNumber(), "Invalid Symbol");
-        return new Token(Token.Kind.ERROR, charArray, sourceFile.getCurrentLineNumber());
+    /**
+     * Scans a && or || operator, registering an error if the character is not doubled
+     *
+     * @param symbol the first character of the operator
+     * @return BINARYLOGIC, or ERROR if the character is not doubled
+     */
+    private Token.Kind scanLogicalOperator(char symbol) {
+        currentChar = scannerGetNextChar();
+        //If followed by anything else, register an error
+        if (currentChar != symbol) {
+            errorHandler.register(Error.Kind.SEMANT_ERROR, sourceFile.getFilename(),
+                    sourceFile.getCurrentLineNumber(), "Invalid Symbol");
+            isChecked = false;
+            return Token.Kind.ERROR;
+        }
+        tokenEnd = tokenStart + 2;
+        return Token.Kind.BINARYLOGIC;
     }
 
     /**
-     * Scans characters and returns the appropriate token
+     * Scans characters and returns the kind of the token
      *
-     * @param character char at beginning of token
-     * @return Token object containing token information
+     * @return IDENTIFIER or the kind of the keyword read
      * */
-    private Token scanCharacters(char character){
+    private Token.Kind scanCharacters(){
         //Keep going until white space
         //Check if they are keywoards or identifiers or booleans
-        StringBuilder stringBuilder = new StringBuilder();
-
-        stringBuilder.append(character);
         currentChar = scannerGetNextChar();
 
         // Word can contain alphabetical charaters, digits, and underscores
-        while(Character.isLetterOrDigit(currentChar) || currentChar == '_'){
-            stringBuilder.append(currentChar);
+        while(isIdentifierPart(currentChar)){
             currentChar = scannerGetNextChar();
         }
+        tokenEnd = sourceFile.getCharOffset();
 
-        if(!whiteSpaceSet.contains(currentChar)){
+        if(classify(currentChar) != WHITESPACE){
             isChecked = false;
         }
-        if(stringTokenKindMap.containsKey(stringBuilder.toString())){
-
-            Token.Kind tokenType = stringTokenKindMap.get(stringBuilder.toString());
-
-            return new Token(tokenType, stringBuilder.toString(),
-                    sourceFile.getCurrentLineNumber());
-
-        }
-        else{
-            return new Token(Token.Kind.IDENTIFIER, stringBuilder.toString(),
-                    sourceFile.getCurrentLineNumber());
-        }
-
+        return Keywords.lookup(sourceFile.getBuffer(), tokenStart, tokenEnd - tokenStart);
     }
 
     /**
-     * Scans integers and returns the appropriate token
+     * Scans integers and returns the kind of the token
      *
-     * @param character char at beginning of token
-     * @return Token object containing token information
+     * @return INTCONST, or ERROR if the integer is too large
      * */
-    private Token scanIntegers(char character){
+    private Token.Kind scanIntegers(){
         //Keep going until white space
+        long value = 0;
 
-        StringBuilder stringBuilder = new StringBuilder();
-
-        currentChar = character;
-
-        // Word can contain alphabetical characters, digits, and underscores
-        while(Character.isDigit(currentChar)){
-
-            stringBuilder.append(currentChar);
-
+        // Accumulates the digits, but stops once the value is known to be too large
+        while(classify(currentChar) == DIGIT){
+            if (value < Integer.MAX_VALUE) {
+                value = value * 10 + Character.digit(currentChar, 10);
+            }
             currentChar = scannerGetNextChar();
-
         }
+        tokenEnd = sourceFile.getCharOffset();
 
-        if(!whiteSpaceSet.contains(currentChar)){
+        if(classify(currentChar) != WHITESPACE){
             isChecked = false;
         }
 
-        // Converts to Long to check if integer out of bounds
-        if(Long.parseLong(stringBuilder.toString()) < 0 ||
-                Long.parseLong(stringBuilder.toString()) >= Integer.MAX_VALUE){
+        if(value >= Integer.MAX_VALUE){
 
             registerError("Var is out of bounds.");
-
-            return new Token(Token.Kind.ERROR, stringBuilder.toString(),
-                    sourceFile.getCurrentLineNumber());
+            tokenPosition = sourceFile.getCurrentLineNumber();
+            return Token.Kind.ERROR;
 
         }
 
-        int currentPosition;
         if(currentChar == SourceFile.EOL){
-            currentPosition = sourceFile.getCurrentLineNumber() -  1;
+            tokenPosition = sourceFile.getCurrentLineNumber() -  1;
         }
         else{
-            currentPosition = sourceFile.getCurrentLineNumber();
+            tokenPosition = sourceFile.getCurrentLineNumber();
         }
-
-        return new Token(Token.Kind.INTCONST, stringBuilder.toString(),
-                currentPosition);
+        return Token.Kind.INTCONST;
     }
 
     /**
@@ -439,28 +610,40 @@ public class Scanner
     }
 
     /**
-     * Scans strings and returns a token holding the spelling
+     * Scans strings and returns the kind of the token
+     *
+     * @return STRCONST, or ERROR if the string constant is not legal
+     * */
+    private Token.Kind scanStrings() {
+        currentChar = scannerGetNextChar();
+        return scanStringBody();
+    }
+
+    /**
+     * Scans the characters of a string constant after the opening quote,
+     * starting with the current character
      *
-     * @param firstChar char at beginning of token
-     * @return Token object containing token information
+     * @return STRCONST, or ERROR if the string constant is not legal
      * */
-    private Token scanStrings(char firstChar) {
+    private Token.Kind scanStringBody() {
         //Keeps going until closing quotes
 
         boolean containsIllegalEscape = false;
 
-        StringBuilder stringBuilder = new StringBuilder();
-
         int startingLineNumber = sourceFile.getCurrentLineNumber();
 
-        stringBuilder.append(firstChar);
-        currentChar = scannerGetNextChar();
         char lastChar;
 
-        // While !String.valueOf(currentChar).equals("\""
         while(currentChar != '\"'){
 
-            stringBuilder.append(currentChar);
+            if(currentChar == SourceFile.EOF){
+                isChecked = false;
+                tokenEnd = sourceFile.getCharOffset();
+                tokenUnterminated = true;
+                registerError("String constant is not terminated.");
+                return Token.Kind.ERROR;
+            }
+
             lastChar = currentChar;
             currentChar = scannerGetNextChar();
 
@@ -468,76 +651,88 @@ public class Scanner
             // If last character was backslash, checks for legal escape character
             if(lastChar == '\\'){
 
-                if(!legalEscapeCharSet.contains(String.valueOf(currentChar))){
+                if(!isLegalEscapeChar(currentChar)){
                     containsIllegalEscape = true;
                 }
                 else{
-                    stringBuilder.append(currentChar);
                     currentChar = scannerGetNextChar();
                 }
             }
         }
 
-        stringBuilder.append(currentChar);
+        tokenEnd = sourceFile.getCharOffset() + 1;
 
-        if(stringBuilder.length() > 5000){
+        if(tokenEnd - tokenStart > 5000){
 
             registerError("String constant exceeds 5000 characters.");
-
-            return new Token(Token.Kind.ERROR, stringBuilder.toString(),
-                    sourceFile.getCurrentLineNumber());
+            return Token.Kind.ERROR;
         }
         else if(sourceFile.getCurrentLineNumber() != startingLineNumber){
 
             registerError("String constant spans multiple lines.");
-
-            return new Token(Token.Kind.ERROR, stringBuilder.toString(),
-                    sourceFile.getCurrentLineNumber());
+            return Token.Kind.ERROR;
 
         }
         else if(containsIllegalEscape){
 
             registerError("String constant contains unsupported escape character.");
-
-            return new Token(Token.Kind.ERROR, stringBuilder.toString(),
-                    sourceFile.getCurrentLineNumber());
+            return Token.Kind.ERROR;
 
         }
         else {
 
-            return new Token(Token.Kind.STRCONST, stringBuilder.toString(),
-                    sourceFile.getCurrentLineNumber());
+            return Token.Kind.STRCONST;
 
         }
 
     }
 
     /**
-     * Scans comments
-     *
-     * @param commentStart character at beginning of token
-     * @return Token object containing token information
-     * */
-    /**
-     * Handles comments
+     * Skips a comment whose first two characters have been read.
+     * A comment that is still open at the end of the file is an error.
      * */
-    private Token scanComments(){
+    private void skipComment(){
         // If starts with // read the line
         // If Starts with /* read until comment block is closed
         if (currentChar == '/'){
-            while(currentChar != SourceFile.EOL){
+            while(currentChar != SourceFile.EOL && currentChar != SourceFile.EOF){
                 currentChar = scannerGetNextChar();
             }
+            tokenEnd = sourceFile.getCharOffset();
         }
-        else if(currentChar == '*'){
-            while (true){
-                if((currentChar = scannerGetNextChar()) == '*' && (currentChar = scannerGetNextChar()) == '/'){
-                    break;
+        else {
+            currentChar = scannerGetNextChar();
+            skipBlockComment();
+        }
+        if (currentChar == SourceFile.EOF) {
+            isChecked = false;
+        }
+    }
+
+    /**
+     * Skips the rest of a block comment, starting with the current character
+     * */
+    private void skipBlockComment(){
+        while (currentChar != SourceFile.EOF){
+            if (currentChar == '*') {
+                // a run of stars may end with the closing slash
+                while ((currentChar = scannerGetNextChar()) == '*') {
+                    // keep reading stars
+                }
+                if (currentChar == '/') {
+                    tokenEnd = sourceFile.getCharOffset() + 1;
+                    return;
                 }
             }
+            else {
+                currentChar = scannerGetNextChar();
+            }
         }
-        return scan();
+        tokenEnd = sourceFile.getCharOffset();
+        tokenUnterminated = true;
+        registerError("Comment is not terminated.");
     }
+
     /**
      * Gets next available char, helper method
      *
@@ -546,7 +741,7 @@ public class Scanner
      * */
     private char scannerGetNextChar(){
         try{
-            currentChar = sourceFile.getNextChar();;
+            currentChar = sourceFile.getNextChar();
             return currentChar;
         }
         catch(IOException ioException){
@@ -19,9 +19,22 @@ package proj10LoverudeTymkiwCorrell.bantam.lexer;
 import proj10LoverudeTymkiwCorrell.bantam.util.CompilationException;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 /**
  * A class for extracting the characters, one at a time, from a text file or a Reader.
+ * Files are normally memory-mapped and decoded into a char array up front, so that
+ * each character is served from an index instead of a call to Reader.read().
  */
 class SourceFile
 {
@@ -29,22 +42,28 @@ class SourceFile
     public static final char CR = '\r';  // carriage return character
     public static final char EOF = '\u0000';     // end of file character
 
-    private Reader sourceReader;   // the reader of the data
+    private char[] buffer;         // all the characters of the file
+    private int bufferLength;      // the number of characters in the buffer
+    private int offset;            // the offset of the next character to be read
+    private int charOffset;        // the offset of the character read last
     private int currentLineNumber; // for bantam error messages
     private int prevChar;          // the previous character read
     private String filename;       // the file currently being scanned.
 
     /**
-     * creates a new SourceFile object for the file with the given name
+     * creates a new SourceFile object for the file with the given name.
+     * The whole file is loaded into memory before scanning starts.
      *
      * @param filename the name of the file to be read.
-     * @throws CompilationException if the file is not found
+     * @throws CompilationException if the file is not found or cannot be read
      */
     SourceFile(String filename) {
         try {
-            sourceReader = new FileReader(filename);
-        } catch (FileNotFoundException e) {
+            loadFile(filename);
+        } catch (NoSuchFileException e) {
             throw new CompilationException("File " + filename + "not found.", e);
+        } catch (IOException e) {
+            throw new CompilationException("File " + filename + " could not be read.", e);
         }
         currentLineNumber = 1;
         prevChar = -1;
@@ -52,22 +71,130 @@ class SourceFile
     }
 
     /**
-     * creates a new SourceFile object for the given Reader
+     * creates a new SourceFile object for the given Reader.
+     * All the characters are read from the Reader before scanning starts.
      *
      * @param in the Reader that provides the characters to be processes
+     * @throws CompilationException if the Reader fails
      */
     SourceFile(Reader in) {
-        sourceReader = in;
+        try {
+            loadReader(in);
+        } catch (IOException e) {
+            throw new CompilationException("The source could not be read.", e);
+        }
         currentLineNumber = 1;
         prevChar = -1;
     }
 
+    /**
+     * creates a new SourceFile object for a range of characters.
+     * The offsets of the characters read are offsets in chars.
+     *
+     * @param chars the characters holding the range
+     * @param start the offset of the first character to be read
+     * @param end the offset just past the last character to be read
+     * @param firstLine the line number of the first character
+     */
+    SourceFile(char[] chars, int start, int end, int firstLine) {
+        buffer = chars;
+        offset = start;
+        charOffset = start;
+        bufferLength = end;
+        currentLineNumber = firstLine;
+        prevChar = -1;
+    }
+
+    /**
+     * creates a new SourceFile object for the characters of a file that were
+     * read already
+     *
+     * @param filename the name of the file, used in errors
+     * @param chars the characters of the file
+     */
+    SourceFile(String filename, char[] chars) {
+        this(chars, 0, chars.length, 1);
+        this.filename = filename;
+    }
+
+    /**
+     * memory-maps the file and decodes it into the buffer using the same default
+     * charset a FileReader would use, replacing malformed input the same way.
+     *
+     * @param filename the name of the file to be loaded
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    private void loadFile(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename),
+                StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+            CharBuffer chars = decode(bytes);
+            buffer = chars.array();
+            bufferLength = chars.limit();
+        }
+    }
+
+    /**
+     * decodes the bytes of a file using the same default charset a FileReader
+     * would use, replacing malformed input the same way
+     *
+     * @param bytes the bytes of the file
+     * @return the characters, from 0 to the limit of the buffer
+     */
+    static CharBuffer decode(ByteBuffer bytes) {
+        try {
+            return Charset.defaultCharset().newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(bytes);
+        } catch (CharacterCodingException e) {
+            // cannot happen since all coding errors are replaced
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * reads all the characters from the Reader into the buffer
+     *
+     * @param in the Reader to be drained
+     * @throws IOException if the Reader fails
+     */
+    private void loadReader(Reader in) throws IOException {
+        buffer = new char[8192];
+        bufferLength = 0;
+        int n;
+        while ((n = in.read(buffer, bufferLength, buffer.length - bufferLength)) != -1) {
+            bufferLength += n;
+            if (bufferLength == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+    }
+
     int getCurrentLineNumber() {
         return currentLineNumber;
     }
 
     String getFilename() { return filename;}
 
+    /**
+     * @return the characters of the source.  Only the first getLength()
+     *         characters are valid.
+     */
+    char[] getBuffer() { return buffer; }
+
+    /**
+     * @return the offset just past the last character in the buffer
+     */
+    int getLength() { return bufferLength; }
+
+    /**
+     * @return the offset of the character most recently returned by getNextChar(),
+     *         or the length of the source if that character was EOF
+     */
+    int getCharOffset() { return charOffset; }
+
     /**
      * Finds and returns the next character in the source file.
      * The current line number is incremented if the end of a line is reached
@@ -75,13 +202,17 @@ class SourceFile
      * @return the next character in the source file
      */
     char getNextChar() throws IOException {
-        int c = sourceReader.read();
+        int c = offset < bufferLength ? buffer[offset] : -1;
 
+        charOffset = offset;
         if (c == -1) {
             c = EOF;
         }
-        else if (c == CR || (c == EOL && prevChar != CR)) {
-            currentLineNumber++;
+        else {
+            offset++;
+            if (c == CR || (c == EOL && prevChar != CR)) {
+                currentLineNumber++;
+            }
         }
         prevChar = c;
         return (char) c;
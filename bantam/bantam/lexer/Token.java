@@ -15,7 +15,7 @@
 
  package proj10LoverudeTymkiwCorrell.bantam.lexer;
 
- import java.util.Set;
+ import proj10LoverudeTymkiwCorrell.bantam.util.SourceRange;
 
  /**
   * This class represents a meaningful sequence of characters in the
@@ -29,33 +29,41 @@
      public String spelling;
      /** the line number where the token was found in the source code */
      public int position;
+     /** the characters the token covers in the source file, packed by SourceRange */
+     public long range;
 
      public String getSpelling() {
          return spelling;
      }
 
+     /**
+      * @return the offset of the first character of the token in the source file
+      */
+     public int getStart() {
+         return SourceRange.getStart(range);
+     }
+
+     /**
+      * @return the offset just past the last character of the token
+      */
+     public int getEnd() {
+         return SourceRange.getEnd(range);
+     }
+
 
      /**
       * constructor
       * @param kind the Kind of token to be created
       * @param spelling the characters making up the token
       * @param position the line number in the source file containing the token
+      * @param range the characters the token covers, packed by SourceRange
       */
-     Token(Kind kind, String spelling, int position) {
+     Token(Kind kind, String spelling, int position, long range) {
          this.spelling = spelling;
          this.position = position;
+         this.range = range;
 
-         // patch the kind field in the cases of boolean constants and keywords,
-         // which are not of kind IDENTIFIER
-         if (kind == Kind.IDENTIFIER && (spelling.equals("true") || spelling.equals("false"))) {
-             this.kind = Kind.BOOLEAN;
-         }
-         else if (kind == Kind.IDENTIFIER && reservedWords.contains(spelling)) {
-             this.kind = Enum.valueOf(Kind.class, spelling.toUpperCase());
-         }
-         else {
-             this.kind = kind;
-         }
+         this.kind = kind;
      }
 
      /**
@@ -92,10 +100,6 @@
          RETURN, WHILE
      }
 
-     /** a set of all the reserved words of Bantam Java */
-     private static Set<String> reservedWords = Set.of("break", "cast", "class", "var",
-             "else", "extends", "for", "if", "instanceof", "new", "return", "while");
-
  }
 
 	
@@ -0,0 +1,214 @@
+/*
+ * File: TokenBuffer.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.lexer;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, array-backed list of tokens filled in by Scanner.scan(TokenBuffer).
+ * Each token is stored as four ints (kind ordinal, start offset, length and line
+ * number) and its spelling is a range of the scanned source, so scanning into a
+ * TokenBuffer allocates nothing per token.  Spellings are only turned into Strings
+ * when getSpelling is called.
+ */
+public class TokenBuffer
+{
+    /** all the Token kinds, indexed by ordinal */
+    private static final Token.Kind[] KINDS = Token.Kind.values();
+
+    /** the ordinal of the kind of each token */
+    private int[] kinds;
+    /** the offset in the source of the first character of each token */
+    private int[] starts;
+    /** the number of source characters making up each token */
+    private int[] lengths;
+    /** the line number where each token starts */
+    private int[] lines;
+    /** the number of tokens in the buffer */
+    private int size;
+    /** the characters that the start offsets refer to */
+    private char[] source;
+
+    /**
+     * creates an empty TokenBuffer with room for 256 tokens
+     */
+    public TokenBuffer() {
+        this(256);
+    }
+
+    /**
+     * creates an empty TokenBuffer
+     *
+     * @param initialCapacity the number of tokens it can hold before growing
+     */
+    public TokenBuffer(int initialCapacity) {
+        initialCapacity = Math.max(initialCapacity, 16);
+        kinds = new int[initialCapacity];
+        starts = new int[initialCapacity];
+        lengths = new int[initialCapacity];
+        lines = new int[initialCapacity];
+    }
+
+    /**
+     * @return the number of tokens in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * removes all the tokens but keeps the arrays for reuse
+     */
+    public void clear() {
+        size = 0;
+        source = null;
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the kind of the token
+     */
+    public Token.Kind getKind(int index) {
+        return KINDS[getKindOrdinal(index)];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the ordinal of the kind of the token
+     */
+    public int getKindOrdinal(int index) {
+        checkIndex(index);
+        return kinds[index];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the offset in the source of the first character of the token
+     */
+    public int getStart(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the number of source characters making up the token
+     */
+    public int getLength(int index) {
+        checkIndex(index);
+        return lengths[index];
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the offset in the source just past the last character of the token
+     */
+    public int getEnd(int index) {
+        return getStart(index) + getLength(index);
+    }
+
+    /**
+     * @param index the index of a token
+     * @return the line number where the token starts
+     */
+    public int getLine(int index) {
+        checkIndex(index);
+        return lines[index];
+    }
+
+    /**
+     * @return the characters that the token offsets refer to
+     */
+    public char[] getSource() {
+        return source;
+    }
+
+    /**
+     * creates a String holding the characters of a token
+     *
+     * @param index the index of a token
+     * @return the spelling of the token
+     */
+    public String getSpelling(int index) {
+        return new String(source, getStart(index), getLength(index));
+    }
+
+    /**
+     * compares the spelling of a token with a String without creating a new String
+     *
+     * @param index the index of a token
+     * @param spelling the characters to compare with
+     * @return true if the token is spelled exactly like spelling
+     */
+    public boolean spellingEquals(int index, String spelling) {
+        int start = getStart(index);
+        int length = getLength(index);
+        if (length != spelling.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (source[start + i] != spelling.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * sets the characters that the offsets of the tokens refer to
+     *
+     * @param source the scanned characters
+     */
+    void setSource(char[] source) {
+        this.source = source;
+    }
+
+    /**
+     * appends a token to the buffer, growing the arrays if necessary
+     *
+     * @param kind the kind of the token
+     * @param start the offset of its first character
+     * @param length the number of characters in it
+     * @param line the line where it starts
+     */
+    void add(Token.Kind kind, int start, int length, int line) {
+        if (size == kinds.length) {
+            int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+        }
+        kinds[size] = kind.ordinal();
+        starts[size] = start;
+        lengths[size] = length;
+        lines[size] = line;
+        size++;
+    }
+
+    /**
+     * removes the tokens at the end of the buffer
+     *
+     * @param newSize the number of tokens to keep
+     */
+    void truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("Size " + newSize +
+                    " out of bounds for size " + size);
+        }
+        size = newSize;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if index is not the index of a token
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Token index " + index +
+                    " out of bounds for size " + size);
+        }
+    }
+}
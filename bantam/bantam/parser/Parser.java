@@ -20,6 +20,7 @@ import proj10LoverudeTymkiwCorrell.bantam.util.*;
 import proj10LoverudeTymkiwCorrell.bantam.ast.*;
 import proj10LoverudeTymkiwCorrell.bantam.util.Error;
 
+import java.nio.CharBuffer;
 import java.util.List;
 import java.util.Set;
 
@@ -31,19 +32,28 @@ public class Parser
     private Scanner scanner; // provides the tokens
     private Token currentToken; // the lookahead token
     private final ErrorHandler errorHandler; // collects & organizes the error messages
+    private final Interner interner; // makes the names in the AST canonical
     private String filename;
+    private int previousEnd; // the end offset of the token before currentToken
 
     //Set of operator Token types
     private final Set<Token.Kind> operatorSet = Set.of(
             BINARYLOGIC, PLUSMINUS, MULDIV, COMPARE, UNARYINCR, UNARYDECR, ASSIGN,
             UNARYNOT);
 
-    private final static Set<String>  reservedWords = Set.of("break", "cast", "class", "var",
-            "else", "extends", "for", "if", "instanceof", "new", "return", "while");
-
     // constructor
     public Parser(ErrorHandler errorHandler) {
+        this(errorHandler, new Interner());
+    }
+
+    /**
+     * creates a Parser whose ASTs share the names of the given pool
+     * @param errorHandler collects the error messages
+     * @param interner the pool of canonical names of the compilation
+     */
+    public Parser(ErrorHandler errorHandler, Interner interner) {
         this.errorHandler = errorHandler;
+        this.interner = interner;
     }
 
     /**
@@ -53,19 +63,276 @@ public class Parser
      */
     public Program parse(String filename) {
 
-        scanner = new Scanner(filename, errorHandler);
+        scanner = new Scanner(filename, errorHandler, interner);
         this.filename = filename;
         currentToken = scanner.scan();
+        previousEnd = 0;
 
         //Program program = parseProgram();
 
         return parseProgram();
     }
 
+    /**
+     * parse the given text as the contents of a file and return the root node
+     * of the AST
+     * @param filename The name of the file the text comes from, used in errors
+     * @param text The characters of the file
+     * @return The Program node forming the root of the AST generated by the parser
+     */
+    public Program parse(String filename, char[] text) {
+
+        scanner = new Scanner(filename, text, errorHandler, interner);
+        this.filename = filename;
+        currentToken = scanner.scan();
+        previousEnd = 0;
+
+        return parseProgram();
+    }
+
+    /**
+     * updates the AST of a file after an edit of its text, such as a keystroke in
+     * the editor.  If the edit lies inside one method or field, only that member is
+     * parsed again; if it lies inside one class, only that class is.  The new node
+     * replaces the old one in its MemberList or ClassList, and the line numbers and
+     * offsets of the nodes after the edit are moved to match the new text.  If the
+     * edit crosses a class boundary, or the text around it no longer parses as a
+     * single member or class, the whole new text is parsed instead.
+     *
+     * @param previous the AST of the old text, which must have been parsed from it
+     *                 with offsets; it is changed when only part of it is parsed
+     * @param oldText the text before the edit
+     * @param position the offset where the edit starts
+     * @param removedLength the number of characters removed at position
+     * @param inserted the characters inserted at position
+     * @return the AST of the new text: previous itself, or a new Program if the
+     *         whole text was parsed again
+     * @throws CompilationException if the whole text was parsed again and there
+     *         were lexical or syntactic errors
+     */
+    public Program reparse(Program previous, String oldText, int position,
+                           int removedLength, String inserted) {
+        if (position < 0 || removedLength < 0 || position + removedLength > oldText.length()) {
+            throw new IndexOutOfBoundsException("Edit at " + position + " removing "
+                    + removedLength + " out of bounds for length " + oldText.length());
+        }
+        char[] text = new char[oldText.length() - removedLength + inserted.length()];
+        oldText.getChars(0, position, text, 0);
+        inserted.getChars(0, inserted.length(), text, position);
+        oldText.getChars(position + removedLength, oldText.length(), text,
+                position + inserted.length());
+
+        ClassList classes = previous.getClassList();
+        String fileName = classes.getSize() == 0 ? null :
+                ((Class_) classes.get(0)).getFilename();
+        int editEnd = position + removedLength;
+        for (int i = 0; i < classes.getSize(); i++) {
+            Class_ aClass = (Class_) classes.get(i);
+            if (aClass.getStartOffset() < position && editEnd < aClass.getEndOffset()) {
+                int offsetDelta = inserted.length() - removedLength;
+                // the character after the edit may now follow a different one
+                int lineDelta = countLines(CharBuffer.wrap(text), position,
+                        Math.min(text.length, position + inserted.length() + 1))
+                        - countLines(oldText, position,
+                        Math.min(oldText.length(), editEnd + 1));
+                if (reparseClass(classes, i, oldText, text, position, editEnd,
+                        lineDelta, offsetDelta)) {
+                    extendRange(previous, offsetDelta);
+                    // the line of a list is the line of its first element
+                    previous.setLineNum(classes.get(0).getLineNum());
+                    classes.setLineNum(classes.get(0).getLineNum());
+                    return previous;
+                }
+                break;
+            }
+            if (aClass.getStartOffset() >= editEnd) {
+                break;
+            }
+        }
+        return parse(fileName, text);
+    }
+
+    /**
+     * parses again the member of a class containing an edit, or if there is none,
+     * the whole class, and moves the nodes after it
+     *
+     * @param classes the list of classes
+     * @param index the index of the class containing the edit
+     * @param oldText the text before the edit
+     * @param text the new text
+     * @param position the offset where the edit starts
+     * @param editEnd the offset where the edit ended in the old text
+     * @param lineDelta the number of lines added by the edit
+     * @param offsetDelta the number of characters added by the edit
+     * @return true if the class or member was parsed, false if it must be
+     *         parsed as part of the whole text
+     */
+    private boolean reparseClass(ClassList classes, int index, String oldText,
+                                 char[] text, int position, int editEnd,
+                                 int lineDelta, int offsetDelta) {
+        Class_ aClass = (Class_) classes.get(index);
+        MemberList members = aClass.getMemberList();
+        PositionShifter shifter = new PositionShifter(lineDelta, offsetDelta);
+        for (int j = 0; j < members.getSize(); j++) {
+            Member member = (Member) members.get(j);
+            if (member.getStartOffset() < position && editEnd < member.getEndOffset()) {
+                ASTNode newMember = parseRegion(text, member.getStartOffset(),
+                        member.getEndOffset() + offsetDelta,
+                        getStartLine(member, oldText), aClass.getFilename(), true);
+                if (newMember == null) {
+                    break;
+                }
+                members.set(j, newMember);
+                members.setLineNum(members.get(0).getLineNum());
+                for (int k = j + 1; k < members.getSize(); k++) {
+                    members.get(k).accept(shifter);
+                }
+                extendRange(members, offsetDelta);
+                extendRange(aClass, offsetDelta);
+                shiftFollowingClasses(classes, index, shifter, offsetDelta);
+                return true;
+            }
+            if (member.getStartOffset() >= editEnd) {
+                break;
+            }
+        }
+
+        ASTNode newClass = parseRegion(text, aClass.getStartOffset(),
+                aClass.getEndOffset() + offsetDelta, getStartLine(aClass, oldText),
+                aClass.getFilename(), false);
+        if (newClass == null) {
+            return false;
+        }
+        classes.set(index, newClass);
+        shiftFollowingClasses(classes, index, shifter, offsetDelta);
+        return true;
+    }
+
+    /**
+     * moves the classes after an edited class and extends the class list
+     *
+     * @param classes the list of classes
+     * @param index the index of the edited class
+     * @param shifter the visitor that moves the nodes
+     * @param offsetDelta the number of characters added by the edit
+     */
+    private void shiftFollowingClasses(ClassList classes, int index,
+                                       PositionShifter shifter, int offsetDelta) {
+        for (int i = index + 1; i < classes.getSize(); i++) {
+            classes.get(i).accept(shifter);
+        }
+        extendRange(classes, offsetDelta);
+    }
+
+    /**
+     * moves the end of the range of a node that contains an edit
+     *
+     * @param node the node
+     * @param offsetDelta the number of characters added by the edit
+     */
+    private static void extendRange(ASTNode node, int offsetDelta) {
+        node.setRange(SourceRange.of(node.getStartOffset(),
+                node.getEndOffset() + offsetDelta));
+    }
+
+    /**
+     * finds the line where a member or class starts from its line number, which
+     * is the position of its first token, a type or the keyword class.  Since the
+     * member or class starts before the edit, the line is the same in the new
+     * text, but the position depends on the character after the token, which
+     * may be part of the edit, so it is looked up in the old text.
+     *
+     * @param node the member or class, as parsed from the old text
+     * @param oldText the text before the edit
+     * @return the line of the first character of the member or class
+     */
+    private static int getStartLine(ASTNode node, String oldText) {
+        return Scanner.getStartLine(oldText, node.getStartOffset(), node.getLineNum());
+    }
+
+    /**
+     * parses a range of the text that should hold exactly one member or class,
+     * with a Parser of its own so that nothing is reported if it does not
+     *
+     * @param text the text
+     * @param start the offset of the first character of the member or class
+     * @param end the offset just past its last character
+     * @param startLine the line of the first character
+     * @param filename the name of the file, used in the nodes
+     * @param member true to parse a member, false to parse a class
+     * @return the node, or null if the range does not hold exactly one
+     *         member or class without errors
+     */
+    private ASTNode parseRegion(char[] text, int start, int end, int startLine,
+                                String filename, boolean member) {
+        ErrorHandler regionErrors = new ErrorHandler();
+        Parser regionParser = new Parser(regionErrors, interner);
+        regionParser.scanner = new Scanner(text, start, end, startLine, regionErrors,
+                interner);
+        regionParser.filename = filename;
+        regionParser.currentToken = regionParser.scanner.scan();
+        regionParser.previousEnd = start;
+        try {
+            ASTNode node = member ? regionParser.parseMember() : regionParser.parseClass();
+            if (regionParser.currentToken.kind == EOF && !regionErrors.errorsFound()) {
+                return node;
+            }
+        } catch (CompilationException e) {
+            // the range no longer holds one member or class
+        }
+        return null;
+    }
+
+    /**
+     * counts the line breaks in a range of characters the way the Scanner does:
+     * a carriage return, or a newline that does not follow a carriage return
+     *
+     * @param text the characters
+     * @param from the offset of the first character to look at
+     * @param to the offset just past the last character to look at
+     * @return the number of line breaks
+     */
+    private static int countLines(CharSequence text, int from, int to) {
+        int lines = 0;
+        char previous = from > 0 ? text.charAt(from - 1) : 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '\r' || (c == '\n' && previous != '\r')) {
+                lines++;
+            }
+            previous = c;
+        }
+        return lines;
+    }
+
+
+    /**
+     * moves on to the next token, remembering where the current one ends
+     */
+    private void advance() {
+        previousEnd = currentToken.getEnd();
+        currentToken = scanner.scan();
+    }
+
+    /**
+     * records the characters an AST node covers: from the given offset to the
+     * end of the last token consumed, or an empty range at the offset if no
+     * token was consumed since
+     *
+     * @param node the node
+     * @param start the offset of the first character of the node
+     * @return the node
+     */
+    private <T extends ASTNode> T setRange(T node, int start) {
+        node.setRange(SourceRange.of(start, Math.max(start, previousEnd)));
+        return node;
+    }
+
 
     // <Program> ::= <Class> | <Class> <Program>
     private Program parseProgram() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
         ClassList clist = new ClassList(position);
 
 
@@ -73,8 +340,10 @@ public class Parser
             Class_ aClass = parseClass();
             clist.addElement(aClass);
         }
+        clist.trimToSize();
+        setRange(clist, start);
 
-        return new Program(position, clist);
+        return setRange(new Program(position, clist), start);
     }
 
 
@@ -85,6 +354,7 @@ public class Parser
 
 
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         // Check that token is Class keyword, and then parse the identifier
         if (currentToken.kind != CLASS){
@@ -95,7 +365,7 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
 
         String className = parseIdentifier();
 
@@ -104,7 +374,7 @@ public class Parser
         // If next token is <ExtendsClause>, parse and store parent name
         if(currentToken.kind == EXTENDS){
 
-            currentToken = scanner.scan();
+            advance();
 
             parentName = parseIdentifier();
 
@@ -117,20 +387,24 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
 
         /* Creates MemberList, populates it with members
            could have 0 or more members  */
         MemberList memberList = new MemberList(currentToken.position);
+        int membersStart = currentToken.getStart();
 
         while(currentToken.kind != RCURLY){
             // Will either parse a member or will throw an error
             memberList.addElement(parseMember());
         }
+        memberList.trimToSize();
+        setRange(memberList, membersStart);
 
-        currentToken = scanner.scan();
+        advance();
         // Does not directly check for '}' because parseMember will throw the error
-        return new Class_(position, filename, className, parentName, memberList);
+        return setRange(new Class_(position, filename, className, parentName, memberList),
+                start);
     }
 
 
@@ -147,6 +421,7 @@ public class Parser
     private Member parseMember() {
 
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         // Parses <Type> and <Identifier>
         String typeName = parseType();
@@ -160,7 +435,7 @@ public class Parser
             // Is either empty, or is an expression
             if(currentToken.kind != SEMICOLON){
 
-                currentToken = scanner.scan();
+                advance();
 
                 init = parseExpression();
 
@@ -176,18 +451,19 @@ public class Parser
                 }
 
             }
-            currentToken = scanner.scan();
+            advance();
 
-            return new Field(position, typeName, memberName, init);
+            return setRange(new Field(position, typeName, memberName, init), start);
         }
 
         // If it is a method, parse parameters
-        //currentToken = scanner.scan();
+        //advance();
 
         FormalList formalList = parseParameters();
 
         BlockStmt stmt = (BlockStmt) parseBlock();
-        return new Method(position, typeName, memberName, formalList, stmt.getStmtList());
+        return setRange(new Method(position, typeName, memberName, formalList,
+                stmt.getStmtList()), start);
     }
 
 
@@ -243,8 +519,9 @@ public class Parser
     private Stmt parseWhile() {
 
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
-        currentToken = scanner.scan();
+        advance();
 
         // Checks for parenthesis after while,
         if (currentToken.kind != LPAREN){
@@ -254,7 +531,7 @@ public class Parser
         }
 
         //
-        currentToken = scanner.scan();
+        advance();
 
         Expr expr = parseExpression();
 
@@ -267,11 +544,11 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
 
         Stmt stmt = parseStatement();
 
-        return new WhileStmt(position, expr, stmt);
+        return setRange(new WhileStmt(position, expr, stmt), start);
     }
 
     // <ReturnStmt> ::= RETURN <Expression> ; | RETURN ;
@@ -282,7 +559,8 @@ public class Parser
      */
     private Stmt parseReturn() {
         int position = currentToken.position;
-        currentToken = scanner.scan();
+        int start = currentToken.getStart();
+        advance();
 
         Expr expr;
 
@@ -297,8 +575,8 @@ public class Parser
                     position, "';' expected");
             throw new CompilationException(errorHandler);
         }
-        currentToken = scanner.scan();
-        return new ReturnStmt(position, expr);
+        advance();
+        return setRange(new ReturnStmt(position, expr), start);
 
     }
 
@@ -311,8 +589,9 @@ public class Parser
      */
     private Stmt parseBreak() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
-        currentToken = scanner.scan();
+        advance();
 
         // Checks for semicolon
         if(currentToken.kind != SEMICOLON){
@@ -323,9 +602,9 @@ public class Parser
 
         }
 
-        currentToken = scanner.scan();
+        advance();
 
-        return new BreakStmt(position);
+        return setRange(new BreakStmt(position), start);
     }
 
 
@@ -338,6 +617,7 @@ public class Parser
     private ExprStmt parseExpressionStmt() {
 
         int position = currentToken.position;
+        int start = currentToken.getStart();
         Expr expr = parseExpression();
         // Checks for semicolon
         if (currentToken.kind != SEMICOLON){
@@ -345,9 +625,9 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
 
-        return new ExprStmt(position, expr);
+        return setRange(new ExprStmt(position, expr), start);
     }
 
     // <VarDeclaration> ::= VAR <Id> = <Expression> ;
@@ -357,7 +637,8 @@ public class Parser
      * @return DeclStmt node
      */
     private Stmt parseVarDeclaration() {
-        currentToken = scanner.scan();
+        int start = currentToken.getStart();
+        advance();
         int position = currentToken.position;
 
         // Checks that var has identifier
@@ -371,7 +652,7 @@ public class Parser
 
         String varName = currentToken.getSpelling();
 
-        currentToken = scanner.scan();
+        advance();
 
         // Checks that DeclStmt has assign
         if (currentToken.kind != Token.Kind.ASSIGN){
@@ -383,7 +664,7 @@ public class Parser
         }
 
         // Parses the expression and increments token
-        currentToken = scanner.scan();
+        advance();
         Expr expr = parseExpression();
 
 
@@ -393,9 +674,9 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
 
-        return new DeclStmt(position, varName, expr);
+        return setRange(new DeclStmt(position, varName, expr), start);
     }
 
 
@@ -411,8 +692,9 @@ public class Parser
     private Stmt parseFor() {
 
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
-        currentToken = scanner.scan();
+        advance();
 
         // Checks that there is a left parenthesis
         if (currentToken.kind != LPAREN){
@@ -423,7 +705,7 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
 
         Expr init = null;
 
@@ -432,32 +714,32 @@ public class Parser
 
 
             init = parseExpression();
-            currentToken = scanner.scan();
+            advance();
 
         }
         else{
 
-            currentToken = scanner.scan();
+            advance();
 
         }
 
         // Parses predicate expression
-        //currentToken = scanner.scan();
+        //advance();
 
         Expr predExpr = null;
         if(currentToken.kind != SEMICOLON){
             predExpr = parseExpression();
-            currentToken = scanner.scan();
+            advance();
 
 
         }
         else{
 
-            currentToken = scanner.scan();
+            advance();
 
         }
 
-        //currentToken = scanner.scan();
+        //advance();
 
         // Parses the increment statement
         Expr updateExpr =  null;
@@ -478,12 +760,13 @@ public class Parser
         }
 
         // Parses for loop body
-        currentToken = scanner.scan();
+        advance();
 
         Stmt bodyStmt = parseStatement();
 
 
-        return new ForStmt(position, init, predExpr, updateExpr, bodyStmt);
+        return setRange(new ForStmt(position, init, predExpr, updateExpr, bodyStmt),
+                start);
     }
 
 
@@ -498,6 +781,7 @@ public class Parser
 
         // Prepares list of statements
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         StmtList stmtList = new StmtList(position);
 
@@ -510,7 +794,8 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
+        int stmtsStart = currentToken.getStart();
 
         // Checks for right curly brace
         while (currentToken.kind != RCURLY){
@@ -526,8 +811,10 @@ public class Parser
 
         }
 
-        currentToken = scanner.scan();
-        return new BlockStmt(position, stmtList);
+        stmtList.trimToSize();
+        setRange(stmtList, stmtsStart);
+        advance();
+        return setRange(new BlockStmt(position, stmtList), start);
 
     }
 
@@ -541,8 +828,9 @@ public class Parser
     private Stmt parseIf() {
 
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
-        currentToken = scanner.scan();
+        advance();
 
         Stmt thenStmt;
 
@@ -557,7 +845,7 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
 
         Expr expr = parseExpression();
 
@@ -570,19 +858,19 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
 
         thenStmt = parseStatement();
 
         // Checks for else statement
         if (currentToken.kind == ELSE){
 
-            currentToken = scanner.scan();
+            advance();
 
             elseStmt = parseStatement();
         }
 
-        return new IfStmt(position,expr,thenStmt,elseStmt);
+        return setRange(new IfStmt(position,expr,thenStmt,elseStmt), start);
     }
 
 
@@ -601,6 +889,7 @@ public class Parser
      */
     private Expr parseExpression() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         String refName = null;
         VarExpr ref = null;
@@ -618,13 +907,14 @@ public class Parser
         // Checks for assignment '='
         if (currentToken.kind == ASSIGN){
 
-            currentToken = scanner.scan();
+            advance();
             expr = parseExpression();
 
             if (ref != null){
                 refName = ref.getName();
             }
-            return new AssignExpr(position, refName, expressionName, expr );
+            return setRange(new AssignExpr(position, refName, expressionName, expr ),
+                    start);
         }
 
         return logExpr;
@@ -640,6 +930,7 @@ public class Parser
      */
     private Expr parseOrExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         Expr leftExpr;
         leftExpr = parseAndExpr();
@@ -647,9 +938,9 @@ public class Parser
         // Checks for or statements
         while (currentToken.getSpelling().equals("||")) {
 
-            currentToken = scanner.scan();
+            advance();
             Expr rightExpr = parseAndExpr();
-            leftExpr = new BinaryLogicOrExpr(position, leftExpr, rightExpr);
+            leftExpr = setRange(new BinaryLogicOrExpr(position, leftExpr, rightExpr), start);
         }
         return leftExpr;
     }
@@ -665,15 +956,16 @@ public class Parser
      */
     private Expr parseAndExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
         Expr leftExpr;
 
         leftExpr = parseEqualityExpr();
 
         // Checks for and statements
         while (currentToken.getSpelling().equals("&&")){
-            currentToken = scanner.scan();
+            advance();
             Expr rightExpr = parseEqualityExpr();
-            leftExpr = new BinaryLogicAndExpr(position, leftExpr, rightExpr);
+            leftExpr = setRange(new BinaryLogicAndExpr(position, leftExpr, rightExpr), start);
         }
         return leftExpr;
     }
@@ -689,6 +981,7 @@ public class Parser
      */
     private Expr parseEqualityExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
         Expr leftExpr;
 
         leftExpr = parseRelationalExpr();
@@ -697,14 +990,14 @@ public class Parser
         if(currentToken.getSpelling().equals("==") || currentToken.getSpelling().equals("!=") ){
 
             String logOp = currentToken.spelling;
-            currentToken = scanner.scan();
+            advance();
             Expr rightExpr = parseRelationalExpr();
 
             if(logOp.equals("==")){
-                leftExpr = new BinaryCompEqExpr(position, leftExpr, rightExpr);
+                leftExpr = setRange(new BinaryCompEqExpr(position, leftExpr, rightExpr), start);
             }
             else{
-                leftExpr = new BinaryCompNeExpr(position, leftExpr, rightExpr);
+                leftExpr = setRange(new BinaryCompNeExpr(position, leftExpr, rightExpr), start);
             }
 
         }
@@ -722,6 +1015,7 @@ public class Parser
      */
     private Expr parseRelationalExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
         Expr leftExpr;
         leftExpr = parseAddExpr();
 
@@ -735,28 +1029,28 @@ public class Parser
                 name.equals("instanceof")){
 
             if(name.equals("instanceof")){
-                currentToken = scanner.scan();
+                advance();
                 String type = parseType();
-                return new InstanceofExpr(position, leftExpr, type);
+                return setRange(new InstanceofExpr(position, leftExpr, type), start);
             }
 
-            currentToken = scanner.scan();
+            advance();
             Expr rightExpr = parseAddExpr();
 
             // Creates correct expression for operator
             switch (name){
 
                 case "<":
-                    leftExpr = new BinaryCompLtExpr(position, leftExpr, rightExpr);
+                    leftExpr = setRange(new BinaryCompLtExpr(position, leftExpr, rightExpr), start);
                     break;
                 case ">":
-                    leftExpr = new BinaryCompGtExpr(position, leftExpr, rightExpr);
+                    leftExpr = setRange(new BinaryCompGtExpr(position, leftExpr, rightExpr), start);
                     break;
                 case "<=":
-                    leftExpr = new BinaryCompLeqExpr(position, leftExpr, rightExpr);
+                    leftExpr = setRange(new BinaryCompLeqExpr(position, leftExpr, rightExpr), start);
                     break;
                 case ">=":
-                    leftExpr = new BinaryCompGeqExpr(position, leftExpr, rightExpr);
+                    leftExpr = setRange(new BinaryCompGeqExpr(position, leftExpr, rightExpr), start);
                     break;
 
             }
@@ -776,20 +1070,21 @@ public class Parser
      */
     private Expr parseAddExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
         Expr leftExpr;
         leftExpr = parseMultExpr();
 
         // Checks for '+' or '-'
         while(currentToken.getSpelling().equals("+") || currentToken.getSpelling().equals("-")){
             String operation = currentToken.getSpelling();
-            currentToken = scanner.scan();
+            advance();
             Expr rightExpr = parseMultExpr();
 
             if(operation.equals("+")){
-                leftExpr = new BinaryArithPlusExpr(position, leftExpr, rightExpr);
+                leftExpr = setRange(new BinaryArithPlusExpr(position, leftExpr, rightExpr), start);
             }
             else if(operation.equals("-")){
-                leftExpr = new BinaryArithMinusExpr(position, leftExpr, rightExpr);
+                leftExpr = setRange(new BinaryArithMinusExpr(position, leftExpr, rightExpr), start);
             }
         }
         return leftExpr;
@@ -809,6 +1104,7 @@ public class Parser
      */
     private Expr parseMultExpr() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
         Expr leftExpr;
         leftExpr = parseNewCastOrUnary();
 
@@ -817,22 +1113,22 @@ public class Parser
                 currentToken.getSpelling().equals("/") ||
                 currentToken.getSpelling().equals("%")) {
             String operator = currentToken.getSpelling();
-            currentToken = scanner.scan();
+            advance();
             Expr rightExpr = parseNewCastOrUnary();
 
             // Checks for correct operator, creates corresponding node class
             switch (operator) {
                 case "*":
-                    leftExpr = new BinaryArithTimesExpr(position, leftExpr, rightExpr);
-                    //currentToken = scanner.scan();
+                    leftExpr = setRange(new BinaryArithTimesExpr(position, leftExpr, rightExpr), start);
+                    //advance();
                     break;
                 case "/":
-                    leftExpr = new BinaryArithDivideExpr(position, leftExpr, rightExpr);
-                    //currentToken = scanner.scan();
+                    leftExpr = setRange(new BinaryArithDivideExpr(position, leftExpr, rightExpr), start);
+                    //advance();
                     break;
                 default:
-                    leftExpr = new BinaryArithModulusExpr(position, leftExpr, rightExpr);
-                    //currentToken = scanner.scan();
+                    leftExpr = setRange(new BinaryArithModulusExpr(position, leftExpr, rightExpr), start);
+                    //advance();
                     break;
             }
 
@@ -875,6 +1171,7 @@ public class Parser
     private Expr parseNew() {
 
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         // Checks for 'new' keyword
         if(currentToken.kind != NEW){
@@ -886,7 +1183,7 @@ public class Parser
 
         }
 
-        currentToken = scanner.scan();
+        advance();
         String type = parseIdentifier();
         // Checks for left parenthesis
         if(currentToken.kind != LPAREN){
@@ -897,7 +1194,7 @@ public class Parser
             throw new CompilationException(errorHandler);
 
         }
-        currentToken = scanner.scan();
+        advance();
 
 
         // Checks for right parenthesis
@@ -906,9 +1203,9 @@ public class Parser
                     currentToken.position, "')' expected");
             throw new CompilationException(errorHandler);
         }
-        currentToken = scanner.scan();
+        advance();
 
-        return new NewExpr(position, type);
+        return setRange(new NewExpr(position, type), start);
     }
 
 
@@ -920,20 +1217,21 @@ public class Parser
      */
     private Expr parseCast() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         if(currentToken.kind != CAST){
             errorHandler.register(Error.Kind.PARSE_ERROR, this.filename,
                     currentToken.position, "keyword 'cast' expected");
             throw new CompilationException(errorHandler);
         }
-        currentToken = scanner.scan();
+        advance();
         if(currentToken.kind != LPAREN){
             errorHandler.register(Error.Kind.PARSE_ERROR, this.filename,
                     currentToken.position, "'(' expected");
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
         String type = parseType();
 
         if(currentToken.kind != COMMA){
@@ -944,7 +1242,7 @@ public class Parser
             throw new CompilationException(errorHandler);
 
         }
-        currentToken = scanner.scan();
+        advance();
 
         Expr expr = parseExpression();
 
@@ -957,8 +1255,8 @@ public class Parser
 
         }
 
-        currentToken = scanner.scan();
-        return new CastExpr(position, type, expr);
+        advance();
+        return setRange(new CastExpr(position, type, expr), start);
     }
 
 
@@ -972,6 +1270,7 @@ public class Parser
     private Expr parseUnaryPrefix() {
 
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         Token initialToken = currentToken;
 
@@ -986,13 +1285,13 @@ public class Parser
 
         Expr innerExpr;
 
-        //currentToken = scanner.scan();
+        //advance();
 
         if(currentToken.getSpelling().equals("++")  ||
             currentToken.getSpelling().equals("--") ||
             currentToken.getSpelling().equals("!")){
 
-            currentToken = scanner.scan();
+            advance();
             innerExpr = parseUnaryPrefix();
 
         }else{
@@ -1002,22 +1301,22 @@ public class Parser
 
         if(initialToken.getSpelling().equals("++")){
 
-            expr = new UnaryIncrExpr(position, innerExpr,false);
+            expr = setRange(new UnaryIncrExpr(position, innerExpr,false), start);
 
         }else if(initialToken.getSpelling().equals("--")){
 
-            expr = new UnaryDecrExpr(position, innerExpr,false);
+            expr = setRange(new UnaryDecrExpr(position, innerExpr,false), start);
 
         }else if(initialToken.getSpelling().equals("!")){
 
-            expr = new UnaryNotExpr(position, innerExpr);
+            expr = setRange(new UnaryNotExpr(position, innerExpr), start);
 
         }else if(initialToken.getSpelling().equals("-")){
 
-            expr = new UnaryNegExpr(position,  innerExpr);
+            expr = setRange(new UnaryNegExpr(position,  innerExpr), start);
 
         }else{
-            //currentToken = scanner.scan();
+            //advance();
             return innerExpr;
 
         }
@@ -1031,19 +1330,20 @@ public class Parser
     // <PostfixOp> ::= ++ | -- | EMPTY
     private Expr parseUnaryPostfix() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
         Expr primaryExpr = parsePrimary();
 
         Expr postFixExpr;
 
         if(currentToken.kind == UNARYINCR) {
 
-            postFixExpr = new UnaryIncrExpr(position, primaryExpr, true);
-            currentToken = scanner.scan();
+            advance();
+            postFixExpr = setRange(new UnaryIncrExpr(position, primaryExpr, true), start);
         }
         else if(currentToken.kind == UNARYDECR){
 
-            postFixExpr = new UnaryDecrExpr(position, primaryExpr,true);
-            currentToken = scanner.scan();
+            advance();
+            postFixExpr = setRange(new UnaryDecrExpr(position, primaryExpr,true), start);
         }
         else{
 
@@ -1069,7 +1369,7 @@ public class Parser
     private Expr parsePrimary() {
         if(currentToken.kind == LPAREN){
 
-            currentToken = scanner.scan();
+            advance();
             Expr expr = parseExpression();
 
             // Checks for right parenthesis
@@ -1112,6 +1412,7 @@ public class Parser
      */
     private Expr parseVarExpr(){
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         VarExpr ref;
 
@@ -1120,34 +1421,36 @@ public class Parser
 
             ref = new VarExpr(position, null, currentToken.spelling);
 
-            currentToken = scanner.scan();
+            advance();
+            setRange(ref, start);
 
 
             if(currentToken.kind == DOT){
-                currentToken = scanner.scan();
+                advance();
                 String name = parseIdentifier();
-                varExpr = new VarExpr(position, ref, name);
+                varExpr = setRange(new VarExpr(position, ref, name), start);
 
             }
             else {
                 varExpr = ref;
-                //currentToken = scanner.scan();
+                //advance();
                 return varExpr;
             }
 
         }
         else {
             String name = parseIdentifier();
-            varExpr = new VarExpr(position, null, name);
+            varExpr = setRange(new VarExpr(position, null, name), start);
 
         }
 
 
         if(currentToken.kind == LPAREN){
             //DispatchExpr
-            currentToken = scanner.scan();
+            advance();
             ExprList arguments = parseArguments();
-            return new DispatchExpr(position, varExpr.getRef(), varExpr.getName(),arguments);
+            return setRange(new DispatchExpr(position, varExpr.getRef(),
+                    varExpr.getName(),arguments), start);
         }
         else{
             return varExpr;
@@ -1162,11 +1465,13 @@ public class Parser
     private ExprList parseArguments() {
         int position = currentToken.position;
 
+        int start = currentToken.getStart();
         ExprList arguments = new ExprList(position);
 
 
         if(currentToken.kind == RPAREN){
-            currentToken = scanner.scan();
+            setRange(arguments, start);
+            advance();
             return arguments;
         }
 
@@ -1176,7 +1481,7 @@ public class Parser
                 break;
             }
             else if(currentToken.kind == COMMA){
-                currentToken = scanner.scan();
+                advance();
             }
             else{
                 errorHandler.register(Error.Kind.PARSE_ERROR, this.filename, position,
@@ -1184,7 +1489,9 @@ public class Parser
                 throw new CompilationException(errorHandler);
             }
         }
-        currentToken = scanner.scan();
+        arguments.trimToSize();
+        setRange(arguments, start);
+        advance();
         return arguments;
 
     }
@@ -1201,11 +1508,13 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
 
-        currentToken = scanner.scan();
+        advance();
+        int start = currentToken.getStart();
         FormalList parameters = new FormalList(position);
 
         if(currentToken.kind == RPAREN){
-            currentToken = scanner.scan();
+            setRange(parameters, start);
+            advance();
             return parameters;
         }
 
@@ -1215,7 +1524,7 @@ public class Parser
                 break;
             }
             else if(currentToken.kind == COMMA){
-                currentToken = scanner.scan();
+                advance();
             }
             else{
                 errorHandler.register(Error.Kind.PARSE_ERROR, this.filename, position,
@@ -1223,7 +1532,9 @@ public class Parser
                 throw new CompilationException(errorHandler);
             }
         }
-        currentToken = scanner.scan();
+        parameters.trimToSize();
+        setRange(parameters, start);
+        advance();
         return parameters;
     }
 
@@ -1231,11 +1542,12 @@ public class Parser
     // <Formal> ::= <Type> <Identifier>
     private Formal parseFormal() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         String type = parseType();
         String id = parseIdentifier();
 
-        return new Formal(position, type, id);
+        return setRange(new Formal(position, type, id), start);
     }
 
 
@@ -1243,14 +1555,14 @@ public class Parser
     private String parseType() {
 
         // Checks for type other than var
-        if(reservedWords.contains(currentToken.spelling)){
+        if(Keywords.isReservedWord(currentToken.spelling)){
 
             errorHandler.register(Error.Kind.PARSE_ERROR, this.filename,
                     currentToken.position, "var expected");
             throw new CompilationException(errorHandler);
         }
         String name = currentToken.getSpelling();
-        currentToken = scanner.scan();
+        advance();
         return name;
     }
 
@@ -1266,7 +1578,7 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
         String name = currentToken.getSpelling();
-        currentToken = scanner.scan();
+        advance();
         return name;
     }
 
@@ -1278,41 +1590,44 @@ public class Parser
             throw new CompilationException(errorHandler);
         }
         String name = currentToken.getSpelling();
-        currentToken = scanner.scan();
+        advance();
         return name;
     }
 
 
     private ConstStringExpr parseStringConst() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
         //...save the currentToken's string to a local variable...
         String strConst = currentToken.getSpelling();
         //...advance to the next token...
-        currentToken = scanner.scan();
+        advance();
         //...return a new ConstStringExpr containing the string...
-        return new ConstStringExpr(position, strConst);
+        return setRange(new ConstStringExpr(position, strConst), start);
     }
 
 
     private ConstIntExpr parseIntConst() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         String intConst = currentToken.getSpelling();
 
-        currentToken = scanner.scan();
+        advance();
 
-        return new ConstIntExpr(position, intConst);
+        return setRange(new ConstIntExpr(position, intConst), start);
     }
 
 
     private ConstBooleanExpr parseBoolean() {
         int position = currentToken.position;
+        int start = currentToken.getStart();
 
         String boolConst = currentToken.getSpelling();
 
-        currentToken = scanner.scan();
+        advance();
 
-        return new ConstBooleanExpr(position, boolConst);
+        return setRange(new ConstBooleanExpr(position, boolConst), start);
     }
 
 
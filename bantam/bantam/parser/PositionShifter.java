@@ -0,0 +1,530 @@
+/*
+ * File: PositionShifter.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.parser;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.*;
+import proj10LoverudeTymkiwCorrell.bantam.util.SourceRange;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
+
+/**
+ * Moves every node of a subtree by a number of lines and characters, which is
+ * how the nodes after an edit are kept in step with the edited text when only
+ * the class or method containing the edit is parsed again.
+ */
+class PositionShifter extends Visitor
+{
+    /** the number of lines the nodes move down by (may be negative) */
+    private final int lineDelta;
+    /** the number of characters the nodes move right by (may be negative) */
+    private final int offsetDelta;
+
+    /**
+     * @param lineDelta the number of lines the nodes move down by
+     * @param offsetDelta the number of characters the nodes move right by
+     */
+    PositionShifter(int lineDelta, int offsetDelta) {
+        this.lineDelta = lineDelta;
+        this.offsetDelta = offsetDelta;
+    }
+
+    /**
+     * moves one node
+     *
+     * @param node the node to move
+     */
+    private void shift(ASTNode node) {
+        node.setLineNum(node.getLineNum() + lineDelta);
+        long range = node.getRange();
+        if (range != SourceRange.NONE) {
+            node.setRange(SourceRange.of(SourceRange.getStart(range) + offsetDelta,
+                    SourceRange.getEnd(range) + offsetDelta));
+        }
+    }
+
+    /**
+     * Visit a program node
+     *
+     * @param node the program node
+     * @return result of the visit
+     */
+    public Object visit(Program node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a list node of classes
+     *
+     * @param node the class list node
+     * @return result of the visit
+     */
+    public Object visit(ClassList node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a class node
+     *
+     * @param node the class node
+     * @return result of the visit
+     */
+    public Object visit(Class_ node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a list node of members
+     *
+     * @param node the member list node
+     * @return result of the visit
+     */
+    public Object visit(MemberList node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a field node
+     *
+     * @param node the field node
+     * @return result of the visit
+     */
+    public Object visit(Field node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a method node
+     *
+     * @param node the method node
+     * @return result of the visit
+     */
+    public Object visit(Method node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a list node of formals
+     *
+     * @param node the formal list node
+     * @return result of the visit
+     */
+    public Object visit(FormalList node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a formal node
+     *
+     * @param node the formal node
+     * @return result of the visit
+     */
+    public Object visit(Formal node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a list node of statements
+     *
+     * @param node the statement list node
+     * @return result of the visit
+     */
+    public Object visit(StmtList node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a declaration statement node
+     *
+     * @param node the declaration statement node
+     * @return result of the visit
+     */
+    public Object visit(DeclStmt node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit an expression statement node
+     *
+     * @param node the expression statement node
+     * @return result of the visit
+     */
+    public Object visit(ExprStmt node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit an if statement node
+     *
+     * @param node the if statement node
+     * @return result of the visit
+     */
+    public Object visit(IfStmt node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a while statement node
+     *
+     * @param node the while statement node
+     * @return result of the visit
+     */
+    public Object visit(WhileStmt node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a for statement node
+     *
+     * @param node the for statement node
+     * @return result of the visit
+     */
+    public Object visit(ForStmt node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a break statement node
+     *
+     * @param node the break statement node
+     * @return result of the visit
+     */
+    public Object visit(BreakStmt node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a block statement node
+     *
+     * @param node the block statement node
+     * @return result of the visit
+     */
+    public Object visit(BlockStmt node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a return statement node
+     *
+     * @param node the return statement node
+     * @return result of the visit
+     */
+    public Object visit(ReturnStmt node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a list node of expressions
+     *
+     * @param node the expression list node
+     * @return result of the visit
+     */
+    public Object visit(ExprList node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a dispatch expression node
+     *
+     * @param node the dispatch expression node
+     * @return result of the visit
+     */
+    public Object visit(DispatchExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a new expression node
+     *
+     * @param node the new expression node
+     * @return result of the visit
+     */
+    public Object visit(NewExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit an instanceof expression node
+     *
+     * @param node the instanceof expression node
+     * @return result of the visit
+     */
+    public Object visit(InstanceofExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a cast expression node
+     *
+     * @param node the cast expression node
+     * @return result of the visit
+     */
+    public Object visit(CastExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit an assignment expression node
+     *
+     * @param node the assignment expression node
+     * @return result of the visit
+     */
+    public Object visit(AssignExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary comparison equals expression node
+     *
+     * @param node the binary comparison equals expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompEqExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary comparison not equals expression node
+     *
+     * @param node the binary comparison not equals expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompNeExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary comparison less than expression node
+     *
+     * @param node the binary comparison less than expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompLtExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary comparison less than or equal to expression node
+     *
+     * @param node the binary comparison less than or equal to expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompLeqExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary comparison greater than expression node
+     *
+     * @param node the binary comparison greater than expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompGtExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary comparison greater than or equal to expression node
+     *
+     * @param node the binary comparison greater to or equal to expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryCompGeqExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary arithmetic plus expression node
+     *
+     * @param node the binary arithmetic plus expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithPlusExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary arithmetic minus expression node
+     *
+     * @param node the binary arithmetic minus expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithMinusExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary arithmetic times expression node
+     *
+     * @param node the binary arithmetic times expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithTimesExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary arithmetic divide expression node
+     *
+     * @param node the binary arithmetic divide expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithDivideExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary arithmetic modulus expression node
+     *
+     * @param node the binary arithmetic modulus expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryArithModulusExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary logical AND expression node
+     *
+     * @param node the binary logical AND expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryLogicAndExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a binary logical OR expression node
+     *
+     * @param node the binary logical OR expression node
+     * @return result of the visit
+     */
+    public Object visit(BinaryLogicOrExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a unary negation expression node
+     *
+     * @param node the unary negation expression node
+     * @return result of the visit
+     */
+    public Object visit(UnaryNegExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a unary NOT expression node
+     *
+     * @param node the unary NOT expression node
+     * @return result of the visit
+     */
+    public Object visit(UnaryNotExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a unary increment expression node
+     *
+     * @param node the unary increment expression node
+     * @return result of the visit
+     */
+    public Object visit(UnaryIncrExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a unary decrement expression node
+     *
+     * @param node the unary decrement expression node
+     * @return result of the visit
+     */
+    public Object visit(UnaryDecrExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a variable expression node
+     *
+     * @param node the variable expression node
+     * @return result of the visit
+     */
+    public Object visit(VarExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit an int constant expression node
+     *
+     * @param node the int constant expression node
+     * @return result of the visit
+     */
+    public Object visit(ConstIntExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a boolean constant expression node
+     *
+     * @param node the boolean constant expression node
+     * @return result of the visit
+     */
+    public Object visit(ConstBooleanExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+
+    /**
+     * Visit a string constant expression node
+     *
+     * @param node the string constant expression node
+     * @return result of the visit
+     */
+    public Object visit(ConstStringExpr node) {
+        shift(node);
+        return super.visit(node);
+    }
+}
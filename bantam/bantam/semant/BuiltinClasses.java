@@ -0,0 +1,194 @@
+/*
+ * File: BuiltinClasses.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.semant;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.*;
+import proj10LoverudeTymkiwCorrell.bantam.util.ClassTreeNode;
+import proj10LoverudeTymkiwCorrell.bantam.util.ClassTreeVersions;
+import proj10LoverudeTymkiwCorrell.bantam.util.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The built-in classes Object, String, TextIO and Sys: their AST nodes,
+ * ClassTreeNodes, symbol tables and dispatch tables, built once per JVM the
+ * first time they are needed and shared by every SemanticAnalyzer.
+ *
+ * The tree of the built-in classes is frozen once it is built (see
+ * ClassTreeNode.freezeTree).  An analysis attaches its user-defined classes to
+ * it without copying it: a user class gets Object as its parent, and Object's
+ * symbol tables as the parents of its own, but Object does not record it as a
+ * child.  Since nothing changes the built-in classes after they are built, any
+ * number of analyses may use them at the same time.
+ */
+public class BuiltinClasses
+{
+    /** the only instance, built when this class is first used */
+    private static final BuiltinClasses INSTANCE = new BuiltinClasses();
+
+    /** the ClassTreeNodes of the built-in classes, Object first */
+    private final List<ClassTreeNode> classes = new ArrayList<>();
+
+    /** maps the names of the built-in classes to their ClassTreeNodes */
+    private final Hashtable<String, ClassTreeNode> classMap = new Hashtable<>();
+
+    /** the versions of the built-in classes, which are not those of any analysis */
+    private final ClassTreeVersions versions = new ClassTreeVersions();
+
+    /** the ClassTreeNode of the Object class */
+    private final ClassTreeNode root;
+
+    /** the first number not used in numbering the tree of the built-in classes */
+    private final int firstFreeNumber;
+
+    /**
+     * builds the built-in classes and freezes their tree
+     */
+    private BuiltinClasses() {
+        // create AST node for the Object class
+        Class_ astNode = new Class_(-1, "<built-in class>", "Object", null,
+                (MemberList) (new MemberList(-1)).addElement(new Method(-1, "Object",
+                        "clone", new FormalList(-1),
+                        (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1,
+                                new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "boolean", "equals", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "Object", "o")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstBooleanExpr(-1, "false"))))).addElement(new Method(-1, "void", "print", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "string")), (StmtList) (new StmtList(-1))/*.addElement(new ReturnStmt(-1, new ConstBooleanExpr(-1, "false")))*/)).addElement(new Method(-1, "String", "toString", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))));
+        // create a class tree node for object, save in variable root
+        root = add(astNode, /*extendable?*/true);
+
+        // note: String, TextIO, and Sys all have fields that are not shown below.
+        // Because these classes cannot be extended and fields are protected, these
+        // fields cannot be accessed by other classes, so these fields do not have to be
+        // included in the AST.
+
+        // create AST node for String
+        astNode = new Class_(-1, "<built-in class>", "String", "Object",
+                (MemberList) (new MemberList(-1)).addElement(new Field(-1, "int",
+                        "length", /*0 by default*/null))
+                /* note: str is the character sequence -- no applicable type for a
+               character sequence so it is just made an int.  it's OK to
+               do this since this field is only accessed (directly) within
+               the runtime system */.addElement(new Method(-1, "int", "length",
+                                new FormalList(-1),
+                                (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstIntExpr(-1, "0"))))).addElement(new Method(-1, "boolean", "equals", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "Object", "str")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstBooleanExpr(-1, "false"))))).addElement(new Method(-1, "String", "toString", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "String", "substring", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "int", "beginIndex")).addElement(new Formal(-1, "int", "endIndex")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "String", "concat", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "str")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))));
+        // create class tree node for String, and add it to the built-in classes
+        add(astNode, /*extendable?*/false);
+
+        // create AST node for TextIO
+        astNode = new Class_(-1, "<built-in class>", "TextIO", "Object",
+                (MemberList) (new MemberList(-1)).addElement(new Field(-1, "int",
+                        "readFD", /*0 by default*/null)).addElement(new Field(-1, "int"
+                        , "writeFD", new ConstIntExpr(-1, "1"))).addElement(new Method(-1, "void", "readStdin", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "void", "readFile", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "readFile")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "void", "writeStdout", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "void", "writeStderr", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "void", "writeFile", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "writeFile")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "String", "getString", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "int", "getInt", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstIntExpr(-1, "0"))))).addElement(new Method(-1, "TextIO", "putString", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "str")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "TextIO", "putInt", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "int", "n")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))));
+        // create class tree node for TextIO, and add it to the built-in classes
+        add(astNode, /*extendable?*/false);
+
+        // create AST node for Sys
+        astNode = new Class_(-1, "<built-in class>", "Sys", "Object",
+                (MemberList) (new MemberList(-1)).addElement(new Method(-1, "void",
+                        "exit",
+                        (FormalList) (new FormalList(-1)).addElement(new Formal(-1,
+                                "int", "status")),
+                        (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1,
+                                null))))
+                /* MC: time() and random() requires modifying SPIM to add a time system
+                 call
+               (note: random() does not need its own system call although it uses the time
+               system call).  We have a version of SPIM with this system call available,
+               otherwise, just comment out. (For x86 and jvm there are no issues.)
+               */.addElement(new Method(-1, "int", "time", new FormalList(-1),
+                                (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstIntExpr(-1, "0"))))).addElement(new Method(-1,
+                                "int", "random", new FormalList(-1),
+                                (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstIntExpr(-1, "0"))))));
+        // create class tree node for Sys, and add it to the built-in classes
+        add(astNode, /*extendable?*/false);
+
+        for (ClassTreeNode treeNode : classes) {
+            if (treeNode != root) {
+                treeNode.setParent(root);
+            }
+            addMembers(treeNode);
+        }
+        firstFreeNumber = root.freezeTree();
+    }
+
+    /**
+     * @return the built-in classes, which are built the first time this is called
+     */
+    public static BuiltinClasses get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the ClassTreeNode of the Object class, the root of every class
+     *         hierarchy tree
+     */
+    public ClassTreeNode getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the first number that the classes attached to the tree of the
+     *         built-in classes can be numbered from by ClassTreeNode.numberTree
+     */
+    public int getFirstFreeNumber() {
+        return firstFreeNumber;
+    }
+
+    /**
+     * adds the built-in classes to the class map of an analysis, in the order
+     * Object, String, TextIO, Sys
+     *
+     * @param classMap the class map
+     */
+    public void addTo(Map<String, ClassTreeNode> classMap) {
+        for (ClassTreeNode treeNode : classes) {
+            classMap.put(treeNode.getName(), treeNode);
+        }
+    }
+
+    /**
+     * creates the ClassTreeNode of a built-in class and adds it to the built-in
+     * classes
+     *
+     * @param astNode the AST node of the class
+     * @param extendable whether user-defined classes may extend the class
+     * @return the ClassTreeNode
+     */
+    private ClassTreeNode add(Class_ astNode, boolean extendable) {
+        ClassTreeNode treeNode = new ClassTreeNode(astNode, /*built-in?*/true,
+                extendable, classMap, versions);
+        classes.add(treeNode);
+        classMap.put(astNode.getName(), treeNode);
+        return treeNode;
+    }
+
+    /**
+     * adds this, super and the fields of a built-in class to its variable symbol
+     * table and its methods to its method symbol table, as the SemanticAnalyzer
+     * does for user-defined classes.  The members of the built-in classes have
+     * legal and distinct names, so there is nothing to check.
+     *
+     * @param treeNode the ClassTreeNode of the class
+     */
+    private static void addMembers(ClassTreeNode treeNode) {
+        SymbolTable fields = treeNode.getVarSymbolTable();
+        SymbolTable methods = treeNode.getMethodSymbolTable();
+        fields.enterScope();
+        fields.add("this", treeNode.getName());
+        fields.add("super", (treeNode.getParent() == null ? "" :
+                treeNode.getParent().getName()));
+        methods.enterScope();
+        for (ASTNode member : treeNode.getASTNode().getMemberList()) {
+            if (member instanceof Field) {
+                fields.add(((Field) member).getName(), ((Field) member).getType());
+            }
+            else {
+                methods.add(((Method) member).getName(), member);
+            }
+        }
+    }
+}
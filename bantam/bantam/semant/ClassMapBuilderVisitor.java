@@ -9,6 +9,7 @@ package proj10LoverudeTymkiwCorrell.bantam.semant;
 
 import proj10LoverudeTymkiwCorrell.bantam.ast.Class_;
 import proj10LoverudeTymkiwCorrell.bantam.util.ClassTreeNode;
+import proj10LoverudeTymkiwCorrell.bantam.util.ClassTreeVersions;
 import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
 import proj10LoverudeTymkiwCorrell.bantam.util.Error;
 import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
@@ -22,11 +23,13 @@ import java.util.Hashtable;
 public class ClassMapBuilderVisitor extends Visitor {
     private Hashtable<String, ClassTreeNode> classMap;
     private ErrorHandler errorHandler;
+    private ClassTreeVersions versions;
 
     ClassMapBuilderVisitor(Hashtable<String, ClassTreeNode> classMap, ErrorHandler
-            errorHandler) {
+            errorHandler, ClassTreeVersions versions) {
         this.classMap = classMap;
         this.errorHandler = errorHandler;
+        this.versions = versions;
     }
 
     /**
@@ -45,7 +48,8 @@ public class ClassMapBuilderVisitor extends Visitor {
                             "'void', 'int', 'boolean', or 'null'; " +
                             node.getName());
         else {
-            ClassTreeNode treeNode = new ClassTreeNode(node, false, true, classMap);
+            ClassTreeNode treeNode = new ClassTreeNode(node, false, true, classMap,
+                    versions);
             classMap.put(node.getName(), treeNode);
         }
         return null;
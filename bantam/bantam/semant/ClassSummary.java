@@ -0,0 +1,56 @@
+/*
+ * File: ClassSummary.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.semant;
+
+import proj10LoverudeTymkiwCorrell.bantam.util.Error;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What type checking found in one class, kept so that the class need not be
+ * checked again, for example by a cache of compiled files: the errors found in
+ * the class, and the signature that each class it depends on had at the time.
+ * A signature holds a class's name, parent, field types, and method return and
+ * parameter types.  The summary can be used in place of type checking the
+ * same class again as long as all those signatures are unchanged.
+ *
+ * @see SemanticAnalyzer#analyze(proj10LoverudeTymkiwCorrell.bantam.ast.Program, Map)
+ */
+public class ClassSummary {
+    /** the signatures of the classes depended on, by name (null if undefined) */
+    private final Map<String, String> dependencies;
+    /** the errors found in the class, in the order they were found */
+    private final List<Error> errors;
+
+    /**
+     * @param dependencies the signatures of the classes that the class depends
+     *                     on, by name, with null for names that are not the
+     *                     names of classes
+     * @param errors the errors found in the class, in the order they were found
+     */
+    public ClassSummary(Map<String, String> dependencies, List<Error> errors) {
+        this.dependencies = Collections.unmodifiableMap(new LinkedHashMap<>(dependencies));
+        this.errors = List.copyOf(errors);
+    }
+
+    /**
+     * @return the signatures of the classes that the class depends on, by name,
+     *         with null for names that are not the names of classes
+     */
+    public Map<String, String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @return the errors found in the class, in the order they were found
+     */
+    public List<Error> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * File: MemberTableBuilderVisitor.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.semant;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.Class_;
+import proj10LoverudeTymkiwCorrell.bantam.ast.Field;
+import proj10LoverudeTymkiwCorrell.bantam.ast.Method;
+import proj10LoverudeTymkiwCorrell.bantam.util.ClassTreeNode;
+import proj10LoverudeTymkiwCorrell.bantam.util.Error;
+import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
+import proj10LoverudeTymkiwCorrell.bantam.util.SymbolTable;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * This class adds the fields and methods of each user-defined class to the
+ * variable and method SymbolTables of its ClassTreeNode.  It is a pass of the
+ * FusedVisitor that also runs the ClassMapBuilderVisitor, so it is visited with
+ * each class right after the class was added to the classMap, and then with the
+ * members of the class, before the inheritance tree is built.  So "super" is
+ * added to the variable table of a class, and the errors found in its members
+ * are registered, by finish, once the parent of the class is known.
+ */
+public class MemberTableBuilderVisitor extends Visitor
+{
+    /** the classes of the program, by name */
+    private final Map<String, ClassTreeNode> classMap;
+    /** the class whose members are being added, or null if they are skipped */
+    private ClassTreeNode currentClass;
+    /** the errors found in the members of each class that has any */
+    private final Map<ClassTreeNode, ErrorHandler> errors = new IdentityHashMap<>();
+
+    /**
+     * @param classMap the classes of the program, by name, to which the
+     *                 ClassMapBuilderVisitor adds each class before this visitor
+     *                 is visited with it
+     */
+    MemberTableBuilderVisitor(Map<String, ClassTreeNode> classMap) {
+        this.classMap = classMap;
+    }
+
+    /**
+     * starts the tables of the class, unless the class is not the one in the
+     * classMap with its name, in which case its members are skipped
+     *
+     * @param node the class node
+     * @return null
+     */
+    public Object visit(Class_ node) {
+        ClassTreeNode treeNode = classMap.get(node.getName());
+        if (treeNode == null || treeNode.getASTNode() != node) {
+            // a class with an illegal name, or hidden by an earlier class
+            currentClass = null;
+            return null;
+        }
+        currentClass = treeNode;
+        treeNode.getVarSymbolTable().enterScope();
+        treeNode.getVarSymbolTable().add("this", treeNode.getName());
+        treeNode.getMethodSymbolTable().enterScope();
+        return null;
+    }
+
+    /**
+     * adds the field to the variable SymbolTable of the current class
+     *
+     * @param node the field node
+     * @return null
+     */
+    public Object visit(Field node) {
+        if (currentClass == null) {
+            return null;
+        }
+        SymbolTable fields = currentClass.getVarSymbolTable();
+        if (SemanticAnalyzer.reservedIdentifiers.contains(node.getName())) {
+            registerError(node.getLineNum(), "Class " + currentClass.getName() + " "
+                    + "has a field " + "named: " + node.getName() + ", which is illegal.");
+        }
+        else if (fields.peek(node.getName()) != null) {
+            registerError(node.getLineNum(), "Class " + currentClass.getName()
+                    + " has two fields of the same name: " + node.getName() + ".");
+        }
+        else {
+            fields.add(node.getName(), node.getType());
+        }
+        return null;
+    }
+
+    /**
+     * adds the method to the method SymbolTable of the current class
+     *
+     * @param node the method node
+     * @return null
+     */
+    public Object visit(Method node) {
+        if (currentClass == null) {
+            return null;
+        }
+        SymbolTable methods = currentClass.getMethodSymbolTable();
+        if (SemanticAnalyzer.reservedIdentifiers.contains(node.getName())) {
+            registerError(node.getLineNum(), "Class " + currentClass.getName() + " "
+                    + "has a method named: " + node.getName() + ", which is illegal.");
+        }
+        else if (methods.peek(node.getName()) != null) {
+            registerError(node.getLineNum(), "Class " + currentClass.getName()
+                    + " has two methods of the same name: " + node.getName() + ".");
+        }
+        else {
+            methods.add(node.getName(), node);
+        }
+        return null;
+    }
+
+    /**
+     * completes the tables of a class whose parent has been set, adding "super"
+     * to its variable SymbolTable, and registers the errors found in its members
+     *
+     * @param treeNode a user-defined class that this visitor was visited with
+     * @param errorHandler the ErrorHandler with which the errors are registered
+     */
+    void finish(ClassTreeNode treeNode, ErrorHandler errorHandler) {
+        treeNode.getVarSymbolTable().add("super", (treeNode.getParent() == null ? "" :
+                treeNode.getParent().getName()));
+        ErrorHandler classErrors = errors.get(treeNode);
+        if (classErrors != null) {
+            errorHandler.registerAll(classErrors);
+        }
+    }
+
+    /**
+     * records an error in a member of the current class, to be registered by
+     * finish
+     *
+     * @param lineNum the line number of the member
+     * @param message the error message
+     */
+    private void registerError(int lineNum, String message) {
+        errors.computeIfAbsent(currentClass, treeNode -> new ErrorHandler())
+                .register(Error.Kind.SEMANT_ERROR,
+                        currentClass.getASTNode().getFilename(), lineNum, message);
+    }
+}
@@ -40,9 +40,14 @@ import proj10LoverudeTymkiwCorrell.bantam.ast.*;
 import proj10LoverudeTymkiwCorrell.bantam.parser.Parser;
 import proj10LoverudeTymkiwCorrell.bantam.util.*;
 import proj10LoverudeTymkiwCorrell.bantam.util.Error;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.FusedVisitor;
 import proj10LoverudeTymkiwCorrell.bantam.visitor.MainMethodFinder;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * The <tt>SemanticAnalyzer</tt> class performs semantic analysis.
@@ -72,10 +77,18 @@ public class SemanticAnalyzer
 
     /**
      * Root of the class hierarchy tree.
-     * It is the ClassTreeNode for the Object class.
+     * It is the ClassTreeNode for the Object class, which is shared with the
+     * other analyses (see BuiltinClasses).
      */
     private ClassTreeNode root;
 
+    /**
+     * Root of the class hierarchy tree returned to the callers: the copy of root
+     * made for this analysis, which lists the user-defined classes among its
+     * children and looks classes up in classMap (see ClassTreeNode.copyFor)
+     */
+    private ClassTreeNode analysisRoot;
+
     /**
      * Maps class names to ClassTreeNode objects describing the class
      */
@@ -93,17 +106,92 @@ public class SemanticAnalyzer
      */
     private final int MAX_NUM_FIELDS = 1500;
 
+    /**
+     * The number of classes that are type checked at the same time
+     */
+    private final int parallelism;
+
+    /**
+     * Whether the TypeCheckerVisitors dispatch on the nodes with a switch
+     * instead of calling their accept methods
+     */
+    private boolean switchDispatch;
+
+    /**
+     * The type checking results of the classes of the program given to the last
+     * call to reanalyze, in program order, which the next call reuses (null if
+     * there is nothing to reuse)
+     */
+    private List<ClassResult> classResults;
+
+    /**
+     * Whether errors were found while building the class tree and the field and
+     * method tables in the last call to reanalyze
+     */
+    private boolean structureHasErrors;
+
+    /**
+     * The summaries of the classes of the program given to the last call to
+     * analyze with summaries
+     */
+    private Map<Class_, ClassSummary> classSummaries = new IdentityHashMap<>();
+
+    /**
+     * The time in nanoseconds taken by each step of the last analysis, by name
+     */
+    private final Map<String, Long> passTimes = new LinkedHashMap<>();
+
     /**
      * SemanticAnalyzer constructor
      *
      * @param errorHandler the ErrorHandler to use for reporting errors
      */
     public SemanticAnalyzer(ErrorHandler errorHandler) {
+        this(errorHandler, 1);
+    }
+
+    /**
+     * SemanticAnalyzer constructor
+     *
+     * @param errorHandler the ErrorHandler to use for reporting errors
+     * @param parallelism the number of classes to type check at the same time.
+     *                    If it is 1, all classes are checked by one visitor.
+     */
+    public SemanticAnalyzer(ErrorHandler errorHandler, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
         this.errorHandler = errorHandler;
+        this.parallelism = parallelism;
     }
 
     public ErrorHandler getErrorHandler() { return errorHandler; }
 
+    /**
+     * Sets whether the type checking dispatches on the nodes with a switch on
+     * their kinds instead of calling their accept methods (see SwitchVisitor).
+     * The results are the same either way.
+     *
+     * @param switchDispatch whether to dispatch with a switch
+     */
+    public void setSwitchDispatch(boolean switchDispatch) {
+        this.switchDispatch = switchDispatch;
+    }
+
+    /**
+     * Returns the time taken by each step of the last call to analyze or
+     * reanalyze: the passes run in the traversal of the classes and members, the
+     * rest of that traversal, building the inheritance tree, finishing the field
+     * and method tables, and type checking.  Steps that reanalyze skipped are left
+     * out.
+     *
+     * @return the time in nanoseconds taken by each step, by name, in the order
+     *         the steps were run
+     */
+    public Map<String, Long> getPassTimes() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(passTimes));
+    }
+
     /**
      * Analyze the AST, checking for semantic errors and annotating the tree
      * Also builds an auxiliary class hierarchy tree
@@ -112,7 +200,7 @@ public class SemanticAnalyzer
      * @return root of the class hierarchy tree (for use in Proj 10)
      * <p>
      * This method:
-     * 1 - adds built-in classes in classMap
+     * 1 - adds the shared built-in classes in classMap
      * 2 - adds user-defined classes and builds the inheritance tree of ClassTreeNodes
      * 3 - builds the environment for each class (adding class members only) and
      *     checks that members are declared properly
@@ -124,23 +212,11 @@ public class SemanticAnalyzer
      */
     public ClassTreeNode analyze(Program program) {
         this.program = program;
-        this.classMap.clear();
-
-        // step 1:  add built-in classes to classMap
-        addBuiltins();
-
-        //step 2:  add user-defined classes to classMap and build the
-        // inheritance tree of ClassTreeNodes
-        buildInheritanceTree();
+        this.classResults = null;
+        passTimes.clear();
 
-        //step 3: build the field and method symbol tables for each ClassTreeNode
-        //        Just add the class's fields & methods and not the
-        //        inherited ones since the SymbolTable's lookup method checks
-        //        the superclasses for you.
-        buildFieldAndMethodTables();
-
-        //step 4: check whether there is a Main class with a main method.
-        checkForMainClassWithMainMethod();
+        // steps 1-4
+        buildStructure();
 
         //step 5:  do type-checking for all expressions.  In addition to checking
         // types, this method also checks for:
@@ -157,7 +233,520 @@ public class SemanticAnalyzer
             throw new CompilationException(errorHandler);
         }
 
-        return root;
+        return analysisRoot;
+    }
+
+    /**
+     * Analyze the AST like analyze, but reuse the results of the previous call
+     * to reanalyze for the classes that were not affected by the changes made to
+     * the AST since then, so that checking a large program again after a small
+     * edit costs little more than checking the classes the edit affects.  The AST is expected to have been
+     * changed in place, as Parser.reparse does, since a class or member is known
+     * to be unchanged only if it is the same node as before.
+     *
+     * A class is type checked again if one of its members was replaced, or if
+     * the signature of a class that it depends on changed: the class's name,
+     * parent, field types, and method return and parameter types.  A class depends
+     * on its ancestors, on every class whose name it looks up as a type, and on
+     * the ancestors of those classes, which decide which of them are subtypes of
+     * which.  The class tree and the field and method tables are only rebuilt if
+     * a signature changed, a class was replaced, added or removed, or they had
+     * errors.  The errors of the classes that are not checked again are
+     * registered again with their line numbers moved by as many lines as their
+     * class moved.
+     *
+     * The ErrorHandler should be cleared before each call, as for analyze.
+     *
+     * @param program root of the AST
+     * @return root of the class hierarchy tree
+     */
+    public ClassTreeNode reanalyze(Program program) {
+        this.program = program;
+        passTimes.clear();
+        List<ClassResult> previousResults = classResults;
+        classResults = null; // in case the analysis fails part way
+
+        Map<Class_, ClassResult> previous = new IdentityHashMap<>();
+        if (previousResults != null) {
+            for (ClassResult result : previousResults) {
+                previous.put(result.astNode, result);
+            }
+        }
+        ClassList classList = program.getClassList();
+        int numClasses = classList.getSize();
+        boolean sameClasses = previousResults != null
+                && previousResults.size() == numClasses;
+        ClassResult[] results = new ClassResult[numClasses];
+        String[] signatures = new String[numClasses];
+        for (int i = 0; i < numClasses; i++) {
+            Class_ node = (Class_) classList.get(i);
+            ClassResult result = previous.get(node);
+            sameClasses = sameClasses && result == previousResults.get(i);
+            if (result != null && result.hasMembersOf(node)) {
+                results[i] = result;
+                signatures[i] = result.signature;
+            }
+            else {
+                signatures[i] = getSignature(node);
+            }
+        }
+        Set<String> changedNames = findChangedSignatures(previousResults,
+                classList, signatures);
+
+        if (!sameClasses || !changedNames.isEmpty() || structureHasErrors) {
+            buildStructure();
+            structureHasErrors = errorHandler.errorsFound();
+        }
+        else {
+            // only members with unchanged signatures were replaced
+            for (int i = 0; i < numClasses; i++) {
+                if (results[i] == null) {
+                    Class_ node = (Class_) classList.get(i);
+                    replaceMethods(previous.get(node), node);
+                }
+            }
+        }
+
+        // check the classes that depend on a class whose signature changed
+        if (!changedNames.isEmpty()) {
+            for (int i = 0; i < numClasses; i++) {
+                if (results[i] != null && !Collections.disjoint(
+                        results[i].dependencies, changedNames)) {
+                    results[i] = null;
+                }
+            }
+        }
+        List<ClassResult> unchecked = new ArrayList<>();
+        for (int i = 0; i < numClasses; i++) {
+            if (results[i] == null) {
+                results[i] = new ClassResult((Class_) classList.get(i), signatures[i]);
+                unchecked.add(results[i]);
+            }
+        }
+        typeCheckClassResults(unchecked);
+        classResults = Arrays.asList(results);
+
+        registerErrors(classResults);
+        if (errorHandler.errorsFound()) {
+            throw new CompilationException(errorHandler);
+        }
+        return analysisRoot;
+    }
+
+    /**
+     * Analyze the AST like analyze, but use the given summaries of classes that
+     * were type checked before, such as classes loaded from a cache of compiled
+     * files, in place of type checking them again.  A summary is used only if all
+     * the classes the class depended on still have the signatures it recorded,
+     * and the class is not hidden by an earlier class with the same name; the
+     * other classes are type checked, each with its own TypeCheckerVisitor.
+     * The class tree and the field and method tables are always built.
+     * Afterwards getClassSummaries returns the summaries of all the classes.
+     *
+     * @param program root of the AST
+     * @param summaries the summaries of some of the classes of the program
+     * @return root of the class hierarchy tree
+     */
+    public ClassTreeNode analyze(Program program, Map<Class_, ClassSummary> summaries) {
+        this.program = program;
+        this.classResults = null;
+        this.classSummaries = new IdentityHashMap<>();
+        passTimes.clear();
+
+        buildStructure();
+
+        ClassList classList = program.getClassList();
+        int numClasses = classList.getSize();
+        Map<String, String> signatures = new HashMap<>();
+        ClassSummary[] reused = new ClassSummary[numClasses];
+        ClassResult[] results = new ClassResult[numClasses];
+        List<ClassResult> unchecked = new ArrayList<>();
+        for (int i = 0; i < numClasses; i++) {
+            Class_ node = (Class_) classList.get(i);
+            ClassSummary summary = summaries.get(node);
+            if (summary != null && isDeclared(node) && isUpToDate(summary, signatures)) {
+                reused[i] = summary;
+            }
+            else {
+                results[i] = new ClassResult(node, null);
+                unchecked.add(results[i]);
+            }
+        }
+        typeCheckClassResults(unchecked);
+
+        // register the errors in the order analyze would have found them
+        for (int i = 0; i < numClasses; i++) {
+            Class_ node = (Class_) classList.get(i);
+            if (reused[i] != null) {
+                for (Error error : reused[i].getErrors()) {
+                    errorHandler.register(error.getKind(), error.getFilename(),
+                            error.getLineNum(), error.getMessage());
+                }
+                classSummaries.put(node, reused[i]);
+                continue;
+            }
+            errorHandler.registerAll(results[i].errors);
+            if (results[i].failure != null) {
+                throw results[i].failure;
+            }
+            if (!isDeclared(node)) {
+                // its errors depend on the class that hides it
+                continue;
+            }
+            Map<String, String> dependencies = new LinkedHashMap<>();
+            for (String name : results[i].dependencies) {
+                dependencies.put(name, getCurrentSignature(name, signatures));
+            }
+            classSummaries.put(node, new ClassSummary(dependencies,
+                    results[i].errors.getErrorsInRegistrationOrder()));
+        }
+        if (errorHandler.errorsFound()) {
+            throw new CompilationException(errorHandler);
+        }
+        return analysisRoot;
+    }
+
+    /**
+     * @return the summaries of the classes of the program given to the last call
+     *         to analyze with summaries, including the summaries that were reused.
+     *         Classes whose type checking stopped with an exception, and classes
+     *         hidden by an earlier class with the same name, have none.
+     */
+    public Map<Class_, ClassSummary> getClassSummaries() {
+        return Collections.unmodifiableMap(classSummaries);
+    }
+
+    /**
+     * @param node the AST node of a class
+     * @return true if the class is the one in the class map with its name, rather
+     *         than a class declared again with the same name
+     */
+    private boolean isDeclared(Class_ node) {
+        ClassTreeNode treeNode = classMap.get(node.getName());
+        return treeNode != null && treeNode.getASTNode() == node;
+    }
+
+    /**
+     * @param summary the summary of a class
+     * @param signatures the signatures found so far, by class name
+     * @return true if every class that the summary depends on still has the
+     *         signature the summary recorded
+     */
+    private boolean isUpToDate(ClassSummary summary, Map<String, String> signatures) {
+        for (Map.Entry<String, String> dependency : summary.getDependencies().entrySet()) {
+            if (!Objects.equals(dependency.getValue(),
+                    getCurrentSignature(dependency.getKey(), signatures))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * finds the signature of the class in the class map with a given name
+     *
+     * @param className the name of the class
+     * @param signatures the signatures found so far, by class name, to which the
+     *                   signature is added
+     * @return the signature, or null if there is no class of that name
+     */
+    private String getCurrentSignature(String className, Map<String, String> signatures) {
+        if (!signatures.containsKey(className)) {
+            ClassTreeNode treeNode = classMap.get(className);
+            signatures.put(className,
+                    treeNode == null ? null : getSignature(treeNode.getASTNode()));
+        }
+        return signatures.get(className);
+    }
+
+    /**
+     * Builds the class hierarchy tree and the field and method tables of the
+     * classes of the program, and checks for the Main class, registering any
+     * errors with the ErrorHandler
+     */
+    private void buildStructure() {
+        this.classMap.clear();
+
+        // step 1:  add the built-in classes, which are built once and shared, to
+        // classMap
+        BuiltinClasses builtins = BuiltinClasses.get();
+        builtins.addTo(classMap);
+        root = builtins.getRoot();
+
+        // steps 2-4 start with a single traversal of the classes and members of
+        // the program, which adds the user-defined classes to classMap, adds
+        // their members to their tables and looks for the main method
+        ClassMapBuilderVisitor classMapBuilder = new ClassMapBuilderVisitor(classMap,
+                errorHandler, new ClassTreeVersions());
+        MemberTableBuilderVisitor memberTableBuilder =
+                new MemberTableBuilderVisitor(classMap);
+        MainMethodFinder mainMethodFinder = new MainMethodFinder();
+        FusedVisitor passes = new FusedVisitor();
+        passes.register(classMapBuilder, Class_.class);
+        passes.register(memberTableBuilder, Class_.class, Member.class);
+        passes.register(mainMethodFinder, Class_.class);
+        passes.run(program);
+        long passesTime = 0;
+        for (long time : passes.getTimes().values()) {
+            passesTime += time;
+        }
+        passTimes.put("class map", passes.getTime(classMapBuilder));
+        passTimes.put("member tables", passes.getTime(memberTableBuilder));
+        passTimes.put("main method", passes.getTime(mainMethodFinder));
+        passTimes.put("traversal", passes.getTotalTime() - passesTime);
+
+        //step 2:  build the inheritance tree of ClassTreeNodes
+        long start = System.nanoTime();
+        buildInheritanceTree();
+        numberUserClasses(builtins.getFirstFreeNumber()); // for constant time
+        // subclass checks
+        analysisRoot = root.copyFor(classMap);
+        passTimes.put("inheritance tree", System.nanoTime() - start);
+
+        //step 3: finish the field and method symbol tables for each ClassTreeNode
+        //        Just add the class's fields & methods and not the
+        //        inherited ones since the SymbolTable's lookup method checks
+        //        the superclasses for you.
+        start = System.nanoTime();
+        buildFieldAndMethodTables(memberTableBuilder);
+        passTimes.put("finish tables", System.nanoTime() - start);
+
+        //step 4: check whether there is a Main class with a main method.
+        checkForMainClassWithMainMethod(mainMethodFinder);
+    }
+
+    /**
+     * Finds the names of the classes whose signatures differ between the previous
+     * and the current program, including the names of classes that were added or
+     * removed.  Where several classes have the same name, only the first counts,
+     * since it is the one in the class map.
+     *
+     * @param previousResults the results of the classes of the previous program,
+     *                        or null if there is none
+     * @param classList the classes of the current program
+     * @param signatures the signatures of the classes of the current program
+     * @return the names of the classes whose signatures changed
+     */
+    private static Set<String> findChangedSignatures(List<ClassResult> previousResults,
+                                                     ClassList classList,
+                                                     String[] signatures) {
+        Map<String, String> previousSignatures = new HashMap<>();
+        if (previousResults != null) {
+            for (ClassResult result : previousResults) {
+                previousSignatures.putIfAbsent(result.astNode.getName(),
+                        result.signature);
+            }
+        }
+        Map<String, String> currentSignatures = new HashMap<>();
+        for (int i = 0; i < signatures.length; i++) {
+            currentSignatures.putIfAbsent(((Class_) classList.get(i)).getName(),
+                    signatures[i]);
+        }
+        Set<String> changedNames = new HashSet<>();
+        for (Map.Entry<String, String> entry : currentSignatures.entrySet()) {
+            if (!entry.getValue().equals(previousSignatures.get(entry.getKey()))) {
+                changedNames.add(entry.getKey());
+            }
+        }
+        for (String name : previousSignatures.keySet()) {
+            if (!currentSignatures.containsKey(name)) {
+                changedNames.add(name);
+            }
+        }
+        return changedNames;
+    }
+
+    /**
+     * Builds the part of a class that other classes can depend on: its name, its
+     * parent, the types and names of its fields, and the return types, names and
+     * parameter types of its methods, in order.
+     *
+     * @param node the Class_ node
+     * @return the signature of the class
+     */
+    private static String getSignature(Class_ node) {
+        StringBuilder signature = new StringBuilder();
+        signature.append(node.getName()).append(" extends ").append(node.getParent())
+                .append(" {");
+        for (ASTNode member : node.getMemberList()) {
+            if (member instanceof Field) {
+                Field field = (Field) member;
+                signature.append(field.getType()).append(' ').append(field.getName())
+                        .append(';');
+            }
+            else {
+                Method method = (Method) member;
+                signature.append(method.getReturnType()).append(' ')
+                        .append(method.getName()).append('(');
+                for (ASTNode formal : method.getFormalList()) {
+                    signature.append(((Formal) formal).getType()).append(',');
+                }
+                signature.append(");");
+            }
+        }
+        return signature.append('}').toString();
+    }
+
+    /**
+     * Puts the methods of a class that replaced methods with the same signatures
+     * into the method symbol table of the class, in place of the old methods, and
+     * discards the dispatch tables that refer to the old methods
+     *
+     * @param previous the result of the class before its members were replaced
+     * @param node the Class_ node
+     */
+    private void replaceMethods(ClassResult previous, Class_ node) {
+        ClassTreeNode treeNode = classMap.get(node.getName());
+        SymbolTable methods = treeNode.getMethodSymbolTable();
+        MemberList memberList = node.getMemberList();
+        for (int i = 0; i < memberList.getSize(); i++) {
+            ASTNode member = memberList.get(i);
+            if (member != previous.members[i] && member instanceof Method
+                    && methods.peek(((Method) member).getName()) == previous.members[i]) {
+                methods.add(((Method) member).getName(), member);
+            }
+        }
+        treeNode.clearDispatchTables();
+    }
+
+    /**
+     * Type checks classes, each with its own TypeCheckerVisitor and ErrorHandler,
+     * once the class tree and the field and method tables are complete.  From
+     * then on checking a class only reads the shared ClassTreeNodes, and each
+     * visitor works on its own copies of the variable SymbolTables, so if the
+     * parallelism is more than 1 the classes are checked in parallel, split into
+     * runs of consecutive classes.
+     *
+     * @param results the results of the classes, to be filled in
+     */
+    private void typeCheckClassResults(List<ClassResult> results) {
+        long start = System.nanoTime();
+        try {
+            typeCheckClassResultsInRuns(results);
+        } finally {
+            passTimes.put("type checking", System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Type checks classes for typeCheckClassResults
+     *
+     * @param results the results of the classes, to be filled in
+     */
+    private void typeCheckClassResultsInRuns(List<ClassResult> results) {
+        if (parallelism == 1 || results.size() < 2) {
+            for (ClassResult result : results) {
+                typeCheckClass(result);
+            }
+            return;
+        }
+        // several runs per thread so that a run of large classes does not
+        // leave the other threads idle
+        int numRuns = Math.min(results.size(), parallelism * 4);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int run = 0; run < numRuns; run++) {
+            List<ClassResult> runResults = results.subList(
+                    run * results.size() / numRuns,
+                    (run + 1) * results.size() / numRuns);
+            tasks.add(() -> {
+                for (ClassResult result : runResults) {
+                    typeCheckClass(result);
+                }
+                return null;
+            });
+        }
+        invokeInParallel(tasks);
+    }
+
+    /**
+     * Type checks one class, recording its errors, the exception
+     * that stopped the checking if there was one, and the classes it depends on
+     *
+     * @param result the result of the class, to be filled in
+     */
+    private void typeCheckClass(ClassResult result) {
+        TypeCheckerVisitor visitor = new TypeCheckerVisitor(result.errors, classMap,
+                switchDispatch);
+        try {
+            result.astNode.accept(visitor);
+        } catch (RuntimeException e) {
+            result.failure = e;
+        }
+        result.lineNum = result.astNode.getLineNum();
+        // the class inherits the fields and methods of its ancestors, and whether
+        // one of the classes it looked up is a subtype of another depends on the
+        // ancestors of that class
+        List<String> namesUsed = new ArrayList<>(visitor.getClassNamesLookedUp());
+        namesUsed.add(result.astNode.getName());
+        Set<String> dependencies = new HashSet<>(namesUsed);
+        Set<ClassTreeNode> walked = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String name : namesUsed) {
+            for (ClassTreeNode treeNode = classMap.get(name);
+                 treeNode != null && walked.add(treeNode);
+                 treeNode = treeNode.getParent()) {
+                dependencies.add(treeNode.getName());
+                if (treeNode.getASTNode().getParent() != null) {
+                    dependencies.add(treeNode.getASTNode().getParent());
+                }
+            }
+        }
+        result.dependencies = dependencies;
+    }
+
+    /**
+     * What an analysis remembers about a class of the program after type checking
+     * it, which reanalyze keeps for the next call
+     */
+    private static class ClassResult {
+        /** the Class_ node */
+        private final Class_ astNode;
+        /** the members of the class when it was type checked */
+        private final ASTNode[] members;
+        /** the signature of the class, as built by getSignature */
+        private final String signature;
+        /** the errors found in the class */
+        private final ErrorHandler errors = new ErrorHandler();
+        /** the line number of the class when it was type checked */
+        private int lineNum;
+        /** the exception that stopped the type checking, if there was one */
+        private RuntimeException failure;
+        /** the names of the classes that the type checking depended on */
+        private Set<String> dependencies;
+
+        /**
+         * @param astNode the Class_ node
+         * @param signature the signature of the class (null if not needed)
+         */
+        private ClassResult(Class_ astNode, String signature) {
+            this.astNode = astNode;
+            this.signature = signature;
+            MemberList memberList = astNode.getMemberList();
+            members = new ASTNode[memberList.getSize()];
+            for (int i = 0; i < members.length; i++) {
+                members[i] = memberList.get(i);
+            }
+        }
+
+        /**
+         * @param node a Class_ node
+         * @return true if the node is the node of this result and still has the
+         *         same member nodes
+         */
+        private boolean hasMembersOf(Class_ node) {
+            if (node != astNode) {
+                return false;
+            }
+            MemberList memberList = node.getMemberList();
+            if (memberList.getSize() != members.length) {
+                return false;
+            }
+            for (int i = 0; i < members.length; i++) {
+                if (memberList.get(i) != members[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
     /**
@@ -171,115 +760,127 @@ public class SemanticAnalyzer
      * Any errors are registered with the ErrorHandler.
      */
     private void doTypeChecking() {
-        TypeCheckerVisitor visitor = new TypeCheckerVisitor(errorHandler, root);
-        visitor.visit(program);
+        List<ClassResult> results = new ArrayList<>();
+        for (ASTNode aClass : program.getClassList()) {
+            results.add(new ClassResult((Class_) aClass, null));
+        }
+        typeCheckClassResults(results);
+        registerErrors(results);
+    }
+
+    /**
+     * registers the errors of type checked classes with the ErrorHandler in
+     * program order, so they are the same as when the classes are checked one at
+     * a time by a single visitor, with their line numbers moved by as many lines
+     * as their class moved since it was checked
+     *
+     * @param results the results of the classes, in program order
+     * @throws RuntimeException the exception that stopped the type checking of a
+     *         class, after the errors of the classes before it are registered
+     */
+    private void registerErrors(List<ClassResult> results) {
+        for (ClassResult result : results) {
+            errorHandler.registerAll(result.errors,
+                    result.astNode.getLineNum() - result.lineNum);
+            if (result.failure != null) {
+                // the classes after the failure would not have been
+                // checked by a single visitor either
+                throw result.failure;
+            }
+        }
+    }
+
+    /**
+     * Runs tasks on a pool of as many threads as the parallelism
+     *
+     * @param tasks the tasks
+     * @param <T> the type of the results of the tasks
+     * @return the results of the tasks, in the order of the tasks
+     */
+    private <T> List<T> invokeInParallel(List<Callable<T>> tasks) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompilationException("Type checking was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof java.lang.Error) {
+                throw (java.lang.Error) e.getCause();
+            }
+            throw new CompilationException("Type checking failed.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
     }
 
     /**
      * checks that the program contains a Main class with a
      * main method that has void return type and no parameters.
      * If not, an error is registered with the ErrorHandler.
+     *
+     * @param visitor the MainMethodFinder that was run on the program
      */
-    private void checkForMainClassWithMainMethod() {
-        MainMethodFinder visitor = new MainMethodFinder();
-        visitor.visit(program);
-        if (!visitor.hasMain(program)){
+    private void checkForMainClassWithMainMethod(MainMethodFinder visitor) {
+        if (!visitor.foundMain()){
             errorHandler.register(Error.Kind.SEMANT_ERROR, "No main class");
         }
 
 
     }
 
-    private void buildFieldAndMethodTables() {
-        /* NOTE:  To be elegant, this method should have
-                  been implemented as a visitor,
-                  such as part of the ClassMapBuilderVisitor.
-                  As part of Project 10, you are welcome to
-                  fix it.
-        */
+    /**
+     * numbers the trees of user-defined classes attached to the Object class, so
+     * that isSubclassOf can compare classes in constant time.  The Object class
+     * itself is frozen and already numbered.
+     *
+     * @param first the number to start from
+     */
+    private void numberUserClasses(int first) {
+        int next = first;
         for (ClassTreeNode treeNode : classMap.values()) {
-            SymbolTable fields = treeNode.getVarSymbolTable();
-            SymbolTable methods = treeNode.getMethodSymbolTable();
-            fields.enterScope();
-            fields.add("this", treeNode.getName());
-            fields.add("super", (treeNode.getParent() == null ? "" :
-                    treeNode.getParent().getName()));
-            methods.enterScope();
-            MemberList list = treeNode.getASTNode().getMemberList();
-            for (ASTNode member : list) {
-                if (member instanceof Field) {
-                    addMemberToFieldTable(treeNode, member);
-                }
-                else { // if(member instanceof Method)
-                    addMemberToMethodTable(treeNode, member);
-                }
+            if (!treeNode.isBuiltIn() && treeNode.getParent() == root) {
+                next = treeNode.numberTree(next);
             }
         }
     }
 
     /**
-     * adds the ASTNode member to the treeNode's variable SymbolTable
-     * @param treeNode The ClassTreeNode whose variable SymbolTable is being added to
-     * @param member the method ASTNode that is being added to the table
+     * finishes the field and method tables of the user-defined classes, whose
+     * members were added by the MemberTableBuilderVisitor, now that their
+     * parents are known, and registers the errors found in their members
+     *
+     * @param builder the MemberTableBuilderVisitor that was run on the program
      */
-    private void addMemberToFieldTable(ClassTreeNode treeNode, ASTNode member) {
-        SymbolTable fields = treeNode.getVarSymbolTable();
-        if (SemanticAnalyzer.reservedIdentifiers.contains(((Field) member).getName())) {
-            errorHandler.register(Error.Kind.SEMANT_ERROR,
-                    treeNode.getASTNode().getFilename(),
-                    member.getLineNum(), "Class " + treeNode.getName() + " "
-                            + "has a field " + "named: " + ((Field) member).getName()
-                            + ", which is illegal.");
-        }
-        else if (fields.peek(((Field) member).getName()) != null) {
-            errorHandler.register(Error.Kind.SEMANT_ERROR,
-                    treeNode.getASTNode().getFilename(), member.getLineNum(),
-                    "Class " + treeNode.getName()
-                            + " has two fields of the same name: "
-                            + ((Field) member).getName() + ".");
-        }
-        else {
-            fields.add(((Field) member).getName(), ((Field) member).getType());
+    private void buildFieldAndMethodTables(MemberTableBuilderVisitor builder) {
+        for (ClassTreeNode treeNode : classMap.values()) {
+            if (treeNode.isBuiltIn()) {
+                continue; // its tables were built with it
+            }
+            builder.finish(treeNode, errorHandler);
         }
     }
 
     /**
-     * adds the ASTNode member to the methods SymbolTable
-     * @param treeNode The ClassTreeNode whose SymbolTable is being added to
-     * @param member the method ASTNode that is being added to the table
+     * builds the inheritance tree of the user-defined classes in classMap,
+     * in time linear in the number of classes: the parents of all the classes are
+     * linked first, then the cycles are found and broken by following the parents
+     * of each class only as far as a class already checked, and finally the lists
+     * of children and the numbers of descendants are built in one traversal
      */
-    private void addMemberToMethodTable(ClassTreeNode treeNode, ASTNode member) {
-        SymbolTable methods = treeNode.getMethodSymbolTable();
-        if (SemanticAnalyzer.reservedIdentifiers.contains(((Method) member).getName())) {
-            errorHandler.register(Error.Kind.SEMANT_ERROR,
-                    treeNode.getASTNode().getFilename(),
-                    member.getLineNum(), "Class " + treeNode.getName() + " "
-                            + "has a method named: "
-                            + ((Method) member).getName() + ", which is illegal.");
-        }
-        else if (methods.peek(((Method) member).getName()) != null) {
-            errorHandler.register(Error.Kind.SEMANT_ERROR,
-                    treeNode.getASTNode().getFilename(), member.getLineNum(),
-                    "Class " + treeNode.getName()
-                            + " has two methods of the same name: "
-                            + ((Method) member).getName() + ".");
-        }
-        else {
-            methods.add(((Method) member).getName(), member);
-        }
-    }
-
     private void buildInheritanceTree() {
-        // step 1: add all user-defined classes to classMap
-        ClassMapBuilderVisitor visitor = new ClassMapBuilderVisitor(classMap,
-                errorHandler);
-        visitor.visit(program);
+        // step 1: all user-defined classes were added to classMap by the
+        // ClassMapBuilderVisitor
 
         // step 2: fix parent pointers in all ClassTreeNodes in classMap
         for (ClassTreeNode treeNode : classMap.values()) {
             Class_ astNode = treeNode.getASTNode();
-            if (astNode.getName().equals("Object")) {
-                continue; // no parent
+            if (treeNode.isBuiltIn()) {
+                continue; // its parent was set when it was built
             }
 
 
@@ -288,7 +889,7 @@ public class SemanticAnalyzer
                 errorHandler.register(Error.Kind.SEMANT_ERROR, astNode.getFilename(),
                         astNode.getLineNum(), "Superclass " + astNode.getParent() + " " +
                                 "of class " + astNode.getName() + " does not exist.");
-                treeNode.setParent(classMap.get("Object")); //to allow checking to
+                treeNode.linkParent(classMap.get("Object")); //to allow checking to
                 // continue
             }
             else if (astNode.getParent().equals("Sys") || astNode.getParent().equals(
@@ -299,18 +900,34 @@ public class SemanticAnalyzer
                                 "have subclasses (it is final).");
             }
             else {
-                treeNode.setParent(parentNode);
+                treeNode.linkParent(parentNode);
             }
         }
 
         //step 3: check for cycles in inheritance "tree"
+        breakInheritanceCycles();
+
+        //step 4: add each class to the children of its parent and count the
+        // descendants of every class
+        ClassTreeNode.linkChildren(classMap.values());
+    }
+
+    /**
+     * finds the cycles of classes that inherit from each other, registering an
+     * error for each and breaking it by making the Object class the parent of the
+     * class where it was found.  The parents of each class are followed until a
+     * class is reached a second time, which is in a cycle, or a class whose
+     * parents were followed before (a colored depth-first search), so every class
+     * is visited once.
+     */
+    private void breakInheritanceCycles() {
+        // the classes whose ancestors have been checked, and the classes whose
+        // ancestors are being checked
+        Set<ClassTreeNode> checked = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<ClassTreeNode> onPath = Collections.newSetFromMap(new IdentityHashMap<>());
         for (ClassTreeNode treeNode : classMap.values()) {
-            // use a new HashSet for each node and its ancestors.
-            // A node is added to the HashSet when it is visited as
-            // we traverse up the ancestor path.
-            HashSet<ClassTreeNode> marked = new HashSet<>();
-            while (treeNode != null) {
-                if (marked.contains(treeNode)) {
+            while (treeNode != null && !checked.contains(treeNode)) {
+                if (!onPath.add(treeNode)) {
                     errorHandler.register(Error.Kind.SEMANT_ERROR,
                             treeNode.getASTNode().getFilename(),
                             treeNode.getASTNode().getLineNum(),
@@ -319,89 +936,16 @@ public class SemanticAnalyzer
                     // temporarily get rid of the cycle by setting treeNode's
                     // parent to the Object class so that we can continue
                     // checking the AST.
-                    treeNode.getParent().removeChild(treeNode);
-                    treeNode.setParent(classMap.get("Object"));
-                    classMap.get("Object").addChild(treeNode);
+                    treeNode.linkParent(classMap.get("Object"));
                     break;
                 }
-                else {
-                    marked.add(treeNode);
-                    treeNode = treeNode.getParent();
-                }
+                treeNode = treeNode.getParent();
             }
+            checked.addAll(onPath);
+            onPath.clear();
         }
     }
 
-    /**
-     * Add built-in classes to the classMap and create ASTNodes for each of them.
-     * There is no need to add these new ASTNodes to the AST generated by the parser.
-     * You can access them, if necessary, through the classMap.
-     */
-    private void addBuiltins() {
-        // create AST node for the Object class
-        Class_ astNode = new Class_(-1, "<built-in class>", "Object", null,
-                (MemberList) (new MemberList(-1)).addElement(new Method(-1, "Object",
-                        "clone", new FormalList(-1),
-                        (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1,
-                                new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "boolean", "equals", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "Object", "o")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstBooleanExpr(-1, "false"))))).addElement(new Method(-1, "void", "print", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "string")), (StmtList) (new StmtList(-1))/*.addElement(new ReturnStmt(-1, new ConstBooleanExpr(-1, "false")))*/)).addElement(new Method(-1, "String", "toString", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))));
-        // create a class tree node for object, save in variable root
-        root = new ClassTreeNode(astNode, /*built-in?*/true, /*extendable?*/true,
-                classMap);
-        // add object class tree node to the mapping
-        classMap.put("Object", root);
-
-        // note: String, TextIO, and Sys all have fields that are not shown below.
-        // Because these classes cannot be extended and fields are protected, these
-        // fields cannot be accessed by other classes, so these fields do not have to be
-        // included in the AST.
-
-        // create AST node for String
-        astNode = new Class_(-1, "<built-in class>", "String", "Object",
-                (MemberList) (new MemberList(-1)).addElement(new Field(-1, "int",
-                        "length", /*0 by default*/null))
-                /* note: str is the character sequence -- no applicable type for a
-               character sequence so it is just made an int.  it's OK to
-               do this since this field is only accessed (directly) within
-               the runtime system */.addElement(new Method(-1, "int", "length",
-                                new FormalList(-1),
-                                (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstIntExpr(-1, "0"))))).addElement(new Method(-1, "boolean", "equals", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "Object", "str")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstBooleanExpr(-1, "false"))))).addElement(new Method(-1, "String", "toString", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "String", "substring", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "int", "beginIndex")).addElement(new Formal(-1, "int", "endIndex")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "String", "concat", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "str")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))));
-        // create class tree node for String, add it to the mapping
-        classMap.put("String", new ClassTreeNode(astNode, /*built-in?*/true,
-                /*extendable?*/false, classMap));
-
-        // create AST node for TextIO
-        astNode = new Class_(-1, "<built-in class>", "TextIO", "Object",
-                (MemberList) (new MemberList(-1)).addElement(new Field(-1, "int",
-                        "readFD", /*0 by default*/null)).addElement(new Field(-1, "int"
-                        , "writeFD", new ConstIntExpr(-1, "1"))).addElement(new Method(-1, "void", "readStdin", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "void", "readFile", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "readFile")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "void", "writeStdout", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "void", "writeStderr", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "void", "writeFile", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "writeFile")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, null)))).addElement(new Method(-1, "String", "getString", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "int", "getInt", new FormalList(-1), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstIntExpr(-1, "0"))))).addElement(new Method(-1, "TextIO", "putString", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "String", "str")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))).addElement(new Method(-1, "TextIO", "putInt", (FormalList) (new FormalList(-1)).addElement(new Formal(-1, "int", "n")), (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new VarExpr(-1, null, "null"))))));
-        // create class tree node for TextIO, add it to the mapping
-        classMap.put("TextIO", new ClassTreeNode(astNode, /*built-in?*/true,
-                /*extendable?*/false, classMap));
-
-        // create AST node for Sys
-        astNode = new Class_(-1, "<built-in class>", "Sys", "Object",
-                (MemberList) (new MemberList(-1)).addElement(new Method(-1, "void",
-                        "exit",
-                        (FormalList) (new FormalList(-1)).addElement(new Formal(-1,
-                                "int", "status")),
-                        (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1,
-                                null))))
-                /* MC: time() and random() requires modifying SPIM to add a time system
-                 call
-               (note: random() does not need its own system call although it uses the time
-               system call).  We have a version of SPIM with this system call available,
-               otherwise, just comment out. (For x86 and jvm there are no issues.)
-               */.addElement(new Method(-1, "int", "time", new FormalList(-1),
-                                (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstIntExpr(-1, "0"))))).addElement(new Method(-1,
-                                "int", "random", new FormalList(-1),
-                                (StmtList) (new StmtList(-1)).addElement(new ReturnStmt(-1, new ConstIntExpr(-1, "0"))))));
-        // create class tree node for Sys, add it to the mapping
-        classMap.put("Sys", new ClassTreeNode(astNode, /*built-in?*/true, /*extendable
-        ?*/false, classMap));
-
-    }
-
-
     /**
      * tests the SemanticAnalyzer (and other classes such as the Scanner and
      * Parser that it relies on).  You need to provide command line arguments
@@ -13,21 +13,30 @@ package proj10LoverudeTymkiwCorrell.bantam.semant;
 
 import proj10LoverudeTymkiwCorrell.bantam.ast.*;
 import proj10LoverudeTymkiwCorrell.bantam.util.ClassTreeNode;
+import proj10LoverudeTymkiwCorrell.bantam.util.DispatchTable;
 import proj10LoverudeTymkiwCorrell.bantam.util.ErrorHandler;
+import proj10LoverudeTymkiwCorrell.bantam.util.FlatSymbolTable;
 import proj10LoverudeTymkiwCorrell.bantam.util.Error;
 import proj10LoverudeTymkiwCorrell.bantam.util.SymbolTable;
-import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
+import proj10LoverudeTymkiwCorrell.bantam.util.Type;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.SwitchVisitor;
 import proj10LoverudeTymkiwCorrell.bantam.ast.Method;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
 /**
  * This visitor find the types of all expression nodes and sets the type field
  * of the nodes.  It reports an error for any type incompatibility.
+ * It visits the children of nodes through dispatch, so it can be created to
+ * dispatch with a switch on the kinds of the nodes (see SwitchVisitor).
  */
-public class TypeCheckerVisitor extends Visitor
+public class TypeCheckerVisitor extends SwitchVisitor
 {
     /** the ErrorHandler that records the errors */
     private final ErrorHandler errorHandler;
@@ -40,18 +49,59 @@ public class TypeCheckerVisitor extends Visitor
     private Method currentMethod;
     /** the current symbolTable to use for checking types */
     private SymbolTable currentSymbolTable;
+    /** the ClassTreeNodes of the class names looked up so far (null if undefined) */
+    private final Map<String, ClassTreeNode> classCache;
+    /** maps the names of the classes to their ClassTreeNodes */
+    private final Map<String, ClassTreeNode> classMap;
+    /** the types of the type names resolved so far */
+    private final Map<String, Type> typeCache;
 
-    public TypeCheckerVisitor(ErrorHandler errorHandler, ClassTreeNode root) {
+    /**
+     * @param errorHandler the ErrorHandler that records the errors
+     * @param treeNode a ClassTreeNode whose class map holds the classes of the
+     *                 program, such as a user-defined class.  The built-in
+     *                 classes only know each other.
+     */
+    public TypeCheckerVisitor(ErrorHandler errorHandler, ClassTreeNode treeNode) {
+        this(errorHandler, treeNode.getClassMap());
+    }
+
+    /**
+     * @param errorHandler the ErrorHandler that records the errors
+     * @param classMap maps the names of the classes of the program, including
+     *                 the built-in classes, to their ClassTreeNodes
+     */
+    public TypeCheckerVisitor(ErrorHandler errorHandler,
+                              Map<String, ClassTreeNode> classMap) {
+        this(errorHandler, classMap, false);
+    }
+
+    /**
+     * @param errorHandler the ErrorHandler that records the errors
+     * @param classMap maps the names of the classes of the program, including
+     *                 the built-in classes, to their ClassTreeNodes
+     * @param switchDispatch whether to dispatch on the nodes with a switch
+     *                       instead of calling their accept methods
+     */
+    public TypeCheckerVisitor(ErrorHandler errorHandler,
+                              Map<String, ClassTreeNode> classMap,
+                              boolean switchDispatch) {
+        super(switchDispatch);
         this.errorHandler = errorHandler;
-        this.currentClass = root; // the Object class
+        this.classMap = classMap;
+        this.currentClass = classMap.get("Object");
         this.currentMethod = null;
         this.currentSymbolTable = null;
         this.currentNestedLoops = new Stack<>();
+        this.classCache = new HashMap<>();
+        this.typeCache = new HashMap<>();
     }
 
     /*
      * CLASS INVARIANT:  Every visit method for Expr nodes sets the type field
      *                   of the Expr node being visited to a valid type.
+     *                   Types are Type objects, which are compared with ==,
+     *                   with the class types taken from their ClassTreeNodes.
      *                   If the node's calculated type is illegal,
      *                   an error was reported and the node's type
      *                   is set to the type it should have been or to
@@ -63,31 +113,75 @@ public class TypeCheckerVisitor extends Visitor
      * It assumes t1 and t2 are legal types or null.  For the purpose of this
      * method, we are assuming null is a subtype of all non-primitive types.
      *
-     * @param t1 the String name of the first type
-     * @param t2 the String name of the second type
+     * @param t1 the first type
+     * @param t2 the second type
      * @return true if t1 is a subtype of t2
      */
-    private boolean isSubtype(String t1, String t2) {
-        if (t1.equals("null") && !isPrimitiveType(t2)) {
-            return true;
+    private boolean isSubtype(Type t1, Type t2) {
+        if (t1 == Type.NULL) {
+            return !t2.isPrimitive();
         }
-        if (t1.equals("int") || t2.equals("int")) {
-            return t2.equals(t1);
+        if (t1.isPrimitive() || t2.isPrimitive()) {
+            return t1 == t2;
         }
-        if (t1.equals("boolean") || t2.equals("boolean")) {
-            return t2.equals(t1);
+        // check whether t2 is t1 or one of its ancestors
+        ClassTreeNode t1Node = t1.getClassTreeNode();
+        ClassTreeNode t2Node = t2.getClassTreeNode();
+        return t1Node != null && t2Node != null && t1Node.isSubclassOf(t2Node);
+    }
+
+    /**
+     * finds the type with a given name, remembering the result so that names
+     * used again are resolved without going to the class map
+     *
+     * @param typeName the name of the type (may be null)
+     * @return the type, which refers to its ClassTreeNode if it is a class, or
+     *         null if the name is null
+     */
+    private Type resolveType(String typeName) {
+        if (typeName == null) {
+            return null;
         }
-        // go up the inheritance tree of t1 to see if you
-        // encounter t2
-        ClassTreeNode t1Node = currentClass.lookupClass(t1);
-        ClassTreeNode t2Node = currentClass.lookupClass(t2);
-        while (t1Node != null) {
-            if (t1Node == t2Node) {
-                return true;
+        Type type = typeCache.get(typeName);
+        if (type == null) {
+            // int, boolean, void and null cannot be the names of classes
+            ClassTreeNode treeNode = classMap.get(typeName);
+            type = treeNode != null ? treeNode.getType() : Type.named(typeName);
+            typeCache.put(typeName, type);
+        }
+        return type;
+    }
+
+    /**
+     * finds the ClassTreeNode of a class, remembering the result so that names
+     * used again are resolved without going to the class map
+     *
+     * @param className the name of the class
+     * @return the ClassTreeNode of the class, or null if there is no such class
+     */
+    private ClassTreeNode lookupClass(String className) {
+        ClassTreeNode node = classCache.get(className);
+        if (node == null && !classCache.containsKey(className)) {
+            node = classMap.get(className);
+            classCache.put(className, node);
+        }
+        return node;
+    }
+
+    /**
+     * @return the names of the classes looked up so far, including names that
+     *         are not the names of classes, and the names of the class types
+     *         resolved for expressions, which isSubtype compares without
+     *         looking them up
+     */
+    Set<String> getClassNamesLookedUp() {
+        Set<String> names = new HashSet<>(classCache.keySet());
+        for (Type type : typeCache.values()) {
+            if (!type.isPrimitive() && type != Type.VOID && type != Type.NULL) {
+                names.add(type.getName());
             }
-            t1Node = t1Node.getParent();
         }
-        return false;
+        return names;
     }
 
     /**
@@ -101,7 +195,7 @@ public class TypeCheckerVisitor extends Visitor
      * returns true if the given type is a primitive type or a declared class
      */
     private boolean typeHasBeenDeclared(String type) {
-        return isPrimitiveType(type) || currentClass.lookupClass(type) != null;
+        return isPrimitiveType(type) || lookupClass(type) != null;
     }
 
     /**
@@ -122,9 +216,13 @@ public class TypeCheckerVisitor extends Visitor
      */
     public Object visit(Class_ node) {
         // set the currentClass to this class
-        currentClass = currentClass.lookupClass(node.getName());
-        currentSymbolTable = currentClass.getVarSymbolTable();
-        node.getMemberList().accept(this);
+        currentClass = lookupClass(node.getName());
+        // the scopes of the methods are added to a flat copy of the fields of the
+        // class and its superclasses, which is private to this visitor and maps
+        // each variable to its Type instead of the name of its type
+        currentSymbolTable = new FlatSymbolTable(currentClass.getVarSymbolTable(),
+                value -> value instanceof String ? resolveType((String) value) : value);
+        dispatch(node.getMemberList());
         return null;
     }
 
@@ -144,8 +242,8 @@ public class TypeCheckerVisitor extends Visitor
         }
         Expr initExpr = node.getInit();
         if (initExpr != null) {
-            initExpr.accept(this);
-            if (!isSubtype(initExpr.getExprType(), node.getType())) {
+            dispatch(initExpr);
+            if (!isSubtype(initExpr.getStaticType(), resolveType(node.getType()))) {
                 registerError(node,"The type of the initializer is "
                         + initExpr.getExprType() + " which is not compatible with the "
                         + node.getName() + " field's type " + node.getType());
@@ -172,8 +270,8 @@ public class TypeCheckerVisitor extends Visitor
         //create a new scope for the method
         currentSymbolTable.enterScope();
         currentMethod = node;
-        node.getFormalList().accept(this);
-        node.getStmtList().accept(this);
+        dispatch(node.getFormalList());
+        dispatch(node.getStmtList());
 
         //check that non-void methods end with a return stmt
         if(! node.getReturnType().equals("void")) {
@@ -207,7 +305,7 @@ public class TypeCheckerVisitor extends Visitor
                     + node.getName() + " is the same as the name of another formal" +
                     " parameter.");
         }
-        currentSymbolTable.add(node.getName(), node.getType());
+        currentSymbolTable.add(node.getName(), resolveType(node.getType()));
         return null;
     }
 
@@ -221,8 +319,8 @@ public class TypeCheckerVisitor extends Visitor
 
         // Check that initExpr type matches node type
         Expr initExpr = node.getInit();
-        initExpr.accept(this);
-        Object initType = initExpr.getExprType();
+        dispatch(initExpr);
+        Object initType = initExpr.getStaticType();
 
         // Gets initType if VarExpr
         if (initExpr instanceof VarExpr){
@@ -230,16 +328,16 @@ public class TypeCheckerVisitor extends Visitor
         }
         // Gets initType if DispatchExpr
         else if(initExpr instanceof DispatchExpr){
-            initType = currentClass.getMethodSymbolTable()
-                    .lookup(((DispatchExpr)initExpr).getMethodName());
+            initType = lookupMethod(currentClass,
+                    ((DispatchExpr)initExpr).getMethodName());
 
         }
 
         //
         if(initType instanceof Method){
             String methodName = ((Method)initType).getName();
-            initType = ((Method)initType).getReturnType();
-            if(initType.equals("void")){
+            initType = resolveType(((Method)initType).getReturnType());
+            if(initType == Type.VOID){
                 registerError(node,"Method "
                     + methodName + " has return type void");
 
@@ -251,7 +349,7 @@ public class TypeCheckerVisitor extends Visitor
                 currentSymbolTable.getCurrScopeLevel() - 1) != null) {
             registerError(node,"Variable "
                     + node.getName() + " has already been declared");
-            initType = "Object";
+            initType = resolveType("Object");
         }
 
         currentSymbolTable.add(node.getName(), initType);
@@ -266,19 +364,19 @@ public class TypeCheckerVisitor extends Visitor
      * @return result of the visit
      */
     public Object visit(IfStmt node) {
-        node.getPredExpr().accept(this);
-        String predExprType = node.getPredExpr().getExprType();
-        if (!"boolean".equals(predExprType)) {
+        dispatch(node.getPredExpr());
+        Type predExprType = node.getPredExpr().getStaticType();
+        if (predExprType != Type.BOOLEAN) {
             registerError(node,"The type of the predicate is " +
                     (predExprType != null ? predExprType : "unknown") +
                     ", not boolean.");
         }
         currentSymbolTable.enterScope();
-        node.getThenStmt().accept(this);
+        dispatch(node.getThenStmt());
         currentSymbolTable.exitScope();
         if (node.getElseStmt() != null) {
             currentSymbolTable.enterScope();
-            node.getElseStmt().accept(this);
+            dispatch(node.getElseStmt());
             currentSymbolTable.exitScope();
         }
         return null;
@@ -291,14 +389,14 @@ public class TypeCheckerVisitor extends Visitor
      * @return result of the visit
      */
     public Object visit(WhileStmt node) {
-        node.getPredExpr().accept(this);
-        if (!isSubtype(node.getPredExpr().getExprType(), "boolean")) {
+        dispatch(node.getPredExpr());
+        if (!isSubtype(node.getPredExpr().getStaticType(), Type.BOOLEAN)) {
             registerError(node,"The type of the predicate is " +
                     node.getPredExpr().getExprType() + " which is not boolean.");
         }
         currentSymbolTable.enterScope();
         currentNestedLoops.push(node);
-        node.getBodyStmt().accept(this);
+        dispatch(node.getBodyStmt());
         currentNestedLoops.pop();
         currentSymbolTable.exitScope();
         return null;
@@ -314,14 +412,14 @@ public class TypeCheckerVisitor extends Visitor
 
         // Visits init Expression if not null
         if(node.getInitExpr() != null){
-            node.getInitExpr().accept(this);
+            dispatch(node.getInitExpr());
         }
 
         // Visits predicate Expression if not null, and checks if boolean
         if(node.getPredExpr() != null){
-            node.getPredExpr().accept(this);
+            dispatch(node.getPredExpr());
 
-            if(!isSubtype(node.getPredExpr().getExprType(), "boolean")){
+            if(!isSubtype(node.getPredExpr().getStaticType(), Type.BOOLEAN)){
                 registerError(node,"The type of the predicate is " +
                         node.getPredExpr().getExprType() + " which is not boolean.");
             }
@@ -329,13 +427,13 @@ public class TypeCheckerVisitor extends Visitor
 
         // Visits update Expression if not null
         if(node.getUpdateExpr() != null) {
-            node.getUpdateExpr().accept(this);
+            dispatch(node.getUpdateExpr());
         }
 
         // Create new scope and move down tree
         currentSymbolTable.enterScope();
         currentNestedLoops.push(node);
-        node.getBodyStmt().accept(this);
+        dispatch(node.getBodyStmt());
         currentNestedLoops.pop();
         currentSymbolTable.exitScope();
 
@@ -365,7 +463,7 @@ public class TypeCheckerVisitor extends Visitor
      */
     public Object visit(BlockStmt node) {
         currentSymbolTable.enterScope();
-        node.getStmtList().accept(this);
+        dispatch(node.getStmtList());
         currentSymbolTable.exitScope();
         return null;
     }
@@ -378,8 +476,9 @@ public class TypeCheckerVisitor extends Visitor
      */
     public Object visit(ReturnStmt node) {
         if (node.getExpr() != null) {
-            node.getExpr().accept(this);
-            if (!isSubtype(node.getExpr().getExprType(), currentMethod.getReturnType())) {
+            dispatch(node.getExpr());
+            if (!isSubtype(node.getExpr().getStaticType(),
+                    resolveType(currentMethod.getReturnType()))) {
                 registerError(node,"The type of the return expr is " +
                         node.getExpr().getExprType() +
                         " which is not compatible with the " +
@@ -415,8 +514,7 @@ public class TypeCheckerVisitor extends Visitor
             if(refName.equals("super")) {
 
                 checkArgs(node);
-                return currentClass.getParent().getMethodSymbolTable()
-                        .lookup(node.getMethodName());
+                return lookupMethod(currentClass.getParent(), node.getMethodName());
 
             }
             // If refExpr is this, checks level 0 of methodSymbolTable
@@ -435,7 +533,7 @@ public class TypeCheckerVisitor extends Visitor
 
         // If no refExpr, uses default lookup method
         checkArgs(node);
-        return currentClass.getMethodSymbolTable().lookup(node.getMethodName());
+        return lookupMethod(currentClass, node.getMethodName());
 
     }
 
@@ -446,45 +544,47 @@ public class TypeCheckerVisitor extends Visitor
      * */
     private void checkArgs(DispatchExpr node){
 
-        List<String> parametersType = getFormalTypesList((Method)
-                currentClass.getMethodSymbolTable().lookup(node.getMethodName()));
+        DispatchTable.Entry method =
+                currentClass.getDispatchTable().lookup(node.getMethodName());
+        if (method == null) {
+            registerError(node, "Method " + node.getMethodName() + " is undefined.");
+            return;
+        }
 
         // Checks that length of formalList and actualList match in size
-        if(node.getActualList().getSize() != parametersType.size()){
+        if(node.getActualList().getSize() != method.getNumFormals()){
             registerError(node,
                     "Actual arguments did not match size of expected arguments.");
             return;
         }
 
         // Iterates through actual argument list and compares types to formal list
-        int i = 0;
-
-        for(ASTNode argument : node.getActualList()){
+        ExprList arguments = node.getActualList();
+        for(int i = 0; i < arguments.getSize(); i++){
 
-            argument.accept(this);
+            Expr argument = (Expr) arguments.get(i);
+            dispatch(argument);
 
             // If argument types do not match,
-            if(!((Expr)argument).getExprType().equals(parametersType.get(i))){
-                registerError(node, "Expected type " + parametersType.get(i) +
+            if(!argument.getExprType().equals(method.getFormalType(i))){
+                registerError(node, "Expected type " + method.getFormalType(i) +
                         ", got type "
-                        + ((Expr)argument).getExprType() + ".");
+                        + argument.getExprType() + ".");
             }
-            i++;
         }
 
     }
 
     /**
-     * returns a list of the types of the formal parameters
+     * looks up a method that a class defines or inherits in its dispatch table
      *
-     * @param method the methods whose formal parameter types are desired
-     * @return a List of Strings (the types of the formal parameters)
+     * @param treeNode the ClassTreeNode of the class
+     * @param methodName the name of the method
+     * @return the Method node, or null if there is no such method
      */
-    private List<String> getFormalTypesList(Method method) {
-        List<String> result = new ArrayList<>();
-        for (ASTNode formal : method.getFormalList())
-            result.add(((Formal) formal).getType());
-        return result;
+    private Method lookupMethod(ClassTreeNode treeNode, String methodName) {
+        DispatchTable.Entry method = treeNode.getDispatchTable().lookup(methodName);
+        return method == null ? null : method.getMethod();
     }
 
     /**
@@ -495,9 +595,10 @@ public class TypeCheckerVisitor extends Visitor
      */
     public Object visit(ExprList node) {
         List<String> typesList = new ArrayList<>();
-        for (ASTNode expr : node) {
-            expr.accept(this);
-            typesList.add(((Expr) expr).getExprType());
+        for (int i = 0; i < node.getSize(); i++) {
+            Expr expr = (Expr) node.get(i);
+            dispatch(expr);
+            typesList.add(expr.getExprType());
         }
         //return a List<String> of the types of the expressions
         return typesList;
@@ -510,12 +611,13 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(NewExpr node) {
-        if (currentClass.lookupClass(node.getType()) == null) {
+        ClassTreeNode treeNode = lookupClass(node.getType());
+        if (treeNode == null) {
             registerError(node,"The type " + node.getType() + " does not exist.");
-            node.setExprType("Object"); // to allow analysis to continue
+            node.setStaticType(resolveType("Object")); // to allow analysis to continue
         }
         else {
-            node.setExprType(node.getType());
+            node.setStaticType(treeNode.getType());
         }
         return null;
     }
@@ -527,15 +629,16 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(InstanceofExpr node) {
-        if (currentClass.lookupClass(node.getType()) == null) {
+        if (lookupClass(node.getType()) == null) {
             registerError(node,"The reference type " + node.getType()
                     + " does not exist.");
         }
-        node.getExpr().accept(this);
-        if (isSubtype(node.getExpr().getExprType(), node.getType())) {
+        dispatch(node.getExpr());
+        Type type = resolveType(node.getType());
+        if (isSubtype(node.getExpr().getStaticType(), type)) {
             node.setUpCheck(true);
         }
-        else if (isSubtype(node.getType(), node.getExpr().getExprType())) {
+        else if (isSubtype(type, node.getExpr().getStaticType())) {
             node.setUpCheck(false);
         }
         else {
@@ -543,7 +646,7 @@ public class TypeCheckerVisitor extends Visitor
                     node.getExpr().getExprType() + "to " + "incompatible type "
                     + node.getType() + ".");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -557,13 +660,13 @@ public class TypeCheckerVisitor extends Visitor
 
         // Checks if cast type is not a defined type
         if(!isPrimitiveType(node.getType()) &&
-                currentClass.lookupClass(node.getType()) == null){
+                lookupClass(node.getType()) == null){
             registerError(node,"Cast  " +
                     node.getType() + " not a defined type.");
         }
 
-        node.getExpr().accept(this);
-        node.getExpr().setExprType(node.getType());
+        dispatch(node.getExpr());
+        node.getExpr().setStaticType(resolveType(node.getType()));
 
         return node.getType();
     }
@@ -576,8 +679,8 @@ public class TypeCheckerVisitor extends Visitor
      */
     public Object visit(AssignExpr node) {
 
-        node.getExpr().accept(this);
-        Object exprType = node.getExpr().getExprType();
+        dispatch(node.getExpr());
+        Object exprType = node.getExpr().getStaticType();
 
         if(node.getExpr() instanceof VarExpr){
             exprType = currentSymbolTable.lookup(((VarExpr) node.getExpr()).getName());
@@ -593,7 +696,8 @@ public class TypeCheckerVisitor extends Visitor
         }
         else{
             //adds to symbol table if not already in symbol table
-            currentSymbolTable.set((String) exprType, node.getExpr());
+            currentSymbolTable.set(exprType instanceof Type ?
+                    ((Type) exprType).getName() : (String) exprType, node.getExpr());
         }
         return exprType;
     }
@@ -620,13 +724,13 @@ public class TypeCheckerVisitor extends Visitor
 
             }
             else if(refName.equals("this")) {
-                return currentClass.getVarSymbolTable().lookup(node.getName());
+                return currentSymbolTable.lookup(node.getName());
 
             }
 
         }
         //set expression type to type
-        node.setExprType((String)currentSymbolTable.lookup(node.getName()));
+        node.setStaticType((Type) currentSymbolTable.lookup(node.getName()));
         return currentSymbolTable.lookup(node.getName());
 
 
@@ -636,14 +740,14 @@ public class TypeCheckerVisitor extends Visitor
      * returns an array of length 2 containing the types of
      * the left and right children of the node.
      * @param node The BinaryExpr whose children are to be typed
-     * @return A String[] of length 2 with the types of the 2 children
+     * @return A Type[] of length 2 with the types of the 2 children
      */
-    private String[] getLeftAndRightTypes(BinaryExpr node) {
-        node.getLeftExpr().accept(this);
-        node.getRightExpr().accept(this);
-        String type1 = node.getLeftExpr().getExprType();
-        String type2 = node.getRightExpr().getExprType();
-        return new String[]{type1,type2};
+    private Type[] getLeftAndRightTypes(BinaryExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        Type type1 = node.getLeftExpr().getStaticType();
+        Type type2 = node.getRightExpr().getStaticType();
+        return new Type[]{type1,type2};
     }
 
     /**
@@ -654,7 +758,7 @@ public class TypeCheckerVisitor extends Visitor
      */
     public Object visit(BinaryCompEqExpr node) {
 
-        String[] types = getLeftAndRightTypes(node);
+        Type[] types = getLeftAndRightTypes(node);
         if (types[0] == null || types[1] == null) {
             return null; //error in one expr, so skip further checking
         }
@@ -662,7 +766,7 @@ public class TypeCheckerVisitor extends Visitor
             registerError(node,"The " + "two values being compared for " +
                     "equality are not compatible types.");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -673,12 +777,12 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryCompNeExpr node) {
-        String[] types = getLeftAndRightTypes(node);
+        Type[] types = getLeftAndRightTypes(node);
         if (!(isSubtype(types[0], types[1]) || isSubtype(types[1], types[0]))) {
             registerError(node,"The two values being compared for equality " +
                     "are not compatible types.");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -689,12 +793,12 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryCompLtExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("int") && types[1].equals("int"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isInt() && types[1].isInt())) {
             registerError(node,"The two values being compared by \"<\" are " +
                     "not both ints.");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -705,12 +809,12 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryCompLeqExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("int") && types[1].equals("int"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isInt() && types[1].isInt())) {
             registerError(node,"The  two values being compared by \"<=\" are" +
                     " not both ints.");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -721,12 +825,12 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryCompGtExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("int") && types[1].equals("int"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isInt() && types[1].isInt())) {
             registerError(node,"The two values being compared by \">\" are" +
                     " not both ints.");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -737,12 +841,12 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryCompGeqExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("int") && types[1].equals("int"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isInt() && types[1].isInt())) {
             registerError(node,"The  two values being compared by \">=\" are " +
                     "not both ints.");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -753,11 +857,11 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryArithPlusExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("int") && types[1].equals("int"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isInt() && types[1].isInt())) {
             registerError(node,"The two values being added are not both ints.");
         }
-        node.setExprType("int");
+        node.setStaticType(Type.INT);
         return null;
     }
 
@@ -768,11 +872,11 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryArithMinusExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("int") && types[1].equals("int"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isInt() && types[1].isInt())) {
             registerError(node,"The two values being subtraced are not both ints.");
         }
-        node.setExprType("int");
+        node.setStaticType(Type.INT);
         return null;
     }
 
@@ -783,11 +887,11 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryArithTimesExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("int") && types[1].equals("int"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isInt() && types[1].isInt())) {
             registerError(node,"The two values being multiplied are not both ints.");
         }
-        node.setExprType("int");
+        node.setStaticType(Type.INT);
         return null;
     }
 
@@ -798,11 +902,11 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryArithDivideExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("int") && types[1].equals("int"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isInt() && types[1].isInt())) {
             registerError(node,"The two values being divided are not both ints.");
         }
-        node.setExprType("int");
+        node.setStaticType(Type.INT);
         return null;
     }
 
@@ -813,12 +917,12 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryArithModulusExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("int") && types[1].equals("int"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isInt() && types[1].isInt())) {
             registerError(node,"The two values being operated on with % are " +
                     "not both ints.");
         }
-        node.setExprType("int");
+        node.setStaticType(Type.INT);
         return null;
     }
 
@@ -829,13 +933,13 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryLogicAndExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("boolean") && types[1].equals("boolean"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isBoolean() && types[1].isBoolean())) {
             registerError(node,
                     "The two values being operated on with && are not both booleans"
                             + ".");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -846,13 +950,13 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(BinaryLogicOrExpr node) {
-        String[] types = getLeftAndRightTypes(node);
-        if (!(types[0].equals("boolean") && types[1].equals("boolean"))) {
+        Type[] types = getLeftAndRightTypes(node);
+        if (!(types[0].isBoolean() && types[1].isBoolean())) {
             registerError(node,
                     "The two values being operated on with || are not both booleans"
                             + ".");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -863,13 +967,13 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(UnaryNegExpr node) {
-        node.getExpr().accept(this);
-        String type = node.getExpr().getExprType();
-        if (!(type.equals("int"))) {
+        dispatch(node.getExpr());
+        Type type = node.getExpr().getStaticType();
+        if (!type.isInt()) {
             registerError(node,"The value being negated is of type "
                     + type + ", not int.");
         }
-        node.setExprType("int");
+        node.setStaticType(Type.INT);
         return null;
     }
 
@@ -880,13 +984,13 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(UnaryNotExpr node) {
-        node.getExpr().accept(this);
-        String type = node.getExpr().getExprType();
-        if (!type.equals("boolean")) {
+        dispatch(node.getExpr());
+        Type type = node.getExpr().getStaticType();
+        if (!type.isBoolean()) {
             registerError(node,"The not (!) operator applies only to boolean " +
                     "expressions, not " + type + " expressions.");
         }
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -901,13 +1005,13 @@ public class TypeCheckerVisitor extends Visitor
             registerError(node,"The  expression being incremented can only be " +
                     "a variable name with an optional \"this.\" or \"super.\" prefix.");
         }
-        node.getExpr().accept(this);
-        String type = node.getExpr().getExprType();
-        if (!(type.equals("int"))) {
+        dispatch(node.getExpr());
+        Type type = node.getExpr().getStaticType();
+        if (!type.isInt()) {
             registerError(node,"The value being incremented is of type "
                     + type + ", not int.");
         }
-        node.setExprType("int");
+        node.setStaticType(Type.INT);
         return null;
     }
 
@@ -922,13 +1026,13 @@ public class TypeCheckerVisitor extends Visitor
             registerError(node,"The  expression being incremented can only be " +
                     "a variable name with an optional \"this.\" or \"super.\" prefix.");
         }
-        node.getExpr().accept(this);
-        String type = node.getExpr().getExprType();
-        if (!(type.equals("int"))) {
+        dispatch(node.getExpr());
+        Type type = node.getExpr().getStaticType();
+        if (!type.isInt()) {
             registerError(node,"The value being decremented is of type "
                     + type + ", not int.");
         }
-        node.setExprType("int");
+        node.setStaticType(Type.INT);
         return null;
     }
 
@@ -939,7 +1043,7 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(ConstIntExpr node) {
-        node.setExprType("int");
+        node.setStaticType(Type.INT);
         return null;
     }
 
@@ -950,7 +1054,7 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(ConstBooleanExpr node) {
-        node.setExprType("boolean");
+        node.setStaticType(Type.BOOLEAN);
         return null;
     }
 
@@ -961,7 +1065,7 @@ public class TypeCheckerVisitor extends Visitor
      * @return the type of the expression
      */
     public Object visit(ConstStringExpr node) {
-        node.setExprType("String");
+        node.setStaticType(resolveType("String"));
         return null;
     }
 
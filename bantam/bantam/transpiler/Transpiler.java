@@ -22,7 +22,16 @@ public class Transpiler {
     private final TranspilerVisitor transpilerVisitor;
 
     public Transpiler(){
-        transpilerVisitor = new TranspilerVisitor();
+        this(false);
+    }
+
+    /**
+     * @param switchDispatch whether the TranspilerVisitor dispatches on the
+     *                       nodes with a switch instead of calling their accept
+     *                       methods
+     */
+    public Transpiler(boolean switchDispatch){
+        transpilerVisitor = new TranspilerVisitor(switchDispatch);
     }
 
 
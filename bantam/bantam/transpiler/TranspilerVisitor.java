@@ -9,11 +9,15 @@
 package proj10LoverudeTymkiwCorrell.bantam.transpiler;
 
 import proj10LoverudeTymkiwCorrell.bantam.ast.*;
-import proj10LoverudeTymkiwCorrell.bantam.visitor.Visitor;
+import proj10LoverudeTymkiwCorrell.bantam.visitor.SwitchVisitor;
 
-import java.util.Iterator;
 
-public class TranspilerVisitor extends Visitor {
+/**
+ * Translates a Bantam Java AST into Java source code.  It visits the children
+ * of nodes through dispatch, so it can be created to dispatch with a switch on
+ * the kinds of the nodes (see SwitchVisitor).
+ */
+public class TranspilerVisitor extends SwitchVisitor {
 
     // StringBuilder that appends legal java code to the builder.
     private StringBuilder programStringBuilder;
@@ -22,8 +26,16 @@ public class TranspilerVisitor extends Visitor {
     private StringBuilder indentationStringBuilder;
 
     public TranspilerVisitor(){
+        this(false);
+    }
 
-        super();
+    /**
+     * @param switchDispatch whether to dispatch on the nodes with a switch
+     *                       instead of calling their accept methods
+     */
+    public TranspilerVisitor(boolean switchDispatch){
+
+        super(switchDispatch);
 
         programStringBuilder = new StringBuilder();
         indentationStringBuilder = new StringBuilder();
@@ -48,8 +60,8 @@ public class TranspilerVisitor extends Visitor {
      * @return result of the visit
      */
     public Object visit(ClassList node) {
-        for (ASTNode aNode : node) {
-            aNode.accept(this);
+        for (int i = 0; i < node.getSize(); i++) {
+            dispatch(node.get(i));
             // Places 2 lines between each java class
             programStringBuilder.append("\n\n\n");
         }
@@ -72,7 +84,7 @@ public class TranspilerVisitor extends Visitor {
             programStringBuilder.append(" extends ").append(node.getParent());
         }
 
-        node.getMemberList().accept(this);
+        dispatch(node.getMemberList());
         return null;
     }
 
@@ -94,9 +106,7 @@ public class TranspilerVisitor extends Visitor {
         }
         // Increased indentation for writing members of the class
         indentationStringBuilder.append("    ");
-        for(ASTNode child : node){
-            child.accept(this);
-        }
+        visitElements(node);
         indentationStringBuilder.delete(0, 4);
 
         if(listHasMembers){
@@ -123,7 +133,7 @@ public class TranspilerVisitor extends Visitor {
 
         if (node.getInit() != null) {
             programStringBuilder.append(" = ");
-            node.getInit().accept(this);
+            dispatch(node.getInit());
         }
         programStringBuilder.append(";");
         return null;
@@ -153,10 +163,10 @@ public class TranspilerVisitor extends Visitor {
                     .append(" ")
                     .append(node.getName());
             programStringBuilder.append("(");
-            node.getFormalList().accept(this);
+            dispatch(node.getFormalList());
             programStringBuilder.append(")");
         }
-        node.getStmtList().accept(this);
+        dispatch(node.getStmtList());
         return null;
     }
 
@@ -176,8 +186,7 @@ public class TranspilerVisitor extends Visitor {
         // Increase indentation for all contents of StmtList.
         getIndentationStringBuilder().append("    ");
 
-        for (Iterator it = node.iterator(); it.hasNext(); )
-            ((Stmt) it.next()).accept(this);
+        visitElements(node);
 
         getIndentationStringBuilder().delete(0, 4);
         programStringBuilder.append("\n").
@@ -195,10 +204,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(FormalList node) {
 
-        for (Iterator it = node.iterator(); it.hasNext(); ) {
-            Formal formal = (Formal) it.next();
-            formal.accept(this);
-            if(it.hasNext()){
+        for (int i = 0; i < node.getSize(); i++) {
+            dispatch(node.get(i));
+            if(i + 1 < node.getSize()){
                 programStringBuilder.append(", ");
             }
         }
@@ -235,7 +243,7 @@ public class TranspilerVisitor extends Visitor {
                 .append("var ")
                 .append(node.getName())
                 .append(" = ");
-        node.getInit().accept(this);
+        dispatch(node.getInit());
         programStringBuilder.append(";");
         return null;
     }
@@ -250,7 +258,7 @@ public class TranspilerVisitor extends Visitor {
     public Object visit(ExprStmt node) {
 
         programStringBuilder.append("\n").append(getIndentationStringBuilder());
-        node.getExpr().accept(this);
+        dispatch(node.getExpr());
         programStringBuilder.append(";");
         return null;
     }
@@ -267,12 +275,12 @@ public class TranspilerVisitor extends Visitor {
          programStringBuilder.append("\n")
                 .append(getIndentationStringBuilder())
                 .append("if(");
-         node.getPredExpr().accept(this);
+         dispatch(node.getPredExpr());
          programStringBuilder.append(")");
-         node.getThenStmt().accept(this);
+         dispatch(node.getThenStmt());
          if (node.getElseStmt() != null) {
              programStringBuilder.append("else");
-             node.getElseStmt().accept(this);
+             dispatch(node.getElseStmt());
          }
          return null;
     }
@@ -289,9 +297,9 @@ public class TranspilerVisitor extends Visitor {
         programStringBuilder.append("\n")
                 .append(getIndentationStringBuilder())
                 .append("while(");
-        node.getPredExpr().accept(this);
+        dispatch(node.getPredExpr());
         programStringBuilder.append(")");
-        node.getBodyStmt().accept(this);
+        dispatch(node.getBodyStmt());
         return null;
     }
 
@@ -307,18 +315,18 @@ public class TranspilerVisitor extends Visitor {
                 .append(getIndentationStringBuilder())
                 .append("for(");
         if (node.getInitExpr() != null) {
-            node.getInitExpr().accept(this);
+            dispatch(node.getInitExpr());
         }
         programStringBuilder.append("; ");
         if (node.getPredExpr() != null) {
-            node.getPredExpr().accept(this);
+            dispatch(node.getPredExpr());
         }
         programStringBuilder.append("; ");
         if (node.getUpdateExpr() != null) {
-            node.getUpdateExpr().accept(this);
+            dispatch(node.getUpdateExpr());
         }
         programStringBuilder.append(")");
-        node.getBodyStmt().accept(this);
+        dispatch(node.getBodyStmt());
         return null;
     }
 
@@ -353,7 +361,7 @@ public class TranspilerVisitor extends Visitor {
         // Visits the expr, if this returnStmt has one.
         if(node.getExpr() != null){
             programStringBuilder.append(" ");
-            node.getExpr().accept(this);
+            dispatch(node.getExpr());
         }
         programStringBuilder.append(";");
         return null;
@@ -369,7 +377,7 @@ public class TranspilerVisitor extends Visitor {
     public Object visit(DispatchExpr node) {
 
         if(node.getRefExpr() != null){
-            node.getRefExpr().accept(this);
+            dispatch(node.getRefExpr());
             programStringBuilder.append(".");
         }
         /* INELEGANCY ALERT: our semantic analyzer does not properly handle
@@ -385,7 +393,7 @@ public class TranspilerVisitor extends Visitor {
             programStringBuilder.append(node.getMethodName());
         }
         programStringBuilder.append("(");
-        node.getActualList().accept(this);
+        dispatch(node.getActualList());
         programStringBuilder.append(")");
         return null;
     }
@@ -398,9 +406,9 @@ public class TranspilerVisitor extends Visitor {
      */
     @Override
     public Object visit(ExprList node) {
-        for (Iterator it = node.iterator(); it.hasNext(); ) {
-            ((Expr) it.next()).accept(this);
-            if(it.hasNext()){
+        for (int i = 0; i < node.getSize(); i++) {
+            dispatch(node.get(i));
+            if(i + 1 < node.getSize()){
                 programStringBuilder.append(", ");
             }
         }
@@ -433,7 +441,7 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(InstanceofExpr node) {
 
-        node.getExpr().accept(this);
+        dispatch(node.getExpr());
         programStringBuilder.append(" instanceof ")
                 .append(node.getType());
         return null;
@@ -451,7 +459,7 @@ public class TranspilerVisitor extends Visitor {
         programStringBuilder.append("(")
                 .append(node.getType())
                 .append(") ");
-        node.getExpr().accept(this);
+        dispatch(node.getExpr());
         return null;
     }
 
@@ -470,7 +478,7 @@ public class TranspilerVisitor extends Visitor {
         }
         programStringBuilder.append(node.getName())
                 .append(" = ");
-        node.getExpr().accept(this);
+        dispatch(node.getExpr());
         return null;
     }
 
@@ -484,9 +492,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryCompEqExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" == ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -499,9 +507,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryCompNeExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" != ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -514,9 +522,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryCompLtExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" < ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -529,9 +537,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryCompLeqExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" <= ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -544,9 +552,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryCompGtExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" > ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -559,9 +567,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryCompGeqExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" >= ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -575,9 +583,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryArithPlusExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" + ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -590,9 +598,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryArithMinusExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" - ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -605,9 +613,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryArithTimesExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" * ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -620,9 +628,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryArithDivideExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" / ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -635,9 +643,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryArithModulusExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" % ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -650,9 +658,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryLogicAndExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" && ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -665,9 +673,9 @@ public class TranspilerVisitor extends Visitor {
     @Override
     public Object visit(BinaryLogicOrExpr node) {
 
-        node.getLeftExpr().accept(this);
+        dispatch(node.getLeftExpr());
         programStringBuilder.append(" || ");
-        node.getRightExpr().accept(this);
+        dispatch(node.getRightExpr());
         return null;
     }
 
@@ -681,7 +689,7 @@ public class TranspilerVisitor extends Visitor {
     public Object visit(UnaryNegExpr node) {
 
         programStringBuilder.append("-");
-        node.getExpr().accept(this);
+        dispatch(node.getExpr());
         return null;
     }
 
@@ -695,7 +703,7 @@ public class TranspilerVisitor extends Visitor {
     public Object visit(UnaryNotExpr node) {
 
         programStringBuilder.append("!");
-        node.getExpr().accept(this);
+        dispatch(node.getExpr());
         return null;
     }
 
@@ -710,10 +718,10 @@ public class TranspilerVisitor extends Visitor {
 
         if (!node.isPostfix()){
             programStringBuilder.append("++");
-            node.getExpr().accept(this);
+            dispatch(node.getExpr());
         }
         else{
-            node.getExpr().accept(this);
+            dispatch(node.getExpr());
             programStringBuilder.append("++");
         }
 
@@ -731,10 +739,10 @@ public class TranspilerVisitor extends Visitor {
 
         if (!node.isPostfix()){
             programStringBuilder.append("--");
-            node.getExpr().accept(this);
+            dispatch(node.getExpr());
         }
         else{
-            node.getExpr().accept(this);
+            dispatch(node.getExpr());
             programStringBuilder.append("--");
         }
         return null;
@@ -750,7 +758,7 @@ public class TranspilerVisitor extends Visitor {
     public Object visit(VarExpr node) {
 
         if (node.getRef() != null) {
-            node.getRef().accept(this);
+            dispatch(node.getRef());
             programStringBuilder.append(".");
         }
         programStringBuilder.append(node.getName());
@@ -26,11 +26,22 @@
 
 package proj10LoverudeTymkiwCorrell.bantam.util;
 
+import proj10LoverudeTymkiwCorrell.bantam.ast.ASTNode;
 import proj10LoverudeTymkiwCorrell.bantam.ast.Class_;
+import proj10LoverudeTymkiwCorrell.bantam.ast.Method;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The <tt>ClassTreeNode</tt> class represents a node in the class
@@ -40,6 +51,11 @@ import java.util.Vector;
  * class hierarchy tree and contains all the relevant information about
  * that class (AST node, parent, children, symbol table, etc.).
  *
+ * A tree can be frozen by freezeTree so that it can be shared, as the tree of
+ * the built-in classes is shared by all analyses.  A frozen class never changes
+ * again: classes that are given it as their parent are not added to its
+ * children, and are not counted among its descendants.
+ *
  * @see proj10LoverudeTymkiwCorrell.bantam.semant.SemanticAnalyzer
  */
 public class ClassTreeNode {
@@ -48,6 +64,11 @@ public class ClassTreeNode {
      */
     private Class_ astNode;
 
+    /**
+     * The type of this class
+     */
+    private final Type type;
+
     /**
      * A boolean flag indicating whether this class was built-in (true) or user-defined (false)
      */
@@ -81,15 +102,49 @@ public class ClassTreeNode {
     /**
      * The (scoped) variable symbol table for this class used for type checking this class
      */
-    private SymbolTable varSymbolTable = new SymbolTable();
+    private final SymbolTable varSymbolTable;
 
     /**
      * The (scoped) method symbol table for this class used for type checking this class
      */
-    private SymbolTable methodSymbolTable = new SymbolTable();
+    private final SymbolTable methodSymbolTable;
+
+    /**
+     * The methods this class defines and inherits, built the first time they
+     * are asked for (null until then)
+     */
+    private volatile DispatchTable dispatchTable;
+
+    /**
+     * The position of this class in a pre-order and a post-order traversal of the
+     * class hierarchy tree, set by numberTree.  A class is a subclass of another
+     * exactly when its interval [preOrder, postOrder] lies inside the other's.
+     */
+    private int preOrder;
+    private int postOrder;
+
+    /**
+     * The value of treeVersion when this class was numbered, or -1 if it was not
+     */
+    private int numberedVersion = -1;
+
+    /**
+     * Incremented whenever a parent or child of this class is changed, which
+     * makes the numbering of its tree out of date.  It is shared by the classes
+     * of one analysis (see ClassTreeVersions), so changing the classes of one
+     * analysis does not affect the numbering of another.
+     */
+    private final AtomicInteger treeVersion;
+
+    /**
+     * Whether this class belongs to a tree frozen by freezeTree
+     */
+    private boolean frozen;
 
     /**
      * ClassTreeNode constructor
+     * creates a class with versions of its own, so its tree is only numbered
+     * for isSubclassOf as far as it has no other classes
      *
      * @param astNode    the AST node for this class
      * @param builtin    boolean indicating whether this class was built-in
@@ -98,11 +153,57 @@ public class ClassTreeNode {
      */
     public ClassTreeNode(Class_ astNode, boolean builtin, boolean extendable,
                          Hashtable<String, ClassTreeNode> classMap) {
+        this(astNode, builtin, extendable, classMap, new ClassTreeVersions());
+    }
+
+    /**
+     * ClassTreeNode constructor
+     *
+     * @param astNode    the AST node for this class
+     * @param builtin    boolean indicating whether this class was built-in
+     * @param extendable boolean indicating whether this class is extendable
+     * @param classMap   class map for accessing class tree nodes
+     * @param versions   the versions of the classes of the analysis, which must
+     *                   be given to every class of the tree of this class
+     */
+    public ClassTreeNode(Class_ astNode, boolean builtin, boolean extendable,
+                         Hashtable<String, ClassTreeNode> classMap,
+                         ClassTreeVersions versions) {
         this.astNode = astNode;
         this.builtin = builtin;
         this.extendable = extendable;
         this.classMap = classMap;
         numDescendants = 0;
+        this.type = new Type(this);
+        treeVersion = versions.tree;
+        varSymbolTable = new SymbolTable(versions.symbolTables);
+        methodSymbolTable = new SymbolTable(versions.symbolTables);
+    }
+
+    /**
+     * ClassTreeNode constructor
+     * creates a copy of a frozen class for one analysis (see copyFor)
+     *
+     * @param original the frozen class
+     * @param classMap class map of the analysis
+     */
+    private ClassTreeNode(ClassTreeNode original,
+                          Hashtable<String, ClassTreeNode> classMap) {
+        this.astNode = original.astNode;
+        this.type = original.type;
+        this.builtin = original.builtin;
+        this.extendable = original.extendable;
+        this.classMap = classMap;
+        this.parent = original.parent;
+        this.children.addAll(original.children);
+        this.numDescendants = original.numDescendants;
+        this.varSymbolTable = original.varSymbolTable;
+        this.methodSymbolTable = original.methodSymbolTable;
+        this.dispatchTable = original.dispatchTable;
+        this.preOrder = original.preOrder;
+        this.postOrder = original.postOrder;
+        this.treeVersion = original.treeVersion;
+        this.frozen = true;
     }
 
     /**
@@ -123,6 +224,15 @@ public class ClassTreeNode {
         return astNode;
     }
 
+    /**
+     * Get the type of the class, the only Type that refers to this class
+     *
+     * @return the type of this class
+     */
+    public Type getType() {
+        return type;
+    }
+
     /**
      * Is this class built-in?
      *
@@ -156,6 +266,8 @@ public class ClassTreeNode {
      * In addition, sets variable and method symbol tables to the parent's symbol tables
      *
      * @param parent the class tree node of the parent class
+     * @throws IllegalStateException if this class is frozen and the parent is
+     *         not its parent already
      */
     public void setParent(ClassTreeNode parent) {
         if (parent == null) {
@@ -163,8 +275,13 @@ public class ClassTreeNode {
         }
 
         if (this.parent != parent) {
+            if (frozen) {
+                throw new IllegalStateException("The parent of the frozen class " +
+                        getName() + " cannot be changed");
+            }
             // set parent of this class
             this.parent = parent;
+            treeVersion.incrementAndGet();
 
             // set parent symbol table
             varSymbolTable.setParent(parent.getVarSymbolTable());
@@ -177,7 +294,9 @@ public class ClassTreeNode {
             // WARNING: must be careful -- class hierarchy tree may not be well formed
             // must avoid cycles
             Vector<ClassTreeNode> v = new Vector<ClassTreeNode>();
-            for (ClassTreeNode ctn = parent; ctn != null; ctn = ctn.getParent()) {
+            // (a frozen class and its ancestors are not changed)
+            for (ClassTreeNode ctn = parent; ctn != null && !ctn.frozen;
+                 ctn = ctn.getParent()) {
                 // check for a cycle -- break if we find one (program is wrong and
                 // error should be detected by semantic analyzer)
                 if (v.contains(ctn)) {
@@ -192,9 +311,98 @@ public class ClassTreeNode {
         }
     }
 
+    /**
+     * Set the parent class tree node of this class, and the parents of its
+     * symbol tables, without adding this class to the parent's children or
+     * counting it among the parent's descendants.  Linking the parents of all
+     * the classes of a tree and then calling linkChildren builds the tree in time
+     * linear in its size, where setParent takes time proportional to the depth of
+     * the class for each class.
+     *
+     * @param parent the class tree node of the parent class
+     * @throws IllegalStateException if this class is frozen
+     */
+    public void linkParent(ClassTreeNode parent) {
+        if (parent == null) {
+            throw new RuntimeException("Internal error: null parent in ClassTreeNode.linkParent");
+        }
+        if (frozen) {
+            throw new IllegalStateException("The parent of the frozen class " +
+                    getName() + " cannot be changed");
+        }
+        this.parent = parent;
+        treeVersion.incrementAndGet();
+        varSymbolTable.setParent(parent.getVarSymbolTable());
+        methodSymbolTable.setParent(parent.getMethodSymbolTable());
+    }
+
+    /**
+     * Builds the lists of children and the numbers of descendants of classes
+     * whose parents were set by linkParent, replacing any children they had.
+     * The classes are added to the children of their parents in the order they
+     * are given, and the descendants of every class are counted in one
+     * post-order traversal of the trees, so this takes time linear in the number
+     * of classes.  As with setParent, frozen classes are not changed.  The
+     * parents of the classes must not form a cycle.
+     *
+     * @param classes the classes of one or more trees, including any class
+     *                that is the parent of one of them, except frozen classes
+     */
+    public static void linkChildren(Collection<ClassTreeNode> classes) {
+        for (ClassTreeNode node : classes) {
+            if (!node.frozen) {
+                node.children.clear();
+            }
+        }
+        List<ClassTreeNode> roots = new ArrayList<>();
+        for (ClassTreeNode node : classes) {
+            if (node.frozen) {
+                continue;
+            }
+            if (node.parent == null || node.parent.frozen) {
+                roots.add(node);
+            }
+            else {
+                node.parent.children.add(node);
+            }
+        }
+        AtomicInteger changed = null;
+        for (ClassTreeNode node : classes) {
+            if (!node.frozen && node.treeVersion != changed) {
+                changed = node.treeVersion;
+                changed.incrementAndGet();
+            }
+        }
+
+        // iterative post-order traversal, since the trees may be very deep
+        Deque<ClassTreeNode> path = new ArrayDeque<>();
+        Deque<Iterator<ClassTreeNode>> pending = new ArrayDeque<>();
+        for (ClassTreeNode root : roots) {
+            root.numDescendants = 0;
+            path.push(root);
+            pending.push(root.children.iterator());
+            while (!path.isEmpty()) {
+                if (pending.peek().hasNext()) {
+                    ClassTreeNode child = pending.peek().next();
+                    child.numDescendants = 0;
+                    path.push(child);
+                    pending.push(child.children.iterator());
+                }
+                else {
+                    ClassTreeNode node = path.pop();
+                    pending.pop();
+                    if (!path.isEmpty()) {
+                        path.peek().numDescendants += node.numDescendants + 1;
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Add an immediate subclass to this class
      * Also makes child's parent this class (if not already)
+     * If this class is frozen, only the child's parent is set.
      *
      * @param child the class tree node of the immediate subclass
      */
@@ -203,9 +411,15 @@ public class ClassTreeNode {
             throw new RuntimeException("Internal error: null child in ClassTreeNode.addChild");
         }
 
-        if (!children.contains(child)) {
+        if (frozen) {
+            if (child.getParent() != this) {
+                child.setParent(this);
+            }
+        }
+        else if (!children.contains(child)) {
             // add child to list of children
             children.add(child);
+            treeVersion.incrementAndGet();
 
             // if this class is not the parent of the child then set it to be
             if (child.getParent() != this) {
@@ -224,13 +438,15 @@ public class ClassTreeNode {
     /**
      * removes the child from the list of children for this node.
      * It returns true if the child was removed from the list or false if the child
-     * wasn't in this node's list of children
+     * wasn't in this node's list of children.  The children of a frozen class
+     * are never removed.
      * @param child the ClassTreeNode to be removed from the list of children
      * @return true if the child was removed from the list else false
      */
     public boolean removeChild(ClassTreeNode child) {
-        if ( children.contains(child)) {
+        if (!frozen && children.contains(child)) {
             children.remove(child);
+            treeVersion.incrementAndGet();
             return true;
         }
         return false;
@@ -263,6 +479,136 @@ public class ClassTreeNode {
         return numDescendants;
     }
 
+    /**
+     * Numbers the classes of the tree rooted at this class with their positions
+     * in a pre-order and a post-order traversal, so that isSubclassOf can compare
+     * two classes in constant time.  The numbering stays valid until a parent or
+     * child of any class is changed.
+     */
+    public void numberTree() {
+        numberTree(0);
+    }
+
+    /**
+     * Numbers the classes of the tree rooted at this class like numberTree(),
+     * but starting from a given number, so that a tree attached to a frozen
+     * tree is numbered after it
+     *
+     * @param first the pre-order number of this class
+     * @return the first number not used in numbering the tree
+     * @throws IllegalStateException if this class is frozen
+     */
+    public int numberTree(int first) {
+        if (frozen) {
+            throw new IllegalStateException("The frozen class " + getName() +
+                    " cannot be numbered again");
+        }
+        int version = treeVersion.get();
+        int counter = first;
+        Set<ClassTreeNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        // iterative depth-first traversal, since the tree may be very deep
+        Deque<ClassTreeNode> path = new ArrayDeque<>();
+        Deque<Iterator<ClassTreeNode>> pending = new ArrayDeque<>();
+        visited.add(this);
+        preOrder = counter++;
+        path.push(this);
+        pending.push(children.iterator());
+        while (!path.isEmpty()) {
+            if (pending.peek().hasNext()) {
+                ClassTreeNode child = pending.peek().next();
+                if (!visited.add(child)) {
+                    continue; // the tree is not well formed; number each class once
+                }
+                child.preOrder = counter++;
+                path.push(child);
+                pending.push(child.children.iterator());
+            }
+            else {
+                ClassTreeNode node = path.pop();
+                pending.pop();
+                node.postOrder = counter++;
+                // a class of another analysis is not numbered with this one
+                node.numberedVersion = node.treeVersion == treeVersion ? version : -1;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Freezes the tree rooted at this class so that analyses running at the same
+     * time can share it.  The classes of the tree are numbered, with this class
+     * given the largest possible post-order number so that the classes later
+     * attached below it and numbered from the returned number lie inside its
+     * interval, and their dispatch tables are built.  Their symbol tables must be
+     * complete.
+     *
+     * @return the first number not used in numbering the tree
+     */
+    public int freezeTree() {
+        int next = numberTree(0);
+        postOrder = Integer.MAX_VALUE;
+        Deque<ClassTreeNode> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            ClassTreeNode node = pending.pop();
+            if (!node.frozen) {
+                node.getDispatchTable();
+                node.frozen = true;
+                pending.addAll(node.children);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Creates a copy of this frozen class for one analysis, which looks classes up
+     * in the class map of the analysis and lists the classes of the map whose
+     * parent is this class among its children, after the children of this class.
+     * The copy shares the type, symbol tables and numbering of this class, so it
+     * is the same class for isSubclassOf, and it is frozen too.
+     *
+     * @param classMap class map of the analysis
+     * @return the copy
+     * @throws IllegalStateException if this class is not frozen
+     */
+    public ClassTreeNode copyFor(Hashtable<String, ClassTreeNode> classMap) {
+        if (!frozen) {
+            throw new IllegalStateException("The class " + getName() +
+                    " is not frozen");
+        }
+        ClassTreeNode copy = new ClassTreeNode(this, classMap);
+        for (ClassTreeNode node : classMap.values()) {
+            if (node.parent == this && !node.frozen) {
+                copy.children.add(node);
+                copy.numDescendants += node.numDescendants + 1;
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Is this class the same class as, or a subclass of, another class?
+     * If both classes were numbered by numberTree since the tree last changed,
+     * or are frozen, this is a constant time check of their pre-order and
+     * post-order numbers; otherwise the parents of this class are followed.
+     *
+     * @param ancestor the class tree node of the other class
+     * @return true if this class is ancestor or one of its descendants
+     */
+    public boolean isSubclassOf(ClassTreeNode ancestor) {
+        if ((frozen || numberedVersion == treeVersion.get()) &&
+                (ancestor.frozen || ancestor.numberedVersion == ancestor.treeVersion.get()) &&
+                (frozen || ancestor.frozen || treeVersion == ancestor.treeVersion)) {
+            return ancestor.preOrder <= preOrder && postOrder <= ancestor.postOrder;
+        }
+        for (ClassTreeNode node = this; node != null; node = node.getParent()) {
+            if (node == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Get the variable symbol table of the class
      *
@@ -281,6 +627,76 @@ public class ClassTreeNode {
         return methodSymbolTable;
     }
 
+    /**
+     * Get the dispatch table of the class, which resolves the name of any method
+     * the class defines or inherits with a single lookup.  The table is built from
+     * the method symbol tables of the class and its ancestors the first time it is
+     * asked for, so it must not be asked for before those tables are complete.
+     * Building a table copies the table of the parent, so only the classes whose
+     * methods are looked up, and their ancestors, get one.
+     *
+     * @return dispatch table
+     */
+    public DispatchTable getDispatchTable() {
+        DispatchTable table = dispatchTable;
+        if (table != null) {
+            return table;
+        }
+        // build the missing tables of the ancestors first, from the top down
+        Deque<ClassTreeNode> unbuilt = new ArrayDeque<>();
+        Set<ClassTreeNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ClassTreeNode node = this;
+             node != null && node.dispatchTable == null && visited.add(node);
+             node = node.parent) {
+            unbuilt.push(node);
+        }
+        while (!unbuilt.isEmpty()) {
+            unbuilt.pop().buildDispatchTable();
+        }
+        return dispatchTable;
+    }
+
+    /**
+     * Discards the dispatch tables of this class and all its descendants, so that
+     * they are built again the next time they are asked for.  This must be called
+     * when a method of this class is replaced in its method symbol table, and not
+     * while other threads are using the tables.  The tables of frozen classes are
+     * kept.
+     */
+    public void clearDispatchTables() {
+        Set<ClassTreeNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<ClassTreeNode> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            ClassTreeNode node = pending.pop();
+            if (!node.frozen && visited.add(node)) {
+                node.dispatchTable = null;
+                pending.addAll(node.children);
+            }
+        }
+    }
+
+    /**
+     * builds the dispatch table of this class, if another thread has not already
+     * done so, once the table of its parent is built
+     */
+    private synchronized void buildDispatchTable() {
+        if (dispatchTable != null) {
+            return;
+        }
+        // a parent that is part of a cycle has no table yet
+        DispatchTable table = new DispatchTable(
+                parent == null ? null : parent.dispatchTable);
+        for (ASTNode member : astNode.getMemberList()) {
+            // only the methods that were legally added to the method symbol table
+            if (member instanceof Method &&
+                    methodSymbolTable.peek(((Method) member).getName()) == member) {
+                table.add(getName(), (Method) member);
+            }
+        }
+        dispatchTable = table;
+    }
+
     /**
      * Lookup a class tree node
      *
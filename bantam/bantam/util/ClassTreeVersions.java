@@ -0,0 +1,24 @@
+/*
+ * File: ClassTreeVersions.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The versions of the classes of one analysis: the version of their class
+ * hierarchy tree, which tells ClassTreeNode.isSubclassOf whether the numbering
+ * of the tree is up to date, and the version of their symbol tables, which
+ * tells a SymbolTable whether the ancestors it found are.  The SemanticAnalyzer
+ * creates one for each analysis and gives it to every ClassTreeNode it creates,
+ * so changing the classes of one analysis does not affect another.
+ */
+public class ClassTreeVersions
+{
+    /** incremented whenever a parent or child of one of the classes changes */
+    final AtomicInteger tree = new AtomicInteger();
+    /** shared by the variable and method symbol tables of the classes */
+    final AtomicInteger symbolTables = new AtomicInteger();
+}
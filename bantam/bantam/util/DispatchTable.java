@@ -0,0 +1,248 @@
+/*
+ * File: DispatchTable.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.util;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.ASTNode;
+import proj10LoverudeTymkiwCorrell.bantam.ast.Formal;
+import proj10LoverudeTymkiwCorrell.bantam.ast.Method;
+
+import java.util.Arrays;
+
+/**
+ * The resolved methods of one class: the methods it defines together with all
+ * the methods it inherits, so that a call can be resolved with a single hash
+ * lookup instead of searching the method symbol tables of the class and its
+ * ancestors.  Each entry also holds the types of the formal parameters of its
+ * method, extracted once when the entry is added.
+ *
+ * Like a virtual method table, every method name has a slot number.  A class
+ * starts with a copy of the entries of its parent; a method that overrides an
+ * inherited one takes over its slot, and a new method gets the next slot.  So an
+ * inherited method has the same slot number in a class as in all its ancestors.
+ *
+ * The table of a class is built once, after the method symbol tables are complete,
+ * and is only read afterwards, so it may be shared by several threads.
+ *
+ * @see ClassTreeNode#getDispatchTable()
+ */
+public class DispatchTable {
+    /**
+     * The names of the methods, by hash slot (null where the slot is empty)
+     */
+    private String[] names;
+
+    /**
+     * The slot number of the entry of the method in each hash slot
+     */
+    private int[] slotNumbers;
+
+    /**
+     * The entries, by slot number
+     */
+    private Entry[] entries;
+
+    /**
+     * The number of entries
+     */
+    private int size;
+
+    /**
+     * creates a table for a class without a parent
+     */
+    public DispatchTable() {
+        this(null);
+    }
+
+    /**
+     * creates a table for a class that starts with the entries of its parent
+     *
+     * @param inherited the table of the parent class (null if there is none)
+     */
+    public DispatchTable(DispatchTable inherited) {
+        if (inherited == null) {
+            names = new String[16];
+            slotNumbers = new int[16];
+            entries = new Entry[8];
+        }
+        else {
+            names = inherited.names.clone();
+            slotNumbers = inherited.slotNumbers.clone();
+            entries = inherited.entries.clone();
+            size = inherited.size;
+        }
+    }
+
+    /**
+     * adds a method defined in a class, replacing the entry of the method of the
+     * same name inherited from an ancestor, if there is one
+     *
+     * @param className the name of the class that defines the method
+     * @param method the Method node
+     */
+    public void add(String className, Method method) {
+        String name = method.getName();
+        int hashSlot = find(name);
+        if (names[hashSlot] != null) {
+            int slotNumber = slotNumbers[hashSlot];
+            entries[slotNumber] = new Entry(className, method, slotNumber);
+            return;
+        }
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size] = new Entry(className, method, size);
+        names[hashSlot] = name;
+        slotNumbers[hashSlot] = size;
+        size++;
+        if (size * 2 > names.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * looks up a method by name
+     *
+     * @param name the name of the method
+     * @return the entry of the method, or null if the class neither defines
+     *         nor inherits a method of that name
+     */
+    public Entry lookup(String name) {
+        int hashSlot = find(name);
+        return names[hashSlot] == null ? null : entries[slotNumbers[hashSlot]];
+    }
+
+    /**
+     * @param slotNumber the slot number of an entry, from 0 to size() - 1
+     * @return the entry with that slot number
+     */
+    public Entry get(int slotNumber) {
+        if (slotNumber < 0 || slotNumber >= size) {
+            throw new IndexOutOfBoundsException("Slot " + slotNumber
+                    + " out of bounds for size " + size);
+        }
+        return entries[slotNumber];
+    }
+
+    /**
+     * @return the number of methods the class defines or inherits
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * finds the hash slot holding a name, or the empty hash slot where it belongs
+     *
+     * @param name the name of a method
+     * @return the index into names
+     */
+    private int find(String name) {
+        int mask = names.length - 1;
+        int hashSlot = spread(name.hashCode()) & mask;
+        while (names[hashSlot] != null && !names[hashSlot].equals(name)) {
+            hashSlot = (hashSlot + 1) & mask;
+        }
+        return hashSlot;
+    }
+
+    /**
+     * doubles the number of hash slots
+     */
+    private void rehash() {
+        String[] oldNames = names;
+        int[] oldSlotNumbers = slotNumbers;
+        names = new String[oldNames.length * 2];
+        slotNumbers = new int[oldNames.length * 2];
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] != null) {
+                int hashSlot = find(oldNames[i]);
+                names[hashSlot] = oldNames[i];
+                slotNumbers[hashSlot] = oldSlotNumbers[i];
+            }
+        }
+    }
+
+    /**
+     * mixes the bits of a hash code, since names often differ only at the end
+     *
+     * @param hashCode the hash code of a name
+     * @return the mixed hash code
+     */
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A method as seen from a class that defines or inherits it
+     */
+    public static class Entry {
+        private final String className;
+        private final Method method;
+        private final String[] formalTypes;
+        private final int slotNumber;
+
+        /**
+         * @param className the name of the class that defines the method
+         * @param method the Method node
+         * @param slotNumber the slot number of the method
+         */
+        private Entry(String className, Method method, int slotNumber) {
+            this.className = className;
+            this.method = method;
+            this.slotNumber = slotNumber;
+            formalTypes = new String[method.getFormalList().getSize()];
+            int i = 0;
+            for (ASTNode formal : method.getFormalList()) {
+                formalTypes[i++] = ((Formal) formal).getType();
+            }
+        }
+
+        /**
+         * @return the name of the class that defines the method
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * @return the Method node
+         */
+        public Method getMethod() {
+            return method;
+        }
+
+        /**
+         * @return the return type of the method
+         */
+        public String getReturnType() {
+            return method.getReturnType();
+        }
+
+        /**
+         * @return the number of formal parameters of the method
+         */
+        public int getNumFormals() {
+            return formalTypes.length;
+        }
+
+        /**
+         * @param index the index of a formal parameter
+         * @return the type of the formal parameter
+         */
+        public String getFormalType(int index) {
+            return formalTypes[index];
+        }
+
+        /**
+         * @return the slot number of the method, which is the same in the class
+         *         that defines it and in all of its subclasses
+         */
+        public int getSlotNumber() {
+            return slotNumber;
+        }
+    }
+}
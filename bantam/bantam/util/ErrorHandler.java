@@ -30,17 +30,56 @@ package proj10LoverudeTymkiwCorrell.bantam.util;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The ErrorHandler class performs error handling. It keeps track
  * of a list of errors that the compiler finds.
+ *
+ * Errors may be registered by several threads at once.  Registering an error only
+ * appends it to a lock-free queue; the errors are sorted by filename and line
+ * number once, when getErrorList() is called.  The filenames are kept in the
+ * order that they are first seen, errors on the same line of a file are kept in
+ * the order they were registered, and errors without a filename come first, most
+ * recent first.  At most 100 errors are kept.
+ *
+ * Listeners can be added to be told about each error as soon as it is registered,
+ * for example to show errors while the compiler is still running.
  */
 public class ErrorHandler {
     /**
-     * The list of errors
+     * The maximum number of errors kept
      */
-    private List<Error> errorList = new ArrayList<>();
+    private static final int MAX_ERRORS = 100;
+
+    /**
+     * The registered errors, in the order they were registered
+     */
+    private final ConcurrentLinkedQueue<RegisteredError> errors =
+            new ConcurrentLinkedQueue<>();
+    /**
+     * The number of errors registered, including the ones beyond the maximum
+     */
+    private final AtomicInteger numRegistered = new AtomicInteger();
+    /**
+     * The number of errors added to the queue
+     */
+    private final AtomicInteger numQueued = new AtomicInteger();
+    /**
+     * The listeners told about each error kept
+     */
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * The sorted list returned by the last call to getErrorList(), which is
+     * reused while no errors are registered
+     */
+    private volatile List<Error> sortedErrors = Collections.emptyList();
 
     /**
      * Register an error - auxiliarly method used by the other (public) register methods
@@ -48,10 +87,15 @@ public class ErrorHandler {
      * @param error the Error object to be registered
      */
     private void register(Error error) {
-        // insert a new error into the error list
-        // but keep at most 100 errors.
-        if (errorList.size() < 100) {
-            insert(error);
+        // keep at most 100 errors: the first 100 to be numbered
+        int sequenceNum = numRegistered.getAndIncrement();
+        if (sequenceNum >= MAX_ERRORS) {
+            return;
+        }
+        errors.add(new RegisteredError(error, sequenceNum));
+        numQueued.incrementAndGet();
+        for (Listener listener : listeners) {
+            listener.errorRegistered(error);
         }
     }
 
@@ -81,59 +125,170 @@ public class ErrorHandler {
         register((new Error(kind, null, -1, errorMessage)));
     }
 
+    /**
+     * Register all the errors of another ErrorHandler, such as one used by a
+     * separate thread, as if they had been registered with this ErrorHandler
+     * in the order they were registered with the other one.
+     *
+     * @param other the ErrorHandler whose errors are copied
+     */
+    public void registerAll(ErrorHandler other) {
+        registerAll(other, 0);
+    }
+
+    /**
+     * Register all the errors of another ErrorHandler, in the order they were
+     * registered with it, with their line numbers moved by the same amount, such
+     * as errors found in a class before the lines above it were edited.  Errors
+     * without a filename are not moved.
+     *
+     * @param other the ErrorHandler whose errors are copied
+     * @param lineDelta the number of lines to add to the line numbers
+     */
+    public void registerAll(ErrorHandler other, int lineDelta) {
+        for (RegisteredError registered : other.inRegistrationOrder()) {
+            Error error = registered.error;
+            if (lineDelta != 0 && error.getFilename() != null) {
+                error = new Error(error.getKind(), error.getFilename(),
+                        error.getLineNum() + lineDelta, error.getMessage());
+            }
+            register(error);
+        }
+    }
+
+    /**
+     * Add a listener that is told about every error kept from now on, on the
+     * thread that registers the error
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
     /**
      * return true if any errors were reported.
      */
     public boolean errorsFound() {
-        return errorList.size() > 0;
+        return numRegistered.get() > 0;
+    }
+
+    /**
+     * @return the errors kept, in the order they were registered
+     */
+    private List<RegisteredError> inRegistrationOrder() {
+        List<RegisteredError> list = new ArrayList<>(errors);
+        list.sort(Comparator.comparingInt(registered -> registered.sequenceNum));
+        return list;
     }
 
     /**
-     * Insert an error onto the error list
+     * Sorts the errors: errors without a filename first, most recent first, then
+     * the errors of each file in the order the files were first seen, by line
+     * number, and in the order they were registered within a line.
      *
-     * @param e error object to insert
-     */
-    private void insert(Error e) {
-        // the algorithm below will insert errors in order by filename first and
-        // then line number.  filenames are kept in the order that they are seen
-        // (i.e., an error is registered with that filename).  Line numbers are
-        // ordered numerically.
-
-        int i = 0;
-
-        if (e.getFilename() != null) {
-            // find the section of the list with the same filename (goes to the end
-            // if a section is not found)
-            for (i = 0; i < errorList.size(); i++) {
-                if (errorList.get(i).getFilename() != null) {
-                    if (e.getFilename().equals(errorList.get(i).getFilename())) {
-                        break;
-                    }
-                }
+     * @param list the errors, in the order they were registered
+     * @return the errors in sorted order
+     */
+    private static List<Error> sort(List<RegisteredError> list) {
+        Map<String, Integer> fileOrder = new HashMap<>();
+        for (RegisteredError registered : list) {
+            if (registered.error.getFilename() != null) {
+                fileOrder.putIfAbsent(registered.error.getFilename(), fileOrder.size());
             }
-
-            // find the correct spot in the section for this error's line number
-            for (; i < errorList.size(); i++) {
-                if (!e.getFilename().equals(errorList.get(i).getFilename()) ||
-                        e.getLineNum() < (errorList.get(i)).getLineNum()) {
-                    break;
+        }
+        list.sort((a, b) -> {
+            String aFile = a.error.getFilename();
+            String bFile = b.error.getFilename();
+            if (aFile == null || bFile == null) {
+                if (aFile != null || bFile != null) {
+                    return aFile == null ? -1 : 1;
                 }
+                return Integer.compare(b.sequenceNum, a.sequenceNum);
+            }
+            int result = Integer.compare(fileOrder.get(aFile), fileOrder.get(bFile));
+            if (result == 0) {
+                result = Integer.compare(a.error.getLineNum(), b.error.getLineNum());
+            }
+            if (result == 0) {
+                result = Integer.compare(a.sequenceNum, b.sequenceNum);
             }
+            return result;
+        });
+        List<Error> sorted = new ArrayList<>(list.size());
+        for (RegisteredError registered : list) {
+            sorted.add(registered.error);
         }
-
-        // add the error to the list
-        errorList.add(i, e);
+        return sorted;
     }
 
     /**
      * @return an unmodifiable copy of the list of registered errors
      */
     public List<Error> getErrorList() {
-        return Collections.unmodifiableList(errorList);
+        List<Error> sorted = sortedErrors;
+        if (sorted.size() != numQueued.get()) {
+            sorted = Collections.unmodifiableList(sort(inRegistrationOrder()));
+            sortedErrors = sorted;
+        }
+        return sorted;
     }
 
+    /**
+     * @return a copy of the list of registered errors, in the order they were
+     *         registered rather than sorted
+     */
+    public List<Error> getErrorsInRegistrationOrder() {
+        List<Error> list = new ArrayList<>();
+        for (RegisteredError registered : inRegistrationOrder()) {
+            list.add(registered.error);
+        }
+        return list;
+    }
+
+    /**
+     * Remove all the errors.  This must not be called while other threads are
+     * registering errors.
+     */
     public void clear() {
-        errorList.clear();
+        errors.clear();
+        numQueued.set(0);
+        numRegistered.set(0);
+        sortedErrors = Collections.emptyList();
+    }
+
+    /**
+     * An object that is told about each error as soon as it is registered
+     */
+    public interface Listener {
+        /**
+         * called when an error is registered
+         *
+         * @param error the error
+         */
+        void errorRegistered(Error error);
+    }
+
+    /**
+     * An error together with its position in the order of registration
+     */
+    private static class RegisteredError {
+        private final Error error;
+        private final int sequenceNum;
+
+        private RegisteredError(Error error, int sequenceNum) {
+            this.error = error;
+            this.sequenceNum = sequenceNum;
+        }
     }
 
 }
@@ -0,0 +1,561 @@
+/*
+ * File: FlatSymbolTable.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * A SymbolTable that keeps all of its scopes in one table instead of one
+ * Hashtable per scope.
+ *
+ * Each symbol has a slot in an open-addressing hash table, which holds the
+ * symbol's most recent entry.  An entry records the scope level and value of a
+ * declaration and points to the entry it hides, so looking up a symbol never
+ * visits more than the entries of that one symbol.  The entries are allocated in
+ * the order they are added, which makes the entry array an undo log: exiting a
+ * scope pops the entries added since the scope was entered, and entering a scope
+ * allocates nothing.
+ *
+ * A FlatSymbolTable can have a parent SymbolTable of either kind, but it cannot
+ * be the parent of a plain SymbolTable.  The usual way to get one is to flatten an
+ * existing table and all its ancestors with FlatSymbolTable(SymbolTable), so that
+ * inherited symbols are found without walking the parent tables.
+ */
+public class FlatSymbolTable extends SymbolTable
+{
+    /** the symbols, indexed by slot (null if the slot is empty) */
+    private String[] symbols;
+    /** the most recent entry of the symbol in each slot, or -1 if it has none */
+    private int[] heads;
+    /** the number of symbols in the hash table */
+    private int numSymbols;
+
+    /** the index, from 0, of the scope of each entry */
+    private int[] entryLevels;
+    /** the value of each entry */
+    private Object[] entryValues;
+    /** the entry hidden by each entry, or -1 */
+    private int[] entryHidden;
+    /** the slot of the symbol of each entry */
+    private int[] entrySlots;
+    /** the number of entries */
+    private int numEntries;
+
+    /** the number of entries that existed when each scope was entered */
+    private int[] scopeStarts;
+    /** the number of scopes of this table, not counting those of the parent */
+    private int numScopes;
+
+    /** the parent table (may be null) */
+    private SymbolTable parent;
+
+    /**
+     * creates an empty symbol table
+     */
+    public FlatSymbolTable() {
+        symbols = new String[64];
+        heads = new int[64];
+        entryLevels = new int[32];
+        entryValues = new Object[32];
+        entryHidden = new int[32];
+        entrySlots = new int[32];
+        scopeStarts = new int[8];
+    }
+
+    /**
+     * creates a symbol table holding the scopes of a symbol table and of all its
+     * ancestors, outermost first, so that it has no parent but looks up every
+     * symbol the same way as the given table
+     *
+     * @param table the symbol table to copy
+     */
+    public FlatSymbolTable(SymbolTable table) {
+        this(table, UnaryOperator.identity());
+    }
+
+    /**
+     * creates a symbol table like FlatSymbolTable(table), but with the value of
+     * each symbol replaced by the result of a function, such as the Type named by
+     * the type name of a variable
+     *
+     * @param table the symbol table to copy
+     * @param mapping the function giving the value of each symbol from its value
+     *                in the copied table
+     */
+    public FlatSymbolTable(SymbolTable table, UnaryOperator<Object> mapping) {
+        this();
+        table.copyInto(this, mapping);
+    }
+
+    /**
+     * Set the parent symbol table
+     *
+     * @param parent symbol table of the parent class
+     */
+    @Override
+    public void setParent(SymbolTable parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Enter a new scope
+     */
+    @Override
+    public void enterScope() {
+        if (numScopes == scopeStarts.length) {
+            scopeStarts = Arrays.copyOf(scopeStarts, numScopes * 2);
+        }
+        scopeStarts[numScopes++] = numEntries;
+    }
+
+    /**
+     * Exit a scope, removing the symbols added to it
+     */
+    @Override
+    public void exitScope() {
+        if (numScopes == 0) {
+            throw new RuntimeException("No scope to exit");
+        }
+        int start = scopeStarts[--numScopes];
+        while (numEntries > start) {
+            numEntries--;
+            heads[entrySlots[numEntries]] = entryHidden[numEntries];
+            entryValues[numEntries] = null;
+        }
+    }
+
+    /**
+     * Adds a symbol to the symbol table if one does not already exist
+     * Sets the value of the symbol to the specified parameter
+     *
+     * @param s     symbol name (i.e., name of variable or method)
+     * @param value value of symbol (i.e., type)
+     */
+    @Override
+    public void add(String s, Object value) {
+        if (numScopes == 0) {
+            throw new RuntimeException("Must enter a scope before adding to table");
+        }
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        int slot = findSlot(s);
+        if (symbols[slot] == null) {
+            slot = addSymbol(s, slot);
+        }
+        int head = heads[slot];
+        if (head >= 0 && entryLevels[head] == numScopes - 1) {
+            entryValues[head] = value; // already declared in this scope
+            return;
+        }
+        if (numEntries == entryLevels.length) {
+            int capacity = numEntries * 2;
+            entryLevels = Arrays.copyOf(entryLevels, capacity);
+            entryValues = Arrays.copyOf(entryValues, capacity);
+            entryHidden = Arrays.copyOf(entryHidden, capacity);
+            entrySlots = Arrays.copyOf(entrySlots, capacity);
+        }
+        entryLevels[numEntries] = numScopes - 1;
+        entryValues[numEntries] = value;
+        entryHidden[numEntries] = head;
+        entrySlots[numEntries] = slot;
+        heads[slot] = numEntries++;
+    }
+
+    /**
+     * Looks up a symbol in any scope in the symbol table
+     *
+     * @param s string of symbol to lookup
+     * @return value of symbol (i.e., type), null if not found
+     */
+    @Override
+    public Object lookup(String s) {
+        if (numScopes == 0) {
+            throw new RuntimeException("Must enter a scope before looking up in table");
+        }
+        int entry = headOf(s);
+        if (entry >= 0) {
+            return entryValues[entry];
+        }
+        return parent != null ? parent.lookup(s) : null;
+    }
+
+    /**
+     * Looks up a symbol in a particular scope in the symbol table as well
+     * as any outer scopes from that specified scope
+     * Note: an exception is thrown if the specified level is <0 or >= largest
+     * scope level
+     *
+     * @param s     string of symbol to lookup
+     * @param level scope level to lookup string (outermost scope is at level 0)
+     * @return value of symbol (i.e., type), null if not found in particular scope level
+     */
+    @Override
+    public Object lookup(String s, int level) {
+        int parentLevels = checkLevel("lookup(sym,level)", level);
+        if (level < parentLevels) {
+            return lookupInParent(s, level, parentLevels);
+        }
+        int entry = entryAtOrBelow(s, level - parentLevels);
+        if (entry >= 0) {
+            return entryValues[entry];
+        }
+        return parent != null ? parent.lookup(s) : null;
+    }
+
+    /**
+     * Looks up a symbol in the current scope in the table
+     *
+     * @param s string of symbol to lookup
+     * @return value of symbol (i.e., type), null if not found
+     */
+    @Override
+    public Object peek(String s) {
+        if (numScopes == 0) {
+            throw new RuntimeException("Must enter a scope before peeking in table");
+        }
+        int entry = headOf(s);
+        if (entry >= 0 && entryLevels[entry] == numScopes - 1) {
+            return entryValues[entry];
+        }
+        return null;
+    }
+
+    /**
+     * Looks up a symbol in a particular scope in the symbol table
+     * Note: an exception is thrown if the specified level is <0 or >= largest
+     * scope level
+     *
+     * @param s     string of symbol to lookup
+     * @param level scope level to lookup string (outermost scope is at level 0)
+     * @return value of symbol (i.e., type), null if not found in particular scope level
+     */
+    @Override
+    public Object peek(String s, int level) {
+        int parentLevels = checkLevel("peek(sym,level)", level);
+        if (level < parentLevels) {
+            return parent.peek(s, level);
+        }
+        int entry = entryAtOrBelow(s, level - parentLevels);
+        if (entry >= 0 && entryLevels[entry] == level - parentLevels) {
+            return entryValues[entry];
+        }
+        return null;
+    }
+
+    /**
+     * Sets the value of an existing symbol in the innermost scope of the symbol table
+     *
+     * @param s   string of symbol to set
+     * @param val value to set the symbol to
+     */
+    @Override
+    public void set(String s, Object val) {
+        if (numScopes == 0) {
+            throw new RuntimeException("Must enter a scope before setting in table");
+        }
+        int entry = headOf(s);
+        if (entry >= 0) {
+            entryValues[entry] = val;
+        }
+        else if (parent != null) {
+            parent.set(s, val);
+        }
+        else {
+            throw new RuntimeException("Set symbol '" + s +
+                    "' is not in the symbol table");
+        }
+    }
+
+    /**
+     * Sets the value of an existing symbol in a particular scope of the
+     * symbol table (or an outer scope containing the specified scope).
+     * Unlike a SymbolTable without a parent, it is an error if there is no
+     * such symbol, since a flattened table no longer knows which of its
+     * scopes came from a parent.
+     *
+     * @param s     string of symbol to set
+     * @param val   value to set the symbol to
+     * @param level scope level containing symbol to be set
+     */
+    @Override
+    public void set(String s, Object val, int level) {
+        int parentLevels = checkLevel("set(sym,val,level)", level);
+        if (level < parentLevels) {
+            parent.set(s, val, level);
+            return;
+        }
+        int entry = entryAtOrBelow(s, level - parentLevels);
+        if (entry >= 0) {
+            entryValues[entry] = val;
+        }
+        else if (parent != null) {
+            parent.set(s, val);
+        }
+        else {
+            throw new RuntimeException("Set symbol '" + s +
+                    "' is not in the symbol table");
+        }
+    }
+
+    /**
+     * Gets scope level of a symbol in the table
+     * (<0 means symbol not in table)
+     *
+     * @param s string of symbol to lookup
+     * @return scope level
+     */
+    @Override
+    public int getScopeLevel(String s) {
+        if (numScopes == 0) {
+            throw new RuntimeException("Must enter a scope before looking up in table");
+        }
+        int entry = headOf(s);
+        if (entry >= 0) {
+            return entryLevels[entry] + 1 + getParentLevels();
+        }
+        return parent != null ? parent.getScopeLevel(s) : -1;
+    }
+
+    /**
+     * Gets the number of entries in all scopes of the symbol table
+     * Note: includes inherited scopes
+     *
+     * @return size of current scope
+     */
+    @Override
+    public int getSize() {
+        return numEntries + (parent != null ? parent.getSize() : 0);
+    }
+
+    /**
+     * Gets the number of entries in the current scope of the symbol table
+     *
+     * @return size of current scope
+     */
+    @Override
+    public int getCurrScopeSize() {
+        return numScopes == 0 ? 0 : numEntries - scopeStarts[numScopes - 1];
+    }
+
+    /**
+     * Gets the current scope level of the symbol table
+     * (first scope starts at 1)
+     *
+     * @return current scope level
+     */
+    @Override
+    public int getCurrScopeLevel() {
+        return numScopes + getParentLevels();
+    }
+
+    /**
+     * clone this symbol table as well as all parent symbol tables
+     * Note: does a shallow clone, does not copy keys or values
+     *
+     * @return cloned symbol table
+     */
+    @Override
+    public FlatSymbolTable clone() {
+        FlatSymbolTable table = new FlatSymbolTable();
+        table.numSymbols = numSymbols;
+        table.numEntries = numEntries;
+        table.numScopes = numScopes;
+        table.symbols = symbols.clone();
+        table.heads = heads.clone();
+        table.entryLevels = entryLevels.clone();
+        table.entryValues = entryValues.clone();
+        table.entryHidden = entryHidden.clone();
+        table.entrySlots = entrySlots.clone();
+        table.scopeStarts = scopeStarts.clone();
+        if (parent != null) {
+            table.parent = parent.clone();
+        }
+        return table;
+    }
+
+    /**
+     * For debugging -- dumps out entire symbol table
+     * Starts from highest scope level (Object class) and works
+     * towards the lowest scope level (current level)
+     */
+    @Override
+    public void dump() {
+        if (parent != null) {
+            parent.dump();
+        }
+        for (int level = 0; level < numScopes; level++) {
+            System.out.println(getScope(level));
+        }
+    }
+
+    /**
+     * adds the scopes of this table and of its ancestors to another table,
+     * outermost first
+     *
+     * @param table the table the scopes are added to
+     * @param mapping the function giving the value added for each symbol
+     */
+    @Override
+    void copyInto(FlatSymbolTable table, UnaryOperator<Object> mapping) {
+        if (parent != null) {
+            parent.copyInto(table, mapping);
+        }
+        for (int level = 0; level < numScopes; level++) {
+            table.enterScope();
+            for (Map.Entry<String, Object> symbol : getScope(level).entrySet()) {
+                table.add(symbol.getKey(), mapping.apply(symbol.getValue()));
+            }
+        }
+    }
+
+    /**
+     * @param level the index, from 0, of one of the scopes of this table
+     * @return the symbols declared in the scope and their values
+     */
+    private Map<String, Object> getScope(int level) {
+        Map<String, Object> scope = new LinkedHashMap<>();
+        int end = level + 1 < numScopes ? scopeStarts[level + 1] : numEntries;
+        for (int entry = scopeStarts[level]; entry < end; entry++) {
+            scope.put(symbols[entrySlots[entry]], entryValues[entry]);
+        }
+        return scope;
+    }
+
+    /**
+     * @return the number of scopes of the ancestors of this table
+     */
+    private int getParentLevels() {
+        return parent != null ? parent.getCurrScopeLevel() : 0;
+    }
+
+    /**
+     * checks that a level passed to one of the methods taking a level is valid
+     *
+     * @param method the method that was called, for the error message
+     * @param level the level passed to the method
+     * @return the number of scopes of the ancestors of this table
+     */
+    private int checkLevel(String method, int level) {
+        int parentLevels = getParentLevels();
+        int lastLevel = numScopes + parentLevels;
+        if (numScopes == 0) {
+            throw new RuntimeException("Must enter a scope before looking up in table");
+        }
+        else if (level < 0 || level >= lastLevel) {
+            throw new IllegalArgumentException("SymbolTable." + method + " called" +
+                    " with level (" + level + ") that is not" +
+                    " between 0 and current level (" +
+                    lastLevel + ") minus one");
+        }
+        return parentLevels;
+    }
+
+    /**
+     * looks up a symbol at or below a level that belongs to the parent table
+     *
+     * @param s the symbol
+     * @param level the level, which is below parentLevels
+     * @param parentLevels the number of scopes of the ancestors
+     * @return value of symbol, or null if not found
+     */
+    private Object lookupInParent(String s, int level, int parentLevels) {
+        if (level == parentLevels - 1) {
+            return parent.lookup(s);
+        }
+        return parent.lookup(s, level);
+    }
+
+    /**
+     * @param s a symbol
+     * @param level the index, from 0, of one of the scopes of this table
+     * @return the innermost entry of the symbol in that scope or an outer scope
+     *         of this table, or -1 if there is none
+     */
+    private int entryAtOrBelow(String s, int level) {
+        int entry = headOf(s);
+        while (entry >= 0 && entryLevels[entry] > level) {
+            entry = entryHidden[entry];
+        }
+        return entry;
+    }
+
+    /**
+     * @param s a symbol
+     * @return the innermost entry of the symbol, or -1 if it has none
+     */
+    private int headOf(String s) {
+        int slot = findSlot(s);
+        return symbols[slot] == null ? -1 : heads[slot];
+    }
+
+    /**
+     * @param s a symbol
+     * @return the slot holding the symbol, or the empty slot where it belongs
+     */
+    private int findSlot(String s) {
+        int mask = symbols.length - 1;
+        int slot = mix(s.hashCode()) & mask;
+        String symbol;
+        while ((symbol = symbols[slot]) != null) {
+            if (symbol == s || symbol.equals(s)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * adds a symbol to the hash table, growing it if it becomes half full
+     *
+     * @param s the symbol, which is not in the table
+     * @param slot the empty slot where the symbol belongs
+     * @return the slot of the symbol
+     */
+    private int addSymbol(String s, int slot) {
+        if (2 * (numSymbols + 1) > symbols.length) {
+            rehash();
+            slot = findSlot(s);
+        }
+        symbols[slot] = s;
+        heads[slot] = -1;
+        numSymbols++;
+        return slot;
+    }
+
+    /**
+     * doubles the size of the hash table and moves the symbols to their new slots
+     */
+    private void rehash() {
+        String[] oldSymbols = symbols;
+        int[] oldHeads = heads;
+        int[] newSlots = new int[oldSymbols.length];
+        symbols = new String[oldSymbols.length * 2];
+        heads = new int[symbols.length];
+        for (int slot = 0; slot < oldSymbols.length; slot++) {
+            if (oldSymbols[slot] != null) {
+                int newSlot = findSlot(oldSymbols[slot]);
+                symbols[newSlot] = oldSymbols[slot];
+                heads[newSlot] = oldHeads[slot];
+                newSlots[slot] = newSlot;
+            }
+        }
+        for (int entry = 0; entry < numEntries; entry++) {
+            entrySlots[entry] = newSlots[entrySlots[entry]];
+        }
+    }
+
+    /**
+     * spreads the bits of a hash code so that similar names use different slots
+     */
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
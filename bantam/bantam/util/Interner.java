@@ -0,0 +1,152 @@
+/*
+ * File: Interner.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.util;
+
+/**
+ * A pool of canonical name Strings for one compilation.  The Scanner passes it
+ * the characters of every identifier, and it returns the same String object
+ * every time the same name appears, so the AST holds one String per distinct
+ * name instead of one per occurrence.
+ *
+ * The pool holds its own Strings, which are not passed to String.intern(), so
+ * they are freed with the pool once the compilation is over.  Their hash codes
+ * are computed when they are added, so the Hashtables of the later phases do
+ * not compute them again for names taken from the AST.  Names are still
+ * compared with equals: Strings from different pools, or String literals such
+ * as "Object", are not the same objects as the Strings of a pool.
+ *
+ * An Interner is not thread safe.
+ */
+public class Interner
+{
+    /** the canonical Strings, indexed by slot (null if the slot is empty) */
+    private String[] names;
+    /** the hash code of the String in each slot */
+    private int[] hashes;
+    /** the number of Strings in the pool */
+    private int size;
+
+    /**
+     * creates an empty pool
+     */
+    public Interner() {
+        names = new String[256];
+        hashes = new int[256];
+    }
+
+    /**
+     * @return the number of distinct names in the pool
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * returns the canonical String holding the given characters, adding it to
+     * the pool if it is not already there
+     *
+     * @param chars the characters holding the name
+     * @param start the offset of the first character of the name
+     * @param length the number of characters in the name
+     * @return the canonical String
+     */
+    public String intern(char[] chars, int start, int length) {
+        // the same hash code as String.hashCode() of the name
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        int mask = names.length - 1;
+        int slot = mix(hash) & mask;
+        String name;
+        while ((name = names[slot]) != null) {
+            if (hashes[slot] == hash && name.length() == length
+                    && regionEquals(name, chars, start)) {
+                return name;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        name = new String(chars, start, length);
+        name.hashCode(); // cached in the String
+        add(slot, name, hash);
+        return name;
+    }
+
+    /**
+     * returns the canonical String equal to the given String, which becomes
+     * the canonical String if the pool has none
+     *
+     * @param name the name to be interned
+     * @return the canonical String
+     */
+    public String intern(String name) {
+        int hash = name.hashCode();
+        int mask = names.length - 1;
+        int slot = mix(hash) & mask;
+        String canonical;
+        while ((canonical = names[slot]) != null) {
+            if (hashes[slot] == hash && canonical.equals(name)) {
+                return canonical;
+            }
+            slot = (slot + 1) & mask;
+        }
+        add(slot, name, hash);
+        return name;
+    }
+
+    /**
+     * stores a String in an empty slot, growing the table when it gets half full
+     *
+     * @param slot the empty slot for the String
+     * @param name the String
+     * @param hash its hash code
+     */
+    private void add(int slot, String name, int hash) {
+        names[slot] = name;
+        hashes[slot] = hash;
+        size++;
+        if (2 * size > names.length) {
+            String[] oldNames = names;
+            int[] oldHashes = hashes;
+            names = new String[oldNames.length * 2];
+            hashes = new int[oldNames.length * 2];
+            int mask = names.length - 1;
+            for (int i = 0; i < oldNames.length; i++) {
+                if (oldNames[i] != null) {
+                    int newSlot = mix(oldHashes[i]) & mask;
+                    while (names[newSlot] != null) {
+                        newSlot = (newSlot + 1) & mask;
+                    }
+                    names[newSlot] = oldNames[i];
+                    hashes[newSlot] = oldHashes[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if the characters starting at start are the characters of name
+     */
+    private static boolean regionEquals(String name, char[] chars, int start) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * spreads the bits of a String hash code, whose low bits are poor for
+     * short names, so that it can be masked to a slot
+     */
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
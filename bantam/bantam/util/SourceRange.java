@@ -0,0 +1,73 @@
+/*
+ * File: SourceRange.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.util;
+
+/**
+ * Packs the range of characters that a token or an AST node covers in its
+ * source file into a single long, so that every token and node can carry its
+ * range without an extra object.  The offset of the first character is kept in
+ * the high 32 bits and the offset just past the last character in the low 32
+ * bits.  Offsets count characters from the start of the file, starting at 0.
+ */
+public final class SourceRange
+{
+    /** the range of something that does not come from a source file */
+    public static final long NONE = -1L;
+
+    /**
+     * no instances
+     */
+    private SourceRange() {
+    }
+
+    /**
+     * packs a range
+     *
+     * @param start the offset of the first character
+     * @param end the offset just past the last character
+     * @return the packed range
+     * @throws IllegalArgumentException if the offsets are negative or end < start
+     */
+    public static long of(int start, int end) {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Illegal range " + start + "-" + end);
+        }
+        return ((long) start << 32) | end;
+    }
+
+    /**
+     * @param range a packed range
+     * @return the offset of its first character, or -1 if the range is NONE
+     */
+    public static int getStart(long range) {
+        return range == NONE ? -1 : (int) (range >>> 32);
+    }
+
+    /**
+     * @param range a packed range
+     * @return the offset just past its last character, or -1 if the range is NONE
+     */
+    public static int getEnd(long range) {
+        return range == NONE ? -1 : (int) range;
+    }
+
+    /**
+     * @param range a packed range
+     * @param offset an offset in the file
+     * @return true if the character at the offset is in the range
+     */
+    public static boolean contains(long range, int offset) {
+        return range != NONE && getStart(range) <= offset && offset < getEnd(range);
+    }
+
+    /**
+     * @param range a packed range
+     * @return the range as "start-end", or "none"
+     */
+    public static String toString(long range) {
+        return range == NONE ? "none" : getStart(range) + "-" + getEnd(range);
+    }
+}
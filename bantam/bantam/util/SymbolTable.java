@@ -26,9 +26,17 @@
 
 package proj10LoverudeTymkiwCorrell.bantam.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
 /**
  * Class for representing a class symbol table
@@ -49,15 +57,46 @@ public class SymbolTable {
      * If lookup fails in this symbol table should lookup in parent
      */
     private SymbolTable parent;
+    /**
+     * Whether this table is the parent of another table, so that entering or
+     * exiting one of its scopes changes the levels of the scopes of other tables
+     */
+    private volatile boolean isParent;
+    /**
+     * The ancestor tables and the levels of their scopes, computed when they are
+     * first needed and reused while the versions of this table and its ancestors
+     * do not change
+     */
+    private volatile Ancestry ancestry;
+    /**
+     * Incremented whenever the parent of this table is set or this table enters
+     * or exits a scope while it is a parent, which makes the cached Ancestry of
+     * this table and of its descendants out of date.  The tables of the classes
+     * of one analysis share a version, so the tables of other analyses are not
+     * affected.
+     */
+    private final AtomicInteger version;
 
     /**
      * SymbolTable constructor
      * create an empty symbol table
      */
     public SymbolTable() {
+        this(new AtomicInteger());
+    }
+
+    /**
+     * SymbolTable constructor
+     * create an empty symbol table with the given version, such as the version
+     * of the tables of the classes of one analysis (see ClassTreeVersions)
+     *
+     * @param version the version, which may be shared with other tables
+     */
+    SymbolTable(AtomicInteger version) {
         hash = null;
         scopes = new Vector<Hashtable<String, Object>>();
         parent = null;
+        this.version = version;
     }
 
     /**
@@ -67,9 +106,11 @@ public class SymbolTable {
      *
      * @param scopes the scopes of symbols
      * @param parent parent symbol table
+     * @param version the version, which may be shared with other tables
      */
     private SymbolTable(Vector<Hashtable<String, Object>> scopes,
-                        SymbolTable parent) {
+                        SymbolTable parent, AtomicInteger version) {
+        this.version = version;
         this.scopes = scopes;
         if (scopes.size() > 0) {
             this.hash = scopes.elementAt(scopes.size() - 1);
@@ -77,7 +118,7 @@ public class SymbolTable {
         else {
             this.hash = null;
         }
-        this.parent = parent;
+        setParent(parent);
     }
 
     /**
@@ -87,6 +128,10 @@ public class SymbolTable {
      */
     public void setParent(SymbolTable parent) {
         this.parent = parent;
+        if (parent != null && !parent.isParent) {
+            parent.isParent = true; // never written again, as tables may be shared
+        }
+        version.incrementAndGet();
     }
 
     /**
@@ -95,6 +140,9 @@ public class SymbolTable {
     public void enterScope() {
         hash = new Hashtable<String, Object>();
         scopes.add(hash);
+        if (isParent) {
+            version.incrementAndGet();
+        }
     }
 
     /**
@@ -111,6 +159,9 @@ public class SymbolTable {
         else {
             hash = null;
         }
+        if (isParent) {
+            version.incrementAndGet();
+        }
     }
 
     /**
@@ -176,40 +227,25 @@ public class SymbolTable {
                     lastLevel + ") minus one");
         }
 
-        // get an ordered list of ancestor symbol tables
-        // (starts from Object's table and ends with current class's table)
-        Vector<SymbolTable> tableList = new Vector<SymbolTable>();
-        for (SymbolTable st = this; st != null; st = st.parent)
-            tableList.add(0, st);
-
-        // find the right scope
-        for (int i = 0; i < tableList.size(); i++) {
-            SymbolTable st = tableList.elementAt(i);
-
-            // if level within the next table then do lookup
-            if (level < st.scopes.size()) {
-                // lookup in this scope and earlier scopes until we find
-                // symbol or run out of scopes
-                for (int l = level; l >= 0; l--) {
-                    Hashtable<String, Object> h = st.scopes.elementAt(l);
-                    if (h.get(s) != null) {
-                        return h.get(s);
-                    }
-                }
-                // if we make it here then we try looking up in parent table
-                // (if one exists)
-                if (st.parent != null) {
-                    return st.parent.lookup(s);
-                }
-                // otherwise we return null (not found)
-                return null;
-            }
+        // find the table holding the scope at that level
+        Ancestry tables = getAncestry();
+        SymbolTable st = tables.getOwner(this, level);
+        level = tables.getLevelInOwner(level);
 
-            // otherwise decrement level and proceed to next table
-            level = level - st.scopes.size();
+        // lookup in this scope and earlier scopes until we find
+        // symbol or run out of scopes
+        for (int l = level; l >= 0; l--) {
+            Hashtable<String, Object> h = st.scopes.elementAt(l);
+            if (h.get(s) != null) {
+                return h.get(s);
+            }
         }
-
-        // we should never get here
+        // if we make it here then we try looking up in parent table
+        // (if one exists)
+        if (st.parent != null) {
+            return st.parent.lookup(s);
+        }
+        // otherwise we return null (not found)
         return null;
     }
 
@@ -249,28 +285,11 @@ public class SymbolTable {
                     lastLevel + ") minus one");
         }
 
-        // get an ordered list of ancestor symbol tables
-        // (starts from Object's table and ends with current class's table)
-        Vector<SymbolTable> tableList = new Vector<SymbolTable>();
-        for (SymbolTable st = this; st != null; st = st.parent)
-            tableList.add(0, st);
-
-        // find the right scope
-        for (int i = 0; i < tableList.size(); i++) {
-            SymbolTable st = tableList.elementAt(i);
-
-            // if level within the next table then do lookup
-            if (level < st.scopes.size()) {
-                Hashtable<String, Object> h = st.scopes.elementAt(level);
-                return h.get(s);
-            }
-
-            // otherwise decrement level and proceed to next table
-            level = level - st.scopes.size();
-        }
-
-        // we should never get here
-        return null;
+        // find the table holding the scope at that level
+        Ancestry tables = getAncestry();
+        SymbolTable st = tables.getOwner(this, level);
+        Hashtable<String, Object> h = st.scopes.elementAt(tables.getLevelInOwner(level));
+        return h.get(s);
     }
 
     /**
@@ -320,38 +339,25 @@ public class SymbolTable {
                     lastLevel + ") minus one");
         }
 
-        // get an ordered list of ancestor symbol tables
-        // (starts from Object's table and ends with current class's table)
-        Vector<SymbolTable> tableList = new Vector<SymbolTable>();
-        for (SymbolTable st = this; st != null; st = st.parent)
-            tableList.add(0, st);
-
-        // find the right scope
-        for (int i = 0; i < tableList.size(); i++) {
-            SymbolTable st = tableList.elementAt(i);
-
-            // if level within the next table then do lookup
-            if (level < st.scopes.size()) {
-                // look in this scope and earlier scopes until we find
-                // symbol or run out of scopes
-                for (int l = level; l >= 0; l--) {
-                    Hashtable<String, Object> h = st.scopes.elementAt(l);
-                    if (h.get(s) != null) {
-                        h.remove(s);
-                        h.put(s, val);
-                        return;
-                    }
-                }
-                // if we make it here then we try setting in parent table
-                // (if one exists)
-                if (st.parent != null) {
-                    st.parent.set(s, val);
-                }
+        // find the table holding the scope at that level
+        Ancestry tables = getAncestry();
+        SymbolTable st = tables.getOwner(this, level);
+        level = tables.getLevelInOwner(level);
+
+        // look in this scope and earlier scopes until we find
+        // symbol or run out of scopes
+        for (int l = level; l >= 0; l--) {
+            Hashtable<String, Object> h = st.scopes.elementAt(l);
+            if (h.get(s) != null) {
+                h.remove(s);
+                h.put(s, val);
                 return;
             }
-
-            // otherwise decrement level and proceed to next table
-            level = level - st.scopes.size();
+        }
+        // if we make it here then we try setting in parent table
+        // (if one exists)
+        if (st.parent != null) {
+            st.parent.set(s, val);
         }
     }
 
@@ -426,11 +432,25 @@ public class SymbolTable {
      */
     public int getCurrScopeLevel() {
         if (parent != null) {
-            return scopes.size() + parent.getCurrScopeLevel();
+            return scopes.size() + getAncestry().numLevels;
         }
         return scopes.size();
     }
 
+    /**
+     * @return the ancestors of this table and the levels of their scopes,
+     *         recomputed if a parent or the number of scopes of an ancestor
+     *         changed since they were last computed
+     */
+    private Ancestry getAncestry() {
+        Ancestry tables = ancestry;
+        if (tables == null || !tables.isCurrent()) {
+            tables = new Ancestry(this);
+            ancestry = tables;
+        }
+        return tables;
+    }
+
     /**
      * clone this symbol table as well as all parent symbol tables
      * Note: does a shallow clone, does not copy keys or values
@@ -452,12 +472,128 @@ public class SymbolTable {
             newScopes.add((Hashtable<String, Object>) scopes.elementAt(i).clone());
 
         // use these to create a new symbol table
-        SymbolTable st = new SymbolTable(newScopes, newParent);
+        SymbolTable st = new SymbolTable(newScopes, newParent, version);
 
         // return cloned symbol table
         return st;
     }
 
+    /**
+     * adds the scopes of this table and of its ancestors to a FlatSymbolTable,
+     * outermost first
+     *
+     * @param table the table the scopes are added to
+     * @param mapping the function giving the value added for each symbol
+     */
+    void copyInto(FlatSymbolTable table, UnaryOperator<Object> mapping) {
+        if (parent != null) {
+            parent.copyInto(table, mapping);
+        }
+        for (int i = 0; i < scopes.size(); i++) {
+            table.enterScope();
+            for (Map.Entry<String, Object> symbol : scopes.elementAt(i).entrySet()) {
+                table.add(symbol.getKey(), mapping.apply(symbol.getValue()));
+            }
+        }
+    }
+
+    /**
+     * The scopes of the ancestors of a table, numbered by level starting with
+     * the outermost scope of the Object class's table.  The table that owns each
+     * level is stored directly, so the table holding a given level is found
+     * without walking the ancestors.  An Ancestry is never changed once built,
+     * so threads that only read the tables can share it.
+     */
+    private static class Ancestry {
+        /** the different versions of the table and its ancestors */
+        private final AtomicInteger[] versions;
+        /** the values of the versions when the Ancestry was built */
+        private final int[] values;
+        /** the number of scopes of all the ancestors */
+        private final int numLevels;
+        /** the ancestor owning each level */
+        private final SymbolTable[] owners;
+        /** the first level of the ancestor owning each level */
+        private final int[] firstLevels;
+
+        /**
+         * @param table the table the Ancestry belongs to
+         * @throws IllegalStateException if the ancestors form a cycle
+         */
+        private Ancestry(SymbolTable table) {
+            // the values of the versions are read before the ancestors, so any
+            // change made while they are read makes the Ancestry out of date
+            List<AtomicInteger> versionList = new ArrayList<>();
+            List<Integer> valueList = new ArrayList<>();
+            List<SymbolTable> tables = new ArrayList<>();
+            Set<SymbolTable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (SymbolTable st = table; st != null; st = st.parent) {
+                if (!seen.add(st)) {
+                    throw new IllegalStateException("The parents of a SymbolTable " +
+                            "form a cycle");
+                }
+                if (!versionList.contains(st.version)) {
+                    versionList.add(st.version);
+                    valueList.add(st.version.get());
+                }
+                if (st != table) {
+                    tables.add(st);
+                }
+            }
+            versions = versionList.toArray(new AtomicInteger[0]);
+            values = new int[versions.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = valueList.get(i);
+            }
+            int levels = 0;
+            for (SymbolTable st : tables) {
+                levels += st.scopes.size();
+            }
+            numLevels = levels;
+            owners = new SymbolTable[levels];
+            firstLevels = new int[levels];
+            int level = 0;
+            for (int i = tables.size() - 1; i >= 0; i--) {
+                SymbolTable st = tables.get(i);
+                int first = level;
+                for (int l = 0; l < st.scopes.size(); l++) {
+                    owners[level] = st;
+                    firstLevels[level++] = first;
+                }
+            }
+        }
+
+        /**
+         * @return true if none of the versions of the table and its ancestors
+         *         changed since the Ancestry was built
+         */
+        private boolean isCurrent() {
+            for (int i = 0; i < versions.length; i++) {
+                if (versions[i].get() != values[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param table the table this Ancestry belongs to
+         * @param level a level of the table, from 0
+         * @return the table, or the ancestor, whose scopes include the level
+         */
+        private SymbolTable getOwner(SymbolTable table, int level) {
+            return level < numLevels ? owners[level] : table;
+        }
+
+        /**
+         * @param level a level of the table, from 0
+         * @return the level within the scopes of the table that owns the level
+         */
+        private int getLevelInOwner(int level) {
+            return level < numLevels ? level - firstLevels[level] : level - numLevels;
+        }
+    }
+
     /**
      * For debugging -- dumps out entire symbol table
      * Starts from highest scope level (Object class) and works
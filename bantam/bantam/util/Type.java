@@ -0,0 +1,122 @@
+/*
+ * File: Type.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.util;
+
+/**
+ * The type of an expression, so that the TypeCheckerVisitor compares types by
+ * reference instead of comparing their names.  The types int, boolean, void and
+ * the type of null are the constants below, and each ClassTreeNode has the one
+ * type of its class, which refers back to it.  During an analysis every type
+ * is one of these, so two types are the same exactly when they are ==.
+ *
+ * A type can also be known only by its name, as for the name of a class that
+ * does not exist, or the types of expressions read by ASTDeserializer, which
+ * were not resolved by an analysis.  Such a type has no ClassTreeNode and is
+ * not the same as any other type.
+ *
+ * @see ClassTreeNode#getType()
+ */
+public final class Type
+{
+    /** the type int */
+    public static final Type INT = new Type("int", null);
+    /** the type boolean */
+    public static final Type BOOLEAN = new Type("boolean", null);
+    /** the return type of methods that return nothing */
+    public static final Type VOID = new Type("void", null);
+    /** the type of null, which is a subtype of every class */
+    public static final Type NULL = new Type("null", null);
+
+    /** the name of the type */
+    private final String name;
+    /** the ClassTreeNode of the class, or null if this is not a known class */
+    private final ClassTreeNode classTreeNode;
+
+    /**
+     * @param name the name of the type
+     * @param classTreeNode the ClassTreeNode of the class, or null if this is not
+     *                      a known class
+     */
+    private Type(String name, ClassTreeNode classTreeNode) {
+        this.name = name;
+        this.classTreeNode = classTreeNode;
+    }
+
+    /**
+     * creates the type of a class; only its ClassTreeNode does this
+     *
+     * @param classTreeNode the ClassTreeNode of the class
+     */
+    Type(ClassTreeNode classTreeNode) {
+        this(classTreeNode.getName(), classTreeNode);
+    }
+
+    /**
+     * finds the type with a given name without looking up classes
+     *
+     * @param name the name of a type
+     * @return the constant for int, boolean, void or null, or else a new type
+     *         that is known only by its name
+     */
+    public static Type named(String name) {
+        switch (name) {
+            case "int":
+                return INT;
+            case "boolean":
+                return BOOLEAN;
+            case "void":
+                return VOID;
+            case "null":
+                return NULL;
+            default:
+                return new Type(name, null);
+        }
+    }
+
+    /**
+     * @return the name of the type, as written in Bantam Java
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the ClassTreeNode of the class, or null if the type is not a class
+     *         known to an analysis
+     */
+    public ClassTreeNode getClassTreeNode() {
+        return classTreeNode;
+    }
+
+    /**
+     * @return true if the type is int or boolean
+     */
+    public boolean isPrimitive() {
+        return this == INT || this == BOOLEAN;
+    }
+
+    /**
+     * @return true if the type is int
+     */
+    public boolean isInt() {
+        return this == INT;
+    }
+
+    /**
+     * @return true if the type is boolean
+     */
+    public boolean isBoolean() {
+        return this == BOOLEAN;
+    }
+
+    /**
+     * @return the name of the type
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
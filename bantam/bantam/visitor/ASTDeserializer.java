@@ -0,0 +1,637 @@
+/*
+ * File: ASTDeserializer.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.visitor;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.*;
+import proj10LoverudeTymkiwCorrell.bantam.util.Interner;
+import proj10LoverudeTymkiwCorrell.bantam.util.SourceRange;
+import proj10LoverudeTymkiwCorrell.bantam.util.Type;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+
+import static proj10LoverudeTymkiwCorrell.bantam.visitor.ASTSerializer.*;
+
+/**
+ * Reads back an AST written by ASTSerializer, restoring the line numbers,
+ * source ranges and expression types of its nodes.  The strings of the string
+ * table are taken from an Interner, as the Parser does, so each is created once
+ * however many nodes use it.
+ *
+ * The input is either read from a channel, or taken from a ByteBuffer such as
+ * a file mapped into memory by map(), whose pages are then only read from disk
+ * as they are needed.  Only some of the classes may be read, the others being
+ * skipped over by their lengths.
+ *
+ * @see ASTSerializer
+ */
+public class ASTDeserializer {
+    /** where the input is read from (null if it is in a buffer) */
+    private final ReadableByteChannel channel;
+    /** the buffer holding the input (null if it is read from a channel) */
+    private final ByteBuffer source;
+    /** the filename given to the classes read, or null to keep the written one */
+    private final String filename;
+    /** the pool of canonical strings */
+    private final Interner interner;
+
+    /** accepts the names of the classes to read (null to read them all) */
+    private Predicate<String> classFilter;
+    /** the strings of the string table */
+    private String[] strings;
+    /** the types named by the strings of the string table, made when first read */
+    private Type[] types;
+    /** the encoded nodes */
+    private ByteBuffer nodes;
+    /** the line number of the node read last */
+    private int prevLineNum;
+    /** the start of the range of the node read last that had one */
+    private int prevStart;
+
+    /**
+     * creates an ASTDeserializer that reads exactly the bytes of the tree from
+     * a channel
+     *
+     * @param channel where the input is read from
+     * @param filename the filename to give the classes read, such as the name
+     *                 the file has now, or null to keep the names written
+     * @param interner the pool that the strings are taken from
+     */
+    public ASTDeserializer(ReadableByteChannel channel, String filename,
+                           Interner interner) {
+        this.channel = channel;
+        this.source = null;
+        this.filename = filename;
+        this.interner = interner;
+    }
+
+    /**
+     * creates an ASTDeserializer that reads the tree starting at the position
+     * of a buffer, and leaves the position just after the tree
+     *
+     * @param source the buffer holding the input, such as a mapped file
+     * @param filename the filename to give the classes read, such as the name
+     *                 the file has now, or null to keep the names written
+     * @param interner the pool that the strings are taken from
+     */
+    public ASTDeserializer(ByteBuffer source, String filename, Interner interner) {
+        this.channel = null;
+        this.source = source;
+        this.filename = filename;
+        this.interner = interner;
+    }
+
+    /**
+     * maps a whole file into memory, to be read by an ASTDeserializer
+     *
+     * @param file the file
+     * @return the mapped, read-only contents of the file
+     * @throws IOException if the file cannot be mapped
+     */
+    public static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        }
+    }
+
+    /**
+     * reads a tree written by ASTSerializer.write
+     *
+     * @return the root of the tree (null if null was written)
+     * @throws IOException if the input fails or does not hold a tree
+     */
+    public ASTNode read() throws IOException {
+        ByteBuffer header = readSection(HEADER_LENGTH);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Malformed AST: not an AST");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported AST format version " + version);
+        }
+        int tableLength = header.getInt();
+        int nodesLength = header.getInt();
+        if (tableLength < 0 || nodesLength < 0) {
+            throw new IOException("Malformed AST: negative length");
+        }
+        ByteBuffer table = readSection(tableLength);
+        nodes = readSection(nodesLength);
+        if (nodes.isDirect() && classFilter == null) {
+            // all of a mapped file is read, and a heap buffer is faster to decode
+            nodes = ByteBuffer.allocate(nodesLength).put(nodes).flip();
+        }
+        prevLineNum = 0;
+        prevStart = 0;
+        try {
+            strings = decodeStringTable(table);
+            types = new Type[strings.length];
+            ASTNode root = readNode();
+            if (nodes.hasRemaining()) {
+                throw new IOException("Malformed AST: bytes after the tree");
+            }
+            return root;
+        } catch (RuntimeException e) {
+            // such as a BufferUnderflowException from a truncated tree
+            throw new IOException("Malformed AST: " + e, e);
+        } finally {
+            strings = null;
+            types = null;
+            nodes = null;
+        }
+    }
+
+    /**
+     * reads a Program written by ASTSerializer.write
+     *
+     * @return the Program
+     * @throws IOException if the input fails or does not hold a Program
+     */
+    public Program readProgram() throws IOException {
+        ASTNode node = read();
+        if (!(node instanceof Program)) {
+            throw new IOException("Malformed AST: no Program");
+        }
+        return (Program) node;
+    }
+
+    /**
+     * reads a Program written by ASTSerializer.write, but only the classes with
+     * the given names, such as the classes used from a library.  The other
+     * classes are skipped without being decoded, so if the input is a mapped
+     * file, most of their bytes are not even read from disk.
+     *
+     * @param classFilter accepts the names of the classes to read
+     * @return the Program
+     * @throws IOException if the input fails or does not hold a Program
+     */
+    public Program readProgram(Predicate<String> classFilter) throws IOException {
+        this.classFilter = classFilter;
+        try {
+            return readProgram();
+        } finally {
+            this.classFilter = null;
+        }
+    }
+
+    /**
+     * gets the next bytes of the input: a slice of the buffer, or the bytes read
+     * from the channel
+     *
+     * @param length the number of bytes
+     * @return a buffer holding exactly the bytes
+     * @throws IOException if the input fails or ends too soon
+     */
+    private ByteBuffer readSection(int length) throws IOException {
+        if (source != null) {
+            if (source.remaining() < length) {
+                throw new IOException("Malformed AST: truncated");
+            }
+            ByteBuffer section = source.slice().limit(length);
+            source.position(source.position() + length);
+            return section;
+        }
+        ByteBuffer section = ByteBuffer.allocate(length);
+        while (section.hasRemaining()) {
+            if (channel.read(section) < 0) {
+                throw new IOException("Malformed AST: truncated");
+            }
+        }
+        return section.flip();
+    }
+
+    /**
+     * @param table the encoded string table
+     * @return the strings of the table, taken from the interner
+     */
+    private String[] decodeStringTable(ByteBuffer table) {
+        int size = readVarint(table);
+        if (size < 0 || size > table.remaining()) {
+            // every string takes at least one byte
+            throw new IllegalStateException("string table of size " + size);
+        }
+        String[] decoded = new String[size];
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < decoded.length; i++) {
+            int length = readVarint(table);
+            if (length < 0 || length > table.remaining()) {
+                throw new IllegalStateException("string of length " + length);
+            }
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            table.get(bytes, 0, length);
+            decoded[i] = interner.intern(new String(bytes, 0, length,
+                    StandardCharsets.UTF_8));
+        }
+        return decoded;
+    }
+
+    /**
+     * reads a variable-length int written by ASTSerializer
+     *
+     * @param buffer where the int is read from
+     * @return the int
+     */
+    private static int readVarint(ByteBuffer buffer) {
+        int b = buffer.get();
+        if (b >= 0) {
+            return b;
+        }
+        int value = b & 0x7f;
+        for (int shift = 7; ; shift += 7) {
+            if (shift > 28) {
+                throw new IllegalStateException("variable-length int too long");
+            }
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * @return a zigzag encoded int read from the nodes
+     */
+    private int readSigned() {
+        int value = readVarint(nodes);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * reads a node that must be of a given class or missing
+     *
+     * @param type the class
+     * @param <T> the class
+     * @return the node (null if it is missing)
+     * @throws IOException if the input holds another kind of node
+     */
+    private <T extends ASTNode> T readChild(Class<T> type) throws IOException {
+        ASTNode node = readNode();
+        if (node != null && !type.isInstance(node)) {
+            throw new IOException("Malformed AST: " + node.getClass().getSimpleName()
+                    + " where a " + type.getSimpleName() + " was expected");
+        }
+        return type.cast(node);
+    }
+
+    /**
+     * reads the size and elements of a list node
+     *
+     * @param list the empty list node
+     * @param elementType the class of the elements
+     * @param <T> the class of the list node
+     * @return the list node
+     * @throws IOException if the input holds another kind of node
+     */
+    private <T extends ListNode> T readElements(T list, Class<? extends ASTNode> elementType)
+            throws IOException {
+        int size = readVarint(nodes);
+        if (size < 0 || size > nodes.remaining()) {
+            // every element takes at least one byte
+            throw new IOException("Malformed AST: list of size " + size);
+        }
+        list.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            list.addElement(readChild(elementType));
+        }
+        return list;
+    }
+
+    /**
+     * reads the elements of a class list, skipping the classes that the class
+     * filter does not accept
+     *
+     * @param list the empty class list node
+     * @return the class list node
+     * @throws IOException if the input holds something other than classes
+     */
+    private ClassList readWantedClasses(ClassList list) throws IOException {
+        int size = readVarint(nodes);
+        if (size < 0 || size > nodes.remaining()) {
+            throw new IOException("Malformed AST: list of size " + size);
+        }
+        for (int i = 0; i < size; i++) {
+            int start = nodes.position();
+            if ((nodes.get() & 0xff) != CLASS) {
+                throw new IOException("Malformed AST: a class list holds a non-class");
+            }
+            int end = readClassEnd();
+            int outerLineNum = prevLineNum;
+            int outerStart = prevStart;
+            prevLineNum = 0;
+            prevStart = 0;
+            readLineNum();
+            readRange();
+            readString(); // the filename
+            if (classFilter.test(readString())) {
+                nodes.position(start);
+                list.addElement(readChild(Class_.class));
+            }
+            else {
+                nodes.position(end);
+                prevLineNum = outerLineNum;
+                prevStart = outerStart;
+            }
+        }
+        list.trimToSize();
+        return list;
+    }
+
+    /**
+     * reads a class after its tag
+     *
+     * @return the class node
+     * @throws IOException if the input does not hold a class
+     */
+    private Class_ readClass() throws IOException {
+        int end = readClassEnd();
+        int outerLineNum = prevLineNum;
+        int outerStart = prevStart;
+        prevLineNum = 0;
+        prevStart = 0;
+        int lineNum = readLineNum();
+        long range = readRange();
+        String writtenFilename = readString();
+        Class_ node = new Class_(lineNum, filename != null ? filename : writtenFilename,
+                readString(), readString(), readChild(MemberList.class));
+        node.setRange(range);
+        if (nodes.position() != end) {
+            throw new IOException("Malformed AST: wrong length of class " +
+                    node.getName());
+        }
+        prevLineNum = outerLineNum;
+        prevStart = outerStart;
+        return node;
+    }
+
+    /**
+     * @return the position of the end of a class, read from the length that
+     *         follows the tag of the class
+     * @throws IOException if the length is impossible
+     */
+    private int readClassEnd() throws IOException {
+        int length = nodes.getInt();
+        if (length < 0 || length > nodes.remaining()) {
+            throw new IOException("Malformed AST: class of length " + length);
+        }
+        return nodes.position() + length;
+    }
+
+    /**
+     * @return the line number of a node, read as the difference from that of
+     *         the node before it
+     */
+    private int readLineNum() {
+        prevLineNum += readSigned();
+        return prevLineNum;
+    }
+
+    /**
+     * @return the source range of a node (SourceRange.NONE if it has none)
+     */
+    private long readRange() {
+        int length = readVarint(nodes) - 1;
+        if (length < 0) {
+            return SourceRange.NONE;
+        }
+        prevStart += readSigned();
+        return SourceRange.of(prevStart, prevStart + length);
+    }
+
+    /**
+     * reads the name of a type from the string table, so that the expressions
+     * of the same type share a Type
+     *
+     * @return the type, known only by its name (null if null was written)
+     */
+    private Type readType() {
+        int index = readVarint(nodes);
+        if (index == 0) {
+            return null;
+        }
+        Type type = types[index - 1];
+        if (type == null) {
+            type = Type.named(strings[index - 1]);
+            types[index - 1] = type;
+        }
+        return type;
+    }
+
+    /**
+     * @return a string from the string table (null if null was written)
+     */
+    private String readString() {
+        int index = readVarint(nodes);
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    /**
+     * @return a flag
+     */
+    private boolean readBoolean() {
+        return nodes.get() != 0;
+    }
+
+    /**
+     * reads a node and its descendants
+     *
+     * @return the node (null if NULL was written)
+     * @throws IOException if the input does not hold a tree
+     */
+    private ASTNode readNode() throws IOException {
+        int tag = nodes.get() & 0xff;
+        if (tag == NULL) {
+            return null;
+        }
+        if (tag == CLASS) {
+            return readClass();
+        }
+        int lineNum = readLineNum();
+        long range = readRange();
+        // the tags of the expression classes come last
+        Type exprType = tag >= DISPATCH_EXPR ? readType() : null;
+
+        ASTNode node;
+        switch (tag) {
+            case PROGRAM:
+                node = new Program(lineNum, readChild(ClassList.class));
+                break;
+            case CLASS_LIST:
+                node = classFilter == null
+                        ? readElements(new ClassList(lineNum), Class_.class)
+                        : readWantedClasses(new ClassList(lineNum));
+                break;
+            case MEMBER_LIST:
+                node = readElements(new MemberList(lineNum), Member.class);
+                break;
+            case FIELD:
+                node = new Field(lineNum, readString(), readString(),
+                        readChild(Expr.class));
+                break;
+            case METHOD:
+                node = new Method(lineNum, readString(), readString(),
+                        readChild(FormalList.class), readChild(StmtList.class));
+                break;
+            case FORMAL_LIST:
+                node = readElements(new FormalList(lineNum), Formal.class);
+                break;
+            case FORMAL:
+                node = new Formal(lineNum, readString(), readString());
+                break;
+            case STMT_LIST:
+                node = readElements(new StmtList(lineNum), Stmt.class);
+                break;
+            case DECL_STMT:
+                DeclStmt declStmt = new DeclStmt(lineNum, readString(),
+                        readChild(Expr.class));
+                declStmt.setType(readString());
+                node = declStmt;
+                break;
+            case EXPR_STMT:
+                node = new ExprStmt(lineNum, readChild(Expr.class));
+                break;
+            case IF_STMT:
+                node = new IfStmt(lineNum, readChild(Expr.class), readChild(Stmt.class),
+                        readChild(Stmt.class));
+                break;
+            case WHILE_STMT:
+                node = new WhileStmt(lineNum, readChild(Expr.class), readChild(Stmt.class));
+                break;
+            case FOR_STMT:
+                node = new ForStmt(lineNum, readChild(Expr.class), readChild(Expr.class),
+                        readChild(Expr.class), readChild(Stmt.class));
+                break;
+            case BREAK_STMT:
+                node = new BreakStmt(lineNum);
+                break;
+            case BLOCK_STMT:
+                node = new BlockStmt(lineNum, readChild(StmtList.class));
+                break;
+            case RETURN_STMT:
+                node = new ReturnStmt(lineNum, readChild(Expr.class));
+                break;
+            case EXPR_LIST:
+                node = readElements(new ExprList(lineNum), Expr.class);
+                break;
+            case DISPATCH_EXPR:
+                node = new DispatchExpr(lineNum, readChild(Expr.class), readString(),
+                        readChild(ExprList.class));
+                break;
+            case NEW_EXPR:
+                node = new NewExpr(lineNum, readString());
+                break;
+            case INSTANCEOF_EXPR:
+                InstanceofExpr instanceofExpr = new InstanceofExpr(lineNum,
+                        readChild(Expr.class), readString());
+                instanceofExpr.setUpCheck(readBoolean());
+                node = instanceofExpr;
+                break;
+            case CAST_EXPR:
+                CastExpr castExpr = new CastExpr(lineNum, readString(),
+                        readChild(Expr.class));
+                castExpr.setUpCast(readBoolean());
+                node = castExpr;
+                break;
+            case ASSIGN_EXPR:
+                node = new AssignExpr(lineNum, readString(), readString(),
+                        readChild(Expr.class));
+                break;
+            case COMP_EQ_EXPR:
+                node = new BinaryCompEqExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case COMP_NE_EXPR:
+                node = new BinaryCompNeExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case COMP_LT_EXPR:
+                node = new BinaryCompLtExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case COMP_LEQ_EXPR:
+                node = new BinaryCompLeqExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case COMP_GT_EXPR:
+                node = new BinaryCompGtExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case COMP_GEQ_EXPR:
+                node = new BinaryCompGeqExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case ARITH_PLUS_EXPR:
+                node = new BinaryArithPlusExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case ARITH_MINUS_EXPR:
+                node = new BinaryArithMinusExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case ARITH_TIMES_EXPR:
+                node = new BinaryArithTimesExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case ARITH_DIVIDE_EXPR:
+                node = new BinaryArithDivideExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case ARITH_MODULUS_EXPR:
+                node = new BinaryArithModulusExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case LOGIC_AND_EXPR:
+                node = new BinaryLogicAndExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case LOGIC_OR_EXPR:
+                node = new BinaryLogicOrExpr(lineNum, readChild(Expr.class),
+                        readChild(Expr.class));
+                break;
+            case NEG_EXPR:
+                node = new UnaryNegExpr(lineNum, readChild(Expr.class));
+                readBoolean(); // never postfix
+                break;
+            case NOT_EXPR:
+                node = new UnaryNotExpr(lineNum, readChild(Expr.class));
+                readBoolean(); // never postfix
+                break;
+            case INCR_EXPR:
+                node = new UnaryIncrExpr(lineNum, readChild(Expr.class), readBoolean());
+                break;
+            case DECR_EXPR:
+                node = new UnaryDecrExpr(lineNum, readChild(Expr.class), readBoolean());
+                break;
+            case VAR_EXPR:
+                node = new VarExpr(lineNum, readChild(Expr.class), readString());
+                break;
+            case CONST_INT_EXPR:
+                node = new ConstIntExpr(lineNum, readString());
+                break;
+            case CONST_BOOLEAN_EXPR:
+                node = new ConstBooleanExpr(lineNum, readString());
+                break;
+            case CONST_STRING_EXPR:
+                node = new ConstStringExpr(lineNum, readString());
+                break;
+            default:
+                throw new IOException("Malformed AST: unknown tag " + tag);
+        }
+        node.setRange(range);
+        if (node instanceof Expr) {
+            ((Expr) node).setStaticType(exprType);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,881 @@
+/*
+ * File: ASTSerializer.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.visitor;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.*;
+import proj10LoverudeTymkiwCorrell.bantam.util.SourceRange;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes an AST in a compact binary form that ASTDeserializer reads back, so
+ * that a parsed and checked file can be saved and loaded without scanning and
+ * parsing it again.
+ *
+ * The output starts with a header of four big-endian ints: MAGIC, VERSION, and
+ * the lengths in bytes of the two sections that follow.  The first section is
+ * the string table: the number of distinct strings in the tree, then each
+ * string as its number of UTF-8 bytes followed by the bytes.  The second holds
+ * the nodes in pre-order.  Each node is a one-byte tag giving its class, its
+ * line number as the difference from that of the node before it, its source
+ * range as its length plus one (0 if it has none) and the difference between
+ * its start and that of the node before it, and the type of an expression node.
+ * Then come its strings, flags and children in the order of its constructor's
+ * parameters.  A missing child is written as the tag NULL, a list node is
+ * followed by its number of elements, and a string is written as its index in
+ * the string table plus one (0 for null).  All the numbers in the nodes are
+ * written as variable-length ints, seven bits to a byte, with differences
+ * zigzag encoded so that small negative ones are short too.
+ *
+ * The tag of a class is followed by the length in bytes of the rest of the
+ * class as a big-endian int, and the differences in the class are taken from 0
+ * at its start rather than from the nodes before it, and do not carry over to
+ * the nodes after it.  So a class can be read on its own, and the classes that
+ * are not wanted can be skipped.
+ *
+ * The nodes are encoded in memory and then written with the header and the
+ * string table to a channel, which is not closed.
+ *
+ * @see ASTDeserializer
+ */
+public class ASTSerializer extends Visitor {
+    /** the first int of the output ("BAST") */
+    static final int MAGIC = 0x42415354;
+    /** the version of the format, changed whenever it changes */
+    static final int VERSION = 2;
+
+    // the tags of the concrete node classes; those of the expression classes
+    // come last, from DISPATCH_EXPR on
+    static final int NULL = 0;
+    static final int PROGRAM = 1;
+    static final int CLASS_LIST = 2;
+    static final int CLASS = 3;
+    static final int MEMBER_LIST = 4;
+    static final int FIELD = 5;
+    static final int METHOD = 6;
+    static final int FORMAL_LIST = 7;
+    static final int FORMAL = 8;
+    static final int STMT_LIST = 9;
+    static final int DECL_STMT = 10;
+    static final int EXPR_STMT = 11;
+    static final int IF_STMT = 12;
+    static final int WHILE_STMT = 13;
+    static final int FOR_STMT = 14;
+    static final int BREAK_STMT = 15;
+    static final int BLOCK_STMT = 16;
+    static final int RETURN_STMT = 17;
+    static final int EXPR_LIST = 18;
+    static final int DISPATCH_EXPR = 19;
+    static final int NEW_EXPR = 20;
+    static final int INSTANCEOF_EXPR = 21;
+    static final int CAST_EXPR = 22;
+    static final int ASSIGN_EXPR = 23;
+    static final int COMP_EQ_EXPR = 24;
+    static final int COMP_NE_EXPR = 25;
+    static final int COMP_LT_EXPR = 26;
+    static final int COMP_LEQ_EXPR = 27;
+    static final int COMP_GT_EXPR = 28;
+    static final int COMP_GEQ_EXPR = 29;
+    static final int ARITH_PLUS_EXPR = 30;
+    static final int ARITH_MINUS_EXPR = 31;
+    static final int ARITH_TIMES_EXPR = 32;
+    static final int ARITH_DIVIDE_EXPR = 33;
+    static final int ARITH_MODULUS_EXPR = 34;
+    static final int LOGIC_AND_EXPR = 35;
+    static final int LOGIC_OR_EXPR = 36;
+    static final int NEG_EXPR = 37;
+    static final int NOT_EXPR = 38;
+    static final int INCR_EXPR = 39;
+    static final int DECR_EXPR = 40;
+    static final int VAR_EXPR = 41;
+    static final int CONST_INT_EXPR = 42;
+    static final int CONST_BOOLEAN_EXPR = 43;
+    static final int CONST_STRING_EXPR = 44;
+
+    /** the length in bytes of the header */
+    static final int HEADER_LENGTH = 16;
+    /** the most bytes a variable-length int takes */
+    private static final int MAX_VARINT_LENGTH = 5;
+
+    /** where the output is written */
+    private final WritableByteChannel channel;
+    /** the nodes encoded so far */
+    private ByteBuffer nodes;
+    /** the index of each string in the string table */
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+    /** the strings of the string table, in order */
+    private final List<String> strings = new ArrayList<>();
+    /** the line number of the node written last */
+    private int prevLineNum;
+    /** the start of the range of the node written last that had one */
+    private int prevStart;
+
+    /**
+     * @param channel where the output is written
+     */
+    public ASTSerializer(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * writes a node and all its descendants
+     *
+     * @param node the root of the tree to write (may be null)
+     * @throws IOException if the output fails
+     */
+    public void write(ASTNode node) throws IOException {
+        nodes = ByteBuffer.allocate(1 << 16);
+        stringIndices.clear();
+        strings.clear();
+        prevLineNum = 0;
+        prevStart = 0;
+        writeChild(node);
+        nodes.flip();
+
+        ByteBuffer table = encodeStringTable();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC).putInt(VERSION)
+                .putInt(table.remaining()).putInt(nodes.remaining()).flip();
+        for (ByteBuffer buffer : new ByteBuffer[]{header, table, nodes}) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        nodes = null;
+    }
+
+    /**
+     * @return the string table, ready to be written
+     */
+    private ByteBuffer encodeStringTable() {
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        int length = MAX_VARINT_LENGTH;
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            length += MAX_VARINT_LENGTH + bytes.length;
+        }
+        ByteBuffer table = ByteBuffer.allocate(length);
+        putVarint(table, encoded.size());
+        for (byte[] bytes : encoded) {
+            putVarint(table, bytes.length);
+            table.put(bytes);
+        }
+        return table.flip();
+    }
+
+    /**
+     * makes room for a number of bytes at the end of the encoded nodes
+     *
+     * @param length the number of bytes
+     */
+    private void ensureRoom(int length) {
+        if (nodes.remaining() < length) {
+            ByteBuffer larger = ByteBuffer.allocate(
+                    Math.max(nodes.capacity() * 2, nodes.position() + length));
+            nodes.flip();
+            nodes = larger.put(nodes);
+        }
+    }
+
+    /**
+     * writes a variable-length int: seven bits to a byte, low bits first, with
+     * the high bit of each byte but the last set
+     *
+     * @param buffer where the int is written, which must have room for it
+     * @param value the int, treated as unsigned
+     */
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * @param value an unsigned int
+     */
+    private void writeVarint(int value) {
+        ensureRoom(MAX_VARINT_LENGTH);
+        putVarint(nodes, value);
+    }
+
+    /**
+     * writes a signed int that is usually close to 0, zigzag encoded
+     *
+     * @param value the int
+     */
+    private void writeSigned(int value) {
+        writeVarint((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * writes a node, or the NULL tag if there is none
+     *
+     * @param node the node (may be null)
+     */
+    private void writeChild(ASTNode node) {
+        if (node == null) {
+            writeTag(NULL);
+        }
+        else {
+            node.accept(this);
+        }
+    }
+
+    /**
+     * writes the tag, line number and range of a node
+     *
+     * @param tag the tag of the class of the node
+     * @param node the node
+     */
+    private void writeHeader(int tag, ASTNode node) {
+        writeTag(tag);
+        writePosition(node);
+    }
+
+    /**
+     * writes the line number and range of a node
+     *
+     * @param node the node
+     */
+    private void writePosition(ASTNode node) {
+        writeSigned(node.getLineNum() - prevLineNum);
+        prevLineNum = node.getLineNum();
+        long range = node.getRange();
+        if (range == SourceRange.NONE) {
+            writeVarint(0);
+        }
+        else {
+            int start = SourceRange.getStart(range);
+            writeVarint(SourceRange.getEnd(range) - start + 1);
+            writeSigned(start - prevStart);
+            prevStart = start;
+        }
+    }
+
+    /**
+     * writes the tag, line number, range and type of an expression node
+     *
+     * @param tag the tag of the class of the node
+     * @param node the node
+     */
+    private void writeHeader(int tag, Expr node) {
+        writeHeader(tag, (ASTNode) node);
+        writeString(node.getExprType());
+    }
+
+    /**
+     * writes the header of a list node, its size and its elements
+     *
+     * @param tag the tag of the class of the node
+     * @param node the node
+     */
+    private void writeList(int tag, ListNode node) {
+        writeHeader(tag, node);
+        writeVarint(node.getSize());
+        for (int i = 0; i < node.getSize(); i++) {
+            writeChild(node.get(i));
+        }
+    }
+
+    /**
+     * @param tag a tag
+     */
+    private void writeTag(int tag) {
+        ensureRoom(1);
+        nodes.put((byte) tag);
+    }
+
+    /**
+     * @param value a flag
+     */
+    private void writeBoolean(boolean value) {
+        writeTag(value ? 1 : 0);
+    }
+
+    /**
+     * writes a string as its index in the string table plus one, adding it to
+     * the table if it is not there yet
+     *
+     * @param string a string (may be null)
+     */
+    private void writeString(String string) {
+        if (string == null) {
+            writeVarint(0);
+            return;
+        }
+        Integer index = stringIndices.get(string);
+        if (index == null) {
+            index = strings.size();
+            stringIndices.put(string, index);
+            strings.add(string);
+        }
+        writeVarint(index + 1);
+    }
+
+    /**
+     * writes the header of a binary expression node and its operands
+     *
+     * @param tag the tag of the class of the node
+     * @param node the node
+     * @return null
+     */
+    private Object writeBinary(int tag, BinaryExpr node) {
+        writeHeader(tag, node);
+        writeChild(node.getLeftExpr());
+        writeChild(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * writes the header of a unary expression node, its operand and whether the
+     * operator comes after it
+     *
+     * @param tag the tag of the class of the node
+     * @param node the node
+     * @return null
+     */
+    private Object writeUnary(int tag, UnaryExpr node) {
+        writeHeader(tag, node);
+        writeChild(node.getExpr());
+        writeBoolean(node.isPostfix());
+        return null;
+    }
+
+    /**
+     * Visit a program node
+     *
+     * @param node the program node
+     * @return null
+     */
+    public Object visit(Program node) {
+        writeHeader(PROGRAM, node);
+        writeChild(node.getClassList());
+        return null;
+    }
+
+    /**
+     * Visit a list node of classes
+     *
+     * @param node the class list node
+     * @return null
+     */
+    public Object visit(ClassList node) {
+        writeList(CLASS_LIST, node);
+        return null;
+    }
+
+    /**
+     * Visit a class node
+     *
+     * @param node the class node
+     * @return null
+     */
+    public Object visit(Class_ node) {
+        writeTag(CLASS);
+        ensureRoom(4);
+        int lengthPosition = nodes.position();
+        nodes.putInt(0);
+        int outerLineNum = prevLineNum;
+        int outerStart = prevStart;
+        prevLineNum = 0;
+        prevStart = 0;
+        writePosition(node);
+        writeString(node.getFilename());
+        writeString(node.getName());
+        writeString(node.getParent());
+        writeChild(node.getMemberList());
+        nodes.putInt(lengthPosition, nodes.position() - lengthPosition - 4);
+        prevLineNum = outerLineNum;
+        prevStart = outerStart;
+        return null;
+    }
+
+    /**
+     * Visit a list node of members
+     *
+     * @param node the member list node
+     * @return null
+     */
+    public Object visit(MemberList node) {
+        writeList(MEMBER_LIST, node);
+        return null;
+    }
+
+    /**
+     * Visit a field node
+     *
+     * @param node the field node
+     * @return null
+     */
+    public Object visit(Field node) {
+        writeHeader(FIELD, node);
+        writeString(node.getType());
+        writeString(node.getName());
+        writeChild(node.getInit());
+        return null;
+    }
+
+    /**
+     * Visit a method node
+     *
+     * @param node the method node
+     * @return null
+     */
+    public Object visit(Method node) {
+        writeHeader(METHOD, node);
+        writeString(node.getReturnType());
+        writeString(node.getName());
+        writeChild(node.getFormalList());
+        writeChild(node.getStmtList());
+        return null;
+    }
+
+    /**
+     * Visit a list node of formals
+     *
+     * @param node the formal list node
+     * @return null
+     */
+    public Object visit(FormalList node) {
+        writeList(FORMAL_LIST, node);
+        return null;
+    }
+
+    /**
+     * Visit a formal node
+     *
+     * @param node the formal node
+     * @return null
+     */
+    public Object visit(Formal node) {
+        writeHeader(FORMAL, node);
+        writeString(node.getType());
+        writeString(node.getName());
+        return null;
+    }
+
+    /**
+     * Visit a list node of statements
+     *
+     * @param node the statement list node
+     * @return null
+     */
+    public Object visit(StmtList node) {
+        writeList(STMT_LIST, node);
+        return null;
+    }
+
+    /**
+     * Visit a declaration statement node
+     *
+     * @param node the declaration statement node
+     * @return null
+     */
+    public Object visit(DeclStmt node) {
+        writeHeader(DECL_STMT, node);
+        writeString(node.getName());
+        writeChild(node.getInit());
+        writeString(node.getType());
+        return null;
+    }
+
+    /**
+     * Visit an expression statement node
+     *
+     * @param node the expression statement node
+     * @return null
+     */
+    public Object visit(ExprStmt node) {
+        writeHeader(EXPR_STMT, node);
+        writeChild(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit an if statement node
+     *
+     * @param node the if statement node
+     * @return null
+     */
+    public Object visit(IfStmt node) {
+        writeHeader(IF_STMT, node);
+        writeChild(node.getPredExpr());
+        writeChild(node.getThenStmt());
+        writeChild(node.getElseStmt());
+        return null;
+    }
+
+    /**
+     * Visit a while statement node
+     *
+     * @param node the while statement node
+     * @return null
+     */
+    public Object visit(WhileStmt node) {
+        writeHeader(WHILE_STMT, node);
+        writeChild(node.getPredExpr());
+        writeChild(node.getBodyStmt());
+        return null;
+    }
+
+    /**
+     * Visit a for statement node
+     *
+     * @param node the for statement node
+     * @return null
+     */
+    public Object visit(ForStmt node) {
+        writeHeader(FOR_STMT, node);
+        writeChild(node.getInitExpr());
+        writeChild(node.getPredExpr());
+        writeChild(node.getUpdateExpr());
+        writeChild(node.getBodyStmt());
+        return null;
+    }
+
+    /**
+     * Visit a break statement node
+     *
+     * @param node the break statement node
+     * @return null
+     */
+    public Object visit(BreakStmt node) {
+        writeHeader(BREAK_STMT, node);
+        return null;
+    }
+
+    /**
+     * Visit a block statement node
+     *
+     * @param node the block statement node
+     * @return null
+     */
+    public Object visit(BlockStmt node) {
+        writeHeader(BLOCK_STMT, node);
+        writeChild(node.getStmtList());
+        return null;
+    }
+
+    /**
+     * Visit a return statement node
+     *
+     * @param node the return statement node
+     * @return null
+     */
+    public Object visit(ReturnStmt node) {
+        writeHeader(RETURN_STMT, node);
+        writeChild(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a list node of expressions
+     *
+     * @param node the expression list node
+     * @return null
+     */
+    public Object visit(ExprList node) {
+        writeList(EXPR_LIST, node);
+        return null;
+    }
+
+    /**
+     * Visit a dispatch expression node
+     *
+     * @param node the dispatch expression node
+     * @return null
+     */
+    public Object visit(DispatchExpr node) {
+        writeHeader(DISPATCH_EXPR, node);
+        writeChild(node.getRefExpr());
+        writeString(node.getMethodName());
+        writeChild(node.getActualList());
+        return null;
+    }
+
+    /**
+     * Visit a new expression node
+     *
+     * @param node the new expression node
+     * @return null
+     */
+    public Object visit(NewExpr node) {
+        writeHeader(NEW_EXPR, node);
+        writeString(node.getType());
+        return null;
+    }
+
+    /**
+     * Visit an instanceof expression node
+     *
+     * @param node the instanceof expression node
+     * @return null
+     */
+    public Object visit(InstanceofExpr node) {
+        writeHeader(INSTANCEOF_EXPR, node);
+        writeChild(node.getExpr());
+        writeString(node.getType());
+        writeBoolean(node.getUpCheck());
+        return null;
+    }
+
+    /**
+     * Visit a cast expression node
+     *
+     * @param node the cast expression node
+     * @return null
+     */
+    public Object visit(CastExpr node) {
+        writeHeader(CAST_EXPR, node);
+        writeString(node.getType());
+        writeChild(node.getExpr());
+        writeBoolean(node.getUpCast());
+        return null;
+    }
+
+    /**
+     * Visit an assignment expression node
+     *
+     * @param node the assignment expression node
+     * @return null
+     */
+    public Object visit(AssignExpr node) {
+        writeHeader(ASSIGN_EXPR, node);
+        writeString(node.getRefName());
+        writeString(node.getName());
+        writeChild(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison equals expression node
+     *
+     * @param node the binary comparison equals expression node
+     * @return null
+     */
+    public Object visit(BinaryCompEqExpr node) {
+        return writeBinary(COMP_EQ_EXPR, node);
+    }
+
+    /**
+     * Visit a binary comparison not equals expression node
+     *
+     * @param node the binary comparison not equals expression node
+     * @return null
+     */
+    public Object visit(BinaryCompNeExpr node) {
+        return writeBinary(COMP_NE_EXPR, node);
+    }
+
+    /**
+     * Visit a binary comparison less than expression node
+     *
+     * @param node the binary comparison less than expression node
+     * @return null
+     */
+    public Object visit(BinaryCompLtExpr node) {
+        return writeBinary(COMP_LT_EXPR, node);
+    }
+
+    /**
+     * Visit a binary comparison less than or equal to expression node
+     *
+     * @param node the binary comparison less than or equal to expression node
+     * @return null
+     */
+    public Object visit(BinaryCompLeqExpr node) {
+        return writeBinary(COMP_LEQ_EXPR, node);
+    }
+
+    /**
+     * Visit a binary comparison greater than expression node
+     *
+     * @param node the binary comparison greater than expression node
+     * @return null
+     */
+    public Object visit(BinaryCompGtExpr node) {
+        return writeBinary(COMP_GT_EXPR, node);
+    }
+
+    /**
+     * Visit a binary comparison greater than or equal to expression node
+     *
+     * @param node the binary comparison greater to or equal to expression node
+     * @return null
+     */
+    public Object visit(BinaryCompGeqExpr node) {
+        return writeBinary(COMP_GEQ_EXPR, node);
+    }
+
+    /**
+     * Visit a binary arithmetic plus expression node
+     *
+     * @param node the binary arithmetic plus expression node
+     * @return null
+     */
+    public Object visit(BinaryArithPlusExpr node) {
+        return writeBinary(ARITH_PLUS_EXPR, node);
+    }
+
+    /**
+     * Visit a binary arithmetic minus expression node
+     *
+     * @param node the binary arithmetic minus expression node
+     * @return null
+     */
+    public Object visit(BinaryArithMinusExpr node) {
+        return writeBinary(ARITH_MINUS_EXPR, node);
+    }
+
+    /**
+     * Visit a binary arithmetic times expression node
+     *
+     * @param node the binary arithmetic times expression node
+     * @return null
+     */
+    public Object visit(BinaryArithTimesExpr node) {
+        return writeBinary(ARITH_TIMES_EXPR, node);
+    }
+
+    /**
+     * Visit a binary arithmetic divide expression node
+     *
+     * @param node the binary arithmetic divide expression node
+     * @return null
+     */
+    public Object visit(BinaryArithDivideExpr node) {
+        return writeBinary(ARITH_DIVIDE_EXPR, node);
+    }
+
+    /**
+     * Visit a binary arithmetic modulus expression node
+     *
+     * @param node the binary arithmetic modulus expression node
+     * @return null
+     */
+    public Object visit(BinaryArithModulusExpr node) {
+        return writeBinary(ARITH_MODULUS_EXPR, node);
+    }
+
+    /**
+     * Visit a binary logical AND expression node
+     *
+     * @param node the binary logical AND expression node
+     * @return null
+     */
+    public Object visit(BinaryLogicAndExpr node) {
+        return writeBinary(LOGIC_AND_EXPR, node);
+    }
+
+    /**
+     * Visit a binary logical OR expression node
+     *
+     * @param node the binary logical OR expression node
+     * @return null
+     */
+    public Object visit(BinaryLogicOrExpr node) {
+        return writeBinary(LOGIC_OR_EXPR, node);
+    }
+
+    /**
+     * Visit a unary negation expression node
+     *
+     * @param node the unary negation expression node
+     * @return null
+     */
+    public Object visit(UnaryNegExpr node) {
+        return writeUnary(NEG_EXPR, node);
+    }
+
+    /**
+     * Visit a unary NOT expression node
+     *
+     * @param node the unary NOT expression node
+     * @return null
+     */
+    public Object visit(UnaryNotExpr node) {
+        return writeUnary(NOT_EXPR, node);
+    }
+
+    /**
+     * Visit a unary increment expression node
+     *
+     * @param node the unary increment expression node
+     * @return null
+     */
+    public Object visit(UnaryIncrExpr node) {
+        return writeUnary(INCR_EXPR, node);
+    }
+
+    /**
+     * Visit a unary decrement expression node
+     *
+     * @param node the unary decrement expression node
+     * @return null
+     */
+    public Object visit(UnaryDecrExpr node) {
+        return writeUnary(DECR_EXPR, node);
+    }
+
+    /**
+     * Visit a variable expression node
+     *
+     * @param node the variable expression node
+     * @return null
+     */
+    public Object visit(VarExpr node) {
+        writeHeader(VAR_EXPR, node);
+        writeChild(node.getRef());
+        writeString(node.getName());
+        return null;
+    }
+
+    /**
+     * Visit an int constant expression node
+     *
+     * @param node the int constant expression node
+     * @return null
+     */
+    public Object visit(ConstIntExpr node) {
+        writeHeader(CONST_INT_EXPR, node);
+        writeString(node.getConstant());
+        return null;
+    }
+
+    /**
+     * Visit a boolean constant expression node
+     *
+     * @param node the boolean constant expression node
+     * @return null
+     */
+    public Object visit(ConstBooleanExpr node) {
+        writeHeader(CONST_BOOLEAN_EXPR, node);
+        writeString(node.getConstant());
+        return null;
+    }
+
+    /**
+     * Visit a string constant expression node
+     *
+     * @param node the string constant expression node
+     * @return null
+     */
+    public Object visit(ConstStringExpr node) {
+        writeHeader(CONST_STRING_EXPR, node);
+        writeString(node.getConstant());
+        return null;
+    }
+}
@@ -0,0 +1,842 @@
+/*
+ * File: FusedVisitor.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.visitor;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs several independent visitors, the passes, in one traversal of an AST, so
+ * that passes that each need only some kinds of nodes do not each walk the tree.
+ * A pass is registered for the kinds of nodes it wants, such as Class_ or
+ * Member, and is then visited with each node of those kinds in the order of the
+ * traversal, which is pre-order: a node is given to its passes before its
+ * children are visited.  The passes of a node run in the order they were
+ * registered, so a pass can rely on the work an earlier pass did on that node.
+ *
+ * The traversal goes no deeper than the deepest kind registered: if the passes
+ * only want classes and members, the bodies of the methods are never entered.
+ * Since the FusedVisitor does the traversal, the visit methods of a pass for its
+ * kinds should not visit the children of the node, unless the pass visits them
+ * itself instead of registering for their kinds (as MainMethodFinder does for
+ * the members of the Main class).
+ *
+ * The time spent in each pass is measured, as is the number of nodes the
+ * traversals entered, so fused and separate traversals can be compared (see
+ * the driver FusionBenchmark).  The results of the visits are ignored.
+ */
+public class FusedVisitor extends Visitor
+{
+    /** the level of Program and ClassList nodes */
+    private static final int TOP = 0;
+    /** the level of Class_ nodes */
+    private static final int CLASS = 1;
+    /** the level of MemberList, Field and Method nodes */
+    private static final int MEMBER = 2;
+    /** the level of the nodes in the bodies of fields and methods */
+    private static final int BODY = 3;
+
+    /**
+     * the level of each kind of node that can be in an AST.  The traversal
+     * visits the children of a node only if a pass is registered for a kind at
+     * the level of the children or deeper.
+     */
+    private static final Map<Class<? extends ASTNode>, Integer> LEVELS =
+            new LinkedHashMap<>();
+
+    static {
+        LEVELS.put(Program.class, TOP);
+        LEVELS.put(ClassList.class, TOP);
+        LEVELS.put(Class_.class, CLASS);
+        LEVELS.put(MemberList.class, MEMBER);
+        LEVELS.put(Field.class, MEMBER);
+        LEVELS.put(Method.class, MEMBER);
+        LEVELS.put(FormalList.class, BODY);
+        LEVELS.put(Formal.class, BODY);
+        LEVELS.put(StmtList.class, BODY);
+        LEVELS.put(DeclStmt.class, BODY);
+        LEVELS.put(ExprStmt.class, BODY);
+        LEVELS.put(IfStmt.class, BODY);
+        LEVELS.put(WhileStmt.class, BODY);
+        LEVELS.put(ForStmt.class, BODY);
+        LEVELS.put(BreakStmt.class, BODY);
+        LEVELS.put(BlockStmt.class, BODY);
+        LEVELS.put(ReturnStmt.class, BODY);
+        LEVELS.put(ExprList.class, BODY);
+        LEVELS.put(DispatchExpr.class, BODY);
+        LEVELS.put(NewExpr.class, BODY);
+        LEVELS.put(InstanceofExpr.class, BODY);
+        LEVELS.put(CastExpr.class, BODY);
+        LEVELS.put(AssignExpr.class, BODY);
+        LEVELS.put(BinaryCompEqExpr.class, BODY);
+        LEVELS.put(BinaryCompNeExpr.class, BODY);
+        LEVELS.put(BinaryCompLtExpr.class, BODY);
+        LEVELS.put(BinaryCompLeqExpr.class, BODY);
+        LEVELS.put(BinaryCompGtExpr.class, BODY);
+        LEVELS.put(BinaryCompGeqExpr.class, BODY);
+        LEVELS.put(BinaryArithPlusExpr.class, BODY);
+        LEVELS.put(BinaryArithMinusExpr.class, BODY);
+        LEVELS.put(BinaryArithTimesExpr.class, BODY);
+        LEVELS.put(BinaryArithDivideExpr.class, BODY);
+        LEVELS.put(BinaryArithModulusExpr.class, BODY);
+        LEVELS.put(BinaryLogicAndExpr.class, BODY);
+        LEVELS.put(BinaryLogicOrExpr.class, BODY);
+        LEVELS.put(UnaryNegExpr.class, BODY);
+        LEVELS.put(UnaryNotExpr.class, BODY);
+        LEVELS.put(UnaryIncrExpr.class, BODY);
+        LEVELS.put(UnaryDecrExpr.class, BODY);
+        LEVELS.put(VarExpr.class, BODY);
+        LEVELS.put(ConstIntExpr.class, BODY);
+        LEVELS.put(ConstBooleanExpr.class, BODY);
+        LEVELS.put(ConstStringExpr.class, BODY);
+    }
+
+    /** the passes, in the order they were registered */
+    private final List<Pass> passList = new ArrayList<>();
+    /** the passes registered for each kind of node, in the order registered */
+    private final Map<Class<?>, Pass[]> passes = new IdentityHashMap<>();
+    /** the deepest level of a kind of node that a pass is registered for */
+    private int deepestLevel = TOP;
+    /** the number of nodes entered by the traversals so far */
+    private long numNodesVisited;
+    /** the number of traversals run so far */
+    private int numTraversals;
+    /** the time taken by the traversals so far, in nanoseconds */
+    private long totalTime;
+
+    /**
+     * registers a pass for some kinds of nodes.  A kind includes its subclasses,
+     * so registering for Member gives the pass both fields and methods.  A pass
+     * that is registered again is added to the kinds it was already registered
+     * for, but is still visited only once with each node.
+     *
+     * @param pass the visitor to run on the nodes of the kinds
+     * @param kinds the classes of the nodes the pass is visited with
+     */
+    @SafeVarargs
+    public final void register(Visitor pass, Class<? extends ASTNode>... kinds) {
+        Pass registered = null;
+        for (Pass existing : passList) {
+            if (existing.visitor == pass) {
+                registered = existing;
+            }
+        }
+        if (registered == null) {
+            registered = new Pass(pass);
+            passList.add(registered);
+        }
+        for (Map.Entry<Class<? extends ASTNode>, Integer> level : LEVELS.entrySet()) {
+            Class<? extends ASTNode> nodeClass = level.getKey();
+            for (Class<? extends ASTNode> kind : kinds) {
+                if (kind.isAssignableFrom(nodeClass)) {
+                    registered.kinds.add(nodeClass);
+                    deepestLevel = Math.max(deepestLevel, level.getValue());
+                }
+            }
+        }
+        // rebuild the arrays of passes, keeping the order of registration
+        passes.clear();
+        for (Class<? extends ASTNode> nodeClass : LEVELS.keySet()) {
+            List<Pass> nodePasses = new ArrayList<>();
+            for (Pass aPass : passList) {
+                if (aPass.kinds.contains(nodeClass)) {
+                    nodePasses.add(aPass);
+                }
+            }
+            if (!nodePasses.isEmpty()) {
+                passes.put(nodeClass, nodePasses.toArray(new Pass[0]));
+            }
+        }
+    }
+
+    /**
+     * runs the registered passes in one traversal of a tree
+     *
+     * @param root the root of the tree, usually a Program node
+     */
+    public void run(ASTNode root) {
+        long start = System.nanoTime();
+        root.accept(this);
+        totalTime += System.nanoTime() - start;
+        numTraversals++;
+    }
+
+    /**
+     * @param pass a registered pass
+     * @return the time spent in the pass during the traversals so far, in
+     *         nanoseconds, or 0 if it is not registered
+     */
+    public long getTime(Visitor pass) {
+        for (Pass registered : passList) {
+            if (registered.visitor == pass) {
+                return registered.time;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the time spent in each pass during the traversals so far, in
+     *         nanoseconds, in the order the passes were registered
+     */
+    public Map<Visitor, Long> getTimes() {
+        Map<Visitor, Long> times = new LinkedHashMap<>();
+        for (Pass registered : passList) {
+            times.put(registered.visitor, registered.time);
+        }
+        return Collections.unmodifiableMap(times);
+    }
+
+    /**
+     * @return the time taken by the traversals so far, including the passes, in
+     *         nanoseconds
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * @return the number of nodes entered by the traversals so far, whether or
+     *         not a pass was registered for them
+     */
+    public long getNumNodesVisited() {
+        return numNodesVisited;
+    }
+
+    /**
+     * @return the number of traversals run so far
+     */
+    public int getNumTraversals() {
+        return numTraversals;
+    }
+
+    /**
+     * counts a node and gives it to the passes registered for its kind
+     *
+     * @param node the node being visited
+     */
+    private void enter(ASTNode node) {
+        numNodesVisited++;
+        Pass[] nodePasses = passes.get(node.getClass());
+        if (nodePasses != null) {
+            for (Pass pass : nodePasses) {
+                long start = System.nanoTime();
+                node.accept(pass.visitor);
+                pass.time += System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * Visit a program node
+     *
+     * @param node the program node
+     * @return null
+     */
+    @Override
+    public Object visit(Program node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a list node of classes
+     *
+     * @param node the class list node
+     * @return null
+     */
+    @Override
+    public Object visit(ClassList node) {
+        enter(node);
+        if (deepestLevel >= CLASS) {
+            super.visit(node);
+        }
+        return null;
+    }
+
+    /**
+     * Visit a class node
+     *
+     * @param node the class node
+     * @return null
+     */
+    @Override
+    public Object visit(Class_ node) {
+        enter(node);
+        if (deepestLevel >= MEMBER) {
+            super.visit(node);
+        }
+        return null;
+    }
+
+    /**
+     * Visit a list node of members
+     *
+     * @param node the member list node
+     * @return null
+     */
+    @Override
+    public Object visit(MemberList node) {
+        enter(node);
+        if (deepestLevel >= MEMBER) {
+            super.visit(node);
+        }
+        return null;
+    }
+
+    /**
+     * Visit a field node
+     *
+     * @param node the field node
+     * @return null
+     */
+    @Override
+    public Object visit(Field node) {
+        enter(node);
+        if (deepestLevel >= BODY) {
+            super.visit(node);
+        }
+        return null;
+    }
+
+    /**
+     * Visit a method node
+     *
+     * @param node the method node
+     * @return null
+     */
+    @Override
+    public Object visit(Method node) {
+        enter(node);
+        if (deepestLevel >= BODY) {
+            super.visit(node);
+        }
+        return null;
+    }
+
+    /**
+     * Visit a list node of formals
+     *
+     * @param node the formal list node
+     * @return null
+     */
+    @Override
+    public Object visit(FormalList node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a formal node
+     *
+     * @param node the formal node
+     * @return null
+     */
+    @Override
+    public Object visit(Formal node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a list node of statements
+     *
+     * @param node the statement list node
+     * @return null
+     */
+    @Override
+    public Object visit(StmtList node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a declaration statement node
+     *
+     * @param node the declaration statement node
+     * @return null
+     */
+    @Override
+    public Object visit(DeclStmt node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit an expression statement node
+     *
+     * @param node the expression statement node
+     * @return null
+     */
+    @Override
+    public Object visit(ExprStmt node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit an if statement node
+     *
+     * @param node the if statement node
+     * @return null
+     */
+    @Override
+    public Object visit(IfStmt node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a while statement node
+     *
+     * @param node the while statement node
+     * @return null
+     */
+    @Override
+    public Object visit(WhileStmt node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a for statement node
+     *
+     * @param node the for statement node
+     * @return null
+     */
+    @Override
+    public Object visit(ForStmt node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a break statement node
+     *
+     * @param node the break statement node
+     * @return null
+     */
+    @Override
+    public Object visit(BreakStmt node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a block statement node
+     *
+     * @param node the block statement node
+     * @return null
+     */
+    @Override
+    public Object visit(BlockStmt node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a return statement node
+     *
+     * @param node the return statement node
+     * @return null
+     */
+    @Override
+    public Object visit(ReturnStmt node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a list node of expressions
+     *
+     * @param node the expression list node
+     * @return null
+     */
+    @Override
+    public Object visit(ExprList node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a dispatch expression node
+     *
+     * @param node the dispatch expression node
+     * @return null
+     */
+    @Override
+    public Object visit(DispatchExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a new expression node
+     *
+     * @param node the new expression node
+     * @return null
+     */
+    @Override
+    public Object visit(NewExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit an instanceof expression node
+     *
+     * @param node the instanceof expression node
+     * @return null
+     */
+    @Override
+    public Object visit(InstanceofExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a cast expression node
+     *
+     * @param node the cast expression node
+     * @return null
+     */
+    @Override
+    public Object visit(CastExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit an assignment expression node
+     *
+     * @param node the assignment expression node
+     * @return null
+     */
+    @Override
+    public Object visit(AssignExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison equals expression node
+     *
+     * @param node the binary comparison equals expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryCompEqExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison not equals expression node
+     *
+     * @param node the binary comparison not equals expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryCompNeExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison less than expression node
+     *
+     * @param node the binary comparison less than expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryCompLtExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison less than or equal to expression node
+     *
+     * @param node the binary comparison less than or equal to expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryCompLeqExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison greater than expression node
+     *
+     * @param node the binary comparison greater than expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryCompGtExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison greater than or equal to expression node
+     *
+     * @param node the binary comparison greater to or equal to expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryCompGeqExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic plus expression node
+     *
+     * @param node the binary arithmetic plus expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryArithPlusExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic minus expression node
+     *
+     * @param node the binary arithmetic minus expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryArithMinusExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic times expression node
+     *
+     * @param node the binary arithmetic times expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryArithTimesExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic divide expression node
+     *
+     * @param node the binary arithmetic divide expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryArithDivideExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic modulus expression node
+     *
+     * @param node the binary arithmetic modulus expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryArithModulusExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary logical AND expression node
+     *
+     * @param node the binary logical AND expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryLogicAndExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a binary logical OR expression node
+     *
+     * @param node the binary logical OR expression node
+     * @return null
+     */
+    @Override
+    public Object visit(BinaryLogicOrExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a unary negation expression node
+     *
+     * @param node the unary negation expression node
+     * @return null
+     */
+    @Override
+    public Object visit(UnaryNegExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a unary NOT expression node
+     *
+     * @param node the unary NOT expression node
+     * @return null
+     */
+    @Override
+    public Object visit(UnaryNotExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a unary increment expression node
+     *
+     * @param node the unary increment expression node
+     * @return null
+     */
+    @Override
+    public Object visit(UnaryIncrExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a unary decrement expression node
+     *
+     * @param node the unary decrement expression node
+     * @return null
+     */
+    @Override
+    public Object visit(UnaryDecrExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a variable expression node
+     *
+     * @param node the variable expression node
+     * @return null
+     */
+    @Override
+    public Object visit(VarExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit an int constant expression node
+     *
+     * @param node the int constant expression node
+     * @return null
+     */
+    @Override
+    public Object visit(ConstIntExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a boolean constant expression node
+     *
+     * @param node the boolean constant expression node
+     * @return null
+     */
+    @Override
+    public Object visit(ConstBooleanExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * Visit a string constant expression node
+     *
+     * @param node the string constant expression node
+     * @return null
+     */
+    @Override
+    public Object visit(ConstStringExpr node) {
+        enter(node);
+        super.visit(node);
+        return null;
+    }
+
+    /**
+     * A registered pass and the time spent in it
+     */
+    private static class Pass
+    {
+        /** the visitor of the pass */
+        private final Visitor visitor;
+        /** the classes of the nodes the pass is registered for */
+        private final Set<Class<? extends ASTNode>> kinds = new HashSet<>();
+        /** the time spent in the pass, in nanoseconds */
+        private long time;
+
+        /**
+         * @param visitor the visitor of the pass
+         */
+        private Pass(Visitor visitor) {
+            this.visitor = visitor;
+        }
+    }
+}
@@ -36,6 +36,16 @@ public class MainMethodFinder extends Visitor {
         return hasMainMethodinMainClass;
     }
 
+    /**
+     * Returns whether a main method was found in the nodes visited so far, for
+     * when the finder is run as a pass of a FusedVisitor instead of by hasMain
+     *
+     * @return whether a Main class with a valid main method has been visited
+     */
+    public boolean foundMain() {
+        return hasMainMethodinMainClass;
+    }
+
     /**
      * Checks if class node is main, only visits if class is "main"
      *
@@ -0,0 +1,604 @@
+/*
+ * File: SwitchVisitor.java
+ * Date: October 2026
+ */
+
+package proj10LoverudeTymkiwCorrell.bantam.visitor;
+
+import proj10LoverudeTymkiwCorrell.bantam.ast.*;
+
+/**
+ * A visitor that visits the children of a node through dispatch instead of
+ * through their accept methods.  It can find the visit method for a node in
+ * either of two ways, chosen when it is created.  By default dispatch calls
+ * accept, which calls the visit method, as any Visitor does.  With switch
+ * dispatch, dispatch instead switches on the node's kind() and calls the visit
+ * method itself.  The call to accept is made from one place for nodes of about
+ * fifty classes, so the JIT compiler cannot inline it.  The switch is a jump
+ * table, and each of its calls to a visit method is made for nodes of only one
+ * class.
+ *
+ * The switch and the traversals below were generated from Visitor, from which
+ * they differ only in using dispatch.  A subclass should also use dispatch to
+ * visit the children of the nodes it visits itself, as TypeCheckerVisitor and
+ * TranspilerVisitor do.  The results are the same with either way of
+ * dispatching (see the driver DispatchBenchmark for a comparison of their
+ * speeds).
+ */
+public abstract class SwitchVisitor extends Visitor
+{
+    /** whether dispatch switches on the kind of the node instead of calling accept */
+    private final boolean switchDispatch;
+
+    /**
+     * creates a visitor whose dispatch calls accept
+     */
+    protected SwitchVisitor() {
+        this(false);
+    }
+
+    /**
+     * @param switchDispatch whether dispatch switches on the kind of the node
+     *                       instead of calling accept
+     */
+    protected SwitchVisitor(boolean switchDispatch) {
+        this.switchDispatch = switchDispatch;
+    }
+
+    /**
+     * @return whether dispatch switches on the kind of the node instead of
+     *         calling accept
+     */
+    public boolean isSwitchDispatch() {
+        return switchDispatch;
+    }
+
+    /**
+     * Visit a node with the visit method for its class
+     *
+     * @param node the node
+     * @return result of the visit
+     */
+    public final Object dispatch(ASTNode node) {
+        if (!switchDispatch) {
+            return node.accept(this);
+        }
+        switch (node.kind()) {
+            case NodeKind.PROGRAM:
+                return visit((Program) node);
+            case NodeKind.CLASS_LIST:
+                return visit((ClassList) node);
+            case NodeKind.CLASS:
+                return visit((Class_) node);
+            case NodeKind.MEMBER_LIST:
+                return visit((MemberList) node);
+            case NodeKind.FIELD:
+                return visit((Field) node);
+            case NodeKind.METHOD:
+                return visit((Method) node);
+            case NodeKind.FORMAL_LIST:
+                return visit((FormalList) node);
+            case NodeKind.FORMAL:
+                return visit((Formal) node);
+            case NodeKind.STMT_LIST:
+                return visit((StmtList) node);
+            case NodeKind.DECL_STMT:
+                return visit((DeclStmt) node);
+            case NodeKind.EXPR_STMT:
+                return visit((ExprStmt) node);
+            case NodeKind.IF_STMT:
+                return visit((IfStmt) node);
+            case NodeKind.WHILE_STMT:
+                return visit((WhileStmt) node);
+            case NodeKind.FOR_STMT:
+                return visit((ForStmt) node);
+            case NodeKind.BREAK_STMT:
+                return visit((BreakStmt) node);
+            case NodeKind.BLOCK_STMT:
+                return visit((BlockStmt) node);
+            case NodeKind.RETURN_STMT:
+                return visit((ReturnStmt) node);
+            case NodeKind.EXPR_LIST:
+                return visit((ExprList) node);
+            case NodeKind.DISPATCH_EXPR:
+                return visit((DispatchExpr) node);
+            case NodeKind.NEW_EXPR:
+                return visit((NewExpr) node);
+            case NodeKind.INSTANCEOF_EXPR:
+                return visit((InstanceofExpr) node);
+            case NodeKind.CAST_EXPR:
+                return visit((CastExpr) node);
+            case NodeKind.ASSIGN_EXPR:
+                return visit((AssignExpr) node);
+            case NodeKind.BINARY_COMP_EQ_EXPR:
+                return visit((BinaryCompEqExpr) node);
+            case NodeKind.BINARY_COMP_NE_EXPR:
+                return visit((BinaryCompNeExpr) node);
+            case NodeKind.BINARY_COMP_LT_EXPR:
+                return visit((BinaryCompLtExpr) node);
+            case NodeKind.BINARY_COMP_LEQ_EXPR:
+                return visit((BinaryCompLeqExpr) node);
+            case NodeKind.BINARY_COMP_GT_EXPR:
+                return visit((BinaryCompGtExpr) node);
+            case NodeKind.BINARY_COMP_GEQ_EXPR:
+                return visit((BinaryCompGeqExpr) node);
+            case NodeKind.BINARY_ARITH_PLUS_EXPR:
+                return visit((BinaryArithPlusExpr) node);
+            case NodeKind.BINARY_ARITH_MINUS_EXPR:
+                return visit((BinaryArithMinusExpr) node);
+            case NodeKind.BINARY_ARITH_TIMES_EXPR:
+                return visit((BinaryArithTimesExpr) node);
+            case NodeKind.BINARY_ARITH_DIVIDE_EXPR:
+                return visit((BinaryArithDivideExpr) node);
+            case NodeKind.BINARY_ARITH_MODULUS_EXPR:
+                return visit((BinaryArithModulusExpr) node);
+            case NodeKind.BINARY_LOGIC_AND_EXPR:
+                return visit((BinaryLogicAndExpr) node);
+            case NodeKind.BINARY_LOGIC_OR_EXPR:
+                return visit((BinaryLogicOrExpr) node);
+            case NodeKind.UNARY_NEG_EXPR:
+                return visit((UnaryNegExpr) node);
+            case NodeKind.UNARY_NOT_EXPR:
+                return visit((UnaryNotExpr) node);
+            case NodeKind.UNARY_INCR_EXPR:
+                return visit((UnaryIncrExpr) node);
+            case NodeKind.UNARY_DECR_EXPR:
+                return visit((UnaryDecrExpr) node);
+            case NodeKind.VAR_EXPR:
+                return visit((VarExpr) node);
+            case NodeKind.CONST_INT_EXPR:
+                return visit((ConstIntExpr) node);
+            case NodeKind.CONST_BOOLEAN_EXPR:
+                return visit((ConstBooleanExpr) node);
+            case NodeKind.CONST_STRING_EXPR:
+                return visit((ConstStringExpr) node);
+            default:
+                throw new IllegalArgumentException("Unknown kind of node " + node.kind());
+        }
+    }
+
+    /**
+     * Visit every element of a list node in order, through dispatch
+     *
+     * @param node the list node
+     */
+    @Override
+    protected void visitElements(ListNode node) {
+        for (int i = 0, size = node.getSize(); i < size; i++) {
+            dispatch(node.get(i));
+        }
+    }
+
+    /**
+     * Visit a program node
+     *
+     * @param node the program node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(Program node) {
+        dispatch(node.getClassList());
+        return null;
+    }
+
+    /**
+     * Visit a class node
+     *
+     * @param node the class node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(Class_ node) {
+        dispatch(node.getMemberList());
+        return null;
+    }
+
+    /**
+     * Visit a field node
+     *
+     * @param node the field node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(Field node) {
+        if (node.getInit() != null) {
+            dispatch(node.getInit());
+        }
+        return null;
+    }
+
+    /**
+     * Visit a method node
+     *
+     * @param node the method node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(Method node) {
+        dispatch(node.getFormalList());
+        dispatch(node.getStmtList());
+        return null;
+    }
+
+    /**
+     * Visit a declaration statement node
+     *
+     * @param node the declaration statement node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(DeclStmt node) {
+        dispatch(node.getInit());
+        return null;
+    }
+
+    /**
+     * Visit an expression statement node
+     *
+     * @param node the expression statement node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(ExprStmt node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit an if statement node
+     *
+     * @param node the if statement node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(IfStmt node) {
+        dispatch(node.getPredExpr());
+        dispatch(node.getThenStmt());
+        if (node.getElseStmt() != null) {
+            dispatch(node.getElseStmt());
+        }
+        return null;
+    }
+
+    /**
+     * Visit a while statement node
+     *
+     * @param node the while statement node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(WhileStmt node) {
+        dispatch(node.getPredExpr());
+        dispatch(node.getBodyStmt());
+        return null;
+    }
+
+    /**
+     * Visit a for statement node
+     *
+     * @param node the for statement node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(ForStmt node) {
+        if (node.getInitExpr() != null) {
+            dispatch(node.getInitExpr());
+        }
+        if (node.getPredExpr() != null) {
+            dispatch(node.getPredExpr());
+        }
+        if (node.getUpdateExpr() != null) {
+            dispatch(node.getUpdateExpr());
+        }
+        dispatch(node.getBodyStmt());
+        return null;
+    }
+
+    /**
+     * Visit a block statement node
+     *
+     * @param node the block statement node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BlockStmt node) {
+        dispatch(node.getStmtList());
+        return null;
+    }
+
+    /**
+     * Visit a return statement node
+     *
+     * @param node the return statement node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(ReturnStmt node) {
+        if (node.getExpr() != null) {
+            dispatch(node.getExpr());
+        }
+        return null;
+    }
+
+    /**
+     * Visit a dispatch expression node
+     *
+     * @param node the dispatch expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(DispatchExpr node) {
+        if (node.getRefExpr() != null) {
+            dispatch(node.getRefExpr());
+        }
+        dispatch(node.getActualList());
+        return null;
+    }
+
+    /**
+     * Visit an instanceof expression node
+     *
+     * @param node the instanceof expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(InstanceofExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a cast expression node
+     *
+     * @param node the cast expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(CastExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit an assignment expression node
+     *
+     * @param node the assignment expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(AssignExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison equals expression node
+     *
+     * @param node the binary comparison equals expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryCompEqExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison not equals expression node
+     *
+     * @param node the binary comparison not equals expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryCompNeExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison less than expression node
+     *
+     * @param node the binary comparison less than expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryCompLtExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison less than or equal to expression node
+     *
+     * @param node the binary comparison less than or equal to expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryCompLeqExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison greater than expression node
+     *
+     * @param node the binary comparison greater than expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryCompGtExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary comparison greater than or equal to expression node
+     *
+     * @param node the binary comparison greater to or equal to expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryCompGeqExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic plus expression node
+     *
+     * @param node the binary arithmetic plus expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryArithPlusExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic minus expression node
+     *
+     * @param node the binary arithmetic minus expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryArithMinusExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic times expression node
+     *
+     * @param node the binary arithmetic times expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryArithTimesExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic divide expression node
+     *
+     * @param node the binary arithmetic divide expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryArithDivideExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary arithmetic modulus expression node
+     *
+     * @param node the binary arithmetic modulus expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryArithModulusExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary logical AND expression node
+     *
+     * @param node the binary logical AND expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryLogicAndExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a binary logical OR expression node
+     *
+     * @param node the binary logical OR expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(BinaryLogicOrExpr node) {
+        dispatch(node.getLeftExpr());
+        dispatch(node.getRightExpr());
+        return null;
+    }
+
+    /**
+     * Visit a unary negation expression node
+     *
+     * @param node the unary negation expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(UnaryNegExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a unary NOT expression node
+     *
+     * @param node the unary NOT expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(UnaryNotExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a unary increment expression node
+     *
+     * @param node the unary increment expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(UnaryIncrExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a unary decrement expression node
+     *
+     * @param node the unary decrement expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(UnaryDecrExpr node) {
+        dispatch(node.getExpr());
+        return null;
+    }
+
+    /**
+     * Visit a variable expression node
+     *
+     * @param node the variable expression node
+     * @return result of the visit
+     */
+    @Override
+    public Object visit(VarExpr node) {
+        if (node.getRef() != null) {
+            dispatch(node.getRef());
+        }
+        return null;
+    }
+}
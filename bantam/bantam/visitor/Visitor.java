@@ -28,8 +28,6 @@ package proj10LoverudeTymkiwCorrell.bantam.visitor;
 
 import proj10LoverudeTymkiwCorrell.bantam.ast.*;
 
-import java.util.Iterator;
-
 /**
  * Abstract visitor class for traversing the AST
  */
@@ -54,6 +52,19 @@ public abstract class Visitor {
         throw new RuntimeException("This visitor method should not be called (node is abstract)");
     }
 
+    /**
+     * Visit every element of a list node in order.  The elements are reached by
+     * index, so no iterator is created; subclasses should use this, or getSize()
+     * and get(int), to traverse lists.
+     *
+     * @param node the list node
+     */
+    protected void visitElements(ListNode node) {
+        for (int i = 0, size = node.getSize(); i < size; i++) {
+            node.get(i).accept(this);
+        }
+    }
+
     /**
      * Visit a program node
      *
@@ -72,8 +83,7 @@ public abstract class Visitor {
      * @return result of the visit
      */
     public Object visit(ClassList node) {
-        for (ASTNode aNode : node)
-            aNode.accept(this);
+        visitElements(node);
         return null;
     }
 
@@ -95,8 +105,7 @@ public abstract class Visitor {
      * @return result of the visit
      */
     public Object visit(MemberList node) {
-        for (ASTNode child : node)
-            child.accept(this);
+        visitElements(node);
         return null;
     }
 
@@ -142,8 +151,7 @@ public abstract class Visitor {
      * @return result of the visit
      */
     public Object visit(FormalList node) {
-        for (Iterator it = node.iterator(); it.hasNext(); )
-            ((Formal) it.next()).accept(this);
+        visitElements(node);
         return null;
     }
 
@@ -164,8 +172,7 @@ public abstract class Visitor {
      * @return result of the visit
      */
     public Object visit(StmtList node) {
-        for (Iterator it = node.iterator(); it.hasNext(); )
-            ((Stmt) it.next()).accept(this);
+        visitElements(node);
         return null;
     }
 
@@ -289,8 +296,7 @@ public abstract class Visitor {
      * @return result of the visit
      */
     public Object visit(ExprList node) {
-        for (Iterator it = node.iterator(); it.hasNext(); )
-            ((Expr) it.next()).accept(this);
+        visitElements(node);
         return null;
     }
 